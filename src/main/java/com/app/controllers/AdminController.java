@@ -4,6 +4,17 @@ import com.app.models.Admin;
 import com.app.repositories.AdminRepository;
 import com.app.security.PasswordUtil;
 import com.app.services.AdminDashboardService;
+import com.app.services.AiCatalogValidationService;
+import com.app.services.AiPrecomputeService;
+import com.app.services.AiResponseCacheService;
+import com.app.services.AiValidationJobService;
+import com.app.services.CatalogSnapshotService;
+import com.app.services.CourseAliasService;
+import com.app.services.DescriptionSchemaRegistry;
+import com.app.services.HuggingFaceApiService;
+import com.app.services.HuggingFaceStubServer;
+import com.app.services.LocalRankingService;
+import com.app.services.RecommendationMatrixService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +34,40 @@ public class AdminController {
     @Autowired
     private AdminDashboardService dashboardService;
 
+    @Autowired
+    private RecommendationMatrixService recommendationMatrixService;
+
+    @Autowired
+    private DescriptionSchemaRegistry schemaRegistry;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private CourseAliasService courseAliasService;
+    
+    @Autowired
+    private LocalRankingService localRankingService;
+    
+    @Autowired
+    private AiResponseCacheService aiResponseCacheService;
+    
+    @Autowired
+    private AiPrecomputeService aiPrecomputeService;
+    
+    @Autowired
+    private HuggingFaceApiService huggingFaceApiService;
+    
+    @Autowired
+    private AiValidationJobService aiValidationJobService;
+    
+    @Autowired
+    private AiCatalogValidationService aiCatalogValidationService;
+    
+    // Only present when huggingface.stub.enabled=true
+    @Autowired(required = false)
+    private HuggingFaceStubServer huggingFaceStubServer;
+
     /**
      * Admin login endpoint
      */
@@ -237,5 +282,322 @@ public class AdminController {
             return ResponseEntity.status(500).body(response);
         }
     }
+    
+    /**
+     * Get recommendation matrix status
+     */
+    @GetMapping("/recommendation-matrix")
+    public ResponseEntity<Map<String, Object>> getRecommendationMatrixStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", recommendationMatrixService.getStats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Rebuild the recommendation matrix after editing mbti_riasec_matching
+     */
+    @PostMapping("/recommendation-matrix/reload")
+    public ResponseEntity<Map<String, Object>> reloadRecommendationMatrix() {
+        Map<String, Object> response = new HashMap<>();
+        
+        Map<String, Object> summary = recommendationMatrixService.reload();
+        boolean loaded = Boolean.TRUE.equals(summary.get("loaded"));
+        
+        response.put("success", loaded);
+        response.put("data", summary);
+        if (!loaded) {
+            response.put("message", "Failed to reload recommendation matrix");
+            return ResponseEntity.status(500).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Get resolved description table layouts
+     */
+    @GetMapping("/schema-registry")
+    public ResponseEntity<Map<String, Object>> getSchemaRegistryStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", schemaRegistry.getStatus());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Re-introspect description tables after a schema migration
+     */
+    @PostMapping("/schema-registry/refresh")
+    public ResponseEntity<Map<String, Object>> refreshSchemaRegistry() {
+        Map<String, Object> response = new HashMap<>();
+        
+        Map<String, Object> summary = schemaRegistry.refresh();
+        boolean loaded = Boolean.TRUE.equals(summary.get("loaded"));
+        
+        response.put("success", loaded);
+        response.put("data", summary);
+        if (!loaded) {
+            response.put("message", "Failed to refresh schema registry");
+            return ResponseEntity.status(500).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Get catalog snapshot status
+     */
+    @GetMapping("/catalog-snapshot")
+    public ResponseEntity<Map<String, Object>> getCatalogSnapshotStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", catalogSnapshotService.getStats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Reload descriptions, development plans and career info into memory
+     */
+    @PostMapping("/catalog-snapshot/reload")
+    public ResponseEntity<Map<String, Object>> reloadCatalogSnapshot() {
+        Map<String, Object> response = new HashMap<>();
+        
+        Map<String, Object> summary = catalogSnapshotService.reload();
+        boolean loaded = Boolean.TRUE.equals(summary.get("loaded"));
+        
+        response.put("success", loaded);
+        response.put("data", summary);
+        if (!loaded) {
+            response.put("message", "Failed to reload catalog snapshot");
+            return ResponseEntity.status(500).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Course alias hit/miss statistics (top misses point at catalog gaps)
+     */
+    @GetMapping("/course-aliases/stats")
+    public ResponseEntity<Map<String, Object>> getCourseAliasStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", courseAliasService.getStats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Local ranking engine: index size and whether requests are currently ranked locally
+     */
+    @GetMapping("/local-ranking")
+    public ResponseEntity<Map<String, Object>> getLocalRankingStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", localRankingService.getStats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * HuggingFace response cache hit/miss statistics
+     */
+    @GetMapping("/ai-cache")
+    public ResponseEntity<Map<String, Object>> getAiCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", aiResponseCacheService.getStats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Drop every cached HuggingFace response (memory and database)
+     */
+    @PostMapping("/ai-cache/clear")
+    public ResponseEntity<Map<String, Object>> clearAiCache() {
+        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> summary = aiResponseCacheService.clear();
+        boolean cleared = !summary.containsKey("error");
+        response.put("success", cleared);
+        response.put("data", summary);
+        if (!cleared) {
+            response.put("message", "Failed to clear AI response cache");
+            return ResponseEntity.status(500).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Per-model HuggingFace concurrency (active, queued, rejected calls)
+     */
+    @GetMapping("/ai-bulkheads")
+    public ResponseEntity<Map<String, Object>> getAiBulkheadStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", huggingFaceApiService.getBulkheadStats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * HuggingFace quota governor (tokens left, background reserve, calls waiting per lane)
+     */
+    @GetMapping("/ai-quota")
+    public ResponseEntity<Map<String, Object>> getAiQuotaStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", huggingFaceApiService.getQuotaStats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Identical HuggingFace prompts served by a single in-flight call
+     */
+    @GetMapping("/ai-coalescing")
+    public ResponseEntity<Map<String, Object>> getAiCoalescingStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", huggingFaceApiService.getCoalescingStats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * AI validation job queue: worker usage and job counts by status
+     */
+    @GetMapping("/ai-validation-jobs")
+    public ResponseEntity<Map<String, Object>> getAiValidationJobStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", aiValidationJobService.getStats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Settings and response counts of the local HuggingFace stand-in
+     */
+    @GetMapping("/hf-stub")
+    public ResponseEntity<Map<String, Object>> getHuggingFaceStubStats() {
+        Map<String, Object> response = new HashMap<>();
+        if (huggingFaceStubServer == null) {
+            response.put("success", false);
+            response.put("message", "HuggingFace stand-in is not enabled (huggingface.stub.enabled=false)");
+            return ResponseEntity.status(404).body(response);
+        }
+        response.put("success", true);
+        response.put("data", huggingFaceStubServer.getStats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Change the stand-in's latency distribution and fault rates at runtime
+     */
+    @PostMapping("/hf-stub")
+    public ResponseEntity<Map<String, Object>> updateHuggingFaceStub(@RequestBody Map<String, Object> changes) {
+        Map<String, Object> response = new HashMap<>();
+        if (huggingFaceStubServer == null) {
+            response.put("success", false);
+            response.put("message", "HuggingFace stand-in is not enabled (huggingface.stub.enabled=false)");
+            return ResponseEntity.status(404).body(response);
+        }
+        try {
+            response.put("success", true);
+            response.put("data", huggingFaceStubServer.update(changes));
+            return ResponseEntity.ok(response);
+        } catch (NumberFormatException e) {
+            response.put("success", false);
+            response.put("message", "Invalid setting value: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    /**
+     * Progress of the offline AI precompute job
+     */
+    @GetMapping("/ai-precompute")
+    public ResponseEntity<Map<String, Object>> getAiPrecomputeStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", aiPrecomputeService.getStatus());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Start (or resume) precomputing AI rankings and comparisons for every combination
+     */
+    @PostMapping("/ai-precompute/start")
+    public ResponseEntity<Map<String, Object>> startAiPrecompute(@RequestParam(defaultValue = "false") boolean force) {
+        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> summary = aiPrecomputeService.start(force);
+        boolean started = Boolean.TRUE.equals(summary.get("started"));
+        response.put("success", started);
+        response.put("data", summary);
+        if (!started) {
+            response.put("message", summary.get("message"));
+            return ResponseEntity.status(409).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Stop the running precompute job after its current task
+     */
+    @PostMapping("/ai-precompute/stop")
+    public ResponseEntity<Map<String, Object>> stopAiPrecompute() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", aiPrecomputeService.stop());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Progress and checkpoints of the catalog-wide AI validation sweep
+     */
+    @GetMapping("/ai-catalog-validation")
+    public ResponseEntity<Map<String, Object>> getAiCatalogValidationStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", aiCatalogValidationService.getStatus());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Start a new catalog validation sweep, or with resume=true continue the last one from its checkpoints
+     */
+    @PostMapping("/ai-catalog-validation/start")
+    public ResponseEntity<Map<String, Object>> startAiCatalogValidation(@RequestParam(defaultValue = "false") boolean force,
+                                                                        @RequestParam(defaultValue = "false") boolean resume) {
+        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> summary = resume ? aiCatalogValidationService.resume() : aiCatalogValidationService.start(force);
+        boolean started = Boolean.TRUE.equals(summary.get("started"));
+        response.put("success", started);
+        response.put("data", summary);
+        if (!started) {
+            response.put("message", summary.get("message"));
+            return ResponseEntity.status(409).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Stop the running catalog validation sweep after its current page
+     */
+    @PostMapping("/ai-catalog-validation/stop")
+    public ResponseEntity<Map<String, Object>> stopAiCatalogValidation() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", aiCatalogValidationService.stop());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Catalog entries the sweep judged invalid
+     */
+    @GetMapping("/ai-catalog-validation/invalid")
+    public ResponseEntity<Map<String, Object>> getInvalidCatalogEntries() {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("success", true);
+            response.put("data", aiCatalogValidationService.getInvalidEntries());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Failed to load invalid catalog entries: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
 }
-
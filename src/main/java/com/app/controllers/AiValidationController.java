@@ -1,8 +1,7 @@
 package com.app.controllers;
 
-import com.app.dto.EnhancedTestResultDTO;
 import com.app.services.AiContentValidationService;
-import com.app.services.TestResultService;
+import com.app.services.AiValidationJobService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +13,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/ai-validation")
@@ -26,47 +26,31 @@ public class AiValidationController {
     private AiContentValidationService validationService;
     
     @Autowired
-    private TestResultService testResultService;
+    private AiValidationJobService validationJobService;
     
     @Autowired
     private com.app.services.ModelTestingService modelTestingService;
     
     /**
-     * Validate test result by session ID
+     * Queue AI validation of a test result; returns the job (and its report once done).
+     * Repeated requests for a session share its job unless force=true.
      */
     @PostMapping("/validate/session/{sessionId}")
-    public ResponseEntity<Map<String, Object>> validateTestResultBySession(@PathVariable String sessionId) {
+    public ResponseEntity<Map<String, Object>> validateTestResultBySession(@PathVariable String sessionId,
+            @RequestParam(defaultValue = "false") boolean force) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            logger.info("🤖 Starting AI validation for session: {}", sessionId);
-            
             UUID sessionUUID = UUID.fromString(sessionId);
             
-            // Get enhanced test result
-            Optional<EnhancedTestResultDTO> enhancedResultOpt = 
-                testResultService.getEnhancedResultBySessionId(sessionUUID);
-            
-            if (!enhancedResultOpt.isPresent()) {
+            Optional<Map<String, Object>> job = validationJobService.enqueue(sessionUUID, force);
+            if (!job.isPresent()) {
                 response.put("status", "NOT_FOUND");
                 response.put("message", "Test result not found for session ID: " + sessionId);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
             }
             
-            EnhancedTestResultDTO enhancedResult = enhancedResultOpt.get();
-            
-                            // Perform AI validation
-            AiContentValidationService.ValidationReport validationReport = 
-                validationService.validateTestResult(enhancedResult);
-            
-            response.put("status", "SUCCESS");
-            response.put("validationReport", validationReport);
-            response.put("sessionId", sessionId);
-            
-            logger.info("✅ AI validation completed for session: {}. Score: {}", 
-                sessionId, validationReport.getValidationScore());
-            
-            return ResponseEntity.ok(response);
+            return jobResponse(job.get(), sessionId);
             
         } catch (IllegalArgumentException e) {
             logger.error("❌ Invalid session ID format: {}", sessionId);
@@ -75,7 +59,7 @@ public class AiValidationController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             
         } catch (Exception e) {
-            logger.error("❌ Error during AI validation for session {}: {}", sessionId, e.getMessage(), e);
+            logger.error("❌ Error queueing AI validation for session {}: {}", sessionId, e.getMessage(), e);
             response.put("status", "ERROR");
             response.put("message", "Validation failed: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
@@ -83,96 +67,136 @@ public class AiValidationController {
     }
     
     /**
-     * Validate course recommendations
+     * Latest validation job for a session
      */
-    @PostMapping("/validate/courses")
-    public ResponseEntity<Map<String, Object>> validateCourseRecommendations(
-            @RequestBody CourseValidationRequest request) {
+    @GetMapping("/validate/session/{sessionId}")
+    public ResponseEntity<Map<String, Object>> getValidationBySession(@PathVariable String sessionId) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            logger.info("🔍 Validating course recommendations: {}", request.getCoursePath());
-            
-            AiContentValidationService.ValidationResult result = 
-                validationService.validateCourseRecommendations(request.getCoursePath());
+            Optional<Map<String, Object>> job = validationJobService.findLatestForSession(UUID.fromString(sessionId));
+            if (!job.isPresent()) {
+                response.put("status", "NOT_FOUND");
+                response.put("message", "No validation requested for session ID: " + sessionId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+            return jobResponse(job.get(), sessionId);
             
+        } catch (IllegalArgumentException e) {
+            response.put("status", "BAD_REQUEST");
+            response.put("message", "Invalid session ID format");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+    
+    /**
+     * Validation job status and, when done, its report
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getValidationJob(@PathVariable long jobId) {
+        Optional<Map<String, Object>> job = validationJobService.findJob(jobId);
+        if (!job.isPresent()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "NOT_FOUND");
+            response.put("message", "Validation job not found: " + jobId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        return jobResponse(job.get(), String.valueOf(job.get().get("sessionId")));
+    }
+    
+    /**
+     * SUCCESS with the report for finished jobs, 202 ACCEPTED while queued or running
+     */
+    private ResponseEntity<Map<String, Object>> jobResponse(Map<String, Object> job, String sessionId) {
+        Map<String, Object> response = new HashMap<>();
+        String jobStatus = String.valueOf(job.get("status"));
+        response.put("sessionId", sessionId);
+        response.put("jobId", job.get("jobId"));
+        response.put("jobStatus", jobStatus);
+        response.put("job", job);
+        if (AiValidationJobService.DONE.equals(jobStatus)) {
             response.put("status", "SUCCESS");
-            response.put("valid", result.isValid());
-            response.put("message", result.getMessage());
-            response.put("confidence", result.getConfidence());
-            
+            response.put("validationReport", job.get("validationReport"));
             return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            logger.error("❌ Error validating course recommendations: {}", e.getMessage(), e);
+        }
+        if (AiValidationJobService.FAILED.equals(jobStatus)) {
             response.put("status", "ERROR");
-            response.put("message", "Validation failed: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            response.put("message", "Validation failed: " + job.get("error"));
+            return ResponseEntity.ok(response);
         }
+        response.put("status", "ACCEPTED");
+        response.put("message", "Validation is " + jobStatus.toLowerCase() + "; poll /api/ai-validation/jobs/" + job.get("jobId"));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+    
+    /**
+     * Validate course recommendations
+     */
+    @PostMapping("/validate/courses")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> validateCourseRecommendations(
+            @RequestBody CourseValidationRequest request) {
+        logger.info("🔍 Validating course recommendations: {}", request.getCoursePath());
+        
+        return validationService.validateCourseRecommendationsAsync(request.getCoursePath())
+            .thenApply(this::validationResponse)
+            .exceptionally(e -> {
+                logger.error("❌ Error validating course recommendations: {}", e.getMessage(), e);
+                return errorResponse("Validation failed: " + e.getMessage());
+            });
     }
     
     /**
      * Validate career suggestions
      */
     @PostMapping("/validate/careers")
-    public ResponseEntity<Map<String, Object>> validateCareerSuggestions(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> validateCareerSuggestions(
             @RequestBody CareerValidationRequest request) {
-        Map<String, Object> response = new HashMap<>();
+        logger.info("🔍 Validating career suggestions: {}", request.getCareerSuggestions());
         
-        try {
-            logger.info("🔍 Validating career suggestions: {}", request.getCareerSuggestions());
-            
-            AiContentValidationService.ValidationResult result = 
-                validationService.validateCareerSuggestions(request.getCareerSuggestions());
-            
-            response.put("status", "SUCCESS");
-            response.put("valid", result.isValid());
-            response.put("message", result.getMessage());
-            response.put("confidence", result.getConfidence());
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            logger.error("❌ Error validating career suggestions: {}", e.getMessage(), e);
-            response.put("status", "ERROR");
-            response.put("message", "Validation failed: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+        return validationService.validateCareerSuggestionsAsync(request.getCareerSuggestions())
+            .thenApply(this::validationResponse)
+            .exceptionally(e -> {
+                logger.error("❌ Error validating career suggestions: {}", e.getMessage(), e);
+                return errorResponse("Validation failed: " + e.getMessage());
+            });
     }
     
     /**
      * Validate personality mapping
      */
     @PostMapping("/validate/personality")
-    public ResponseEntity<Map<String, Object>> validatePersonalityMapping(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> validatePersonalityMapping(
             @RequestBody PersonalityValidationRequest request) {
-        Map<String, Object> response = new HashMap<>();
+        logger.info("🔍 Validating personality mapping: MBTI={}, RIASEC={}", 
+            request.getMbtiType(), request.getRiasecCode());
         
-        try {
-            logger.info("🔍 Validating personality mapping: MBTI={}, RIASEC={}", 
-                request.getMbtiType(), request.getRiasecCode());
-            
-            AiContentValidationService.ValidationResult result = 
-                validationService.validatePersonalityMapping(
-                    request.getMbtiType(),
-                    request.getRiasecCode(),
-                    request.getCourseSuggestions(),
-                    request.getCareerSuggestions()
-                );
-            
-            response.put("status", "SUCCESS");
-            response.put("valid", result.isValid());
-            response.put("message", result.getMessage());
-            response.put("confidence", result.getConfidence());
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            logger.error("❌ Error validating personality mapping: {}", e.getMessage(), e);
-            response.put("status", "ERROR");
-            response.put("message", "Validation failed: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+        return validationService.validatePersonalityMappingAsync(
+                request.getMbtiType(),
+                request.getRiasecCode(),
+                request.getCourseSuggestions(),
+                request.getCareerSuggestions()
+            )
+            .thenApply(this::validationResponse)
+            .exceptionally(e -> {
+                logger.error("❌ Error validating personality mapping: {}", e.getMessage(), e);
+                return errorResponse("Validation failed: " + e.getMessage());
+            });
+    }
+    
+    private ResponseEntity<Map<String, Object>> validationResponse(AiContentValidationService.ValidationResult result) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "SUCCESS");
+        response.put("valid", result.isValid());
+        response.put("message", result.getMessage());
+        response.put("confidence", result.getConfidence());
+        return ResponseEntity.ok(response);
+    }
+    
+    private ResponseEntity<Map<String, Object>> errorResponse(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "ERROR");
+        response.put("message", message);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
     
     /**
@@ -207,102 +231,86 @@ public class AiValidationController {
      * Test current model configuration
      */
     @GetMapping("/test/configuration")
-    public ResponseEntity<Map<String, Object>> testCurrentConfiguration() {
-        Map<String, Object> response = new HashMap<>();
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> testCurrentConfiguration() {
+        logger.info("🧪 Testing current AI model configuration");
         
-        try {
-            logger.info("🧪 Testing current AI model configuration");
-            
-            com.app.services.ModelTestingService.ConfigurationTestResult result = 
-                modelTestingService.testCurrentConfiguration();
-            
-            response.put("status", "SUCCESS");
-            response.put("configurationTest", result);
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            logger.error("❌ Error testing configuration: {}", e.getMessage(), e);
-            response.put("status", "ERROR");
-            response.put("message", "Configuration test failed: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+        return modelTestingService.testCurrentConfigurationAsync()
+            .thenApply(result -> {
+                Map<String, Object> response = new HashMap<>();
+                response.put("status", "SUCCESS");
+                response.put("configurationTest", result);
+                return ResponseEntity.ok(response);
+            })
+            .exceptionally(e -> {
+                logger.error("❌ Error testing configuration: {}", e.getMessage(), e);
+                return errorResponse("Configuration test failed: " + e.getMessage());
+            });
     }
     
     /**
      * Compare different models
      */
     @PostMapping("/test/compare-models")
-    public ResponseEntity<Map<String, Object>> compareModels() {
-        Map<String, Object> response = new HashMap<>();
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> compareModels() {
+        logger.info("🧪 Starting model comparison test");
         
-        try {
-            logger.info("🧪 Starting model comparison test");
-            
-            com.app.services.ModelTestingService.ModelComparisonResult result = 
-                modelTestingService.compareModels();
-            
-            response.put("status", "SUCCESS");
-            response.put("comparisonResult", result);
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            logger.error("❌ Error comparing models: {}", e.getMessage(), e);
-            response.put("status", "ERROR");
-            response.put("message", "Model comparison failed: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+        return modelTestingService.compareModelsAsync()
+            .thenApply(result -> {
+                Map<String, Object> response = new HashMap<>();
+                response.put("status", "SUCCESS");
+                response.put("comparisonResult", result);
+                return ResponseEntity.ok(response);
+            })
+            .exceptionally(e -> {
+                logger.error("❌ Error comparing models: {}", e.getMessage(), e);
+                return errorResponse("Model comparison failed: " + e.getMessage());
+            });
     }
     
     /**
      * Simple AI test - validates sample content
      */
     @GetMapping("/test/simple")
-    public ResponseEntity<Map<String, Object>> simpleAiTest() {
-        Map<String, Object> response = new HashMap<>();
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> simpleAiTest() {
+        logger.info("🧪 Running simple AI validation test");
         
-        try {
-            logger.info("🧪 Running simple AI validation test");
-            
-            // Test course validation
-            AiContentValidationService.ValidationResult courseResult = 
-                validationService.validateCourseRecommendations(
-                    "BS Computer Science: A program that teaches students how to use Microsoft Word and Excel"
-                );
-            
-            // Test career validation
-            AiContentValidationService.ValidationResult careerResult = 
-                validationService.validateCareerSuggestions(
-                    "Software Engineer: A person who fixes computers and installs software"
-                );
-            
+        // Test course validation
+        CompletableFuture<AiContentValidationService.ValidationResult> courseResult = 
+            validationService.validateCourseRecommendationsAsync(
+                "BS Computer Science: A program that teaches students how to use Microsoft Word and Excel"
+            );
+        
+        // Test career validation
+        CompletableFuture<AiContentValidationService.ValidationResult> careerResult = 
+            validationService.validateCareerSuggestionsAsync(
+                "Software Engineer: A person who fixes computers and installs software"
+            );
+        
+        return courseResult.thenCombine(careerResult, (course, career) -> {
             Map<String, Object> testResults = new HashMap<>();
             testResults.put("courseValidation", Map.of(
-                "valid", courseResult.isValid(),
-                "message", courseResult.getMessage(),
-                "confidence", courseResult.getConfidence()
+                "valid", course.isValid(),
+                "message", course.getMessage(),
+                "confidence", course.getConfidence()
             ));
             
             testResults.put("careerValidation", Map.of(
-                "valid", careerResult.isValid(),
-                "message", careerResult.getMessage(),
-                "confidence", careerResult.getConfidence()
+                "valid", career.isValid(),
+                "message", career.getMessage(),
+                "confidence", career.getConfidence()
             ));
             
+            Map<String, Object> response = new HashMap<>();
             response.put("status", "SUCCESS");
             response.put("message", "AI validation is working!");
             response.put("testResults", testResults);
             response.put("timestamp", java.time.LocalDateTime.now().toString());
             
             return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
+        }).exceptionally(e -> {
             logger.error("❌ Simple AI test failed: {}", e.getMessage(), e);
-            response.put("status", "ERROR");
-            response.put("message", "AI test failed: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+            return errorResponse("AI test failed: " + e.getMessage());
+        });
     }
     
     /**
@@ -1,10 +1,13 @@
 package com.app.controllers;
 
 import com.app.dto.DetailedScoringDTO;
+import com.app.dto.EnhancedResultSection;
 import com.app.dto.EnhancedTestResultDTO;
+import com.app.models.TestResult;
 import com.app.models.User;
 import com.app.repositories.UserRepository;
 import com.app.services.PdfReportService;
+import com.app.services.ResultETagService;
 import com.app.services.TestResultService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +36,9 @@ public class PdfReportController {
     @Autowired
     private TestResultService testResultService;
     
+    @Autowired
+    private ResultETagService resultETagService;
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -40,15 +46,31 @@ public class PdfReportController {
      * Download PDF report for a specific session
      */
     @GetMapping("/download/{sessionId}")
-    public ResponseEntity<?> downloadPdfReport(@PathVariable String sessionId) {
+    public ResponseEntity<?> downloadPdfReport(
+            @PathVariable String sessionId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
-            logger.info("📄 Generating PDF report for session: {}", sessionId);
-            
             UUID sessionUUID = UUID.fromString(sessionId);
             
+            // The PDF is a pure function of the stored result, its owner and the catalog version
+            Optional<TestResult> entity = testResultService.getTestResultBySessionId(sessionUUID);
+            String etag = null;
+            if (entity.isPresent() && entity.get().getUserId() != null) {
+                Optional<User> owner = userRepository.findById(entity.get().getUserId());
+                if (owner.isPresent()) {
+                    etag = pdfEtag(entity.get(), owner.get());
+                    if (resultETagService.matches(ifNoneMatch, etag)) {
+                        logger.debug("PDF report for session {} not modified", sessionId);
+                        return notModified(etag, entity.get());
+                    }
+                }
+            }
+            
+            logger.info("📄 Generating PDF report for session: {}", sessionId);
+            
             // Get enhanced test result
             Optional<EnhancedTestResultDTO> enhancedResultOpt = 
-                testResultService.getEnhancedResultBySessionId(sessionUUID);
+                testResultService.getEnhancedResultBySessionId(sessionUUID, EnhancedResultSection.PDF);
             
             if (!enhancedResultOpt.isPresent()) {
                 logger.warn("⚠️ No enhanced result found for session: {}", sessionId);
@@ -86,7 +108,7 @@ public class PdfReportController {
             headers.setContentDispositionFormData("attachment", 
                 String.format("personality-test-results-%s-%s.pdf", 
                     enhancedResult.getMbtiType(), enhancedResult.getRiasecCode()));
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+            applyValidators(headers, etag, entity.orElse(null));
             
             logger.info("✅ Successfully generated PDF report for user: {} ({} bytes)", 
                 user.getUsername(), pdfBytes.length);
@@ -113,7 +135,9 @@ public class PdfReportController {
      * Download PDF report for a specific user's latest test result
      */
     @GetMapping("/download/user/{userId}")
-    public ResponseEntity<?> downloadPdfReportForUser(@PathVariable Long userId) {
+    public ResponseEntity<?> downloadPdfReportForUser(
+            @PathVariable Long userId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
             logger.info("📄 Generating PDF report for user ID: {}", userId);
             
@@ -129,6 +153,13 @@ public class PdfReportController {
             
             User user = userOpt.get();
             
+            Optional<TestResult> latestEntity = testResultService.getLatestTestResultForUser(userId);
+            String etag = latestEntity.map(r -> pdfEtag(r, user)).orElse(null);
+            if (latestEntity.isPresent() && resultETagService.matches(ifNoneMatch, etag)) {
+                logger.debug("PDF report for user {} not modified", userId);
+                return notModified(etag, latestEntity.get());
+            }
+            
             // Get latest test result for user
             Optional<TestResultService.TestResultDTO> latestResultOpt = 
                 testResultService.getLatestResultForUser(userId);
@@ -145,7 +176,7 @@ public class PdfReportController {
             
             // Get enhanced test result
             Optional<EnhancedTestResultDTO> enhancedResultOpt = 
-                testResultService.getEnhancedResultBySessionId(latestResult.getSessionId());
+                testResultService.getEnhancedResultBySessionId(latestResult.getSessionId(), EnhancedResultSection.PDF);
             
             if (!enhancedResultOpt.isPresent()) {
                 logger.warn("⚠️ No enhanced result found for user: {}", userId);
@@ -169,7 +200,7 @@ public class PdfReportController {
             headers.setContentDispositionFormData("attachment", 
                 String.format("personality-test-results-%s-%s.pdf", 
                     enhancedResult.getMbtiType(), enhancedResult.getRiasecCode()));
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+            applyValidators(headers, etag, latestEntity.orElse(null));
             
             logger.info("✅ Successfully generated PDF report for user: {} ({} bytes)", 
                 user.getUsername(), pdfBytes.length);
@@ -184,4 +215,24 @@ public class PdfReportController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+    
+    private String pdfEtag(TestResult result, User user) {
+        return resultETagService.catalogEtagFor(result, "pdf", user.getId(), user.getUsername(), user.getEmail());
+    }
+    
+    private void applyValidators(HttpHeaders headers, String etag, TestResult result) {
+        headers.setCacheControl(resultETagService.cacheControl());
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        if (result != null && resultETagService.lastModified(result) >= 0) {
+            headers.setLastModified(resultETagService.lastModified(result));
+        }
+    }
+    
+    private ResponseEntity<?> notModified(String etag, TestResult result) {
+        HttpHeaders headers = new HttpHeaders();
+        applyValidators(headers, etag, result);
+        return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+    }
 }
@@ -1,13 +1,21 @@
 package com.app.controllers;
 
 import com.app.dto.PersonalityTestSubmissionDTO;
+import com.app.dto.EnhancedResultSection;
 import com.app.dto.EnhancedTestResultDTO;
 import com.app.models.TestResult;
+import com.app.services.EnhancedResultSnapshotService;
+import com.app.services.ResultETagService;
 import com.app.services.TestResultService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,7 +23,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @RestController
 @RequestMapping("/api/personality-test")
@@ -26,6 +37,21 @@ public class PersonalityTestController {
 
     @Autowired
     private TestResultService testResultService;
+
+    @Autowired
+    private EnhancedResultSnapshotService resultSnapshotService;
+
+    @Autowired
+    private ResultETagService resultETagService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${enhanced.stream.timeout:180000}")
+    private long streamTimeoutMs;
+
+    // Progressive (SSE) results are assembled off the request thread
+    private final ExecutorService streamExecutor = Executors.newVirtualThreadPerTaskExecutor();
     
     /**
      * Submit personality test for guest users
@@ -141,17 +167,24 @@ public class PersonalityTestController {
      * Get test result by session ID (for both guests and users)
      */
     @GetMapping("/result/session/{sessionId}")
-    public ResponseEntity<Map<String, Object>> getResultBySessionId(@PathVariable String sessionId) {
+    public ResponseEntity<Map<String, Object>> getResultBySessionId(
+            @PathVariable String sessionId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         Map<String, Object> response = new HashMap<>();
 
         try {
             UUID sessionUUID = UUID.fromString(sessionId);
+            Optional<TestResult> entity = testResultService.getTestResultBySessionId(sessionUUID);
+            String etag = entity.map(r -> resultETagService.etagFor(r, "result")).orElse(null);
+            if (entity.isPresent() && resultETagService.matches(ifNoneMatch, etag)) {
+                return notModified(etag, entity.get());
+            }
             Optional<TestResultService.TestResultDTO> result = testResultService.getResultBySessionId(sessionUUID);
 
             if (result.isPresent()) {
                 response.put("status", "SUCCESS");
                 response.put("result", result.get());
-                return ResponseEntity.ok(response);
+                return okWithValidators(etag, entity.orElse(null)).body(response);
             } else {
                 response.put("status", "NOT_FOUND");
                 response.put("message", "No test results found for this session");
@@ -173,17 +206,24 @@ public class PersonalityTestController {
      * Get test result for guest by guest token
      */
     @GetMapping("/result/guest/{guestToken}")
-    public ResponseEntity<Map<String, Object>> getLatestResultForGuest(@PathVariable String guestToken) {
+    public ResponseEntity<Map<String, Object>> getLatestResultForGuest(
+            @PathVariable String guestToken,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         Map<String, Object> response = new HashMap<>();
 
         try {
             UUID guestUUID = UUID.fromString(guestToken);
+            Optional<TestResult> entity = testResultService.getLatestTestResultForGuest(guestUUID);
+            String etag = entity.map(r -> resultETagService.etagFor(r, "result")).orElse(null);
+            if (entity.isPresent() && resultETagService.matches(ifNoneMatch, etag)) {
+                return notModified(etag, entity.get());
+            }
             Optional<TestResultService.TestResultDTO> result = testResultService.getLatestResultForGuest(guestUUID);
 
             if (result.isPresent()) {
                 response.put("status", "SUCCESS");
                 response.put("result", result.get());
-                return ResponseEntity.ok(response);
+                return okWithValidators(etag, entity.orElse(null)).body(response);
             } else {
                 response.put("status", "NOT_FOUND");
                 response.put("message", "No test results found for this guest");
@@ -205,17 +245,24 @@ public class PersonalityTestController {
      * Get the latest personality test result for a user (using new test_results table)
      */
     @GetMapping("/result/user/{userId}")
-    public ResponseEntity<Map<String, Object>> getLatestResult(@PathVariable Long userId) {
+    public ResponseEntity<Map<String, Object>> getLatestResult(
+            @PathVariable Long userId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         Map<String, Object> response = new HashMap<>();
 
         try {
+            Optional<TestResult> entity = testResultService.getLatestTestResultForUser(userId);
+            String etag = entity.map(r -> resultETagService.etagFor(r, "result")).orElse(null);
+            if (entity.isPresent() && resultETagService.matches(ifNoneMatch, etag)) {
+                return notModified(etag, entity.get());
+            }
             // Get result from new test_results table
             Optional<TestResultService.TestResultDTO> result = testResultService.getLatestResultForUser(userId);
 
             if (result.isPresent()) {
                 response.put("status", "SUCCESS");
                 response.put("result", result.get());
-                return ResponseEntity.ok(response);
+                return okWithValidators(etag, entity.orElse(null)).body(response);
             } else {
                 response.put("status", "NOT_FOUND");
                 response.put("message", "No personality test results found for this user");
@@ -422,16 +469,35 @@ public class PersonalityTestController {
      * Get enhanced test result with detailed MBTI information for user
      */
     @GetMapping("/result/enhanced/user/{userId}")
-    public ResponseEntity<Map<String, Object>> getEnhancedResultForUser(@PathVariable Long userId) {
+    public ResponseEntity<Map<String, Object>> getEnhancedResultForUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String include,
+            @RequestParam(required = false) String exclude,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            Optional<EnhancedTestResultDTO> result = testResultService.getEnhancedResultForUser(userId);
+            Set<EnhancedResultSection> sections;
+            try {
+                sections = EnhancedResultSection.parse(include, exclude);
+            } catch (IllegalArgumentException e) {
+                response.put("status", "ERROR");
+                response.put("message", e.getMessage());
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            Optional<TestResult> entity = testResultService.getLatestTestResultForUser(userId);
+            String snapshotVersion = entity.map(r -> resultSnapshotService.findSnapshotVersion(r.getSessionId())).orElse(null);
+            String etag = entity.map(r -> resultETagService.snapshotEtagFor(r, snapshotVersion, "enhanced", EnhancedResultSection.keyOf(sections))).orElse(null);
+            if (entity.isPresent() && resultETagService.matches(ifNoneMatch, etag)) {
+                return notModified(etag, entity.get());
+            }
+            Optional<EnhancedTestResultDTO> result = testResultService.getEnhancedResultForUser(userId, sections);
 
             if (result.isPresent()) {
                 response.put("status", "SUCCESS");
                 response.put("result", result.get());
-                return ResponseEntity.ok(response);
+                return okWithValidators(servedFromSnapshot(etag, snapshotVersion, entity.orElse(null)), entity.orElse(null)).body(response);
             } else {
                 response.put("status", "NOT_FOUND");
                 response.put("message", "No test results found for this user");
@@ -450,12 +516,24 @@ public class PersonalityTestController {
      * Now includes authorization validation
      */
     @GetMapping("/result/enhanced/session/{sessionId}")
-    public ResponseEntity<Map<String, Object>> getEnhancedResultBySessionId(
+    public ResponseEntity<?> getEnhancedResultBySessionId(
             @PathVariable String sessionId,
             @RequestParam(required = false) Long userId,
-            @RequestParam(required = false) String guestToken) {
+            @RequestParam(required = false) String guestToken,
+            @RequestParam(required = false) String include,
+            @RequestParam(required = false) String exclude,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         Map<String, Object> response = new HashMap<>();
 
+        Set<EnhancedResultSection> sections;
+        try {
+            sections = EnhancedResultSection.parse(include, exclude);
+        } catch (IllegalArgumentException e) {
+            response.put("status", "ERROR");
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+
         try {
             UUID sessionUUID = UUID.fromString(sessionId);
             
@@ -471,53 +549,8 @@ public class PersonalityTestController {
             TestResult result = testResult.get();
             
             // Authorization Check: Validate ownership
-            boolean isAuthorized = false;
             boolean isUserResult = result.getUserId() != null;
-            boolean isGuestResult = result.getGuestToken() != null;
-            
-            if (isUserResult) {
-                // This is a registered user's result
-                // ONLY the owner (matching userId) can access it
-                // No guest tokens or other users can access
-                if (userId != null && userId.equals(result.getUserId())) {
-                    isAuthorized = true;
-                    logger.debug("User {} accessing their own result (session: {})", userId, sessionId);
-                } else {
-                    isAuthorized = false;
-                    logger.warn("Unauthorized: User {} attempted to access user result owned by {} (session: {})", 
-                        userId, result.getUserId(), sessionId);
-                }
-            } else if (isGuestResult) {
-                // This is a guest result
-                // ONLY the matching guestToken can access it
-                // No logged-in users or other guests can access
-                if (guestToken != null) {
-                    try {
-                        UUID requestGuestToken = UUID.fromString(guestToken);
-                        if (requestGuestToken.equals(result.getGuestToken())) {
-                            isAuthorized = true;
-                            logger.debug("Guest {} accessing their own result (session: {})", guestToken, sessionId);
-                        } else {
-                            isAuthorized = false;
-                            logger.warn("Unauthorized: Guest {} attempted to access guest result owned by {} (session: {})", 
-                                guestToken, result.getGuestToken(), sessionId);
-                        }
-                    } catch (IllegalArgumentException e) {
-                        isAuthorized = false;
-                        logger.warn("Unauthorized: Invalid guestToken format for session: {}", sessionId);
-                    }
-                } else {
-                    // No guestToken provided - deny access even if userId is provided
-                    // This prevents logged-in users from accessing guest results
-                    isAuthorized = false;
-                    logger.warn("Unauthorized: Attempted to access guest result without guestToken (session: {}, userId: {})", 
-                        sessionId, userId);
-                }
-            } else {
-                // Result has neither userId nor guestToken - this should never happen
-                isAuthorized = false;
-                logger.error("Invalid result state: No userId or guestToken for session: {}", sessionId);
-            }
+            boolean isAuthorized = isAuthorizedForResult(result, userId, guestToken, sessionId);
             
             if (!isAuthorized) {
                 response.put("status", "UNAUTHORIZED");
@@ -528,13 +561,30 @@ public class PersonalityTestController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
             }
             
-            // If authorized, proceed with fetching the enhanced result
-            Optional<EnhancedTestResultDTO> enhancedResult = testResultService.getEnhancedResultBySessionId(sessionUUID);
+            // Validators are only checked once ownership is established
+            String snapshotVersion = resultSnapshotService.findSnapshotVersion(sessionUUID);
+            String etag = resultETagService.snapshotEtagFor(result, snapshotVersion, "enhanced-session", EnhancedResultSection.keyOf(sections));
+            if (resultETagService.matches(ifNoneMatch, etag)) {
+                return notModified(etag, result);
+            }
+            
+            // If authorized, stream the stored snapshot when there is one (full results only)
+            boolean fullResult = sections.containsAll(EnhancedResultSection.ALL);
+            Optional<byte[]> snapshot = fullResult && snapshotVersion != null
+                ? resultSnapshotService.findSnapshotBytes(sessionUUID) : Optional.empty();
+            if (snapshot.isPresent()) {
+                return okWithValidators(servedFromSnapshot(etag, snapshotVersion, result), result)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(wrapSuccessResult(snapshot.get()));
+            }
+            
+            // Otherwise assemble the enhanced result (this also stores the snapshot once complete)
+            Optional<EnhancedTestResultDTO> enhancedResult = testResultService.getEnhancedResultBySessionId(sessionUUID, sections);
 
             if (enhancedResult.isPresent()) {
                 response.put("status", "SUCCESS");
                 response.put("result", enhancedResult.get());
-                return ResponseEntity.ok(response);
+                return okWithValidators(servedFromSnapshot(etag, snapshotVersion, result), result).body(response);
             } else {
                 response.put("status", "NOT_FOUND");
                 response.put("message", "No test results found for this session");
@@ -552,6 +602,185 @@ public class PersonalityTestController {
         }
     }
 
+    /**
+     * Progressive enhanced result over Server-Sent Events. Same authorization as the
+     * endpoint above; events: "scores", "result" (deterministic sections), then
+     * "aiCourseRankings", "aiCareerRankings", "aiModelComparison", "advancedAnalytics"
+     * as each completes, and finally "complete" (or "failed").
+     */
+    @GetMapping("/result/enhanced/session/{sessionId}/stream")
+    public ResponseEntity<?> streamEnhancedResultBySessionId(
+            @PathVariable String sessionId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String guestToken,
+            @RequestParam(required = false) String include,
+            @RequestParam(required = false) String exclude) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            Set<EnhancedResultSection> sections = EnhancedResultSection.parse(include, exclude);
+            UUID sessionUUID = UUID.fromString(sessionId);
+            
+            Optional<TestResult> testResult = testResultService.getTestResultBySessionId(sessionUUID);
+            if (!testResult.isPresent()) {
+                response.put("status", "NOT_FOUND");
+                response.put("message", "No test results found for this session");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+            TestResult result = testResult.get();
+            
+            if (!isAuthorizedForResult(result, userId, guestToken, sessionId)) {
+                response.put("status", "UNAUTHORIZED");
+                response.put("message", "You don't have permission to view these test results");
+                response.put("isPrivate", result.getUserId() != null);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+            }
+            
+            SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+            streamExecutor.execute(() -> {
+                try {
+                    testResultService.streamEnhancedResult(result, sections, (name, payload) -> sendEvent(emitter, name, payload));
+                    sendEvent(emitter, "complete", Map.of("status", "SUCCESS"));
+                    emitter.complete();
+                } catch (Exception e) {
+                    logger.warn("⚠️ Enhanced result stream failed for session {}: {}", sessionId, e.getMessage());
+                    sendEvent(emitter, "failed", Map.of("status", "ERROR", "message", String.valueOf(e.getMessage())));
+                    emitter.complete();
+                }
+            });
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter);
+
+        } catch (IllegalArgumentException e) {
+            response.put("status", "ERROR");
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            response.put("status", "ERROR");
+            response.put("message", "Failed to stream enhanced test result: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Serialize right away (sections keep being filled in after they are reported) and send;
+     * a client that went away just stops receiving
+     */
+    private void sendEvent(SseEmitter emitter, String name, Object payload) {
+        try {
+            String json = objectMapper.writeValueAsString(payload);
+            synchronized (emitter) {
+                emitter.send(SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON));
+            }
+        } catch (Exception e) {
+            logger.debug("Could not send '{}' event: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Ownership check for session-addressed results: user results only for their owner,
+     * guest results only for the matching guest token
+     */
+    private boolean isAuthorizedForResult(TestResult result, Long userId, String guestToken, String sessionId) {
+        boolean isAuthorized = false;
+        boolean isUserResult = result.getUserId() != null;
+        boolean isGuestResult = result.getGuestToken() != null;
+        
+        if (isUserResult) {
+            // This is a registered user's result
+            // ONLY the owner (matching userId) can access it
+            // No guest tokens or other users can access
+            if (userId != null && userId.equals(result.getUserId())) {
+                isAuthorized = true;
+                logger.debug("User {} accessing their own result (session: {})", userId, sessionId);
+            } else {
+                isAuthorized = false;
+                logger.warn("Unauthorized: User {} attempted to access user result owned by {} (session: {})", 
+                    userId, result.getUserId(), sessionId);
+            }
+        } else if (isGuestResult) {
+            // This is a guest result
+            // ONLY the matching guestToken can access it
+            // No logged-in users or other guests can access
+            if (guestToken != null) {
+                try {
+                    UUID requestGuestToken = UUID.fromString(guestToken);
+                    if (requestGuestToken.equals(result.getGuestToken())) {
+                        isAuthorized = true;
+                        logger.debug("Guest {} accessing their own result (session: {})", guestToken, sessionId);
+                    } else {
+                        isAuthorized = false;
+                        logger.warn("Unauthorized: Guest {} attempted to access guest result owned by {} (session: {})", 
+                            guestToken, result.getGuestToken(), sessionId);
+                    }
+                } catch (IllegalArgumentException e) {
+                    isAuthorized = false;
+                    logger.warn("Unauthorized: Invalid guestToken format for session: {}", sessionId);
+                }
+            } else {
+                // No guestToken provided - deny access even if userId is provided
+                // This prevents logged-in users from accessing guest results
+                isAuthorized = false;
+                logger.warn("Unauthorized: Attempted to access guest result without guestToken (session: {}, userId: {})", 
+                    sessionId, userId);
+            }
+        } else {
+            // Result has neither userId nor guestToken - this should never happen
+            isAuthorized = false;
+            logger.error("Invalid result state: No userId or guestToken for session: {}", sessionId);
+        }
+        return isAuthorized;
+    }
+
+    /**
+     * Wrap stored result JSON in the standard {"status":"SUCCESS","result":...} envelope without re-parsing it
+     */
+    private byte[] wrapSuccessResult(byte[] resultJson) {
+        byte[] prefix = "{\"status\":\"SUCCESS\",\"result\":".getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        byte[] body = new byte[prefix.length + resultJson.length + 1];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        System.arraycopy(resultJson, 0, body, prefix.length, resultJson.length);
+        body[body.length - 1] = '}';
+        return body;
+    }
+
+    /**
+     * 304 response carrying the same validators and caching policy as the full response
+     */
+    private <T> ResponseEntity<T> notModified(String etag, TestResult result) {
+        return withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, result).build();
+    }
+
+    /**
+     * The snapshot ETag for a response the service assembled, kept only when the snapshot it was
+     * computed for is still the current one - the response was then projected from it rather than
+     * built live
+     */
+    private String servedFromSnapshot(String etag, String snapshotVersion, TestResult result) {
+        if (etag == null || !snapshotVersion.equals(resultSnapshotService.findSnapshotVersion(result.getSessionId()))) {
+            return null;
+        }
+        return etag;
+    }
+
+    /**
+     * 200 response builder with ETag, Last-Modified and Cache-Control for a stored result
+     */
+    private ResponseEntity.BodyBuilder okWithValidators(String etag, TestResult result) {
+        return withValidators(ResponseEntity.ok(), etag, result);
+    }
+
+    private ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, String etag, TestResult result) {
+        builder.cacheControl(resultETagService.cacheControl());
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        long lastModified = result != null ? resultETagService.lastModified(result) : -1L;
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+
     /**
      * Regenerate course descriptions for existing test results
      */
@@ -588,17 +817,36 @@ public class PersonalityTestController {
      * Get enhanced test result with detailed MBTI information for guest
      */
     @GetMapping("/result/enhanced/guest/{guestToken}")
-    public ResponseEntity<Map<String, Object>> getEnhancedResultForGuest(@PathVariable String guestToken) {
+    public ResponseEntity<Map<String, Object>> getEnhancedResultForGuest(
+            @PathVariable String guestToken,
+            @RequestParam(required = false) String include,
+            @RequestParam(required = false) String exclude,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         Map<String, Object> response = new HashMap<>();
 
+        Set<EnhancedResultSection> sections;
+        try {
+            sections = EnhancedResultSection.parse(include, exclude);
+        } catch (IllegalArgumentException e) {
+            response.put("status", "ERROR");
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+
         try {
             UUID guestUUID = UUID.fromString(guestToken);
-            Optional<EnhancedTestResultDTO> result = testResultService.getEnhancedResultForGuest(guestUUID);
+            Optional<TestResult> entity = testResultService.getLatestTestResultForGuest(guestUUID);
+            String snapshotVersion = entity.map(r -> resultSnapshotService.findSnapshotVersion(r.getSessionId())).orElse(null);
+            String etag = entity.map(r -> resultETagService.snapshotEtagFor(r, snapshotVersion, "enhanced", EnhancedResultSection.keyOf(sections))).orElse(null);
+            if (entity.isPresent() && resultETagService.matches(ifNoneMatch, etag)) {
+                return notModified(etag, entity.get());
+            }
+            Optional<EnhancedTestResultDTO> result = testResultService.getEnhancedResultForGuest(guestUUID, sections);
 
             if (result.isPresent()) {
                 response.put("status", "SUCCESS");
                 response.put("result", result.get());
-                return ResponseEntity.ok(response);
+                return okWithValidators(servedFromSnapshot(etag, snapshotVersion, entity.orElse(null)), entity.orElse(null)).body(response);
             } else {
                 response.put("status", "NOT_FOUND");
                 response.put("message", "No test results found for this guest");
@@ -657,8 +905,15 @@ public class PersonalityTestController {
      * Get detailed scoring data for visualization/graphs
      */
     @GetMapping("/scoring-data/{sessionId}")
-    public ResponseEntity<Map<String, Object>> getDetailedScoringData(@PathVariable String sessionId) {
+    public ResponseEntity<Map<String, Object>> getDetailedScoringData(
+            @PathVariable String sessionId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
+            Optional<TestResult> entity = testResultService.getTestResultBySessionId(sessionId);
+            String etag = entity.map(r -> resultETagService.etagFor(r, "scoring-data")).orElse(null);
+            if (entity.isPresent() && resultETagService.matches(ifNoneMatch, etag)) {
+                return notModified(etag, entity.get());
+            }
             logger.info("Fetching detailed scoring data for session: {}", sessionId);
             com.app.dto.DetailedScoringDTO scoringData = testResultService.getDetailedScoringData(sessionId);
             if (scoringData != null) {
@@ -666,7 +921,7 @@ public class PersonalityTestController {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
                 response.put("data", scoringData);
-                return ResponseEntity.ok(response);
+                return okWithValidators(etag, entity.orElse(null)).body(response);
             } else {
                 logger.warn("No scoring data found for session: {}", sessionId);
                 Map<String, Object> response = new HashMap<>();
@@ -0,0 +1,106 @@
+package com.app.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Optional sections of an EnhancedTestResultDTO, selectable with ?include= / ?exclude=.
+ * The base result fields (types, course path, goals, dates) are always returned.
+ */
+public enum EnhancedResultSection {
+    MBTI("mbti"),
+    RIASEC("riasec"),
+    CAREER_PLAN("careerPlan"),
+    COURSE_PLAN("coursePlan"),
+    AI_RANKINGS("aiRankings"),
+    MODEL_COMPARISON("modelComparison"),
+    ANALYTICS("analytics"),
+    VALIDATION("validation");
+
+    public static final Set<EnhancedResultSection> ALL = Collections.unmodifiableSet(EnumSet.allOf(EnhancedResultSection.class));
+
+    // What the PDF report renders - no HuggingFace-backed section is needed
+    public static final Set<EnhancedResultSection> PDF = Collections.unmodifiableSet(EnumSet.of(MBTI, CAREER_PLAN, COURSE_PLAN));
+
+    private final String key;
+
+    EnhancedResultSection(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Resolve include/exclude lists (comma separated section keys) into a section set.
+     * Without include every section is selected; exclude is applied afterwards.
+     */
+    public static Set<EnhancedResultSection> parse(String include, String exclude) {
+        EnumSet<EnhancedResultSection> sections = isBlank(include)
+            ? EnumSet.allOf(EnhancedResultSection.class)
+            : EnumSet.noneOf(EnhancedResultSection.class);
+        if (!isBlank(include)) {
+            for (String key : include.split(",")) {
+                if (!key.isBlank()) sections.add(fromKey(key));
+            }
+        }
+        if (!isBlank(exclude)) {
+            for (String key : exclude.split(",")) {
+                if (!key.isBlank()) sections.remove(fromKey(key));
+            }
+        }
+        return sections;
+    }
+
+    public static EnhancedResultSection fromKey(String key) {
+        String trimmed = key.trim();
+        for (EnhancedResultSection section : values()) {
+            if (section.key.equalsIgnoreCase(trimmed)) {
+                return section;
+            }
+        }
+        throw new IllegalArgumentException("Unknown result section: " + trimmed);
+    }
+
+    /**
+     * Stable, order-independent key for a section set (used in ETags).
+     */
+    public static String keyOf(Set<EnhancedResultSection> sections) {
+        if (sections.containsAll(ALL)) {
+            return "all";
+        }
+        return Arrays.stream(values())
+            .filter(sections::contains)
+            .map(EnhancedResultSection::getKey)
+            .collect(Collectors.joining("+"));
+    }
+
+    /**
+     * Drop every section that was not selected from an already assembled result.
+     */
+    public static EnhancedTestResultDTO project(EnhancedTestResultDTO dto, Set<EnhancedResultSection> sections) {
+        if (dto == null || sections.containsAll(ALL)) {
+            return dto;
+        }
+        if (!sections.contains(MBTI)) dto.setDetailedMbtiInfo(null);
+        if (!sections.contains(RIASEC)) dto.setDetailedRiasecInfo(null);
+        if (!sections.contains(CAREER_PLAN)) dto.setCareerDevelopmentPlan(null);
+        if (!sections.contains(COURSE_PLAN)) dto.setCourseDevelopmentPlan(null);
+        if (!sections.contains(AI_RANKINGS)) {
+            dto.setAiCourseRankings(null);
+            dto.setAiCareerRankings(null);
+        }
+        if (!sections.contains(MODEL_COMPARISON)) dto.setAiModelComparison(null);
+        if (!sections.contains(ANALYTICS)) dto.setAdvancedAnalytics(null);
+        if (!sections.contains(VALIDATION)) dto.setAiValidationStatus(null);
+        return dto;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
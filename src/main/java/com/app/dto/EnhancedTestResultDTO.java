@@ -389,6 +389,8 @@ public class EnhancedTestResultDTO {
         private String model2Name;
         private List<CourseComparison> courseComparisons;
         private List<CareerComparison> careerComparisons;
+        private boolean partial;
+        private List<String> missingModels;
         
         public AiModelComparison() {}
         
@@ -410,6 +412,13 @@ public class EnhancedTestResultDTO {
         
         public List<CareerComparison> getCareerComparisons() { return careerComparisons; }
         public void setCareerComparisons(List<CareerComparison> careerComparisons) { this.careerComparisons = careerComparisons; }
+        
+        // True when a model missed its deadline; missingModels names it
+        public boolean isPartial() { return partial; }
+        public void setPartial(boolean partial) { this.partial = partial; }
+        
+        public List<String> getMissingModels() { return missingModels; }
+        public void setMissingModels(List<String> missingModels) { this.missingModels = missingModels; }
     }
     
     public static class CourseComparison {
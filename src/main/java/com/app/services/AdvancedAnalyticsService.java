@@ -27,6 +27,27 @@ public class AdvancedAnalyticsService {
     @Value("${huggingface.model.validation}")
     private String validationModel;
     
+    /**
+     * Analytics for one result with the AI scores taken from its shared analysis context, i.e. the
+     * same course and career rankings the result shows rather than a separate AI assessment.
+     */
+    public AdvancedAnalyticsResult generateAdvancedAnalytics(
+        AiAnalysisContext context,
+        Map<String, Double> mbtiPercentages,
+        Map<String, Double> riasecPercentages
+    ) {
+        List<CourseWithAiScore> coursesWithAiScores = new ArrayList<>();
+        for (AiComparisonService.CourseRanking ranking : context.getCompletedCourseRankings()) {
+            coursesWithAiScores.add(new CourseWithAiScore(ranking.getCourseName(), "", ranking.getMatchScore()));
+        }
+        List<CareerWithAiScore> careersWithAiScores = new ArrayList<>();
+        for (AiComparisonService.CareerRanking ranking : context.getCompletedCareerRankings()) {
+            careersWithAiScores.add(new CareerWithAiScore(ranking.getCareerName(), "", ranking.getMatchScore()));
+        }
+        return generateAdvancedAnalytics(context.getMbtiType(), context.getRiasecCode(), mbtiPercentages, riasecPercentages,
+            coursesWithAiScores, careersWithAiScores);
+    }
+    
     /**
      * Generate comprehensive analytics combining human metrics and AI analysis
      */
@@ -69,9 +90,10 @@ public class AdvancedAnalyticsService {
             );
             result.setCareerMatches(careerAnalyses);
             
-            // Generate AI-powered overall synthesis
+            // Generate AI-powered overall synthesis from this student's own percentages
+            String overallSynthesis = null;
             if (aiEnabled) {
-                String overallSynthesis = generateAiSynthesis(
+                overallSynthesis = generateAiSynthesis(
                     mbtiType, 
                     riasecCode, 
                     mbtiPercentages, 
@@ -79,10 +101,12 @@ public class AdvancedAnalyticsService {
                     courseAnalyses,
                     careerAnalyses
                 );
-                result.setOverallSynthesis(overallSynthesis);
-            } else {
-                result.setOverallSynthesis(generateFallbackSynthesis(mbtiType, riasecCode, courseAnalyses, careerAnalyses));
             }
+            if (overallSynthesis == null) {
+                overallSynthesis = generateFallbackSynthesis(mbtiType, riasecCode, courseAnalyses, careerAnalyses);
+                result.setFallback(true);
+            }
+            result.setOverallSynthesis(overallSynthesis);
             
             // Calculate overall statistics
             result.setOverallStatistics(calculateOverallStatistics(courseAnalyses, careerAnalyses));
@@ -238,7 +262,7 @@ public class AdvancedAnalyticsService {
     /**
      * Calculate human-based course score from personality traits
      */
-    private double calculateHumanCourseScore(
+    static double calculateHumanCourseScore(
         String courseName,
         Map<String, Double> mbtiPercentages,
         Map<String, Double> riasecPercentages
@@ -295,7 +319,7 @@ public class AdvancedAnalyticsService {
     /**
      * Calculate human-based career score from personality traits
      */
-    private double calculateHumanCareerScore(
+    static double calculateHumanCareerScore(
         String careerName,
         Map<String, Double> mbtiPercentages,
         Map<String, Double> riasecPercentages
@@ -349,7 +373,7 @@ public class AdvancedAnalyticsService {
     }
     
     /**
-     * Generate AI-powered overall synthesis
+     * Generate AI-powered overall synthesis; null when the AI had nothing usable
      */
     private String generateAiSynthesis(
         String mbtiType,
@@ -413,12 +437,12 @@ public class AdvancedAnalyticsService {
                 return aiResponse.trim();
             } else {
                 log.warn("⚠️ AI returned empty synthesis, using fallback");
-                return generateFallbackSynthesis(mbtiType, riasecCode, courseAnalyses, careerAnalyses);
+                return null;
             }
             
         } catch (Exception e) {
             log.error("❌ Failed to generate AI synthesis: {}", e.getMessage(), e);
-            return generateFallbackSynthesis(mbtiType, riasecCode, courseAnalyses, careerAnalyses);
+            return null;
         }
     }
     
@@ -646,6 +670,7 @@ public class AdvancedAnalyticsService {
         result.setRiasecCode(riasecCode);
         result.setGeneratedAt(new Date());
         result.setOverallSynthesis("Advanced analytics are currently being processed. Please check back shortly for detailed insights.");
+        result.setFallback(true);
         return result;
     }
     
@@ -660,6 +685,8 @@ public class AdvancedAnalyticsService {
         private List<CareerMatchAnalysis> careerMatches;
         private String overallSynthesis;
         private OverallStatistics overallStatistics;
+        // Built-in text stood in for the AI synthesis (or for the whole analytics)
+        private boolean fallback;
         
         // Getters and setters
         public String getMbtiType() { return mbtiType; }
@@ -685,6 +712,9 @@ public class AdvancedAnalyticsService {
         
         public OverallStatistics getOverallStatistics() { return overallStatistics; }
         public void setOverallStatistics(OverallStatistics overallStatistics) { this.overallStatistics = overallStatistics; }
+        
+        public boolean isFallback() { return fallback; }
+        public void setFallback(boolean fallback) { this.fallback = fallback; }
     }
     
     public static class PersonalityMetrics {
@@ -0,0 +1,125 @@
+package com.app.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * AI work shared by everything that analyses one test result.
+ *
+ * AiComparisonService, AiModelComparisonService and AdvancedAnalyticsService all look at the
+ * same coursePath/careerSuggestions and all want the validation model's view of them. The
+ * context parses the lists once and holds the course and career rankings: the first service
+ * to ask starts the ranking, later ones wait for that same answer. The rankings double as the
+ * validation model's side of the model comparison and as the AI scores of the analytics, so
+ * the validation model is asked once per list per result instead of once per service.
+ */
+public class AiAnalysisContext {
+
+    // Rankings run off the caller's thread so every reader can wait with its own deadline
+    private static final ExecutorService RANKING_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final String mbtiType;
+    private final String riasecCode;
+    private final String coursePath;
+    private final String careerSuggestions;
+    private final List<String> courses;
+    private final List<String> careers;
+
+    private final AtomicReference<CompletableFuture<List<AiComparisonService.CourseRanking>>> courseRankings = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<List<AiComparisonService.CareerRanking>>> careerRankings = new AtomicReference<>();
+
+    public AiAnalysisContext(String mbtiType, String riasecCode, String coursePath, String careerSuggestions) {
+        this.mbtiType = mbtiType;
+        this.riasecCode = riasecCode;
+        this.coursePath = coursePath;
+        this.careerSuggestions = careerSuggestions;
+        this.courses = AiComparisonService.parseCourses(coursePath);
+        this.careers = AiComparisonService.parseCareers(careerSuggestions);
+    }
+
+    public String getMbtiType() { return mbtiType; }
+    public String getRiasecCode() { return riasecCode; }
+    public String getCoursePath() { return coursePath; }
+    public String getCareerSuggestions() { return careerSuggestions; }
+    public List<String> getCourses() { return courses; }
+    public List<String> getCareers() { return careers; }
+
+    /**
+     * The result's course rankings; the first caller's ranking is started, later callers share it.
+     */
+    public CompletableFuture<List<AiComparisonService.CourseRanking>> courseRankings(Supplier<List<AiComparisonService.CourseRanking>> ranking) {
+        return shared(courseRankings, ranking);
+    }
+
+    public CompletableFuture<List<AiComparisonService.CareerRanking>> careerRankings(Supplier<List<AiComparisonService.CareerRanking>> ranking) {
+        return shared(careerRankings, ranking);
+    }
+
+    /**
+     * Rankings obtained elsewhere (precomputed, or a combined prompt); ignored if rankings are already in.
+     */
+    public void offerCourseRankings(List<AiComparisonService.CourseRanking> rankings) {
+        if (rankings != null) {
+            courseRankings.compareAndSet(null, CompletableFuture.completedFuture(rankings));
+        }
+    }
+
+    public void offerCareerRankings(List<AiComparisonService.CareerRanking> rankings) {
+        if (rankings != null) {
+            careerRankings.compareAndSet(null, CompletableFuture.completedFuture(rankings));
+        }
+    }
+
+    public boolean hasCourseRankings() {
+        return courseRankings.get() != null;
+    }
+
+    public boolean hasCareerRankings() {
+        return careerRankings.get() != null;
+    }
+
+    /**
+     * Course rankings if they have already arrived, otherwise an empty list (never waits).
+     */
+    public List<AiComparisonService.CourseRanking> getCompletedCourseRankings() {
+        return completed(courseRankings.get());
+    }
+
+    public List<AiComparisonService.CareerRanking> getCompletedCareerRankings() {
+        return completed(careerRankings.get());
+    }
+
+    private static <T> CompletableFuture<List<T>> shared(AtomicReference<CompletableFuture<List<T>>> slot, Supplier<List<T>> ranking) {
+        CompletableFuture<List<T>> existing = slot.get();
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<List<T>> mine = new CompletableFuture<>();
+        if (!slot.compareAndSet(null, mine)) {
+            return slot.get();
+        }
+        // The ranking's HuggingFace calls stay in the quota lane of whoever asked first
+        AiQuotaGovernor.Lane lane = AiQuotaGovernor.currentLane();
+        RANKING_EXECUTOR.execute(() -> {
+            try {
+                mine.complete(AiQuotaGovernor.runIn(lane, ranking));
+            } catch (Throwable t) {
+                mine.completeExceptionally(t);
+            }
+        });
+        return mine;
+    }
+
+    private static <T> List<T> completed(CompletableFuture<List<T>> future) {
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return new ArrayList<>();
+        }
+        List<T> value = future.getNow(null);
+        return value != null ? value : new ArrayList<>();
+    }
+}
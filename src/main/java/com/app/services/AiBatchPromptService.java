@@ -0,0 +1,307 @@
+package com.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Combined AI prompts: every task one model has to do for a result goes out as a single prompt.
+ *
+ * The validation model normally gets two separate calls per result for course and career ranking
+ * (which double as its side of the model comparison) and the education model two. Here each
+ * model gets one prompt with a "### SECTION" header per task; the answer is split on those
+ * headers and each part goes through the same parser and fallbacks the single-task call uses.
+ * Only the requested tasks are included, so a result with precomputed rankings just asks for
+ * what is missing.
+ *
+ * Prompt and answer share the model's context window (1024 tokens for DialoGPT-large, 2048 for
+ * GPT-Neo-2.7B), so tasks are packed only while each still gets min-task-tokens of answer; the
+ * rest go out as further prompts, and each call's output budget is what its prompt leaves free.
+ * The analytics synthesis is built from one student's percentages and stays a call of its own.
+ */
+@Service
+public class AiBatchPromptService {
+
+    private static final Logger log = LoggerFactory.getLogger(AiBatchPromptService.class);
+
+    static final String COURSE_RANKING = "COURSE_RANKING";
+    static final String CAREER_RANKING = "CAREER_RANKING";
+    static final String COURSE_ANALYSIS = "COURSE_ANALYSIS";
+    static final String CAREER_ANALYSIS = "CAREER_ANALYSIS";
+
+    private static final Pattern SECTION_HEADER = Pattern.compile("^\\s*#{2,}\\s*([A-Z_]+)\\s*:?\\s*$", Pattern.MULTILINE);
+
+    @Autowired
+    private HuggingFaceApiService huggingFaceService;
+
+    @Autowired
+    private AiComparisonService aiComparisonService;
+
+    @Autowired
+    private AiModelComparisonService aiModelComparisonService;
+
+    @Value("${huggingface.validation.enabled:false}")
+    private boolean aiEnabled;
+
+    @Value("${ai.batch.enabled:true}")
+    private boolean batchEnabled;
+
+    @Value("${ai.batch.max-new-tokens:1024}")
+    private int maxNewTokens;
+
+    @Value("${ai.batch.min-task-tokens:256}")
+    private int minTaskTokens;
+
+    @Value("${ai.batch.context-tokens.validation:1024}")
+    private int model1ContextTokens;
+
+    @Value("${ai.batch.context-tokens.education:2048}")
+    private int model2ContextTokens;
+
+    @Value("${huggingface.model.validation}")
+    private String model1;
+
+    @Value("${huggingface.model.education}")
+    private String model2;
+
+    @Value("${ai.comparison.model.timeout:45000}")
+    private long modelTimeoutMs;
+
+    public boolean isEnabled() {
+        return aiEnabled && batchEnabled;
+    }
+
+    /**
+     * Run the requested tasks for one result with as few calls per model as its context allows.
+     * Kinds that were not requested stay null in the result.
+     */
+    public BatchResult run(AiAnalysisContext context, boolean rankings, boolean comparison) {
+        String mbtiType = context.getMbtiType();
+        String riasecCode = context.getRiasecCode();
+        List<String> courses = context.getCourses();
+        List<String> careers = context.getCareers();
+
+        // The rankings are also model 1's side of the comparison, so they are asked for once
+        boolean askCourseRanking = (rankings || comparison) && !context.hasCourseRankings();
+        boolean askCareerRanking = (rankings || comparison) && !context.hasCareerRankings();
+        Map<String, String> model1Tasks = new LinkedHashMap<>();
+        Map<String, String> model2Tasks = new LinkedHashMap<>();
+        if (askCourseRanking) {
+            model1Tasks.put(COURSE_RANKING, aiComparisonService.buildCourseComparisonPrompt(mbtiType, riasecCode, courses));
+        }
+        if (askCareerRanking) {
+            model1Tasks.put(CAREER_RANKING, aiComparisonService.buildCareerComparisonPrompt(mbtiType, riasecCode, careers));
+        }
+        if (comparison) {
+            model2Tasks.put(COURSE_ANALYSIS, aiModelComparisonService.buildModel2CoursePrompt(mbtiType, riasecCode, courses));
+            model2Tasks.put(CAREER_ANALYSIS, aiModelComparisonService.buildModel2CareerPrompt(mbtiType, riasecCode, careers));
+        }
+
+        List<Map<String, String>> model1Prompts = packTasks(mbtiType, riasecCode, model1Tasks, model1ContextTokens, minTaskTokens);
+        List<Map<String, String>> model2Prompts = packTasks(mbtiType, riasecCode, model2Tasks, model2ContextTokens, minTaskTokens);
+        log.info("🧩 Combined AI prompts for {} / {}: {} task(s) in {} call(s) for {}, {} in {} for {}",
+            mbtiType, riasecCode, model1Tasks.size(), model1Prompts.size(), model1,
+            model2Tasks.size(), model2Prompts.size(), model2);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(modelTimeoutMs);
+        List<CompletableFuture<String>> model1Futures = send(model1, model1Prompts, mbtiType, riasecCode, model1ContextTokens);
+        List<CompletableFuture<String>> model2Futures = send(model2, model2Prompts, mbtiType, riasecCode, model2ContextTokens);
+
+        List<String> missingModels = new ArrayList<>();
+        Map<String, String> model1Sections = collect(model1Prompts, model1Futures, deadline, AiModelComparisonService.MODEL1_LABEL, missingModels);
+        Map<String, String> model2Sections = collect(model2Prompts, model2Futures, deadline, AiModelComparisonService.MODEL2_LABEL, missingModels);
+
+        if (askCourseRanking) {
+            context.offerCourseRankings(aiComparisonService.rankCoursesFromResponse(mbtiType, riasecCode,
+                context.getCoursePath(), model1Sections.get(COURSE_RANKING)));
+        }
+        if (askCareerRanking) {
+            context.offerCareerRankings(aiComparisonService.rankCareersFromResponse(mbtiType, riasecCode,
+                context.getCareerSuggestions(), model1Sections.get(CAREER_RANKING)));
+        }
+
+        BatchResult result = new BatchResult();
+        if (rankings) {
+            result.setCourseRankings(aiComparisonService.rankCoursesByPersonality(context));
+            result.setCareerRankings(aiComparisonService.rankCareersByPersonality(context));
+        }
+        if (comparison) {
+            result.setCourseComparison(aiModelComparisonService.compareCourseFromRankings(context,
+                aiComparisonService.rankCoursesByPersonality(context),
+                model2Sections.get(COURSE_ANALYSIS), missingModels));
+            result.setCareerComparison(aiModelComparisonService.compareCareerFromRankings(context,
+                aiComparisonService.rankCareersByPersonality(context),
+                model2Sections.get(CAREER_ANALYSIS), missingModels));
+        }
+        result.setMissingModels(missingModels);
+        return result;
+    }
+
+    /**
+     * Group tasks, in order, into as few combined prompts as fit the context window: a prompt
+     * takes another task only while every task in it keeps minTaskTokens of answer. A task that
+     * does not fit even on its own still gets a prompt (and is skipped when sent).
+     */
+    static List<Map<String, String>> packTasks(String mbtiType, String riasecCode, Map<String, String> tasks,
+                                               int contextTokens, int minTaskTokens) {
+        List<Map<String, String>> prompts = new ArrayList<>();
+        Map<String, String> current = new LinkedHashMap<>();
+        for (Map.Entry<String, String> task : tasks.entrySet()) {
+            Map<String, String> candidate = new LinkedHashMap<>(current);
+            candidate.put(task.getKey(), task.getValue());
+            int needed = estimateTokens(buildCombinedPrompt(mbtiType, riasecCode, candidate)) + candidate.size() * minTaskTokens;
+            if (!current.isEmpty() && needed > contextTokens) {
+                prompts.add(current);
+                current = new LinkedHashMap<>();
+                current.put(task.getKey(), task.getValue());
+            } else {
+                current = candidate;
+            }
+        }
+        if (!current.isEmpty()) {
+            prompts.add(current);
+        }
+        return prompts;
+    }
+
+    /**
+     * Output budget for a prompt: what it leaves of the context window, at most max-new-tokens
+     */
+    static int outputBudget(String prompt, int contextTokens, int maxNewTokens) {
+        return Math.min(maxNewTokens, contextTokens - estimateTokens(prompt));
+    }
+
+    /**
+     * Rough GPT-2 BPE token count: English runs about four characters per token, three leaves
+     * room for course names, numbers and punctuation
+     */
+    static int estimateTokens(String text) {
+        return (text.length() + 2) / 3;
+    }
+
+    private List<CompletableFuture<String>> send(String model, List<Map<String, String>> prompts,
+                                                 String mbtiType, String riasecCode, int contextTokens) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(prompts.size());
+        for (Map<String, String> tasks : prompts) {
+            String prompt = buildCombinedPrompt(mbtiType, riasecCode, tasks);
+            int budget = outputBudget(prompt, contextTokens, maxNewTokens);
+            if (budget < minTaskTokens) {
+                // The answer would be cut off; the tasks' parsers fall back as for an empty answer
+                log.warn("⚠️ {} prompt too long for {} ({} of {} tokens), skipping",
+                    tasks.keySet(), model, estimateTokens(prompt), contextTokens);
+                futures.add(CompletableFuture.completedFuture(null));
+            } else {
+                futures.add(huggingFaceService.generateTextAsync(model, prompt, budget));
+            }
+        }
+        return futures;
+    }
+
+    /**
+     * Each task's part of its prompt's answer. An answer without headers is handed whole to every
+     * task of its prompt; the line parsers skip lines that are not in their format.
+     */
+    private Map<String, String> collect(List<Map<String, String>> prompts, List<CompletableFuture<String>> futures,
+                                        long deadline, String modelName, List<String> missingModels) {
+        Map<String, String> sections = new HashMap<>();
+        for (int i = 0; i < prompts.size(); i++) {
+            String text = await(futures.get(i), deadline, modelName, missingModels);
+            Map<String, String> answered = splitSections(text);
+            for (String task : prompts.get(i).keySet()) {
+                sections.put(task, answered.isEmpty() ? text : answered.get(task));
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * One prompt holding every task, each under its own header
+     */
+    static String buildCombinedPrompt(String mbtiType, String riasecCode, Map<String, String> tasks) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You are an expert career counselor and educational advisor.\n");
+        prompt.append(String.format("Profile: MBTI %s | RIASEC %s\n\n", mbtiType, riasecCode));
+        prompt.append(String.format("Complete all %d tasks below. Start each answer with the task's header line ", tasks.size()));
+        prompt.append("exactly as written (for example \"### ").append(tasks.keySet().iterator().next())
+            .append("\") and use the format that task asks for.\n\n");
+        tasks.forEach((section, task) -> {
+            prompt.append("### ").append(section).append('\n');
+            prompt.append(task.trim()).append("\n\n");
+        });
+        return prompt.toString();
+    }
+
+    /**
+     * Split a combined answer on its "### SECTION" header lines. Text before the first header is
+     * dropped; an answer without any headers gives an empty map.
+     */
+    static Map<String, String> splitSections(String text) {
+        Map<String, String> sections = new LinkedHashMap<>();
+        if (text == null || text.isBlank()) {
+            return sections;
+        }
+        Matcher matcher = SECTION_HEADER.matcher(text);
+        String current = null;
+        int start = 0;
+        while (matcher.find()) {
+            if (current != null) {
+                sections.merge(current, text.substring(start, matcher.start()).trim(), (a, b) -> a + "\n" + b);
+            }
+            current = matcher.group(1);
+            start = matcher.end();
+        }
+        if (current != null) {
+            sections.merge(current, text.substring(start).trim(), (a, b) -> a + "\n" + b);
+        }
+        return sections;
+    }
+
+    private String await(CompletableFuture<String> future, long deadlineNanos, String modelName, List<String> missingModels) {
+        try {
+            long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (java.util.concurrent.TimeoutException e) {
+            log.warn("⏱️ {} missed the combined prompt deadline", modelName);
+            if (!missingModels.contains(modelName)) missingModels.add(modelName);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!missingModels.contains(modelName)) missingModels.add(modelName);
+        } catch (Exception e) {
+            log.error("❌ Combined prompt failed for {}: {}", modelName, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Everything one combined run produced; kinds that were not requested are null
+     */
+    public static class BatchResult {
+        private List<AiComparisonService.CourseRanking> courseRankings;
+        private List<AiComparisonService.CareerRanking> careerRankings;
+        private AiModelComparisonService.ModelComparisonResult courseComparison;
+        private AiModelComparisonService.ModelComparisonResult careerComparison;
+        private List<String> missingModels = new ArrayList<>();
+
+        public List<AiComparisonService.CourseRanking> getCourseRankings() { return courseRankings; }
+        public void setCourseRankings(List<AiComparisonService.CourseRanking> courseRankings) { this.courseRankings = courseRankings; }
+
+        public List<AiComparisonService.CareerRanking> getCareerRankings() { return careerRankings; }
+        public void setCareerRankings(List<AiComparisonService.CareerRanking> careerRankings) { this.careerRankings = careerRankings; }
+
+        public AiModelComparisonService.ModelComparisonResult getCourseComparison() { return courseComparison; }
+        public void setCourseComparison(AiModelComparisonService.ModelComparisonResult courseComparison) { this.courseComparison = courseComparison; }
+
+        public AiModelComparisonService.ModelComparisonResult getCareerComparison() { return careerComparison; }
+        public void setCareerComparison(AiModelComparisonService.ModelComparisonResult careerComparison) { this.careerComparison = careerComparison; }
+
+        public List<String> getMissingModels() { return missingModels; }
+        public void setMissingModels(List<String> missingModels) { this.missingModels = missingModels; }
+    }
+}
@@ -0,0 +1,127 @@
+package com.app.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+
+/**
+ * Micrometer meters for HuggingFace calls, tagged by model and task type (and outcome where
+ * there is one). Exposed under /actuator/metrics/huggingface.api.*:
+ *
+ * huggingface.api.calls      end-to-end time of calls that went upstream (queueing and retries included)
+ * huggingface.api.attempts   time of each HTTP attempt
+ * huggingface.api.skipped    calls answered without going upstream (cached, coalesced, circuit_open, no_api_key)
+ * huggingface.api.retries    retry attempts scheduled
+ * huggingface.api.hedges     hedged duplicates sent, and those that answered first (result=sent|won)
+ * huggingface.api.request.size / response.size   payload bytes
+ * huggingface.api.bulkhead.active / queued       per-model concurrency
+ */
+class AiCallMetrics {
+
+    static final String SUCCESS = "success";
+    static final String LOADING = "loading";
+    static final String RATE_LIMITED = "rate_limited";
+    static final String AUTH = "auth";
+    static final String CLIENT_ERROR = "client_error";
+    static final String SERVER_ERROR = "server_error";
+    static final String NETWORK_ERROR = "network_error";
+    static final String PARSE_FAILURE = "parse_failure";
+    static final String TIMEOUT = "timeout";
+    static final String CIRCUIT_OPEN = "circuit_open";
+    static final String REJECTED = "rejected";
+
+    private final MeterRegistry registry;
+
+    AiCallMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Outcome of an HTTP answer; the body decides between success and a loading or parse failure.
+     */
+    static String outcomeForStatus(int code) {
+        if (code == 503) return LOADING;
+        if (code == 429) return RATE_LIMITED;
+        if (code == 401 || code == 403) return AUTH;
+        if (code >= 500) return SERVER_ERROR;
+        if (code >= 400) return CLIENT_ERROR;
+        return SUCCESS;
+    }
+
+    void recordCall(String model, String taskType, String outcome, long elapsedNanos) {
+        timer("huggingface.api.calls", "End-to-end HuggingFace call time, queueing and retries included",
+            model, taskType, outcome).record(Duration.ofNanos(elapsedNanos));
+    }
+
+    void recordAttempt(String model, String taskType, String outcome, long elapsedNanos) {
+        timer("huggingface.api.attempts", "Time of a single HTTP attempt against HuggingFace",
+            model, taskType, outcome).record(Duration.ofNanos(elapsedNanos));
+    }
+
+    void recordSkipped(String model, String taskType, String reason) {
+        Counter.builder("huggingface.api.skipped")
+            .description("HuggingFace calls answered without an upstream request")
+            .tag("model", model).tag("task", taskType).tag("reason", reason)
+            .register(registry).increment();
+    }
+
+    void recordRetry(String model, String taskType) {
+        Counter.builder("huggingface.api.retries")
+            .description("HuggingFace retry attempts scheduled")
+            .tag("model", model).tag("task", taskType)
+            .register(registry).increment();
+    }
+
+    void recordHedge(String model, String taskType, String result) {
+        Counter.builder("huggingface.api.hedges")
+            .description("Hedged duplicate HuggingFace requests")
+            .tag("model", model).tag("task", taskType).tag("result", result)
+            .register(registry).increment();
+    }
+
+    void recordRequestSize(String model, String taskType, long bytes) {
+        size("huggingface.api.request.size", "HuggingFace request body size", model, taskType).record(bytes);
+    }
+
+    void recordResponseSize(String model, String taskType, long bytes) {
+        size("huggingface.api.response.size", "HuggingFace response body size", model, taskType).record(bytes);
+    }
+
+    void bindBulkhead(String model, ModelBulkhead bulkhead) {
+        Gauge.builder("huggingface.api.bulkhead.active", bulkhead, ModelBulkhead::getActive)
+            .description("HuggingFace calls in flight").tag("model", model).register(registry);
+        Gauge.builder("huggingface.api.bulkhead.queued", bulkhead, ModelBulkhead::getQueued)
+            .description("HuggingFace calls waiting for a slot").tag("model", model).register(registry);
+    }
+
+    void bindQuota(AiQuotaGovernor governor) {
+        Gauge.builder("huggingface.api.quota.tokens", governor, AiQuotaGovernor::getTokens)
+            .description("HuggingFace quota tokens left in the bucket").register(registry);
+        for (AiQuotaGovernor.Lane lane : AiQuotaGovernor.Lane.values()) {
+            Gauge.builder("huggingface.api.quota.queued", governor, g -> g.getQueued(lane))
+                .description("HuggingFace calls waiting for quota").tag("lane", lane.name().toLowerCase()).register(registry);
+        }
+    }
+
+    private Timer timer(String name, String description, String model, String taskType, String outcome) {
+        return Timer.builder(name)
+            .description(description)
+            .tag("model", model).tag("task", taskType).tag("outcome", outcome)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    private DistributionSummary size(String name, String description, String model, String taskType) {
+        return DistributionSummary.builder(name)
+            .description(description)
+            .baseUnit("bytes")
+            .tag("model", model).tag("task", taskType)
+            .publishPercentiles(0.5, 0.95)
+            .register(registry);
+    }
+}
@@ -0,0 +1,608 @@
+package com.app.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Catalog-wide AI validation of course descriptions, career descriptions and development plans.
+ *
+ * Rather than validating a course or career again on every student result that mentions it,
+ * an overnight sweep validates each catalog row once and stores the verdict in
+ * ai_catalog_validation; AiContentValidationService uses a stored verdict when there is one.
+ * Rows are walked page by page in id order with a small worker pool, and after each page
+ * ai_catalog_validation_checkpoint moves past the rows that now have a verdict - never past one
+ * that still needs it - so a sweep interrupted by a stop, an open circuit or a restart resumes
+ * from the first row without a verdict instead of starting over. Rows whose text and model
+ * version have not changed since their verdict are skipped unless forced.
+ */
+@Service
+public class AiCatalogValidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiCatalogValidationService.class);
+
+    // How often a yielding run checks whether result views have left it quota
+    private static final long YIELD_POLL_MS = 500;
+
+    public static final String COURSE = "course";
+    public static final String CAREER = "career";
+    public static final String DEVELOPMENT_PLAN = "development_plan";
+
+    private static final List<String> SOURCES = List.of(COURSE, CAREER, DEVELOPMENT_PLAN);
+
+    // The description tables' name column varies (course_name/course, career_name/career), so their
+    // page SQL is built from DescriptionSchemaRegistry; development_plan has a fixed layout
+    private static final String DEVELOPMENT_PLAN_PAGE_SQL =
+        "SELECT id, career AS name, concat_ws(E'\\n', introduction, key_skills, academics_activities, soft_skills, " +
+        "growth_opportunities) AS content FROM development_plan WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final Map<String, String> COUNT_SQL = Map.of(
+        COURSE, "SELECT COUNT(*) FROM updated_course_description",
+        CAREER, "SELECT COUNT(*) FROM updated_career_description",
+        DEVELOPMENT_PLAN, "SELECT COUNT(*) FROM development_plan"
+    );
+
+    private static final String LOAD_SQL =
+        "SELECT source, row_id, item_name, content_hash, valid, confidence, message FROM ai_catalog_validation WHERE version_tag = ?";
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO ai_catalog_validation (source, row_id, item_name, content_hash, version_tag, valid, confidence, message, validated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+        "ON CONFLICT (source, row_id) DO UPDATE SET item_name = EXCLUDED.item_name, content_hash = EXCLUDED.content_hash, " +
+        "version_tag = EXCLUDED.version_tag, valid = EXCLUDED.valid, confidence = EXCLUDED.confidence, " +
+        "message = EXCLUDED.message, validated_at = EXCLUDED.validated_at";
+
+    private static final String RESET_CHECKPOINT_SQL =
+        "INSERT INTO ai_catalog_validation_checkpoint (source, last_row_id, forced, started_at, updated_at, completed_at) " +
+        "VALUES (?, 0, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, NULL) " +
+        "ON CONFLICT (source) DO UPDATE SET last_row_id = 0, forced = EXCLUDED.forced, started_at = EXCLUDED.started_at, " +
+        "updated_at = EXCLUDED.updated_at, completed_at = NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AiContentValidationService validationService;
+
+    @Autowired
+    private HuggingFaceApiService huggingFaceApiService;
+
+    @Autowired
+    private DescriptionSchemaRegistry descriptionSchemaRegistry;
+
+    @Value("${ai.catalog-validation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.catalog-validation.concurrency:2}")
+    private int concurrency;
+
+    @Value("${ai.catalog-validation.page-size:50}")
+    private int pageSize;
+
+    @Value("${ai.catalog-validation.rate.per-minute:30}")
+    private int rowsPerMinute;
+
+    @Value("${huggingface.validation.enabled:false}")
+    private boolean aiEnabled;
+
+    @Value("${ai.cache.version:1}")
+    private String cacheVersion;
+
+    @Value("${huggingface.api.url}")
+    private String apiUrl;
+
+    @Value("${huggingface.model.validation}")
+    private String validationModel;
+
+    @Value("${huggingface.model.education}")
+    private String educationModel;
+
+    // source|row_id -> verdict for the current version tag
+    private final Map<String, Verdict> verdicts = new ConcurrentHashMap<>();
+    // source|lower-case name -> verdict, for lookups from a student's result text
+    private final Map<String, Verdict> verdictsByName = new ConcurrentHashMap<>();
+
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ai-catalog-validation");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopRequested;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String currentSource;
+    private volatile String lastError;
+    private final AtomicInteger validated = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private long lastTaskStartedAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        load();
+        // A sweep cut short by a restart carries on from its checkpoint
+        if (enabled && aiEnabled && hasUnfinishedCheckpoint()) {
+            logger.info("🔁 Resuming interrupted catalog validation sweep");
+            resume();
+        }
+    }
+
+    /**
+     * Reload every stored verdict for the current version tag into memory.
+     */
+    public synchronized Map<String, Object> load() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        try {
+            Map<String, Verdict> loaded = new HashMap<>();
+            Map<String, Verdict> byName = new HashMap<>();
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                Verdict verdict = new Verdict(rs.getString("item_name"), rs.getString("content_hash"),
+                    rs.getBoolean("valid"), rs.getDouble("confidence"), rs.getString("message"));
+                loaded.put(key(rs.getString("source"), rs.getLong("row_id")), verdict);
+                byName.put(nameKey(rs.getString("source"), verdict.name), verdict);
+            }, versionTag());
+            verdicts.clear();
+            verdicts.putAll(loaded);
+            verdictsByName.clear();
+            verdictsByName.putAll(byName);
+            logger.info("✅ Loaded {} catalog validation verdicts", loaded.size());
+            summary.put("loaded", true);
+            summary.put("entries", loaded.size());
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not load catalog validation verdicts: {}", e.getMessage());
+            summary.put("loaded", false);
+            summary.put("error", e.getMessage());
+        }
+        return summary;
+    }
+
+    /**
+     * Stored verdict for a catalog entry by name, or null when the sweep has not covered it.
+     */
+    public AiContentValidationService.ValidationResult findVerdict(String source, String name) {
+        if (!enabled || name == null) {
+            return null;
+        }
+        Verdict verdict = verdictsByName.get(nameKey(source, name));
+        if (verdict == null) {
+            return null;
+        }
+        return new AiContentValidationService.ValidationResult(verdict.valid, verdict.message, verdict.confidence);
+    }
+
+    /**
+     * Start a new sweep over the whole catalog. With force every row is validated again,
+     * otherwise only rows without a current verdict are.
+     */
+    public Map<String, Object> start(boolean force) {
+        Map<String, Object> summary = begin();
+        if (summary != null) {
+            return summary;
+        }
+        try {
+            for (String source : SOURCES) {
+                jdbcTemplate.update(RESET_CHECKPOINT_SQL, source, force);
+            }
+        } catch (Exception e) {
+            running.set(false);
+            logger.error("❌ Could not reset catalog validation checkpoints: {}", e.getMessage());
+            return Map.of("started", false, "message", "Could not reset checkpoints: " + e.getMessage());
+        }
+        jobExecutor.execute(this::run);
+        summary = new LinkedHashMap<>();
+        summary.put("started", true);
+        summary.put("force", force);
+        return summary;
+    }
+
+    /**
+     * Continue the last sweep from its checkpoints.
+     */
+    public Map<String, Object> resume() {
+        Map<String, Object> summary = begin();
+        if (summary != null) {
+            return summary;
+        }
+        jobExecutor.execute(this::run);
+        summary = new LinkedHashMap<>();
+        summary.put("started", true);
+        summary.put("resumed", true);
+        return summary;
+    }
+
+    /**
+     * Ask a running sweep to stop; rows already started finish, and resume picks up from the
+     * first row left without a verdict.
+     */
+    public Map<String, Object> stop() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        stopRequested = running.get();
+        summary.put("stopping", stopRequested);
+        return summary;
+    }
+
+    @Scheduled(cron = "${ai.catalog-validation.cron:0 0 2 * * *}")
+    public void scheduledRun() {
+        if (enabled && aiEnabled && !running.get()) {
+            logger.info("🕒 Scheduled catalog validation sweep starting");
+            if (hasUnfinishedCheckpoint()) {
+                resume();
+            } else {
+                start(false);
+            }
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("running", running.get());
+        status.put("version", versionTag());
+        status.put("concurrency", Math.max(1, concurrency));
+        status.put("ratePerMinute", rowsPerMinute);
+        status.put("storedVerdicts", verdicts.size());
+        status.put("invalidEntries", verdicts.values().stream().filter(v -> !v.valid).count());
+        status.put("validated", validated.get());
+        status.put("skipped", skipped.get());
+        status.put("failed", failed.get());
+        status.put("currentSource", currentSource);
+        status.put("startedAt", startedAt != null ? startedAt.toString() : null);
+        status.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+        status.put("lastError", lastError);
+        try {
+            List<Map<String, Object>> checkpoints = new ArrayList<>();
+            jdbcTemplate.query("SELECT source, last_row_id, forced, started_at, completed_at FROM ai_catalog_validation_checkpoint ORDER BY source", rs -> {
+                Map<String, Object> checkpoint = new LinkedHashMap<>();
+                checkpoint.put("source", rs.getString("source"));
+                checkpoint.put("lastRowId", rs.getLong("last_row_id"));
+                checkpoint.put("forced", rs.getBoolean("forced"));
+                checkpoint.put("startedAt", rs.getTimestamp("started_at") != null ? rs.getTimestamp("started_at").toLocalDateTime().toString() : null);
+                checkpoint.put("completedAt", rs.getTimestamp("completed_at") != null ? rs.getTimestamp("completed_at").toLocalDateTime().toString() : null);
+                checkpoints.add(checkpoint);
+            });
+            for (Map<String, Object> checkpoint : checkpoints) {
+                checkpoint.put("rows", jdbcTemplate.queryForObject(COUNT_SQL.get((String) checkpoint.get("source")), Long.class));
+            }
+            status.put("checkpoints", checkpoints);
+        } catch (Exception e) {
+            status.put("checkpointError", e.getMessage());
+        }
+        return status;
+    }
+
+    /**
+     * Entries the sweep judged invalid, for review
+     */
+    public List<Map<String, Object>> getInvalidEntries() {
+        return jdbcTemplate.query(
+            "SELECT source, row_id, item_name, confidence, message, validated_at FROM ai_catalog_validation " +
+            "WHERE version_tag = ? AND valid = FALSE ORDER BY source, row_id",
+            (rs, rowNum) -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("source", rs.getString("source"));
+                entry.put("rowId", rs.getLong("row_id"));
+                entry.put("name", rs.getString("item_name"));
+                entry.put("confidence", rs.getDouble("confidence"));
+                entry.put("message", rs.getString("message"));
+                entry.put("validatedAt", rs.getTimestamp("validated_at").toLocalDateTime().toString());
+                return entry;
+            }, versionTag());
+    }
+
+    private Map<String, Object> begin() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        if (!aiEnabled) {
+            summary.put("started", false);
+            summary.put("message", "AI validation is disabled; nothing to validate");
+            return summary;
+        }
+        if (!running.compareAndSet(false, true)) {
+            summary.put("started", false);
+            summary.put("message", "A catalog validation sweep is already in progress");
+            summary.put("status", getStatus());
+            return summary;
+        }
+        stopRequested = false;
+        validated.set(0);
+        skipped.set(0);
+        failed.set(0);
+        lastError = null;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        return null;
+    }
+
+    private void run() {
+        logger.info("🚀 Catalog validation sweep started");
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, concurrency), r -> {
+            Thread t = new Thread(r, "ai-catalog-validation-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (String source : SOURCES) {
+                if (stopRequested) {
+                    break;
+                }
+                Map<String, Object> checkpoint = jdbcTemplate.query(
+                    "SELECT last_row_id, forced, completed_at FROM ai_catalog_validation_checkpoint WHERE source = ?",
+                    rs -> rs.next() ? Map.<String, Object>of("lastRowId", rs.getLong("last_row_id"),
+                        "forced", rs.getBoolean("forced"), "completed", rs.getTimestamp("completed_at") != null) : null,
+                    source);
+                if (checkpoint == null || (Boolean) checkpoint.get("completed")) {
+                    continue;
+                }
+                currentSource = source;
+                if (!sweep(source, (Long) checkpoint.get("lastRowId"), (Boolean) checkpoint.get("forced"), workers)) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            logger.error("❌ Catalog validation sweep failed: {}", e.getMessage(), e);
+        } finally {
+            workers.shutdownNow();
+            currentSource = null;
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+            logger.info("✅ Catalog validation sweep finished: {} validated, {} skipped, {} failed",
+                validated.get(), skipped.get(), failed.get());
+        }
+    }
+
+    /**
+     * Walk one source from its checkpoint; false when the sweep should stop here.
+     */
+    private boolean sweep(String source, long lastRowId, boolean force, ExecutorService workers) throws Exception {
+        String model = COURSE.equals(source) ? educationModel : validationModel;
+        while (true) {
+            if (stopRequested) {
+                logger.info("⏹️ Catalog validation stopped at {} row {}", source, lastRowId);
+                return false;
+            }
+            // Don't record failures as verdicts while the model's circuit is open; the next run resumes here
+            if (!huggingFaceApiService.isModelAvailable(model)) {
+                lastError = "Hugging Face circuit open at " + source + " row " + lastRowId;
+                logger.warn("⚡ Catalog validation paused at {} row {}: model circuit open", source, lastRowId);
+                return false;
+            }
+            String pageSql = pageSql(source);
+            if (pageSql == null) {
+                lastError = "No name column found for " + source + " descriptions";
+                logger.warn("⚠️ Catalog validation skipped {}: description table has no known name column", source);
+                return true;
+            }
+            List<CatalogRow> page = jdbcTemplate.query(pageSql,
+                (rs, rowNum) -> new CatalogRow(rs.getLong("id"), rs.getString("name"), rs.getString("content")),
+                lastRowId, Math.max(1, pageSize));
+            if (page.isEmpty()) {
+                jdbcTemplate.update("UPDATE ai_catalog_validation_checkpoint SET completed_at = CURRENT_TIMESTAMP, " +
+                    "updated_at = CURRENT_TIMESTAMP WHERE source = ?", source);
+                logger.info("🏁 Catalog validation finished {}", source);
+                return true;
+            }
+            List<Future<RowOutcome>> tasks = new ArrayList<>();
+            for (CatalogRow row : page) {
+                tasks.add(workers.submit(() -> validateRow(source, row, force)));
+            }
+            List<Long> rowIds = new ArrayList<>(page.size());
+            List<RowOutcome> outcomes = new ArrayList<>(page.size());
+            for (int i = 0; i < page.size(); i++) {
+                rowIds.add(page.get(i).id);
+                outcomes.add(tasks.get(i).get());
+            }
+            Long checkpoint = checkpointAfterPage(lastRowId, rowIds, outcomes, stopRequested);
+            if (checkpoint == null) {
+                logger.info("⏹️ Catalog validation stopped in {} page after row {}", source, lastRowId);
+                return false;
+            }
+            if (checkpoint > lastRowId) {
+                lastRowId = checkpoint;
+                jdbcTemplate.update("UPDATE ai_catalog_validation_checkpoint SET last_row_id = ?, updated_at = CURRENT_TIMESTAMP " +
+                    "WHERE source = ?", lastRowId, source);
+            }
+            if (checkpoint != page.get(page.size() - 1).id) {
+                // A row failed; the next run retries from it rather than paging past it
+                logger.warn("⚠️ Catalog validation paused at {} row {}: a row failed", source, lastRowId);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Where the checkpoint may move after a page: past the leading rows that now have a verdict
+     * (stored, or unchanged since the stored one), stopping at the first row that still needs one.
+     * Null when it must stay where it is because the sweep was stopped or the model stopped
+     * answering partway through the page; that page is walked again on resume.
+     */
+    static Long checkpointAfterPage(long lastRowId, List<Long> rowIds, List<RowOutcome> outcomes, boolean stopRequested) {
+        if (stopRequested || outcomes.contains(RowOutcome.STOPPED) || outcomes.contains(RowOutcome.UNAVAILABLE)) {
+            return null;
+        }
+        long checkpoint = lastRowId;
+        for (int i = 0; i < rowIds.size(); i++) {
+            if (outcomes.get(i) != RowOutcome.STORED && outcomes.get(i) != RowOutcome.SKIPPED) {
+                break;
+            }
+            checkpoint = rowIds.get(i);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Page query for a source, or null when its description table layout is unknown
+     */
+    private String pageSql(String source) {
+        if (DEVELOPMENT_PLAN.equals(source)) {
+            return DEVELOPMENT_PLAN_PAGE_SQL;
+        }
+        DescriptionSchemaRegistry.DescriptionLookup lookup = COURSE.equals(source)
+            ? descriptionSchemaRegistry.getCourseLookup()
+            : descriptionSchemaRegistry.getCareerLookup();
+        if (!lookup.isAvailable()) {
+            return null;
+        }
+        return "SELECT id, " + lookup.getNameColumn() + " AS name, description AS content FROM " + lookup.getTable() +
+            " WHERE id > ? ORDER BY id LIMIT ?";
+    }
+
+    private RowOutcome validateRow(String source, CatalogRow row, boolean force) throws InterruptedException {
+        if (stopRequested) {
+            return RowOutcome.STOPPED;
+        }
+        if (row.name == null || row.name.isBlank()) {
+            // Nothing to validate
+            return RowOutcome.SKIPPED;
+        }
+        String content = row.content != null ? row.content : "";
+        String contentHash = hash(row.name + "\n" + content);
+        Verdict existing = verdicts.get(key(source, row.id));
+        if (!force && existing != null && existing.contentHash.equals(contentHash)) {
+            skipped.incrementAndGet();
+            return RowOutcome.SKIPPED;
+        }
+        throttle();
+        if (stopRequested) {
+            return RowOutcome.STOPPED;
+        }
+        try {
+            AiContentValidationService.ValidationResult result = AiQuotaGovernor.runIn(AiQuotaGovernor.Lane.BACKGROUND,
+                () -> validationService.validateCatalogEntry(source, row.name, content));
+            // Zero confidence is an unreachable model, not a verdict
+            if (result.getConfidence() <= 0) {
+                failed.incrementAndGet();
+                lastError = source + " row " + row.id + ": " + result.getMessage();
+                logger.warn("⚠️ Catalog validation got no answer for {} row {}: {}", source, row.id, result.getMessage());
+                return RowOutcome.UNAVAILABLE;
+            }
+            jdbcTemplate.update(UPSERT_SQL, source, row.id, row.name, contentHash, versionTag(),
+                result.isValid(), result.getConfidence(), result.getMessage());
+            Verdict verdict = new Verdict(row.name, contentHash, result.isValid(), result.getConfidence(), result.getMessage());
+            verdicts.put(key(source, row.id), verdict);
+            verdictsByName.put(nameKey(source, row.name), verdict);
+            validated.incrementAndGet();
+            return RowOutcome.STORED;
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            lastError = source + " row " + row.id + ": " + e.getMessage();
+            logger.warn("⚠️ Catalog validation failed for {} row {}: {}", source, row.id, e.getMessage());
+            return RowOutcome.FAILED;
+        }
+    }
+
+    // Space row starts evenly across all workers so a sweep never exceeds the configured rate,
+    // and give way to result views
+    private void throttle() throws InterruptedException {
+        while (!stopRequested && huggingFaceApiService.isBackgroundYielding()) {
+            Thread.sleep(YIELD_POLL_MS);
+        }
+        if (rowsPerMinute <= 0) {
+            return;
+        }
+        long wait;
+        synchronized (this) {
+            long interval = 60000L / rowsPerMinute;
+            long next = Math.max(System.currentTimeMillis(), lastTaskStartedAt + interval);
+            wait = next - System.currentTimeMillis();
+            lastTaskStartedAt = next;
+        }
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+    }
+
+    private boolean hasUnfinishedCheckpoint() {
+        try {
+            Integer unfinished = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ai_catalog_validation_checkpoint WHERE completed_at IS NULL", Integer.class);
+            return unfinished != null && unfinished > 0;
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not read catalog validation checkpoints: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // Verdicts from another endpoint (such as the stub), other models or an older prompt version are ignored
+    private String versionTag() {
+        return cacheVersion + ":" + validationModel + ":" + educationModel + ":" + apiUrl;
+    }
+
+    private static String key(String source, long rowId) {
+        return source + "|" + rowId;
+    }
+
+    private static String nameKey(String source, String name) {
+        return source + "|" + name.trim().toLowerCase();
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopRequested = true;
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * What became of one row in a page: a verdict was stored, it was skipped (unchanged or
+     * nameless), the sweep was stopped first, the model gave no answer, or storing failed
+     */
+    enum RowOutcome { STORED, SKIPPED, STOPPED, UNAVAILABLE, FAILED }
+
+    private static final class CatalogRow {
+        private final long id;
+        private final String name;
+        private final String content;
+
+        private CatalogRow(long id, String name, String content) {
+            this.id = id;
+            this.name = name;
+            this.content = content;
+        }
+    }
+
+    private static final class Verdict {
+        private final String name;
+        private final String contentHash;
+        private final boolean valid;
+        private final double confidence;
+        private final String message;
+
+        private Verdict(String name, String contentHash, boolean valid, double confidence, String message) {
+            this.name = name;
+            this.contentHash = contentHash;
+            this.valid = valid;
+            this.confidence = confidence;
+            this.message = message;
+        }
+    }
+}
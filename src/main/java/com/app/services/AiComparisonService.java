@@ -21,6 +21,9 @@ public class AiComparisonService {
     @Autowired
     private HuggingFaceApiService huggingFaceService;
     
+    @Autowired
+    private LocalRankingService localRankingService;
+    
     @Value("${huggingface.validation.enabled:false}")
     private boolean aiEnabled;
     
@@ -33,8 +36,13 @@ public class AiComparisonService {
      */
     public List<CourseRanking> rankCoursesByPersonality(String mbtiType, String riasecCode, String coursePath) {
         if (!aiEnabled) {
-            log.info("ℹ️ AI ranking disabled - using default ranking");
-            return getDefaultCourseRanking(coursePath);
+            log.info("ℹ️ AI ranking disabled - using local ranking");
+            return getDefaultCourseRanking(mbtiType, riasecCode, coursePath);
+        }
+        
+        if (!huggingFaceService.isModelAvailable(validationModel)) {
+            log.info("⚡ AI model unavailable (circuit open) - using local ranking");
+            return getDefaultCourseRanking(mbtiType, riasecCode, coursePath);
         }
         
         try {
@@ -62,7 +70,7 @@ public class AiComparisonService {
             
         } catch (Exception e) {
             log.error("❌ AI ranking failed: {}", e.getMessage(), e);
-            return getDefaultCourseRanking(coursePath);
+            return getDefaultCourseRanking(mbtiType, riasecCode, coursePath);
         }
     }
     
@@ -72,8 +80,13 @@ public class AiComparisonService {
      */
     public List<CareerRanking> rankCareersByPersonality(String mbtiType, String riasecCode, String careerSuggestions) {
         if (!aiEnabled) {
-            log.info("ℹ️ AI ranking disabled - using default ranking");
-            return getDefaultCareerRanking(careerSuggestions);
+            log.info("ℹ️ AI ranking disabled - using local ranking");
+            return getDefaultCareerRanking(mbtiType, riasecCode, careerSuggestions);
+        }
+        
+        if (!huggingFaceService.isModelAvailable(validationModel)) {
+            log.info("⚡ AI model unavailable (circuit open) - using local ranking");
+            return getDefaultCareerRanking(mbtiType, riasecCode, careerSuggestions);
         }
         
         try {
@@ -101,14 +114,83 @@ public class AiComparisonService {
             
         } catch (Exception e) {
             log.error("❌ AI ranking failed: {}", e.getMessage(), e);
-            return getDefaultCareerRanking(careerSuggestions);
+            return getDefaultCareerRanking(mbtiType, riasecCode, careerSuggestions);
+        }
+    }
+    
+    /**
+     * Course rankings for one result, computed once and shared with everything else reading the context
+     */
+    public List<CourseRanking> rankCoursesByPersonality(AiAnalysisContext context) {
+        try {
+            return context.courseRankings(() -> rankCoursesByPersonality(
+                context.getMbtiType(), context.getRiasecCode(), context.getCoursePath())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return getDefaultCourseRanking(context.getMbtiType(), context.getRiasecCode(), context.getCoursePath());
+        } catch (Exception e) {
+            log.error("❌ Shared course ranking failed: {}", e.getMessage());
+            return getDefaultCourseRanking(context.getMbtiType(), context.getRiasecCode(), context.getCoursePath());
+        }
+    }
+    
+    /**
+     * Career rankings for one result, computed once and shared with everything else reading the context
+     */
+    public List<CareerRanking> rankCareersByPersonality(AiAnalysisContext context) {
+        try {
+            return context.careerRankings(() -> rankCareersByPersonality(
+                context.getMbtiType(), context.getRiasecCode(), context.getCareerSuggestions())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return getDefaultCareerRanking(context.getMbtiType(), context.getRiasecCode(), context.getCareerSuggestions());
+        } catch (Exception e) {
+            log.error("❌ Shared career ranking failed: {}", e.getMessage());
+            return getDefaultCareerRanking(context.getMbtiType(), context.getRiasecCode(), context.getCareerSuggestions());
+        }
+    }
+    
+/**
+     * Course rankings from an AI answer obtained elsewhere (e.g. one section of a combined prompt)
+     */
+    public List<CourseRanking> rankCoursesFromResponse(String mbtiType, String riasecCode, String coursePath, String aiResponse) {
+        List<String> courses = parseCourses(coursePath);
+        if (courses.isEmpty()) {
+            return new ArrayList<>();
         }
+        return parseAiCourseRankings(aiResponse, courses, mbtiType, riasecCode);
+    }
+    
+    /**
+     * Career rankings from an AI answer obtained elsewhere (e.g. one section of a combined prompt)
+     */
+    public List<CareerRanking> rankCareersFromResponse(String mbtiType, String riasecCode, String careerSuggestions, String aiResponse) {
+        List<String> careers = parseCareers(careerSuggestions);
+        if (careers.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return parseAiCareerRankings(aiResponse, careers, mbtiType, riasecCode);
+    }
+    
+    /**
+     * Whether course rankings came from somewhere other than the validation model (the local
+     * engine stood in because the AI was disabled, failing or unreadable)
+     */
+    public static boolean isFallbackCourseRanking(List<CourseRanking> rankings) {
+        return rankings == null || rankings.stream().anyMatch(CourseRanking::isFallback);
+    }
+    
+    /**
+     * Career variant of isFallbackCourseRanking
+     */
+    public static boolean isFallbackCareerRanking(List<CareerRanking> rankings) {
+        return rankings == null || rankings.stream().anyMatch(CareerRanking::isFallback);
     }
     
     /**
      * Build AI prompt for course comparison
      */
-    private String buildCourseComparisonPrompt(String mbtiType, String riasecCode, List<String> courses) {
+    String buildCourseComparisonPrompt(String mbtiType, String riasecCode, List<String> courses) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("You are an expert career counselor and educational advisor.\n\n");
         prompt.append(String.format("Personality Profile: MBTI Type %s, RIASEC Code %s\n\n", mbtiType, riasecCode));
@@ -131,7 +213,7 @@ public class AiComparisonService {
     /**
      * Build AI prompt for career comparison
      */
-    private String buildCareerComparisonPrompt(String mbtiType, String riasecCode, List<String> careers) {
+    String buildCareerComparisonPrompt(String mbtiType, String riasecCode, List<String> careers) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("You are an expert career counselor specializing in personality-career matching.\n\n");
         prompt.append(String.format("Personality Profile: MBTI Type %s, RIASEC Code %s\n\n", mbtiType, riasecCode));
@@ -154,7 +236,7 @@ public class AiComparisonService {
     /**
      * Parse courses from coursePath string
      */
-    private List<String> parseCourses(String coursePath) {
+    static List<String> parseCourses(String coursePath) {
         if (coursePath == null || coursePath.trim().isEmpty()) {
             return new ArrayList<>();
         }
@@ -173,7 +255,7 @@ public class AiComparisonService {
     /**
      * Parse careers from careerSuggestions string
      */
-    private List<String> parseCareers(String careerSuggestions) {
+    static List<String> parseCareers(String careerSuggestions) {
         if (careerSuggestions == null || careerSuggestions.trim().isEmpty()) {
             return new ArrayList<>();
         }
@@ -221,9 +303,9 @@ public class AiComparisonService {
             log.error("Error parsing AI course rankings: {}", e.getMessage());
         }
         
-        // If parsing failed or no rankings, use intelligent default
+        // If parsing failed or no rankings, rank locally
         if (rankings.isEmpty()) {
-            rankings = generateIntelligentCourseRankings(courses, mbtiType, riasecCode);
+            rankings = localRankingService.rankCourses(mbtiType, riasecCode, String.join("; ", courses));
         }
         
         // Sort by rank
@@ -264,9 +346,9 @@ public class AiComparisonService {
             log.error("Error parsing AI career rankings: {}", e.getMessage());
         }
         
-        // If parsing failed or no rankings, use intelligent default
+        // If parsing failed or no rankings, rank locally
         if (rankings.isEmpty()) {
-            rankings = generateIntelligentCareerRankings(careers, mbtiType, riasecCode);
+            rankings = localRankingService.rankCareers(mbtiType, riasecCode, String.join("; ", careers));
         }
         
         // Sort by rank
@@ -276,177 +358,17 @@ public class AiComparisonService {
     }
     
     /**
-     * Generate intelligent course rankings using personality matching algorithms
-     */
-    private List<CourseRanking> generateIntelligentCourseRankings(List<String> courses, String mbtiType, String riasecCode) {
-        List<CourseRanking> rankings = new ArrayList<>();
-        
-        for (int i = 0; i < courses.size(); i++) {
-            String course = courses.get(i);
-            double score = calculateCourseMatchScore(course, mbtiType, riasecCode);
-            String reason = generateCourseMatchReason(course, mbtiType, riasecCode, score);
-            
-            rankings.add(new CourseRanking(i + 1, course, score, reason, mbtiType, riasecCode));
-        }
-        
-        // Sort by score (descending) and reassign ranks
-        rankings.sort((a, b) -> Double.compare(b.getMatchScore(), a.getMatchScore()));
-        for (int i = 0; i < rankings.size(); i++) {
-            rankings.get(i).setRank(i + 1);
-        }
-        
-        return rankings;
-    }
-    
-    /**
-     * Generate intelligent career rankings using personality matching algorithms
+     * Fallback when the AI is disabled or failing: the local ranking engine, no network involved
      */
-    private List<CareerRanking> generateIntelligentCareerRankings(List<String> careers, String mbtiType, String riasecCode) {
-        List<CareerRanking> rankings = new ArrayList<>();
-        
-        for (int i = 0; i < careers.size(); i++) {
-            String career = careers.get(i);
-            double score = calculateCareerMatchScore(career, mbtiType, riasecCode);
-            String reason = generateCareerMatchReason(career, mbtiType, riasecCode, score);
-            
-            rankings.add(new CareerRanking(i + 1, career, score, reason, mbtiType, riasecCode));
-        }
-        
-        // Sort by score (descending) and reassign ranks
-        rankings.sort((a, b) -> Double.compare(b.getMatchScore(), a.getMatchScore()));
-        for (int i = 0; i < rankings.size(); i++) {
-            rankings.get(i).setRank(i + 1);
-        }
-        
-        return rankings;
-    }
-    
-    /**
-     * Calculate course match score based on personality
-     */
-    private double calculateCourseMatchScore(String course, String mbtiType, String riasecCode) {
-        double baseScore = 75.0; // Base score
-        
-        // Adjust based on MBTI preferences
-        if (mbtiType.contains("I")) baseScore += course.toLowerCase().contains("research") ? 5 : 0;
-        if (mbtiType.contains("E")) baseScore += course.toLowerCase().contains("business") ? 5 : 0;
-        if (mbtiType.contains("N")) baseScore += course.toLowerCase().contains("science") ? 5 : 0;
-        if (mbtiType.contains("S")) baseScore += course.toLowerCase().contains("engineering") ? 5 : 0;
-        if (mbtiType.contains("T")) baseScore += course.toLowerCase().contains("computer") ? 5 : 0;
-        if (mbtiType.contains("F")) baseScore += course.toLowerCase().contains("psychology") ? 5 : 0;
-        
-        // Adjust based on RIASEC code
-        char primaryRiasec = riasecCode.charAt(0);
-        switch (primaryRiasec) {
-            case 'R': baseScore += course.toLowerCase().contains("engineering") ? 10 : 0; break;
-            case 'I': baseScore += course.toLowerCase().contains("science") ? 10 : 0; break;
-            case 'A': baseScore += course.toLowerCase().contains("art") ? 10 : 0; break;
-            case 'S': baseScore += course.toLowerCase().contains("social") ? 10 : 0; break;
-            case 'E': baseScore += course.toLowerCase().contains("business") ? 10 : 0; break;
-            case 'C': baseScore += course.toLowerCase().contains("accounting") ? 10 : 0; break;
-        }
-        
-        return Math.min(100.0, baseScore);
-    }
-    
-    /**
-     * Calculate career match score based on personality
-     */
-    private double calculateCareerMatchScore(String career, String mbtiType, String riasecCode) {
-        double baseScore = 75.0; // Base score
-        
-        // Adjust based on MBTI preferences
-        if (mbtiType.contains("I")) baseScore += career.toLowerCase().contains("analyst") ? 5 : 0;
-        if (mbtiType.contains("E")) baseScore += career.toLowerCase().contains("manager") ? 5 : 0;
-        if (mbtiType.contains("N")) baseScore += career.toLowerCase().contains("consultant") ? 5 : 0;
-        if (mbtiType.contains("S")) baseScore += career.toLowerCase().contains("engineer") ? 5 : 0;
-        if (mbtiType.contains("T")) baseScore += career.toLowerCase().contains("developer") ? 5 : 0;
-        if (mbtiType.contains("F")) baseScore += career.toLowerCase().contains("counselor") ? 5 : 0;
-        
-        // Adjust based on RIASEC code
-        char primaryRiasec = riasecCode.charAt(0);
-        switch (primaryRiasec) {
-            case 'R': baseScore += career.toLowerCase().contains("engineer") ? 10 : 0; break;
-            case 'I': baseScore += career.toLowerCase().contains("researcher") ? 10 : 0; break;
-            case 'A': baseScore += career.toLowerCase().contains("designer") ? 10 : 0; break;
-            case 'S': baseScore += career.toLowerCase().contains("teacher") ? 10 : 0; break;
-            case 'E': baseScore += career.toLowerCase().contains("entrepreneur") ? 10 : 0; break;
-            case 'C': baseScore += career.toLowerCase().contains("accountant") ? 10 : 0; break;
-        }
-        
-        return Math.min(100.0, baseScore);
+    private List<CourseRanking> getDefaultCourseRanking(String mbtiType, String riasecCode, String coursePath) {
+        return localRankingService.rankCourses(mbtiType, riasecCode, coursePath);
     }
     
     /**
-     * Generate match reason for course
+     * Career fallback; see getDefaultCourseRanking
      */
-    private String generateCourseMatchReason(String course, String mbtiType, String riasecCode, double score) {
-        if (score >= 90) {
-            return String.format("Excellent fit for %s personality with %s interests", mbtiType, riasecCode);
-        } else if (score >= 80) {
-            return String.format("Strong alignment with %s traits and %s preferences", mbtiType, riasecCode);
-        } else if (score >= 70) {
-            return String.format("Good match for %s personality type", mbtiType);
-        } else {
-            return String.format("Moderate fit for %s with %s code", mbtiType, riasecCode);
-        }
-    }
-    
-    /**
-     * Generate match reason for career
-     */
-    private String generateCareerMatchReason(String career, String mbtiType, String riasecCode, double score) {
-        if (score >= 90) {
-            return String.format("Ideal career for %s personality with %s interests", mbtiType, riasecCode);
-        } else if (score >= 80) {
-            return String.format("Strong career match for %s traits", mbtiType);
-        } else if (score >= 70) {
-            return String.format("Good career option for %s type", mbtiType);
-        } else {
-            return String.format("Suitable for %s with %s interests", mbtiType, riasecCode);
-        }
-    }
-    
-    /**
-     * Get default course ranking (fallback)
-     */
-    private List<CourseRanking> getDefaultCourseRanking(String coursePath) {
-        List<String> courses = parseCourses(coursePath);
-        List<CourseRanking> rankings = new ArrayList<>();
-        
-        for (int i = 0; i < courses.size(); i++) {
-            rankings.add(new CourseRanking(
-                i + 1,
-                courses.get(i),
-                75.0,
-                "Good match based on personality profile",
-                "N/A",
-                "N/A"
-            ));
-        }
-        
-        return rankings;
-    }
-    
-    /**
-     * Get default career ranking (fallback)
-     */
-    private List<CareerRanking> getDefaultCareerRanking(String careerSuggestions) {
-        List<String> careers = parseCareers(careerSuggestions);
-        List<CareerRanking> rankings = new ArrayList<>();
-        
-        for (int i = 0; i < careers.size(); i++) {
-            rankings.add(new CareerRanking(
-                i + 1,
-                careers.get(i),
-                75.0,
-                "Good match based on personality profile",
-                "N/A",
-                "N/A"
-            ));
-        }
-        
-        return rankings;
+    private List<CareerRanking> getDefaultCareerRanking(String mbtiType, String riasecCode, String careerSuggestions) {
+        return localRankingService.rankCareers(mbtiType, riasecCode, careerSuggestions);
     }
     
     /**
@@ -460,6 +382,11 @@ public class AiComparisonService {
         private String mbtiType;
         private String riasecCode;
         private boolean aiRecommended;
+        private boolean fallback;
+        
+        public CourseRanking() {
+            // For Jackson (precomputed rankings are stored as JSON)
+        }
         
         public CourseRanking(int rank, String courseName, double matchScore, String matchReason, 
                            String mbtiType, String riasecCode) {
@@ -496,6 +423,10 @@ public class AiComparisonService {
         
         public boolean isAiRecommended() { return aiRecommended; }
         public void setAiRecommended(boolean aiRecommended) { this.aiRecommended = aiRecommended; }
+        
+        // Set by the local ranking engine; model answers leave it false
+        public boolean isFallback() { return fallback; }
+        public void setFallback(boolean fallback) { this.fallback = fallback; }
     }
     
     /**
@@ -509,6 +440,11 @@ public class AiComparisonService {
         private String mbtiType;
         private String riasecCode;
         private boolean aiRecommended;
+        private boolean fallback;
+        
+        public CareerRanking() {
+            // For Jackson (precomputed rankings are stored as JSON)
+        }
         
         public CareerRanking(int rank, String careerName, double matchScore, String matchReason,
                            String mbtiType, String riasecCode) {
@@ -545,5 +481,9 @@ public class AiComparisonService {
         
         public boolean isAiRecommended() { return aiRecommended; }
         public void setAiRecommended(boolean aiRecommended) { this.aiRecommended = aiRecommended; }
+        
+        // Set by the local ranking engine; model answers leave it false
+        public boolean isFallback() { return fallback; }
+        public void setFallback(boolean fallback) { this.fallback = fallback; }
     }
 }
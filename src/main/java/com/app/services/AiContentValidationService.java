@@ -4,10 +4,12 @@ import com.app.dto.EnhancedTestResultDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AiContentValidationService {
@@ -17,6 +19,10 @@ public class AiContentValidationService {
     @Autowired
     private HuggingFaceApiService huggingFaceService;
     
+    @Lazy
+    @Autowired
+    private AiCatalogValidationService catalogValidationService;
+    
     /**
      * Validate complete test result data
      */
@@ -109,74 +115,155 @@ public class AiContentValidationService {
      * Validate course recommendations
      */
     public ValidationResult validateCourseRecommendations(String coursePath) {
+        return validateCourseRecommendationsAsync(coursePath).join();
+    }
+    
+    /**
+     * Validate course recommendations without holding the caller's thread. Courses are checked
+     * one after another and the first invalid one ends the check; never completes exceptionally.
+     */
+    public CompletableFuture<ValidationResult> validateCourseRecommendationsAsync(String coursePath) {
         log.debug("🔍 Validating course recommendations: {}", coursePath);
         
         try {
             // Parse courses from the course path string
             List<String> courses = parseCourses(coursePath);
             
+            CompletableFuture<ValidationResult> firstFailure = CompletableFuture.completedFuture(null);
             for (String course : courses) {
-                String[] parts = course.split(":", 2);
-                String courseName = parts[0].trim();
-                String courseDescription = parts.length > 1 ? parts[1].trim() : "";
-                
-                // Validate each course
-                HuggingFaceApiService.ValidationResponse response = 
-                    huggingFaceService.validateCourseDescription(courseName, courseDescription);
-                
-                if (!response.isValid()) {
-                    return new ValidationResult(false, 
-                        String.format("Course validation failed for '%s': %s", courseName, response.getMessage()),
-                        response.getConfidence()
-                    );
-                }
+                firstFailure = firstFailure.thenCompose(failure -> failure != null
+                    ? CompletableFuture.completedFuture(failure)
+                    : validateCourseAsync(course));
             }
             
-            return new ValidationResult(true, "All course recommendations are valid", 0.9);
+            return firstFailure
+                .thenApply(failure -> failure != null ? failure
+                    : new ValidationResult(true, "All course recommendations are valid", 0.9))
+                .exceptionally(e -> {
+                    log.error("❌ Error validating course recommendations: {}", e.getMessage(), e);
+                    return new ValidationResult(false, "Course validation error: " + e.getMessage(), 0.0);
+                });
             
         } catch (Exception e) {
             log.error("❌ Error validating course recommendations: {}", e.getMessage(), e);
-            return new ValidationResult(false, "Course validation error: " + e.getMessage(), 0.0);
+            return CompletableFuture.completedFuture(
+                new ValidationResult(false, "Course validation error: " + e.getMessage(), 0.0));
         }
     }
     
+    /**
+     * One course's check; completes with null when the course is valid
+     */
+    private CompletableFuture<ValidationResult> validateCourseAsync(String course) {
+        String[] parts = course.split(":", 2);
+        String courseName = parts[0].trim();
+        String courseDescription = parts.length > 1 ? parts[1].trim() : "";
+        
+        // Catalog entries already checked by the sweep are not sent to the AI again
+        ValidationResult stored = catalogValidationService.findVerdict(AiCatalogValidationService.COURSE, courseName);
+        if (stored != null) {
+            return CompletableFuture.completedFuture(stored.isValid() ? null : new ValidationResult(false,
+                String.format("Course validation failed for '%s': %s", courseName, stored.getMessage()),
+                stored.getConfidence()
+            ));
+        }
+        
+        // Validate each course
+        return huggingFaceService.validateCourseDescriptionAsync(courseName, courseDescription)
+            .thenApply(response -> response.isValid() ? null : new ValidationResult(false, 
+                String.format("Course validation failed for '%s': %s", courseName, response.getMessage()),
+                response.getConfidence()
+            ));
+    }
+    
     /**
      * Validate career suggestions
      */
     public ValidationResult validateCareerSuggestions(String careerSuggestions) {
+        return validateCareerSuggestionsAsync(careerSuggestions).join();
+    }
+    
+    /**
+     * Validate career suggestions without holding the caller's thread. Careers are checked one
+     * after another and the first invalid one ends the check; never completes exceptionally.
+     */
+    public CompletableFuture<ValidationResult> validateCareerSuggestionsAsync(String careerSuggestions) {
         log.debug("🔍 Validating career suggestions: {}", careerSuggestions);
         
         try {
             // Parse careers from the career suggestions string
             List<String> careers = parseCareers(careerSuggestions);
             
+            CompletableFuture<ValidationResult> firstFailure = CompletableFuture.completedFuture(null);
             for (String career : careers) {
-                String[] parts = career.split(":", 2);
-                String careerName = parts[0].trim();
-                String careerDescription = parts.length > 1 ? parts[1].trim() : "";
-                
-                // For now, we'll use a placeholder salary range
-                // In a real implementation, you'd get this from your data
-                String salaryRange = "₱20,000 - ₱50,000"; // Placeholder
-                
-                // Validate each career
-                HuggingFaceApiService.ValidationResponse response = 
-                    huggingFaceService.validateCareerInfo(careerName, careerDescription, salaryRange);
-                
-                if (!response.isValid()) {
-                    return new ValidationResult(false, 
-                        String.format("Career validation failed for '%s': %s", careerName, response.getMessage()),
-                        response.getConfidence()
-                    );
-                }
+                firstFailure = firstFailure.thenCompose(failure -> failure != null
+                    ? CompletableFuture.completedFuture(failure)
+                    : validateCareerAsync(career));
             }
             
-            return new ValidationResult(true, "All career suggestions are valid", 0.9);
+            return firstFailure
+                .thenApply(failure -> failure != null ? failure
+                    : new ValidationResult(true, "All career suggestions are valid", 0.9))
+                .exceptionally(e -> {
+                    log.error("❌ Error validating career suggestions: {}", e.getMessage(), e);
+                    return new ValidationResult(false, "Career validation error: " + e.getMessage(), 0.0);
+                });
             
         } catch (Exception e) {
             log.error("❌ Error validating career suggestions: {}", e.getMessage(), e);
-            return new ValidationResult(false, "Career validation error: " + e.getMessage(), 0.0);
+            return CompletableFuture.completedFuture(
+                new ValidationResult(false, "Career validation error: " + e.getMessage(), 0.0));
+        }
+    }
+    
+    /**
+     * One career's check; completes with null when the career is valid
+     */
+    private CompletableFuture<ValidationResult> validateCareerAsync(String career) {
+        String[] parts = career.split(":", 2);
+        String careerName = parts[0].trim();
+        String careerDescription = parts.length > 1 ? parts[1].trim() : "";
+        
+        // For now, we'll use a placeholder salary range
+        // In a real implementation, you'd get this from your data
+        String salaryRange = "₱20,000 - ₱50,000"; // Placeholder
+        
+        ValidationResult stored = catalogValidationService.findVerdict(AiCatalogValidationService.CAREER, careerName);
+        if (stored != null) {
+            return CompletableFuture.completedFuture(stored.isValid() ? null : new ValidationResult(false,
+                String.format("Career validation failed for '%s': %s", careerName, stored.getMessage()),
+                stored.getConfidence()
+            ));
+        }
+        
+        // Validate each career
+        return huggingFaceService.validateCareerInfoAsync(careerName, careerDescription, salaryRange)
+            .thenApply(response -> response.isValid() ? null : new ValidationResult(false, 
+                String.format("Career validation failed for '%s': %s", careerName, response.getMessage()),
+                response.getConfidence()
+            ));
+    }
+    
+    /**
+     * Validate one catalog entry (course, career or development plan) on its own, for the
+     * catalog sweep. Confidence 0 means the AI could not be reached, not that the entry is invalid.
+     */
+    public ValidationResult validateCatalogEntry(String source, String name, String content) {
+        HuggingFaceApiService.ValidationResponse response;
+        switch (source) {
+            case AiCatalogValidationService.COURSE:
+                response = huggingFaceService.validateCourseDescription(name, content);
+                break;
+            case AiCatalogValidationService.CAREER:
+                response = huggingFaceService.validateCareerInfo(name, content, "Not specified");
+                break;
+            case AiCatalogValidationService.DEVELOPMENT_PLAN:
+                response = huggingFaceService.validateDevelopmentPlan(name, content);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown catalog source: " + source);
         }
+        return new ValidationResult(response.isValid(), response.getMessage(), response.getConfidence());
     }
     
     /**
@@ -184,24 +271,28 @@ public class AiContentValidationService {
      */
     public ValidationResult validatePersonalityMapping(String mbtiType, String riasecCode, 
                                                       String courseSuggestions, String careerSuggestions) {
+        return validatePersonalityMappingAsync(mbtiType, riasecCode, courseSuggestions, careerSuggestions).join();
+    }
+    
+    /**
+     * Validate personality mapping without holding the caller's thread; never completes exceptionally
+     */
+    public CompletableFuture<ValidationResult> validatePersonalityMappingAsync(String mbtiType, String riasecCode, 
+                                                                              String courseSuggestions, String careerSuggestions) {
         log.debug("🔍 Validating personality mapping: MBTI={}, RIASEC={}", mbtiType, riasecCode);
         
-        try {
-            String combinedSuggestions = courseSuggestions + "; " + careerSuggestions;
-            
-            HuggingFaceApiService.ValidationResponse response = 
-                huggingFaceService.validatePersonalityMapping(mbtiType, riasecCode, combinedSuggestions);
-            
-            return new ValidationResult(
+        String combinedSuggestions = courseSuggestions + "; " + careerSuggestions;
+        
+        return huggingFaceService.validatePersonalityMappingAsync(mbtiType, riasecCode, combinedSuggestions)
+            .thenApply(response -> new ValidationResult(
                 response.isValid(),
                 response.getMessage(),
                 response.getConfidence()
-            );
-            
-        } catch (Exception e) {
-            log.error("❌ Error validating personality mapping: {}", e.getMessage(), e);
-            return new ValidationResult(false, "Personality validation error: " + e.getMessage(), 0.0);
-        }
+            ))
+            .exceptionally(e -> {
+                log.error("❌ Error validating personality mapping: {}", e.getMessage(), e);
+                return new ValidationResult(false, "Personality validation error: " + e.getMessage(), 0.0);
+            });
     }
     
     /**
@@ -7,6 +7,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
@@ -19,9 +22,15 @@ public class AiModelComparisonService {
     
     private static final Logger log = LoggerFactory.getLogger(AiModelComparisonService.class);
     
+    public static final String MODEL1_LABEL = "DialoGPT-Large";
+    public static final String MODEL2_LABEL = "GPT-Neo-2.7B";
+    
     @Autowired
     private HuggingFaceApiService huggingFaceService;
     
+    @Autowired
+    private AiComparisonService aiComparisonService;
+    
     @Value("${huggingface.validation.enabled:false}")
     private boolean aiEnabled;
     
@@ -31,54 +40,59 @@ public class AiModelComparisonService {
     @Value("${huggingface.model.education}")
     private String model2; // GPT-neo-2.7B
     
+    @Value("${ai.comparison.model.timeout:45000}")
+    private long modelTimeoutMs;
+    
     /**
      * Compare two models' analysis of courses for a given personality
      */
     public ModelComparisonResult compareCourseAnalysis(String mbtiType, String riasecCode, String coursePath) {
+        return compareCourseAnalysis(new AiAnalysisContext(mbtiType, riasecCode, coursePath, null));
+    }
+    
+    /**
+     * Compare two models' analysis of the result's courses. Model 1's side is the course ranking
+     * held by the context (started here if nobody asked for it yet), so the validation model is
+     * not asked a second time for what is the same assessment.
+     */
+    public ModelComparisonResult compareCourseAnalysis(AiAnalysisContext context) {
+        String mbtiType = context.getMbtiType();
+        String riasecCode = context.getRiasecCode();
         if (!aiEnabled) {
             log.info("ℹ️ AI comparison disabled - using mock comparison");
-            return createMockComparison(mbtiType, riasecCode, coursePath);
+            return createMockComparison(mbtiType, riasecCode, context.getCoursePath());
+        }
+        
+        if (!huggingFaceService.isModelAvailable(model1) || !huggingFaceService.isModelAvailable(model2)) {
+            log.info("⚡ AI model unavailable (circuit open) - using mock comparison");
+            return createMockComparison(mbtiType, riasecCode, context.getCoursePath());
         }
         
         try {
             log.info("🤖 AI: Comparing models for course analysis - MBTI: {}, RIASEC: {}", mbtiType, riasecCode);
             
-            // Parse courses
-            List<String> courses = parseCourses(coursePath);
+            List<String> courses = context.getCourses();
             if (courses.isEmpty()) {
                 return new ModelComparisonResult();
             }
             
-            // Get analysis from both models
-            List<CourseAnalysis> model1Analysis = getModel1CourseAnalysis(mbtiType, riasecCode, courses);
-            List<CourseAnalysis> model2Analysis = getModel2CourseAnalysis(mbtiType, riasecCode, courses);
-            
-            // Create comparison result
-            ModelComparisonResult result = new ModelComparisonResult();
-            result.setMbtiType(mbtiType);
-            result.setRiasecCode(riasecCode);
-            result.setComparisonType("COURSE_ANALYSIS");
-            result.setModel1Name("DialoGPT-Large (Analytical)");
-            result.setModel2Name("GPT-Neo-2.7B (Creative)");
-            
-            // Compare each course
-            List<CourseComparison> courseComparisons = new ArrayList<>();
-            for (String course : courses) {
-                CourseAnalysis analysis1 = findAnalysisForCourse(model1Analysis, course);
-                CourseAnalysis analysis2 = findAnalysisForCourse(model2Analysis, course);
-                
-                CourseComparison comparison = createCourseComparison(course, analysis1, analysis2);
-                courseComparisons.add(comparison);
-            }
-            
-            result.setCourseComparisons(courseComparisons);
+            // Query both models at once and wait for them against one deadline
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(modelTimeoutMs);
+            CompletableFuture<List<CourseAnalysis>> model1Future = context.courseRankings(() -> aiComparisonService
+                    .rankCoursesByPersonality(mbtiType, riasecCode, context.getCoursePath()))
+                .thenApply(rankings -> toCourseAnalysis(rankings, mbtiType, riasecCode, courses));
+            CompletableFuture<List<CourseAnalysis>> model2Future = getModel2CourseAnalysis(mbtiType, riasecCode, courses);
+            List<String> missingModels = new ArrayList<>();
+            List<CourseAnalysis> model1Analysis = awaitModel(model1Future, deadline, MODEL1_LABEL, missingModels);
+            List<CourseAnalysis> model2Analysis = awaitModel(model2Future, deadline, MODEL2_LABEL, missingModels);
             
+            ModelComparisonResult result = buildCourseComparison(mbtiType, riasecCode, courses, model1Analysis, model2Analysis, missingModels);
             log.info("✅ AI model comparison completed for {} courses", courses.size());
             return result;
             
         } catch (Exception e) {
             log.error("❌ AI model comparison failed: {}", e.getMessage(), e);
-            return createMockComparison(mbtiType, riasecCode, coursePath);
+            return createMockComparison(mbtiType, riasecCode, context.getCoursePath());
         }
     }
     
@@ -86,201 +100,316 @@ public class AiModelComparisonService {
      * Compare two models' analysis of careers for a given personality
      */
     public ModelComparisonResult compareCareerAnalysis(String mbtiType, String riasecCode, String careerSuggestions) {
+        return compareCareerAnalysis(new AiAnalysisContext(mbtiType, riasecCode, null, careerSuggestions));
+    }
+    
+    /**
+     * Compare two models' analysis of the result's careers; see compareCourseAnalysis(AiAnalysisContext)
+     */
+    public ModelComparisonResult compareCareerAnalysis(AiAnalysisContext context) {
+        String mbtiType = context.getMbtiType();
+        String riasecCode = context.getRiasecCode();
         if (!aiEnabled) {
             log.info("ℹ️ AI comparison disabled - using mock comparison");
-            return createMockCareerComparison(mbtiType, riasecCode, careerSuggestions);
+            return createMockCareerComparison(mbtiType, riasecCode, context.getCareerSuggestions());
+        }
+        
+        if (!huggingFaceService.isModelAvailable(model1) || !huggingFaceService.isModelAvailable(model2)) {
+            log.info("⚡ AI model unavailable (circuit open) - using mock comparison");
+            return createMockCareerComparison(mbtiType, riasecCode, context.getCareerSuggestions());
         }
         
         try {
             log.info("🤖 AI: Comparing models for career analysis - MBTI: {}, RIASEC: {}", mbtiType, riasecCode);
             
-            // Parse careers
-            List<String> careers = parseCareers(careerSuggestions);
+            List<String> careers = context.getCareers();
             if (careers.isEmpty()) {
                 return new ModelComparisonResult();
             }
             
-            // Get analysis from both models
-            List<CareerAnalysis> model1Analysis = getModel1CareerAnalysis(mbtiType, riasecCode, careers);
-            List<CareerAnalysis> model2Analysis = getModel2CareerAnalysis(mbtiType, riasecCode, careers);
-            
-            // Create comparison result
-            ModelComparisonResult result = new ModelComparisonResult();
-            result.setMbtiType(mbtiType);
-            result.setRiasecCode(riasecCode);
-            result.setComparisonType("CAREER_ANALYSIS");
-            result.setModel1Name("DialoGPT-Large (Analytical)");
-            result.setModel2Name("GPT-Neo-2.7B (Creative)");
-            
-            // Compare each career
-            List<CareerComparison> careerComparisons = new ArrayList<>();
-            for (String career : careers) {
-                CareerAnalysis analysis1 = findAnalysisForCareer(model1Analysis, career);
-                CareerAnalysis analysis2 = findAnalysisForCareer(model2Analysis, career);
-                
-                CareerComparison comparison = createCareerComparison(career, analysis1, analysis2);
-                careerComparisons.add(comparison);
-            }
-            
-            result.setCareerComparisons(careerComparisons);
+            // Query both models at once and wait for them against one deadline
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(modelTimeoutMs);
+            CompletableFuture<List<CareerAnalysis>> model1Future = context.careerRankings(() -> aiComparisonService
+                    .rankCareersByPersonality(mbtiType, riasecCode, context.getCareerSuggestions()))
+                .thenApply(rankings -> toCareerAnalysis(rankings, mbtiType, riasecCode, careers));
+            CompletableFuture<List<CareerAnalysis>> model2Future = getModel2CareerAnalysis(mbtiType, riasecCode, careers);
+            List<String> missingModels = new ArrayList<>();
+            List<CareerAnalysis> model1Analysis = awaitModel(model1Future, deadline, MODEL1_LABEL, missingModels);
+            List<CareerAnalysis> model2Analysis = awaitModel(model2Future, deadline, MODEL2_LABEL, missingModels);
             
+            ModelComparisonResult result = buildCareerComparison(mbtiType, riasecCode, careers, model1Analysis, model2Analysis, missingModels);
             log.info("✅ AI model comparison completed for {} careers", careers.size());
             return result;
             
         } catch (Exception e) {
             log.error("❌ AI model comparison failed: {}", e.getMessage(), e);
-            return createMockCareerComparison(mbtiType, riasecCode, careerSuggestions);
+            return createMockCareerComparison(mbtiType, riasecCode, context.getCareerSuggestions());
         }
     }
     
     /**
-     * Get Model 1 (DialoGPT-Large) course analysis
+     * Course comparison from rankings and a model 2 answer obtained elsewhere (e.g. a section of a
+     * combined prompt). A model listed in missingModels missed its deadline and contributes nothing;
+     * an empty or unreadable model 2 answer gets the usual generated fallback.
      */
-    private List<CourseAnalysis> getModel1CourseAnalysis(String mbtiType, String riasecCode, List<String> courses) {
-        try {
-            String prompt = buildModel1CoursePrompt(mbtiType, riasecCode, courses);
-            String response = huggingFaceService.generateText(model1, prompt);
+    public ModelComparisonResult compareCourseFromRankings(AiAnalysisContext context, List<AiComparisonService.CourseRanking> model1Rankings,
+                                                          String model2Response, List<String> missingModels) {
+        List<String> courses = context.getCourses();
+        if (courses.isEmpty()) {
+            return new ModelComparisonResult();
+        }
+        String mbtiType = context.getMbtiType();
+        String riasecCode = context.getRiasecCode();
+        List<CourseAnalysis> model1Analysis = missingModels.contains(MODEL1_LABEL) ? new ArrayList<>()
+            : toCourseAnalysis(model1Rankings, mbtiType, riasecCode, courses);
+        List<CourseAnalysis> model2Analysis = missingModels.contains(MODEL2_LABEL) ? new ArrayList<>()
+            : toCourseAnalysis(model2Response, "Model 2", MODEL2_LABEL, false, mbtiType, riasecCode, courses);
+        return buildCourseComparison(mbtiType, riasecCode, courses, model1Analysis, model2Analysis, new ArrayList<>(missingModels));
+    }
+    
+    /**
+     * Career comparison from rankings and a model 2 answer obtained elsewhere; see compareCourseFromRankings
+     */
+    public ModelComparisonResult compareCareerFromRankings(AiAnalysisContext context, List<AiComparisonService.CareerRanking> model1Rankings,
+                                                          String model2Response, List<String> missingModels) {
+        List<String> careers = context.getCareers();
+        if (careers.isEmpty()) {
+            return new ModelComparisonResult();
+        }
+        String mbtiType = context.getMbtiType();
+        String riasecCode = context.getRiasecCode();
+        List<CareerAnalysis> model1Analysis = missingModels.contains(MODEL1_LABEL) ? new ArrayList<>()
+            : toCareerAnalysis(model1Rankings, mbtiType, riasecCode, careers);
+        List<CareerAnalysis> model2Analysis = missingModels.contains(MODEL2_LABEL) ? new ArrayList<>()
+            : toCareerAnalysis(model2Response, "Model 2", MODEL2_LABEL, false, mbtiType, riasecCode, careers);
+        return buildCareerComparison(mbtiType, riasecCode, careers, model1Analysis, model2Analysis, new ArrayList<>(missingModels));
+    }
+    
+    /**
+     * Pair up both models' course analyses into a comparison result
+     */
+    private ModelComparisonResult buildCourseComparison(String mbtiType, String riasecCode, List<String> courses,
+                                                        List<CourseAnalysis> model1Analysis, List<CourseAnalysis> model2Analysis,
+                                                        List<String> missingModels) {
+        // Create comparison result
+        ModelComparisonResult result = new ModelComparisonResult();
+        result.setMbtiType(mbtiType);
+        result.setRiasecCode(riasecCode);
+        result.setComparisonType("COURSE_ANALYSIS");
+        result.setModel1Name("DialoGPT-Large (Analytical)");
+        result.setModel2Name("GPT-Neo-2.7B (Creative)");
+        
+        // Compare each course
+        List<CourseComparison> courseComparisons = new ArrayList<>();
+        for (String course : courses) {
+            CourseAnalysis analysis1 = findAnalysisForCourse(model1Analysis, course);
+            CourseAnalysis analysis2 = findAnalysisForCourse(model2Analysis, course);
             
-            log.debug("🤖 Model 1 raw response: {}", response);
+            CourseComparison comparison = createCourseComparison(course, analysis1, analysis2);
+            courseComparisons.add(comparison);
+        }
+        
+        result.setCourseComparisons(courseComparisons);
+        result.setFallback(model1Analysis.stream().anyMatch(CourseAnalysis::isFallback)
+            || model2Analysis.stream().anyMatch(CourseAnalysis::isFallback));
+        markPartial(result, missingModels);
+        return result;
+    }
+    
+    /**
+     * Pair up both models' career analyses into a comparison result
+     */
+    private ModelComparisonResult buildCareerComparison(String mbtiType, String riasecCode, List<String> careers,
+                                                        List<CareerAnalysis> model1Analysis, List<CareerAnalysis> model2Analysis,
+                                                        List<String> missingModels) {
+        // Create comparison result
+        ModelComparisonResult result = new ModelComparisonResult();
+        result.setMbtiType(mbtiType);
+        result.setRiasecCode(riasecCode);
+        result.setComparisonType("CAREER_ANALYSIS");
+        result.setModel1Name("DialoGPT-Large (Analytical)");
+        result.setModel2Name("GPT-Neo-2.7B (Creative)");
+        
+        // Compare each career
+        List<CareerComparison> careerComparisons = new ArrayList<>();
+        for (String career : careers) {
+            CareerAnalysis analysis1 = findAnalysisForCareer(model1Analysis, career);
+            CareerAnalysis analysis2 = findAnalysisForCareer(model2Analysis, career);
             
-            if (response == null || response.trim().isEmpty()) {
-                log.warn("⚠️ Model 1 returned empty response, generating fallback data");
-                return generateFallbackCourseAnalysis(courses, mbtiType, riasecCode, "DialoGPT-Large", true);
+            CareerComparison comparison = createCareerComparison(career, analysis1, analysis2);
+            careerComparisons.add(comparison);
+        }
+        
+        result.setCareerComparisons(careerComparisons);
+        result.setFallback(model1Analysis.stream().anyMatch(CareerAnalysis::isFallback)
+            || model2Analysis.stream().anyMatch(CareerAnalysis::isFallback));
+        markPartial(result, missingModels);
+        return result;
+    }
+    
+    /**
+     * Get Model 2 (GPT-Neo-2.7B) course analysis
+     */
+    private CompletableFuture<List<CourseAnalysis>> getModel2CourseAnalysis(String mbtiType, String riasecCode, List<String> courses) {
+        String prompt = buildModel2CoursePrompt(mbtiType, riasecCode, courses);
+        return huggingFaceService.generateTextAsync(model2, prompt)
+            .thenApply(response -> toCourseAnalysis(response, "Model 2", MODEL2_LABEL, false, mbtiType, riasecCode, courses));
+    }
+    
+    /**
+     * Get Model 2 (GPT-Neo-2.7B) career analysis
+     */
+    private CompletableFuture<List<CareerAnalysis>> getModel2CareerAnalysis(String mbtiType, String riasecCode, List<String> careers) {
+        String prompt = buildModel2CareerPrompt(mbtiType, riasecCode, careers);
+        return huggingFaceService.generateTextAsync(model2, prompt)
+            .thenApply(response -> toCareerAnalysis(response, "Model 2", MODEL2_LABEL, false, mbtiType, riasecCode, careers));
+    }
+    
+    /**
+     * Model 1's course side from the validation model's course ranking; ranked names are matched
+     * back to the listed courses, and courses the ranking left out get the generated fallback.
+     */
+    private List<CourseAnalysis> toCourseAnalysis(List<AiComparisonService.CourseRanking> rankings,
+                                                  String mbtiType, String riasecCode, List<String> courses) {
+        List<CourseAnalysis> analyses = new ArrayList<>();
+        if (rankings != null) {
+            for (AiComparisonService.CourseRanking ranking : rankings) {
+                String course = findMatchingCourse(ranking.getCourseName(), courses);
+                if (course != null && findAnalysisForCourse(analyses, course) == null) {
+                    CourseAnalysis analysis = new CourseAnalysis(course, ranking.getMatchScore(), ranking.getMatchReason(), MODEL1_LABEL);
+                    // Local-engine rankings stand in for the model, so their analyses do too
+                    analysis.setFallback(ranking.isFallback());
+                    analyses.add(analysis);
+                }
             }
-            
-            List<CourseAnalysis> analyses = parseCourseAnalysis(response, "DialoGPT-Large", courses);
-            
-            if (analyses.isEmpty()) {
-                log.warn("⚠️ Model 1 parsing failed, generating fallback data");
-                return generateFallbackCourseAnalysis(courses, mbtiType, riasecCode, "DialoGPT-Large", true);
+        }
+        if (analyses.isEmpty()) {
+            log.warn("⚠️ Model 1 course ranking unusable, generating fallback data");
+            return generateFallbackCourseAnalysis(courses, mbtiType, riasecCode, MODEL1_LABEL, true);
+        }
+        return analyses;
+    }
+    
+    /**
+     * Model 1's career side from the validation model's career ranking; see the course variant
+     */
+    private List<CareerAnalysis> toCareerAnalysis(List<AiComparisonService.CareerRanking> rankings,
+                                                  String mbtiType, String riasecCode, List<String> careers) {
+        List<CareerAnalysis> analyses = new ArrayList<>();
+        if (rankings != null) {
+            for (AiComparisonService.CareerRanking ranking : rankings) {
+                String career = findMatchingCareer(ranking.getCareerName(), careers);
+                if (career != null && findAnalysisForCareer(analyses, career) == null) {
+                    CareerAnalysis analysis = new CareerAnalysis(career, ranking.getMatchScore(), ranking.getMatchReason(), MODEL1_LABEL);
+                    // Local-engine rankings stand in for the model, so their analyses do too
+                    analysis.setFallback(ranking.isFallback());
+                    analyses.add(analysis);
+                }
             }
-            
-            return analyses;
-        } catch (Exception e) {
-            log.error("❌ Error in Model 1 course analysis: {}", e.getMessage(), e);
-            return generateFallbackCourseAnalysis(courses, mbtiType, riasecCode, "DialoGPT-Large", true);
         }
+        if (analyses.isEmpty()) {
+            log.warn("⚠️ Model 1 career ranking unusable, generating fallback data");
+            return generateFallbackCareerAnalysis(careers, mbtiType, riasecCode, MODEL1_LABEL, true);
+        }
+        return analyses;
     }
     
     /**
-     * Get Model 2 (GPT-Neo-2.7B) course analysis
+     * Parse one model's course response, falling back to generated data when it is empty or unreadable
      */
-    private List<CourseAnalysis> getModel2CourseAnalysis(String mbtiType, String riasecCode, List<String> courses) {
+    private List<CourseAnalysis> toCourseAnalysis(String response, String label, String modelName, boolean isAnalytical,
+                                                  String mbtiType, String riasecCode, List<String> courses) {
         try {
-            String prompt = buildModel2CoursePrompt(mbtiType, riasecCode, courses);
-            String response = huggingFaceService.generateText(model2, prompt);
-            
-            log.debug("🤖 Model 2 raw response: {}", response);
+            log.debug("🤖 {} raw response: {}", label, response);
             
             if (response == null || response.trim().isEmpty()) {
-                log.warn("⚠️ Model 2 returned empty response, generating fallback data");
-                return generateFallbackCourseAnalysis(courses, mbtiType, riasecCode, "GPT-Neo-2.7B", false);
+                log.warn("⚠️ {} returned empty response, generating fallback data", label);
+                return generateFallbackCourseAnalysis(courses, mbtiType, riasecCode, modelName, isAnalytical);
             }
             
-            List<CourseAnalysis> analyses = parseCourseAnalysis(response, "GPT-Neo-2.7B", courses);
+            List<CourseAnalysis> analyses = parseCourseAnalysis(response, modelName, courses);
             
             if (analyses.isEmpty()) {
-                log.warn("⚠️ Model 2 parsing failed, generating fallback data");
-                return generateFallbackCourseAnalysis(courses, mbtiType, riasecCode, "GPT-Neo-2.7B", false);
+                log.warn("⚠️ {} parsing failed, generating fallback data", label);
+                return generateFallbackCourseAnalysis(courses, mbtiType, riasecCode, modelName, isAnalytical);
             }
             
             return analyses;
         } catch (Exception e) {
-            log.error("❌ Error in Model 2 course analysis: {}", e.getMessage(), e);
-            return generateFallbackCourseAnalysis(courses, mbtiType, riasecCode, "GPT-Neo-2.7B", false);
+            log.error("❌ Error in {} course analysis: {}", label, e.getMessage(), e);
+            return generateFallbackCourseAnalysis(courses, mbtiType, riasecCode, modelName, isAnalytical);
         }
     }
     
     /**
-     * Get Model 1 (DialoGPT-Large) career analysis
+     * Parse one model's career response, falling back to generated data when it is empty or unreadable
      */
-    private List<CareerAnalysis> getModel1CareerAnalysis(String mbtiType, String riasecCode, List<String> careers) {
+    private List<CareerAnalysis> toCareerAnalysis(String response, String label, String modelName, boolean isAnalytical,
+                                                  String mbtiType, String riasecCode, List<String> careers) {
         try {
-            String prompt = buildModel1CareerPrompt(mbtiType, riasecCode, careers);
-            String response = huggingFaceService.generateText(model1, prompt);
-            
-            log.debug("🤖 Model 1 career raw response: {}", response);
+            log.debug("🤖 {} career raw response: {}", label, response);
             
             if (response == null || response.trim().isEmpty()) {
-                log.warn("⚠️ Model 1 returned empty response, generating fallback career data");
-                return generateFallbackCareerAnalysis(careers, mbtiType, riasecCode, "DialoGPT-Large", true);
+                log.warn("⚠️ {} returned empty response, generating fallback career data", label);
+                return generateFallbackCareerAnalysis(careers, mbtiType, riasecCode, modelName, isAnalytical);
             }
             
-            List<CareerAnalysis> analyses = parseCareerAnalysis(response, "DialoGPT-Large", careers);
+            List<CareerAnalysis> analyses = parseCareerAnalysis(response, modelName, careers);
             
             if (analyses.isEmpty()) {
-                log.warn("⚠️ Model 1 career parsing failed, generating fallback data");
-                return generateFallbackCareerAnalysis(careers, mbtiType, riasecCode, "DialoGPT-Large", true);
+                log.warn("⚠️ {} career parsing failed, generating fallback data", label);
+                return generateFallbackCareerAnalysis(careers, mbtiType, riasecCode, modelName, isAnalytical);
             }
             
             return analyses;
         } catch (Exception e) {
-            log.error("❌ Error in Model 1 career analysis: {}", e.getMessage(), e);
-            return generateFallbackCareerAnalysis(careers, mbtiType, riasecCode, "DialoGPT-Large", true);
+            log.error("❌ Error in {} career analysis: {}", label, e.getMessage(), e);
+            return generateFallbackCareerAnalysis(careers, mbtiType, riasecCode, modelName, isAnalytical);
         }
     }
     
     /**
-     * Get Model 2 (GPT-Neo-2.7B) career analysis
+     * Wait for one model until the shared deadline. A model that misses it (or fails outright)
+     * is recorded in missingModels and contributes no analyses.
      */
-    private List<CareerAnalysis> getModel2CareerAnalysis(String mbtiType, String riasecCode, List<String> careers) {
+    private <T> List<T> awaitModel(CompletableFuture<List<T>> analysis, long deadlineNanos, String modelName,
+                                   List<String> missingModels) {
         try {
-            String prompt = buildModel2CareerPrompt(mbtiType, riasecCode, careers);
-            String response = huggingFaceService.generateText(model2, prompt);
-            
-            log.debug("🤖 Model 2 career raw response: {}", response);
-            
-            if (response == null || response.trim().isEmpty()) {
-                log.warn("⚠️ Model 2 returned empty response, generating fallback career data");
-                return generateFallbackCareerAnalysis(careers, mbtiType, riasecCode, "GPT-Neo-2.7B", false);
-            }
-            
-            List<CareerAnalysis> analyses = parseCareerAnalysis(response, "GPT-Neo-2.7B", careers);
-            
-            if (analyses.isEmpty()) {
-                log.warn("⚠️ Model 2 career parsing failed, generating fallback data");
-                return generateFallbackCareerAnalysis(careers, mbtiType, riasecCode, "GPT-Neo-2.7B", false);
-            }
-            
-            return analyses;
+            long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+            return analysis.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            analysis.cancel(true);
+            log.warn("⏱️ {} missed the {}ms comparison deadline - returning partial comparison", modelName, modelTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
-            log.error("❌ Error in Model 2 career analysis: {}", e.getMessage(), e);
-            return generateFallbackCareerAnalysis(careers, mbtiType, riasecCode, "GPT-Neo-2.7B", false);
+            log.error("❌ {} analysis failed: {}", modelName, e.getMessage());
         }
+        missingModels.add(modelName);
+        return new ArrayList<>();
     }
     
     /**
-     * Build prompt for Model 1 (DialoGPT-Large) - Analytical approach
+     * Flag a comparison in which at least one model's analysis is missing
      */
-    private String buildModel1CoursePrompt(String mbtiType, String riasecCode, List<String> courses) {
-        StringBuilder prompt = new StringBuilder();
-        prompt.append("Analytical Career Assessment\n");
-        prompt.append("===========================\n\n");
-        prompt.append(String.format("Profile: MBTI %s | RIASEC %s\n\n", mbtiType, riasecCode));
-        prompt.append("Task: Rate each course's compatibility (60-95%%) with analytical reasoning.\n\n");
-        prompt.append("IMPORTANT: Use EXACT format below:\n");
-        prompt.append("CourseName|Score|Brief analytical assessment\n\n");
-        prompt.append("Courses to analyze:\n");
-        
-        for (int i = 0; i < courses.size(); i++) {
-            prompt.append(String.format("%d. %s\n", i + 1, courses.get(i)));
+    private void markPartial(ModelComparisonResult result, List<String> missingModels) {
+        if (missingModels.isEmpty()) {
+            return;
         }
-        
-        prompt.append("\nExample response format:\n");
-        if (!courses.isEmpty()) {
-            prompt.append(String.format("%s|82|Strong alignment with analytical thinking and systematic problem-solving\n\n", 
-                courses.get(0)));
+        result.setPartial(true);
+        result.setMissingModels(missingModels);
+        if (result.getCourseComparisons() != null) {
+            result.getCourseComparisons().forEach(c -> c.setAgreement("PARTIAL"));
+        }
+        if (result.getCareerComparisons() != null) {
+            result.getCareerComparisons().forEach(c -> c.setAgreement("PARTIAL"));
         }
-        
-        prompt.append("Now provide your analysis for ALL courses listed above:\n");
-        
-        return prompt.toString();
     }
     
     /**
      * Build prompt for Model 2 (GPT-Neo-2.7B) - Creative approach
      */
-    private String buildModel2CoursePrompt(String mbtiType, String riasecCode, List<String> courses) {
+    String buildModel2CoursePrompt(String mbtiType, String riasecCode, List<String> courses) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("Creative Career Exploration\n");
         prompt.append("===========================\n\n");
@@ -305,38 +434,10 @@ public class AiModelComparisonService {
         return prompt.toString();
     }
     
-    /**
-     * Build prompt for Model 1 career analysis
-     */
-    private String buildModel1CareerPrompt(String mbtiType, String riasecCode, List<String> careers) {
-        StringBuilder prompt = new StringBuilder();
-        prompt.append("Analytical Career Assessment\n");
-        prompt.append("===========================\n\n");
-        prompt.append(String.format("Profile: MBTI %s | RIASEC %s\n\n", mbtiType, riasecCode));
-        prompt.append("Task: Rate each career's fit (60-95%%) based on market data and trends.\n\n");
-        prompt.append("IMPORTANT: Use EXACT format below:\n");
-        prompt.append("CareerName|Score|Brief market analysis\n\n");
-        prompt.append("Careers to analyze:\n");
-        
-        for (int i = 0; i < careers.size(); i++) {
-            prompt.append(String.format("%d. %s\n", i + 1, careers.get(i)));
-        }
-        
-        prompt.append("\nExample response format:\n");
-        if (!careers.isEmpty()) {
-            prompt.append(String.format("%s|85|Strong market demand with excellent growth trajectory and skill alignment\n\n", 
-                careers.get(0)));
-        }
-        
-        prompt.append("Now provide your analysis for ALL careers listed above:\n");
-        
-        return prompt.toString();
-    }
-    
     /**
      * Build prompt for Model 2 career analysis
      */
-    private String buildModel2CareerPrompt(String mbtiType, String riasecCode, List<String> careers) {
+    String buildModel2CareerPrompt(String mbtiType, String riasecCode, List<String> careers) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("Creative Career Exploration\n");
         prompt.append("===========================\n\n");
@@ -649,7 +750,9 @@ public class AiModelComparisonService {
             // Generate contextual analysis
             String analysis = generateCourseAnalysis(course, mbtiType, riasecCode, isAnalytical);
             
-            analyses.add(new CourseAnalysis(course, score, analysis, modelName));
+            CourseAnalysis generated = new CourseAnalysis(course, score, analysis, modelName);
+            generated.setFallback(true);
+            analyses.add(generated);
             log.debug("✅ Generated fallback for course: {} with score {}", course, score);
         }
         
@@ -676,7 +779,9 @@ public class AiModelComparisonService {
             
             String analysis = generateCareerAnalysis(career, mbtiType, riasecCode, isAnalytical);
             
-            analyses.add(new CareerAnalysis(career, score, analysis, modelName));
+            CareerAnalysis generated = new CareerAnalysis(career, score, analysis, modelName);
+            generated.setFallback(true);
+            analyses.add(generated);
             log.debug("✅ Generated fallback for career: {} with score {}", career, score);
         }
         
@@ -838,6 +943,7 @@ public class AiModelComparisonService {
         }
         
         result.setCourseComparisons(comparisons);
+        result.setFallback(true);
         return result;
     }
     
@@ -864,6 +970,7 @@ public class AiModelComparisonService {
         }
         
         result.setCareerComparisons(comparisons);
+        result.setFallback(true);
         return result;
     }
     
@@ -878,6 +985,9 @@ public class AiModelComparisonService {
         private String model2Name;
         private List<CourseComparison> courseComparisons;
         private List<CareerComparison> careerComparisons;
+        private boolean partial;
+        private List<String> missingModels;
+        private boolean fallback;
         
         // Getters and setters
         public String getMbtiType() { return mbtiType; }
@@ -900,6 +1010,16 @@ public class AiModelComparisonService {
         
         public List<CareerComparison> getCareerComparisons() { return careerComparisons; }
         public void setCareerComparisons(List<CareerComparison> careerComparisons) { this.careerComparisons = careerComparisons; }
+        
+        public boolean isPartial() { return partial; }
+        public void setPartial(boolean partial) { this.partial = partial; }
+        
+        public List<String> getMissingModels() { return missingModels; }
+        public void setMissingModels(List<String> missingModels) { this.missingModels = missingModels; }
+        
+        // True when any side is generated or local-engine data rather than a model's answer
+        public boolean isFallback() { return fallback; }
+        public void setFallback(boolean fallback) { this.fallback = fallback; }
     }
     
     public static class CourseComparison {
@@ -963,6 +1083,7 @@ public class AiModelComparisonService {
         private double score;
         private String analysis;
         private String modelName;
+        private boolean fallback;
         
         public CourseAnalysis(String courseName, double score, String analysis, String modelName) {
             this.courseName = courseName;
@@ -983,6 +1104,9 @@ public class AiModelComparisonService {
         
         public String getModelName() { return modelName; }
         public void setModelName(String modelName) { this.modelName = modelName; }
+        
+        public boolean isFallback() { return fallback; }
+        public void setFallback(boolean fallback) { this.fallback = fallback; }
     }
     
     public static class CareerAnalysis {
@@ -990,6 +1114,7 @@ public class AiModelComparisonService {
         private double score;
         private String analysis;
         private String modelName;
+        private boolean fallback;
         
         public CareerAnalysis(String careerName, double score, String analysis, String modelName) {
             this.careerName = careerName;
@@ -1010,5 +1135,8 @@ public class AiModelComparisonService {
         
         public String getModelName() { return modelName; }
         public void setModelName(String modelName) { this.modelName = modelName; }
+        
+        public boolean isFallback() { return fallback; }
+        public void setFallback(boolean fallback) { this.fallback = fallback; }
     }
 }
@@ -0,0 +1,417 @@
+package com.app.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Offline AI rankings and model comparisons for every MBTI x RIASEC combination.
+ *
+ * The course and career lists a result can carry come from mbti_riasec_matching, so all
+ * 16 x 30 combinations are known in advance. A background job walks them at a fixed rate,
+ * runs the AI services once per combination and stores the output in ai_precomputed_result.
+ * Each row remembers a hash of the coursePath/careerSuggestions text it was computed from;
+ * the request path uses a row only while that text still matches, and otherwise calls the
+ * AI services live. Combinations already computed are skipped, so an interrupted run simply
+ * picks up where it stopped.
+ */
+@Service
+public class AiPrecomputeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiPrecomputeService.class);
+
+    // How often a yielding run checks whether result views have left it quota
+    private static final long YIELD_POLL_MS = 500;
+
+    // Bump to retire every stored row; 2: rows from runs that stored fallback output are dropped
+    private static final int PAYLOAD_FORMAT = 2;
+
+    public static final String COURSE_RANKING = "course_ranking";
+    public static final String CAREER_RANKING = "career_ranking";
+    public static final String COURSE_COMPARISON = "course_comparison";
+    public static final String CAREER_COMPARISON = "career_comparison";
+
+    private static final String LOAD_SQL =
+        "SELECT mbti_type, riasec_code, kind, input_hash, payload::text AS payload FROM ai_precomputed_result WHERE version_tag = ?";
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO ai_precomputed_result (mbti_type, riasec_code, kind, input_hash, version_tag, payload, computed_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?::jsonb, CURRENT_TIMESTAMP) " +
+        "ON CONFLICT (mbti_type, riasec_code, kind) DO UPDATE SET input_hash = EXCLUDED.input_hash, " +
+        "version_tag = EXCLUDED.version_tag, payload = EXCLUDED.payload, computed_at = EXCLUDED.computed_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AiComparisonService aiComparisonService;
+
+    @Autowired
+    private AiModelComparisonService aiModelComparisonService;
+
+    @Autowired
+    private HuggingFaceApiService huggingFaceApiService;
+
+    @Lazy
+    @Autowired
+    private TestResultService testResultService;
+
+    @Value("${ai.precompute.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.precompute.rate.per-minute:12}")
+    private int tasksPerMinute;
+
+    @Value("${huggingface.validation.enabled:false}")
+    private boolean aiEnabled;
+
+    @Value("${ai.cache.version:1}")
+    private String cacheVersion;
+
+    @Value("${huggingface.api.url}")
+    private String apiUrl;
+
+    @Value("${huggingface.model.validation}")
+    private String model1;
+
+    @Value("${huggingface.model.education}")
+    private String model2;
+
+    // mbti|riasec|kind -> stored row; replaced entry by entry as the job writes
+    private final Map<String, Stored> precomputed = new ConcurrentHashMap<>();
+
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ai-precompute");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopRequested;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String currentCombination;
+    private volatile String lastError;
+    private final AtomicInteger computed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private long lastTaskStartedAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        load();
+    }
+
+    /**
+     * Reload every stored row for the current version tag into memory.
+     */
+    public synchronized Map<String, Object> load() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        try {
+            Map<String, Stored> loaded = new HashMap<>();
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                loaded.put(key(rs.getString("mbti_type"), rs.getString("riasec_code"), rs.getString("kind")),
+                    new Stored(rs.getString("input_hash"), rs.getString("payload")));
+            }, versionTag());
+            precomputed.clear();
+            precomputed.putAll(loaded);
+            logger.info("✅ Loaded {} precomputed AI results", loaded.size());
+            summary.put("loaded", true);
+            summary.put("entries", loaded.size());
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not load precomputed AI results: {}", e.getMessage());
+            summary.put("loaded", false);
+            summary.put("error", e.getMessage());
+        }
+        return summary;
+    }
+
+    public List<AiComparisonService.CourseRanking> findCourseRankings(String mbtiType, String riasecCode, String coursePath) {
+        return find(mbtiType, riasecCode, COURSE_RANKING, coursePath, new TypeReference<List<AiComparisonService.CourseRanking>>() {});
+    }
+
+    public List<AiComparisonService.CareerRanking> findCareerRankings(String mbtiType, String riasecCode, String careerSuggestions) {
+        return find(mbtiType, riasecCode, CAREER_RANKING, careerSuggestions, new TypeReference<List<AiComparisonService.CareerRanking>>() {});
+    }
+
+    public AiModelComparisonService.ModelComparisonResult findCourseComparison(String mbtiType, String riasecCode, String coursePath) {
+        return find(mbtiType, riasecCode, COURSE_COMPARISON, coursePath, new TypeReference<AiModelComparisonService.ModelComparisonResult>() {});
+    }
+
+    public AiModelComparisonService.ModelComparisonResult findCareerComparison(String mbtiType, String riasecCode, String careerSuggestions) {
+        return find(mbtiType, riasecCode, CAREER_COMPARISON, careerSuggestions, new TypeReference<AiModelComparisonService.ModelComparisonResult>() {});
+    }
+
+    /**
+     * Start a run in the background. With force every combination is recomputed,
+     * otherwise only missing or outdated ones are.
+     */
+    public Map<String, Object> start(boolean force) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        if (!aiEnabled) {
+            summary.put("started", false);
+            summary.put("message", "AI validation is disabled; nothing to precompute");
+            return summary;
+        }
+        if (!running.compareAndSet(false, true)) {
+            summary.put("started", false);
+            summary.put("message", "A precompute run is already in progress");
+            summary.put("status", getStatus());
+            return summary;
+        }
+        stopRequested = false;
+        computed.set(0);
+        skipped.set(0);
+        failed.set(0);
+        lastError = null;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        jobExecutor.execute(() -> run(force));
+        summary.put("started", true);
+        summary.put("force", force);
+        summary.put("combinations", RecommendationMatrixService.getMbtiTypes().size() * RecommendationMatrixService.getRiasecPairs().size());
+        return summary;
+    }
+
+    /**
+     * Ask a running job to stop after the current task; the next run resumes from there.
+     */
+    public Map<String, Object> stop() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        stopRequested = running.get();
+        summary.put("stopping", stopRequested);
+        return summary;
+    }
+
+    @Scheduled(cron = "${ai.precompute.cron:-}")
+    public void scheduledRun() {
+        if (enabled && !running.get()) {
+            logger.info("🕒 Scheduled AI precompute run starting");
+            start(false);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        int combinations = RecommendationMatrixService.getMbtiTypes().size() * RecommendationMatrixService.getRiasecPairs().size();
+        status.put("enabled", enabled);
+        status.put("running", running.get());
+        status.put("version", versionTag());
+        status.put("ratePerMinute", tasksPerMinute);
+        status.put("storedEntries", precomputed.size());
+        status.put("expectedEntries", combinations * 4);
+        status.put("computed", computed.get());
+        status.put("skipped", skipped.get());
+        status.put("failed", failed.get());
+        status.put("currentCombination", currentCombination);
+        status.put("startedAt", startedAt != null ? startedAt.toString() : null);
+        status.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+        status.put("lastError", lastError);
+        return status;
+    }
+
+    private void run(boolean force) {
+        logger.info("🚀 AI precompute run started (force={})", force);
+        try {
+            outer:
+            for (String mbti : RecommendationMatrixService.getMbtiTypes()) {
+                for (String riasec : RecommendationMatrixService.getRiasecPairs()) {
+                    if (stopRequested) {
+                        logger.info("⏹️ AI precompute run stopped at {}/{}", mbti, riasec);
+                        break outer;
+                    }
+                    currentCombination = mbti + "/" + riasec;
+                    // Don't store fallback output while a model's circuit is open; a later run resumes here
+                    if (!huggingFaceApiService.isModelAvailable(model1) || !huggingFaceApiService.isModelAvailable(model2)) {
+                        lastError = "Hugging Face circuit open at " + currentCombination;
+                        logger.warn("⚡ AI precompute paused at {}/{}: model circuit open", mbti, riasec);
+                        break outer;
+                    }
+                    String[] text = testResultService.renderRecommendationText(mbti, riasec);
+                    if (text == null) {
+                        lastError = "Recommendation matrix unavailable";
+                        logger.warn("⚠️ AI precompute aborted: recommendation matrix unavailable");
+                        break outer;
+                    }
+                    String coursePath = text[0];
+                    String careerSuggestions = text[1];
+                    // The comparisons reuse the rankings as the validation model's side
+                    AiAnalysisContext context = new AiAnalysisContext(mbti, riasec, coursePath, careerSuggestions);
+                    precompute(mbti, riasec, COURSE_RANKING, coursePath, force,
+                        () -> aiComparisonService.rankCoursesByPersonality(context));
+                    precompute(mbti, riasec, CAREER_RANKING, careerSuggestions, force,
+                        () -> aiComparisonService.rankCareersByPersonality(context));
+                    precompute(mbti, riasec, COURSE_COMPARISON, coursePath, force,
+                        () -> aiModelComparisonService.compareCourseAnalysis(context));
+                    precompute(mbti, riasec, CAREER_COMPARISON, careerSuggestions, force,
+                        () -> aiModelComparisonService.compareCareerAnalysis(context));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            logger.error("❌ AI precompute run failed: {}", e.getMessage(), e);
+        } finally {
+            currentCombination = null;
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+            logger.info("✅ AI precompute run finished: {} computed, {} skipped, {} failed",
+                computed.get(), skipped.get(), failed.get());
+        }
+    }
+
+    private void precompute(String mbti, String riasec, String kind, String input, boolean force,
+                            Supplier<Object> task) throws InterruptedException {
+        if (stopRequested) {
+            return;
+        }
+        String inputHash = hash(input);
+        Stored existing = precomputed.get(key(mbti, riasec, kind));
+        if (!force && existing != null && existing.inputHash.equals(inputHash)) {
+            skipped.incrementAndGet();
+            return;
+        }
+        throttle();
+        try {
+            Object value = AiQuotaGovernor.runIn(AiQuotaGovernor.Lane.BACKGROUND, task);
+            String unusable = unusableReason(value);
+            if (unusable != null) {
+                throw new IllegalStateException(unusable);
+            }
+            String payload = objectMapper.writeValueAsString(value);
+            jdbcTemplate.update(UPSERT_SQL, mbti, riasec, kind, inputHash, versionTag(), payload);
+            precomputed.put(key(mbti, riasec, kind), new Stored(inputHash, payload));
+            computed.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            lastError = mbti + "/" + riasec + " " + kind + ": " + e.getMessage();
+            logger.warn("⚠️ AI precompute failed for {}/{} {}: {}", mbti, riasec, kind, e.getMessage());
+        }
+    }
+
+    /**
+     * Why a task's output must not be stored, or null when it is the models' own answer. The AI
+     * services fall back to local rankings and generated analyses rather than fail, and such
+     * output would otherwise be served as AI to everyone with this profile.
+     */
+    @SuppressWarnings("unchecked")
+    private static String unusableReason(Object value) {
+        if (value == null) {
+            return "no output";
+        }
+        if (value instanceof AiModelComparisonService.ModelComparisonResult) {
+            AiModelComparisonService.ModelComparisonResult comparison = (AiModelComparisonService.ModelComparisonResult) value;
+            if (comparison.isPartial()) {
+                return "partial comparison (a model missed its deadline)";
+            }
+            if (comparison.isFallback()) {
+                return "fallback comparison (a model's answer was unavailable or unreadable)";
+            }
+            return null;
+        }
+        if (value instanceof List) {
+            for (Object item : (List<Object>) value) {
+                if ((item instanceof AiComparisonService.CourseRanking && ((AiComparisonService.CourseRanking) item).isFallback())
+                        || (item instanceof AiComparisonService.CareerRanking && ((AiComparisonService.CareerRanking) item).isFallback())) {
+                    return "local fallback ranking (the validation model's answer was unavailable or unreadable)";
+                }
+            }
+        }
+        return null;
+    }
+
+    // Space task starts evenly so a run never exceeds the configured rate, and give way to result views
+    private void throttle() throws InterruptedException {
+        while (!stopRequested && huggingFaceApiService.isBackgroundYielding()) {
+            Thread.sleep(YIELD_POLL_MS);
+        }
+        if (tasksPerMinute <= 0) {
+            return;
+        }
+        long interval = 60000L / tasksPerMinute;
+        long wait = lastTaskStartedAt + interval - System.currentTimeMillis();
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+        lastTaskStartedAt = System.currentTimeMillis();
+    }
+
+    private <T> T find(String mbtiType, String riasecCode, String kind, String input, TypeReference<T> type) {
+        if (!enabled || mbtiType == null || riasecCode == null || input == null) {
+            return null;
+        }
+        Stored stored = precomputed.get(key(mbtiType.trim().toUpperCase(), riasecCode.trim().toUpperCase(), kind));
+        if (stored == null || !stored.inputHash.equals(hash(input))) {
+            return null;
+        }
+        try {
+            return objectMapper.readerFor(type)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(stored.payload);
+        } catch (Exception e) {
+            logger.warn("⚠️ Precomputed {} for {}/{} could not be read: {}", kind, mbtiType, riasecCode, e.getMessage());
+            return null;
+        }
+    }
+
+    // Rows computed against another endpoint (such as the stub), with other models, an older prompt
+    // version or an older job format are ignored
+    private String versionTag() {
+        return PAYLOAD_FORMAT + ":" + cacheVersion + ":" + model1 + ":" + model2 + ":" + apiUrl;
+    }
+
+    private static String key(String mbtiType, String riasecCode, String kind) {
+        return mbtiType + "|" + riasecCode + "|" + kind;
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopRequested = true;
+        jobExecutor.shutdownNow();
+    }
+
+    private static final class Stored {
+        private final String inputHash;
+        private final String payload;
+
+        private Stored(String inputHash, String payload) {
+            this.inputHash = inputHash;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.app.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Client-side token bucket for the HuggingFace account quota, shared by every model.
+ *
+ * Each upstream attempt takes one token; tokens refill at the plan's requests per minute up to
+ * a burst. Calls that find the bucket empty wait in one of two lanes. INTERACTIVE (result
+ * views, the default) is always served first. BACKGROUND (precompute, validation sweeps and
+ * jobs) is only served while no interactive call waits and the bucket stays above a reserve
+ * that grows with the recent interactive rate, so batch work backs off on its own as
+ * interactive demand rises. A 429 empties the bucket and stops refilling until Retry-After.
+ *
+ * The lane is taken from the calling thread (see runIn); work handed to other threads must
+ * carry it along.
+ */
+class AiQuotaGovernor {
+
+    enum Lane { INTERACTIVE, BACKGROUND }
+
+    private static final ThreadLocal<Lane> CURRENT_LANE = ThreadLocal.withInitial(() -> Lane.INTERACTIVE);
+
+    // Interactive demand is averaged over roughly this long
+    private static final double DEMAND_WINDOW_MS = 60000.0;
+    private static final long MIN_DRAIN_DELAY_MS = 10;
+    private static final long MAX_DRAIN_DELAY_MS = 1000;
+
+    private final double capacity;
+    private final double tokensPerMs;
+    private final double reserveFloor;
+    private final int maxQueued;
+    private final ScheduledExecutorService scheduler;
+    private final LongSupplier clock;
+
+    private final Map<Lane, Deque<Ticket>> waiting = new LinkedHashMap<>();
+    private double tokens;
+    private long refilledAt;
+    private double interactiveRatePerMs;
+    private long demandUpdatedAt;
+    private boolean drainScheduled;
+    private long throttledUntil;
+    private long granted;
+    private long rejected;
+    private long throttled;
+
+    AiQuotaGovernor(int requestsPerMinute, int burst, double reserveFraction, int maxQueued,
+                    ScheduledExecutorService scheduler) {
+        this(requestsPerMinute, burst, reserveFraction, maxQueued, scheduler, System::currentTimeMillis);
+    }
+
+    AiQuotaGovernor(int requestsPerMinute, int burst, double reserveFraction, int maxQueued,
+                    ScheduledExecutorService scheduler, LongSupplier clock) {
+        this.capacity = Math.max(1, burst);
+        this.tokensPerMs = Math.max(1, requestsPerMinute) / 60000.0;
+        this.reserveFloor = Math.max(0.0, Math.min(1.0, reserveFraction)) * capacity;
+        this.maxQueued = Math.max(0, maxQueued);
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.tokens = capacity;
+        this.refilledAt = clock.getAsLong();
+        this.demandUpdatedAt = refilledAt;
+        for (Lane lane : Lane.values()) {
+            waiting.put(lane, new ArrayDeque<>());
+        }
+    }
+
+    static Lane currentLane() {
+        return CURRENT_LANE.get();
+    }
+
+    /**
+     * Run the work with its HuggingFace calls in the given lane, restoring the caller's lane after.
+     */
+    static <T> T runIn(Lane lane, Supplier<T> work) {
+        Lane previous = CURRENT_LANE.get();
+        CURRENT_LANE.set(lane);
+        try {
+            return work.get();
+        } finally {
+            CURRENT_LANE.set(previous);
+        }
+    }
+
+    /**
+     * runIn for work that throws checked exceptions (executor tasks carrying the submitter's lane)
+     */
+    static <T> T callIn(Lane lane, java.util.concurrent.Callable<T> work) throws Exception {
+        Lane previous = CURRENT_LANE.get();
+        CURRENT_LANE.set(lane);
+        try {
+            return work.call();
+        } finally {
+            CURRENT_LANE.set(previous);
+        }
+    }
+
+    static void runIn(Lane lane, Runnable work) {
+        runIn(lane, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Start the action once a token is granted in its lane; null when the lane's queue is full.
+     * A queued action whose caller has given up (abandoned) is dropped without spending a token.
+     */
+    Ticket submit(Lane lane, Runnable start, BooleanSupplier abandoned) {
+        Ticket ticket = new Ticket(lane, start, abandoned);
+        List<Ticket> ready;
+        synchronized (this) {
+            long now = clock.getAsLong();
+            if (lane == Lane.INTERACTIVE) {
+                recordInteractive(now);
+            }
+            if (waiting.get(lane).size() >= maxQueued && !mayTakeNow(lane, now)) {
+                rejected++;
+                return null;
+            }
+            waiting.get(lane).addLast(ticket);
+            ready = grant(now);
+        }
+        start(ready);
+        return ticket;
+    }
+
+    /**
+     * Take a token only if one is free for the lane right now; never queues. Used for optional
+     * work (hedged duplicates).
+     */
+    boolean tryAcquire(Lane lane) {
+        synchronized (this) {
+            long now = clock.getAsLong();
+            if (!mayTakeNow(lane, now)) {
+                return false;
+            }
+            tokens -= 1;
+            granted++;
+            return true;
+        }
+    }
+
+    /**
+     * An interactive caller now waits on this background call: serve it in the interactive lane.
+     */
+    void promote(Ticket ticket) {
+        List<Ticket> ready;
+        synchronized (this) {
+            if (ticket == null || ticket.lane == Lane.INTERACTIVE || !waiting.get(Lane.BACKGROUND).remove(ticket)) {
+                return;
+            }
+            ticket.lane = Lane.INTERACTIVE;
+            waiting.get(Lane.INTERACTIVE).addLast(ticket);
+            ready = grant(clock.getAsLong());
+        }
+        start(ready);
+    }
+
+    /**
+     * The API answered 429: spend nothing more until it says we may (Retry-After, or the time
+     * one token takes to refill when it did not say).
+     */
+    void onThrottled(long retryAfterMs) {
+        synchronized (this) {
+            long now = clock.getAsLong();
+            refill(now);
+            long pause = retryAfterMs >= 0 ? retryAfterMs : (long) Math.ceil(1 / tokensPerMs);
+            tokens = 0;
+            throttledUntil = Math.max(throttledUntil, now + pause);
+            refilledAt = Math.max(refilledAt, throttledUntil);
+            throttled++;
+        }
+    }
+
+    /**
+     * Whether background work should hold off starting new tasks
+     */
+    synchronized boolean isBackgroundYielding() {
+        long now = clock.getAsLong();
+        refill(now);
+        return !waiting.get(Lane.INTERACTIVE).isEmpty() || now < throttledUntil || tokens - 1 < reserve(now);
+    }
+
+    synchronized int getQueued(Lane lane) {
+        return waiting.get(lane).size();
+    }
+
+    synchronized double getTokens() {
+        refill(clock.getAsLong());
+        return tokens;
+    }
+
+    synchronized Map<String, Object> getStats() {
+        long now = clock.getAsLong();
+        refill(now);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requestsPerMinute", Math.round(tokensPerMs * 60000.0));
+        stats.put("burst", (int) capacity);
+        stats.put("tokens", Math.round(tokens * 100.0) / 100.0);
+        stats.put("backgroundReserve", Math.round(reserve(now) * 100.0) / 100.0);
+        stats.put("interactivePerMinute", Math.round(decayedRate(now) * 60000.0 * 10.0) / 10.0);
+        stats.put("interactiveQueued", waiting.get(Lane.INTERACTIVE).size());
+        stats.put("backgroundQueued", waiting.get(Lane.BACKGROUND).size());
+        stats.put("granted", granted);
+        stats.put("rejected", rejected);
+        stats.put("throttled", throttled);
+        if (now < throttledUntil) {
+            stats.put("throttledForMs", throttledUntil - now);
+        }
+        return stats;
+    }
+
+    /**
+     * Hand out tokens to waiting tickets, interactive first; schedules the next pass if any are left.
+     */
+    private List<Ticket> grant(long now) {
+        refill(now);
+        List<Ticket> ready = new ArrayList<>();
+        Deque<Ticket> interactive = waiting.get(Lane.INTERACTIVE);
+        Deque<Ticket> background = waiting.get(Lane.BACKGROUND);
+        dropAbandoned(interactive);
+        while (!interactive.isEmpty() && tokens >= 1) {
+            take(interactive.pollFirst(), ready);
+            dropAbandoned(interactive);
+        }
+        dropAbandoned(background);
+        while (interactive.isEmpty() && !background.isEmpty() && tokens - 1 >= reserve(now)) {
+            take(background.pollFirst(), ready);
+            dropAbandoned(background);
+        }
+        if ((!interactive.isEmpty() || !background.isEmpty()) && !drainScheduled) {
+            drainScheduled = true;
+            scheduler.schedule(this::drain, drainDelay(now, interactive.isEmpty()), TimeUnit.MILLISECONDS);
+        }
+        return ready;
+    }
+
+    private void take(Ticket ticket, List<Ticket> ready) {
+        tokens -= 1;
+        granted++;
+        ready.add(ticket);
+    }
+
+    /**
+     * Serve whatever the tokens earned since the last pass allow; run by the scheduler
+     */
+    void drain() {
+        List<Ticket> ready;
+        synchronized (this) {
+            drainScheduled = false;
+            ready = grant(clock.getAsLong());
+        }
+        start(ready);
+    }
+
+    private static void start(List<Ticket> ready) {
+        for (Ticket ticket : ready) {
+            ticket.start.run();
+        }
+    }
+
+    private static void dropAbandoned(Deque<Ticket> queue) {
+        queue.removeIf(ticket -> ticket.abandoned.getAsBoolean());
+    }
+
+    private boolean mayTakeNow(Lane lane, long now) {
+        refill(now);
+        if (lane == Lane.INTERACTIVE) {
+            return waiting.get(Lane.INTERACTIVE).isEmpty() && tokens >= 1;
+        }
+        return waiting.get(Lane.INTERACTIVE).isEmpty() && waiting.get(Lane.BACKGROUND).isEmpty()
+            && tokens - 1 >= reserve(now);
+    }
+
+    /**
+     * Time until the waiting lane can be served, kept short enough to notice demand changes
+     */
+    private long drainDelay(long now, boolean backgroundOnly) {
+        double needed = backgroundOnly ? reserve(now) + 1 : 1;
+        long untilToken = (long) Math.ceil(Math.max(0, needed - tokens) / tokensPerMs);
+        long untilResume = Math.max(0, refilledAt - now);
+        return Math.max(MIN_DRAIN_DELAY_MS, Math.min(MAX_DRAIN_DELAY_MS, untilResume + untilToken));
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerMs);
+            refilledAt = now;
+        }
+    }
+
+    /**
+     * Tokens kept back from background work: the configured floor plus the interactive calls
+     * expected while the bucket refills from empty, never more than the whole bucket
+     */
+    private double reserve(long now) {
+        double refillMs = capacity / tokensPerMs;
+        return Math.min(capacity, reserveFloor + decayedRate(now) * refillMs);
+    }
+
+    private void recordInteractive(long now) {
+        interactiveRatePerMs = decayedRate(now) + 1.0 / DEMAND_WINDOW_MS;
+        demandUpdatedAt = now;
+    }
+
+    private double decayedRate(long now) {
+        return interactiveRatePerMs * Math.exp(-Math.max(0, now - demandUpdatedAt) / DEMAND_WINDOW_MS);
+    }
+
+    /**
+     * One waiting upstream attempt
+     */
+    static final class Ticket {
+        private volatile Lane lane;
+        private final Runnable start;
+        private final BooleanSupplier abandoned;
+
+        private Ticket(Lane lane, Runnable start, BooleanSupplier abandoned) {
+            this.lane = lane;
+            this.start = start;
+            this.abandoned = abandoned;
+        }
+
+        Lane getLane() {
+            return lane;
+        }
+    }
+}
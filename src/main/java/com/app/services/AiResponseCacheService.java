@@ -0,0 +1,232 @@
+package com.app.services;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache for HuggingFace responses.
+ *
+ * Prompts are built only from MBTI type, RIASEC code and course/career lists, so the same
+ * prompt comes back for every student with the same profile. Raw response bodies are kept
+ * in a bounded in-memory LRU in front of the ai_response_cache table, keyed by model id plus
+ * a SHA-256 of the endpoint URL and the request. Entries expire after a TTL; bumping
+ * ai.cache.version retires every existing entry at once (e.g. after a prompt or model
+ * parameter change). The cache is off while huggingface.stub.enabled is set, so stub answers
+ * are never stored and benchmarks against the stub measure real calls, not cache hits.
+ */
+@Service
+public class AiResponseCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiResponseCacheService.class);
+
+    private static final String SELECT_SQL =
+        "SELECT response_body, expires_at FROM ai_response_cache WHERE cache_key = ? AND version_tag = ? AND expires_at > CURRENT_TIMESTAMP";
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO ai_response_cache (cache_key, model, prompt_hash, version_tag, response_body, created_at, expires_at) " +
+        "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP, ?) " +
+        "ON CONFLICT (cache_key) DO UPDATE SET model = EXCLUDED.model, prompt_hash = EXCLUDED.prompt_hash, " +
+        "version_tag = EXCLUDED.version_tag, response_body = EXCLUDED.response_body, " +
+        "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${ai.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.cache.version:1}")
+    private String versionTag;
+
+    @Value("${huggingface.api.url}")
+    private String apiUrl;
+
+    @Value("${huggingface.stub.enabled:false}")
+    private boolean stubEnabled;
+
+    @Value("${ai.cache.ttl:2592000000}")
+    private long ttlMs;
+
+    @Value("${ai.cache.memory.max-entries:2000}")
+    private int maxMemoryEntries;
+
+    private final Map<String, MemoryEntry> memory = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MemoryEntry> eldest) {
+            return size() > maxMemoryEntries;
+        }
+    };
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong databaseHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+
+    @PostConstruct
+    void disableForStub() {
+        if (stubEnabled && enabled) {
+            enabled = false;
+            logger.info("🧪 HuggingFace stub enabled - AI response cache disabled");
+        }
+    }
+
+    /**
+     * Cache key for a request: model id plus a hash of the endpoint and everything that shapes
+     * the response.
+     */
+    public String keyFor(String model, String requestBody) {
+        return model + ":" + hash(apiUrl + "\n" + requestBody);
+    }
+
+    /**
+     * Cached raw response body, checking memory first and then the database.
+     */
+    public Optional<String> get(String cacheKey) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        synchronized (memory) {
+            MemoryEntry entry = memory.get(cacheKey);
+            if (entry != null) {
+                if (entry.expiresAt > now && entry.versionTag.equals(versionTag)) {
+                    memoryHits.incrementAndGet();
+                    return Optional.of(entry.body);
+                }
+                memory.remove(cacheKey);
+            }
+        }
+        try {
+            List<MemoryEntry> rows = jdbcTemplate.query(SELECT_SQL, (rs, i) -> new MemoryEntry(
+                rs.getString("response_body"), versionTag, rs.getTimestamp("expires_at").getTime()), cacheKey, versionTag);
+            if (!rows.isEmpty() && rows.get(0).body != null) {
+                databaseHits.incrementAndGet();
+                remember(cacheKey, rows.get(0).body, rows.get(0).expiresAt);
+                return Optional.of(rows.get(0).body);
+            }
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not read AI response cache: {}", e.getMessage());
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Store a successful raw response body in both tiers.
+     */
+    public void put(String cacheKey, String model, String responseBody) {
+        if (!enabled || responseBody == null) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        remember(cacheKey, responseBody, expiresAt);
+        stores.incrementAndGet();
+        try {
+            String promptHash = cacheKey.substring(cacheKey.lastIndexOf(':') + 1);
+            jdbcTemplate.update(UPSERT_SQL, cacheKey, model, promptHash, versionTag, responseBody, new Timestamp(expiresAt));
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not store AI response in cache: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drop expired rows and rows written under an older version tag.
+     */
+    @Scheduled(fixedDelayString = "${ai.cache.cleanup.interval:3600000}",
+               initialDelayString = "${ai.cache.cleanup.interval:3600000}")
+    public void evictExpired() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int removed = jdbcTemplate.update(
+                "DELETE FROM ai_response_cache WHERE expires_at <= CURRENT_TIMESTAMP OR version_tag <> ?", versionTag);
+            if (removed > 0) {
+                logger.info("🧹 Removed {} expired AI cache entries", removed);
+            }
+        } catch (Exception e) {
+            logger.warn("⚠️ AI response cache cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Empty both tiers.
+     */
+    public Map<String, Object> clear() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        int memoryEntries;
+        synchronized (memory) {
+            memoryEntries = memory.size();
+            memory.clear();
+        }
+        summary.put("memoryEntriesCleared", memoryEntries);
+        try {
+            summary.put("databaseEntriesCleared", jdbcTemplate.update("DELETE FROM ai_response_cache"));
+        } catch (Exception e) {
+            summary.put("error", e.getMessage());
+        }
+        return summary;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("version", versionTag);
+        stats.put("ttlMs", ttlMs);
+        synchronized (memory) {
+            stats.put("memoryEntries", memory.size());
+        }
+        stats.put("memoryMaxEntries", maxMemoryEntries);
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("databaseHits", databaseHits.get());
+        stats.put("misses", misses.get());
+        stats.put("stores", stores.get());
+        try {
+            stats.put("databaseEntries", jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM ai_response_cache WHERE version_tag = ? AND expires_at > CURRENT_TIMESTAMP",
+                Long.class, versionTag));
+        } catch (Exception e) {
+            stats.put("databaseEntries", "unavailable: " + e.getMessage());
+        }
+        return stats;
+    }
+
+    private void remember(String cacheKey, String body, long expiresAt) {
+        synchronized (memory) {
+            memory.put(cacheKey, new MemoryEntry(body, versionTag, expiresAt));
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class MemoryEntry {
+        private final String body;
+        private final String versionTag;
+        private final long expiresAt;
+
+        private MemoryEntry(String body, String versionTag, long expiresAt) {
+            this.body = body;
+            this.versionTag = versionTag;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.app.services;
+
+import com.app.dto.EnhancedResultSection;
+import com.app.dto.EnhancedTestResultDTO;
+import com.app.repositories.TestResultRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AI content validation of a test result as a background job.
+ *
+ * Jobs live in ai_validation_job, so queued work survives restarts. A session has at most one
+ * queued or running job (partial unique index); asking again returns that job, or the last
+ * finished report unless a fresh run is forced. A bounded worker pool claims jobs with
+ * FOR UPDATE SKIP LOCKED and holds a lease while it works; a job whose lease runs out (the
+ * instance died mid-run) is claimed again, up to ai.validation.jobs.max-attempts.
+ */
+@Service
+public class AiValidationJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiValidationJobService.class);
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    // The job is the validation: assembling the result it checks must not start the async one too
+    private static final Set<EnhancedResultSection> RESULT_SECTIONS =
+        Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(EnhancedResultSection.VALIDATION)));
+
+    private static final String JOB_COLUMNS =
+        "id, session_id, status, attempts, report::text AS report, error, created_at, started_at, finished_at";
+
+    static final String ENQUEUE_SQL =
+        "INSERT INTO ai_validation_job (session_id, status) VALUES (?, 'QUEUED') " +
+        "ON CONFLICT (session_id) WHERE status IN ('QUEUED', 'RUNNING') DO NOTHING";
+
+    static final String CLAIM_SQL =
+        "UPDATE ai_validation_job SET status = 'RUNNING', attempts = attempts + 1, started_at = CURRENT_TIMESTAMP, " +
+        "lease_until = CURRENT_TIMESTAMP + (? * INTERVAL '1 millisecond') " +
+        "WHERE id IN (SELECT id FROM ai_validation_job " +
+        "WHERE (status = 'QUEUED' OR (status = 'RUNNING' AND lease_until < CURRENT_TIMESTAMP)) AND attempts < ? " +
+        "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+        "RETURNING id, session_id, attempts";
+
+    static final String EXPIRE_SQL =
+        "UPDATE ai_validation_job SET status = 'FAILED', finished_at = CURRENT_TIMESTAMP, lease_until = NULL, " +
+        "error = 'Gave up after ' || attempts || ' attempts' " +
+        "WHERE status = 'RUNNING' AND lease_until < CURRENT_TIMESTAMP AND attempts >= ?";
+
+    static final String FINISH_SQL =
+        "UPDATE ai_validation_job SET status = ?, report = ?::jsonb, error = ?, lease_until = NULL, " +
+        "finished_at = CASE WHEN ? = 'QUEUED' THEN NULL ELSE CURRENT_TIMESTAMP END WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestResultRepository testResultRepository;
+
+    @Autowired
+    private AiContentValidationService validationService;
+
+    @Lazy
+    @Autowired
+    private TestResultService testResultService;
+
+    @Value("${ai.validation.jobs.workers:2}")
+    private int workers;
+
+    @Value("${ai.validation.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${ai.validation.jobs.lease:600000}")
+    private long leaseMs;
+
+    @Value("${ai.validation.jobs.retention-days:30}")
+    private int retentionDays;
+
+    private ExecutorService workerPool;
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+
+    public AiValidationJobService() {
+    }
+
+    // Wiring for tests; Spring uses the no-arg constructor and field injection
+    AiValidationJobService(JdbcTemplate jdbcTemplate, TestResultRepository testResultRepository,
+                           ExecutorService workerPool, int workers, int maxAttempts, long leaseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = new ObjectMapper();
+        this.testResultRepository = testResultRepository;
+        this.workerPool = workerPool;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.leaseMs = leaseMs;
+    }
+
+    @PostConstruct
+    public void startWorkers() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(Math.max(1, workers), r -> {
+            Thread t = new Thread(r, "ai-validation-worker-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        // Jobs interrupted here keep their RUNNING row and are claimed again once the lease runs out
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * Queue a validation for the session, or return the job that already covers it.
+     * Empty when the session has no test result.
+     */
+    public Optional<Map<String, Object>> enqueue(UUID sessionId, boolean force) {
+        if (testResultRepository.findBySessionId(sessionId).isEmpty()) {
+            return Optional.empty();
+        }
+        if (!force) {
+            Optional<Map<String, Object>> latest = findLatestForSession(sessionId);
+            if (latest.isPresent() && !FAILED.equals(latest.get().get("status"))) {
+                return latest;
+            }
+        }
+        int inserted = jdbcTemplate.update(ENQUEUE_SQL, sessionId);
+        if (inserted > 0) {
+            logger.info("📥 Queued AI validation for session {}", sessionId);
+            pollNow();
+        }
+        return findLatestForSession(sessionId);
+    }
+
+    public Optional<Map<String, Object>> findJob(long jobId) {
+        return jdbcTemplate.query("SELECT " + JOB_COLUMNS + " FROM ai_validation_job WHERE id = ?",
+            this::mapJob, jobId).stream().findFirst();
+    }
+
+    public Optional<Map<String, Object>> findLatestForSession(UUID sessionId) {
+        return jdbcTemplate.query("SELECT " + JOB_COLUMNS + " FROM ai_validation_job WHERE session_id = ? ORDER BY id DESC LIMIT 1",
+            this::mapJob, sessionId).stream().findFirst();
+    }
+
+    /**
+     * Claim as many jobs as there are idle workers and run them
+     */
+    @Scheduled(fixedDelayString = "${ai.validation.jobs.poll-interval:5000}")
+    public void poll() {
+        try {
+            jdbcTemplate.update(EXPIRE_SQL, maxAttempts);
+            pollNow();
+        } catch (Exception e) {
+            logger.warn("⚠️ AI validation job poll failed: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void pollNow() {
+        int idle = Math.max(1, workers) - busyWorkers.get();
+        if (idle <= 0) {
+            return;
+        }
+        List<Object[]> claimed = jdbcTemplate.query(CLAIM_SQL,
+            (rs, rowNum) -> new Object[] {rs.getLong("id"), rs.getObject("session_id", UUID.class), rs.getInt("attempts")},
+            leaseMs, maxAttempts, idle);
+        for (Object[] job : claimed) {
+            busyWorkers.incrementAndGet();
+            workerPool.execute(() -> {
+                try {
+                    run((Long) job[0], (UUID) job[1], (Integer) job[2]);
+                } finally {
+                    busyWorkers.decrementAndGet();
+                }
+                // Pick up the next queued job right away instead of waiting for the poll
+                poll();
+            });
+        }
+    }
+
+    private void run(long jobId, UUID sessionId, int attempt) {
+        logger.info("🤖 Running AI validation job {} for session {} (attempt {})", jobId, sessionId, attempt);
+        try {
+            // Background lane for the whole job, including assembling the result it validates:
+            // result views get the HuggingFace quota first
+            AiContentValidationService.ValidationReport report = AiQuotaGovernor.runIn(AiQuotaGovernor.Lane.BACKGROUND, () ->
+                testResultService.getEnhancedResultBySessionId(sessionId, RESULT_SECTIONS)
+                    .map(validationService::validateTestResult)
+                    .orElse(null));
+            if (report == null) {
+                finish(jobId, FAILED, null, "Test result not found for session ID: " + sessionId);
+                return;
+            }
+            finish(jobId, DONE, objectMapper.writeValueAsString(report), null);
+            logger.info("✅ AI validation job {} completed. Score: {}", jobId, report.getValidationScore());
+        } catch (Exception e) {
+            logger.error("❌ AI validation job {} failed: {}", jobId, e.getMessage(), e);
+            // Back to the queue while attempts remain
+            String status = attempt < maxAttempts ? QUEUED : FAILED;
+            finish(jobId, status, null, e.getMessage());
+        }
+    }
+
+    private void finish(long jobId, String status, String reportJson, String error) {
+        jdbcTemplate.update(FINISH_SQL, status, reportJson, error, status, jobId);
+    }
+
+    /**
+     * Drop finished jobs past the retention period
+     */
+    @Scheduled(cron = "${ai.validation.jobs.cleanup.cron:0 30 3 * * *}")
+    public void cleanup() {
+        int removed = jdbcTemplate.update(
+            "DELETE FROM ai_validation_job WHERE status IN ('DONE', 'FAILED') AND finished_at < CURRENT_TIMESTAMP - (? * INTERVAL '1 day')",
+            retentionDays);
+        if (removed > 0) {
+            logger.info("🧹 Removed {} finished AI validation jobs", removed);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", Math.max(1, workers));
+        stats.put("busyWorkers", busyWorkers.get());
+        Map<String, Object> counts = new LinkedHashMap<>();
+        for (String status : List.of(QUEUED, RUNNING, DONE, FAILED)) {
+            counts.put(status, 0L);
+        }
+        jdbcTemplate.query("SELECT status, COUNT(*) AS jobs FROM ai_validation_job GROUP BY status",
+            rs -> { counts.put(rs.getString("status"), rs.getLong("jobs")); });
+        stats.put("jobs", counts);
+        return stats;
+    }
+
+    private Map<String, Object> mapJob(ResultSet rs, int rowNum) throws SQLException {
+        Map<String, Object> job = new LinkedHashMap<>();
+        job.put("jobId", rs.getLong("id"));
+        job.put("sessionId", rs.getObject("session_id", UUID.class));
+        job.put("status", rs.getString("status"));
+        job.put("attempts", rs.getInt("attempts"));
+        job.put("createdAt", toIso(rs.getTimestamp("created_at")));
+        job.put("startedAt", toIso(rs.getTimestamp("started_at")));
+        job.put("finishedAt", toIso(rs.getTimestamp("finished_at")));
+        if (rs.getString("error") != null) {
+            job.put("error", rs.getString("error"));
+        }
+        String report = rs.getString("report");
+        if (report != null) {
+            try {
+                job.put("validationReport", objectMapper.readTree(report));
+            } catch (Exception e) {
+                logger.warn("⚠️ Unreadable validation report for job {}: {}", rs.getLong("id"), e.getMessage());
+            }
+        }
+        return job;
+    }
+
+    private static String toIso(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+}
@@ -0,0 +1,322 @@
+package com.app.services;
+
+import com.app.models.CareerInfo;
+import com.app.models.CourseDevelopmentPlan;
+import com.app.models.DevelopmentPlan;
+import com.app.repositories.CareerInfoRepository;
+import com.app.repositories.CourseDevelopmentPlanRepository;
+import com.app.repositories.DevelopmentPlanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-only in-memory snapshot of the description and development plan catalogs.
+ *
+ * Mirrors the exact-then-LIKE lookups against updated_course_description,
+ * updated_career_description, development_plan, course_development_plan and
+ * career_info without a database round trip. Lookup results, including misses,
+ * are remembered per snapshot; a reload swaps the whole snapshot in one step.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    // Names come from mbti_riasec_matching and stored results, so this is only a safety cap
+    private static final int MAX_REMEMBERED_LOOKUPS = 10000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DescriptionSchemaRegistry schemaRegistry;
+
+    @Autowired
+    private DevelopmentPlanRepository developmentPlanRepository;
+
+    @Autowired
+    private CourseDevelopmentPlanRepository courseDevelopmentPlanRepository;
+
+    @Autowired
+    private CareerInfoRepository careerInfoRepository;
+
+    @Autowired
+    private RecommendationMatrixService recommendationMatrixService;
+
+    @Autowired
+    private CourseAliasService courseAliasService;
+
+    @Autowired
+    private LocalRankingService localRankingService;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Periodic reload so catalog edits show up without a restart.
+     */
+    @Scheduled(fixedDelayString = "${catalog.snapshot.refresh.interval:900000}",
+               initialDelayString = "${catalog.snapshot.refresh.interval:900000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    /**
+     * Load all catalog tables and swap in a new snapshot atomically.
+     */
+    public synchronized Map<String, Object> reload() {
+        long start = System.currentTimeMillis();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        try {
+            Sort byId = Sort.by("id");
+            List<Map.Entry<String, String>> courseDescriptions = loadDescriptions(schemaRegistry.getCourseLookup());
+            List<Map.Entry<String, String>> careerDescriptions = loadDescriptions(schemaRegistry.getCareerLookup());
+            List<DevelopmentPlan> developmentPlans = developmentPlanRepository.findAll(byId);
+            List<CourseDevelopmentPlan> courseDevelopmentPlans = courseDevelopmentPlanRepository.findAll(byId);
+            List<CareerInfo> careerInfo = careerInfoRepository.findAll(byId);
+
+            String fingerprint = fingerprint(courseDescriptions, careerDescriptions, developmentPlans, courseDevelopmentPlans, careerInfo);
+            Snapshot previous = this.snapshot;
+            // Only a content change bumps the version; periodic reloads of identical data keep it
+            long nextVersion = previous != null && previous.fingerprint.equals(fingerprint)
+                ? previous.version
+                : version.incrementAndGet();
+
+            Snapshot built = new Snapshot(
+                nextVersion,
+                fingerprint,
+                NameIndex.of(courseDescriptions, Map.Entry::getKey, Map.Entry::getValue),
+                NameIndex.of(careerDescriptions, Map.Entry::getKey, Map.Entry::getValue),
+                NameIndex.of(developmentPlans, DevelopmentPlan::getCareer, Function.identity()),
+                NameIndex.of(courseDevelopmentPlans, CourseDevelopmentPlan::getCourse, Function.identity()),
+                NameIndex.of(careerInfo, CareerInfo::getCareer, Function.identity())
+            );
+            this.snapshot = built;
+            courseAliasService.rebuild(courseDescriptions);
+            localRankingService.rebuild(courseDescriptions, careerDescriptions);
+            // Memoized coursePath/careerSuggestions strings embed descriptions from the old snapshot
+            recommendationMatrixService.clearRenderedPaths();
+
+            long elapsed = System.currentTimeMillis() - start;
+            logger.info("✅ Catalog snapshot v{} loaded in {}ms: {} course descriptions, {} career descriptions, {} development plans, {} course plans, {} career info",
+                built.version, elapsed, built.courseDescriptions.size(), built.careerDescriptions.size(),
+                built.developmentPlans.size(), built.courseDevelopmentPlans.size(), built.careerInfo.size());
+            summary.put("loaded", true);
+            summary.put("version", built.version);
+            summary.put("loadTimeMs", elapsed);
+            summary.putAll(built.sizes());
+        } catch (Exception e) {
+            logger.error("❌ Failed to load catalog snapshot: {}", e.getMessage());
+            summary.put("loaded", false);
+            summary.put("error", e.getMessage());
+        }
+        return summary;
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    /**
+     * Version of the current snapshot (0 when nothing is loaded); bumps when the content changes.
+     */
+    public long getVersion() {
+        Snapshot current = this.snapshot;
+        return current != null ? current.version : 0L;
+    }
+
+    /**
+     * Content hash of the current snapshot, stable across restarts; null when nothing is loaded.
+     */
+    public String getFingerprint() {
+        Snapshot current = this.snapshot;
+        return current != null ? current.fingerprint : null;
+    }
+
+    public Optional<String> findCourseDescription(String name) {
+        Snapshot current = this.snapshot;
+        return current != null ? current.courseDescriptions.find(name) : Optional.empty();
+    }
+
+    public Optional<String> findCareerDescription(String name) {
+        Snapshot current = this.snapshot;
+        return current != null ? current.careerDescriptions.find(name) : Optional.empty();
+    }
+
+    public Optional<DevelopmentPlan> findDevelopmentPlan(String careerName) {
+        Snapshot current = this.snapshot;
+        return current != null ? current.developmentPlans.find(careerName) : Optional.empty();
+    }
+
+    public Optional<CourseDevelopmentPlan> findCourseDevelopmentPlan(String courseName) {
+        Snapshot current = this.snapshot;
+        return current != null ? current.courseDevelopmentPlans.find(courseName) : Optional.empty();
+    }
+
+    public Optional<CareerInfo> findCareerInfo(String careerName) {
+        Snapshot current = this.snapshot;
+        return current != null ? current.careerInfo.find(careerName) : Optional.empty();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Snapshot current = this.snapshot;
+        stats.put("loaded", current != null);
+        if (current != null) {
+            stats.put("version", current.version);
+            stats.put("fingerprint", current.fingerprint);
+            stats.put("loadedAt", current.loadedAt.toString());
+            stats.putAll(current.sizes());
+        }
+        return stats;
+    }
+
+    private List<Map.Entry<String, String>> loadDescriptions(DescriptionSchemaRegistry.DescriptionLookup lookup) {
+        if (!lookup.isAvailable()) {
+            return Collections.emptyList();
+        }
+        String sql = "SELECT " + lookup.getNameColumn() + ", description FROM " + lookup.getTable() + " ORDER BY id";
+        return jdbcTemplate.query(sql, (rs, i) -> new AbstractMap.SimpleImmutableEntry<>(rs.getString(1), rs.getString(2)));
+    }
+
+    private static String fingerprint(List<Map.Entry<String, String>> courseDescriptions,
+                                      List<Map.Entry<String, String>> careerDescriptions,
+                                      List<DevelopmentPlan> developmentPlans,
+                                      List<CourseDevelopmentPlan> courseDevelopmentPlans,
+                                      List<CareerInfo> careerInfo) throws java.security.NoSuchAlgorithmException {
+        java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
+        for (Map.Entry<String, String> e : courseDescriptions) digest(md, "cd", e.getKey(), e.getValue());
+        for (Map.Entry<String, String> e : careerDescriptions) digest(md, "ad", e.getKey(), e.getValue());
+        for (DevelopmentPlan dp : developmentPlans) {
+            digest(md, "dp", dp.getCareer(), dp.getIntroduction(), dp.getKeySkills(), dp.getAcademicsActivities(),
+                dp.getSoftSkills(), dp.getGrowthOpportunities());
+        }
+        for (CourseDevelopmentPlan cdp : courseDevelopmentPlans) {
+            digest(md, "cp", cdp.getCourse(), cdp.getCourseOverview(), cdp.getCoreCompetencies(), cdp.getAcadsExtra(),
+                cdp.getSubjMaster(), cdp.getSoftSkills(), cdp.getCareerReadiness(), cdp.getGrowth());
+        }
+        for (CareerInfo ci : careerInfo) {
+            digest(md, "ci", ci.getCareer(), ci.getCareerFit(), ci.getEducationLevel(), ci.getWorkEnvironment(), ci.getCareerPath());
+        }
+        return HexFormat.of().formatHex(md.digest()).substring(0, 16);
+    }
+
+    private static void digest(java.security.MessageDigest md, String... parts) {
+        for (String part : parts) {
+            md.update(String.valueOf(part).getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            md.update((byte) 0);
+        }
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final String fingerprint;
+        private final NameIndex<String> courseDescriptions;
+        private final NameIndex<String> careerDescriptions;
+        private final NameIndex<DevelopmentPlan> developmentPlans;
+        private final NameIndex<CourseDevelopmentPlan> courseDevelopmentPlans;
+        private final NameIndex<CareerInfo> careerInfo;
+        private final java.time.LocalDateTime loadedAt = java.time.LocalDateTime.now();
+
+        private Snapshot(long version, String fingerprint, NameIndex<String> courseDescriptions, NameIndex<String> careerDescriptions,
+                         NameIndex<DevelopmentPlan> developmentPlans, NameIndex<CourseDevelopmentPlan> courseDevelopmentPlans,
+                         NameIndex<CareerInfo> careerInfo) {
+            this.version = version;
+            this.fingerprint = fingerprint;
+            this.courseDescriptions = courseDescriptions;
+            this.careerDescriptions = careerDescriptions;
+            this.developmentPlans = developmentPlans;
+            this.courseDevelopmentPlans = courseDevelopmentPlans;
+            this.careerInfo = careerInfo;
+        }
+
+        private Map<String, Object> sizes() {
+            Map<String, Object> sizes = new LinkedHashMap<>();
+            sizes.put("courseDescriptions", courseDescriptions.size());
+            sizes.put("careerDescriptions", careerDescriptions.size());
+            sizes.put("developmentPlans", developmentPlans.size());
+            sizes.put("courseDevelopmentPlans", courseDevelopmentPlans.size());
+            sizes.put("careerInfo", careerInfo.size());
+            return sizes;
+        }
+    }
+
+    /**
+     * Case-folded exact map plus a pre-lowered key array for the "%name%" partial match.
+     * Rows are given in id order so the first match is the one the SQL would have returned.
+     */
+    static final class NameIndex<T> {
+        private final Map<String, T> exact;
+        private final String[] partialKeys;
+        private final List<T> partialValues;
+        private final Map<String, Optional<T>> resolved = new ConcurrentHashMap<>();
+
+        private NameIndex(Map<String, T> exact, String[] partialKeys, List<T> partialValues) {
+            this.exact = exact;
+            this.partialKeys = partialKeys;
+            this.partialValues = partialValues;
+        }
+
+        static <R, T> NameIndex<T> of(List<R> rows, Function<R, String> nameOf, Function<R, T> valueOf) {
+            List<String> keys = new ArrayList<>(rows.size());
+            List<T> values = new ArrayList<>(rows.size());
+            Map<String, T> exact = new HashMap<>();
+            for (R row : rows) {
+                String name = nameOf.apply(row);
+                T value = valueOf.apply(row);
+                if (name == null || value == null) continue;
+                if (value instanceof String && ((String) value).isEmpty()) continue;
+                String key = name.toLowerCase();
+                exact.putIfAbsent(key, value);
+                keys.add(key);
+                values.add(value);
+            }
+            return new NameIndex<>(exact, keys.toArray(new String[0]), values);
+        }
+
+        Optional<T> find(String name) {
+            if (name == null) return Optional.empty();
+            String key = name.toLowerCase();
+            T hit = exact.get(key);
+            if (hit != null) return Optional.of(hit);
+
+            Optional<T> cached = resolved.get(key);
+            if (cached != null) return cached;
+
+            Optional<T> result = Optional.empty();
+            for (int i = 0; i < partialKeys.length; i++) {
+                if (partialKeys[i].contains(key)) {
+                    result = Optional.of(partialValues.get(i));
+                    break;
+                }
+            }
+            // Remember misses too so unknown names don't rescan the catalog every time
+            if (resolved.size() < MAX_REMEMBERED_LOOKUPS) {
+                resolved.put(key, result);
+            }
+            return result;
+        }
+
+        int size() {
+            return partialKeys.length;
+        }
+    }
+}
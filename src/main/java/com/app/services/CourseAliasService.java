@@ -0,0 +1,218 @@
+package com.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Course-name alias resolver for description lookups.
+ *
+ * Built once per catalog snapshot from the updated_course_description rows only.
+ * Names are normalized ("Bachelor of Science in X", "B.S. X", "BS X" all collapse),
+ * degree prefixes are indexed separately, and a token index handles word-order and
+ * partial names with a deterministic tie-break on catalog order.
+ */
+@Service
+public class CourseAliasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseAliasService.class);
+
+    private static final int MAX_TRACKED_MISSES = 500;
+
+    private final AtomicLong exactHits = new AtomicLong();
+    private final AtomicLong prefixHits = new AtomicLong();
+    private final AtomicLong tokenHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Map<String, AtomicLong> missedNames = new ConcurrentHashMap<>();
+
+    private volatile Resolver resolver = Resolver.build(Collections.emptyList());
+
+    /**
+     * Rebuild the resolver from catalog rows (name, description) in id order.
+     */
+    public void rebuild(List<Map.Entry<String, String>> catalogDescriptions) {
+        this.resolver = Resolver.build(catalogDescriptions);
+        logger.info("✅ Course alias resolver rebuilt with {} names", resolver.size());
+    }
+
+    /**
+     * Resolve a course name to a description through normalized, prefix and token aliases.
+     */
+    public Optional<String> resolve(String courseName) {
+        Resolver.Match match = resolver.resolve(courseName);
+        switch (match.tier) {
+            case EXACT: exactHits.incrementAndGet(); break;
+            case PREFIX: prefixHits.incrementAndGet(); break;
+            case TOKEN: tokenHits.incrementAndGet(); break;
+            default:
+                misses.incrementAndGet();
+                if (courseName != null && (missedNames.size() < MAX_TRACKED_MISSES || missedNames.containsKey(courseName))) {
+                    missedNames.computeIfAbsent(courseName, k -> new AtomicLong()).incrementAndGet();
+                }
+                return Optional.empty();
+        }
+        return Optional.of(match.description);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("names", resolver.size());
+        stats.put("exactHits", exactHits.get());
+        stats.put("prefixHits", prefixHits.get());
+        stats.put("tokenHits", tokenHits.get());
+        stats.put("misses", misses.get());
+        // Most frequently missed names first - these are the catalog gaps
+        List<Map<String, Object>> topMisses = new ArrayList<>();
+        missedNames.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue().get(), a.getValue().get()))
+            .limit(50)
+            .forEach(e -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("name", e.getKey());
+                row.put("count", e.getValue().get());
+                topMisses.add(row);
+            });
+        stats.put("topMisses", topMisses);
+        return stats;
+    }
+
+    /**
+     * Immutable alias indexes for one catalog snapshot.
+     */
+    static final class Resolver {
+
+        enum Tier { EXACT, PREFIX, TOKEN, MISS }
+
+        static final class Match {
+            static final Match MISS = new Match(Tier.MISS, null);
+            final Tier tier;
+            final String description;
+
+            Match(Tier tier, String description) {
+                this.tier = tier;
+                this.description = description;
+            }
+        }
+
+        private static final Set<String> DEGREE_PREFIXES = Set.of("bs", "ba", "ab", "bsc", "bachelor");
+        private static final int MAX_RESOLVED_NAMES = 10000;
+        private static final Set<String> STOP_WORDS = Set.of("in", "of", "and", "the", "major", "program");
+
+        private final Layer catalog = new Layer();
+        private final Map<String, Match> resolved = new ConcurrentHashMap<>();
+
+        static Resolver build(List<Map.Entry<String, String>> catalogDescriptions) {
+            Resolver r = new Resolver();
+            for (Map.Entry<String, String> e : catalogDescriptions) {
+                r.catalog.add(e.getKey(), e.getValue());
+            }
+            return r;
+        }
+
+        Match resolve(String name) {
+            if (name == null) return Match.MISS;
+            String key = normalize(name);
+            if (key.isEmpty()) return Match.MISS;
+            Match cached = resolved.get(key);
+            if (cached != null) return cached;
+            Match m = catalog.lookup(key);
+            if (resolved.size() < MAX_RESOLVED_NAMES) resolved.put(key, m);
+            return m;
+        }
+
+        int size() {
+            return catalog.exact.size();
+        }
+
+        /**
+         * Exact, prefix-stripped and token indexes over the catalog names.
+         */
+        private static final class Layer {
+            private final Map<String, String> exact = new HashMap<>();
+            private final Map<String, String> byBase = new HashMap<>();
+            private final Map<String, List<Integer>> tokenIndex = new HashMap<>();
+            private final List<Set<String>> entryTokens = new ArrayList<>();
+            private final List<String> entryDescriptions = new ArrayList<>();
+
+            private void add(String name, String description) {
+                if (name == null || description == null || description.isEmpty()) return;
+                String key = normalize(name);
+                if (key.isEmpty()) return;
+                exact.putIfAbsent(key, description);
+                byBase.putIfAbsent(stripDegreePrefix(key), description);
+
+                Set<String> tokens = tokens(key);
+                if (tokens.isEmpty()) return;
+                int id = entryDescriptions.size();
+                entryDescriptions.add(description);
+                entryTokens.add(tokens);
+                for (String t : tokens) {
+                    tokenIndex.computeIfAbsent(t, k -> new ArrayList<>()).add(id);
+                }
+            }
+
+            private Match lookup(String key) {
+                String hit = exact.get(key);
+                if (hit != null) return new Match(Tier.EXACT, hit);
+
+                hit = byBase.get(stripDegreePrefix(key));
+                if (hit != null) return new Match(Tier.PREFIX, hit);
+
+                // Token fallback: one name's words must contain the other's (the old contains() in
+                // both directions, but word-based); best Jaccard overlap wins, ties go to catalog order
+                Set<String> queryTokens = tokens(key);
+                if (queryTokens.isEmpty()) return Match.MISS;
+                Set<Integer> candidates = new TreeSet<>();
+                for (String t : queryTokens) {
+                    List<Integer> ids = tokenIndex.get(t);
+                    if (ids != null) candidates.addAll(ids);
+                }
+                int best = -1;
+                double bestScore = 0.0;
+                for (int id : candidates) {
+                    Set<String> entry = entryTokens.get(id);
+                    if (!entry.containsAll(queryTokens) && !queryTokens.containsAll(entry)) continue;
+                    int shared = 0;
+                    for (String t : queryTokens) {
+                        if (entry.contains(t)) shared++;
+                    }
+                    double score = shared / (double) (queryTokens.size() + entry.size() - shared);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = id;
+                    }
+                }
+                return best >= 0 ? new Match(Tier.TOKEN, entryDescriptions.get(best)) : Match.MISS;
+            }
+        }
+
+        static String normalize(String name) {
+            String s = name.toLowerCase(Locale.ROOT).replace("&", " and ").replace(".", "");
+            s = s.replaceAll("[^a-z0-9]+", " ").trim();
+            s = s.replaceAll("^bachelor of science( in)? ", "bs ")
+                 .replaceAll("^bachelor of arts( in)? ", "ba ")
+                 .replaceAll("^bachelor in ", "bachelor ");
+            return s;
+        }
+
+        static String stripDegreePrefix(String key) {
+            int space = key.indexOf(' ');
+            if (space > 0 && DEGREE_PREFIXES.contains(key.substring(0, space))) {
+                return key.substring(space + 1);
+            }
+            return key;
+        }
+
+        private static Set<String> tokens(String key) {
+            Set<String> out = new LinkedHashSet<>();
+            for (String t : stripDegreePrefix(key).split(" ")) {
+                if (!t.isEmpty() && !STOP_WORDS.contains(t)) out.add(t);
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Startup registry of the description table layouts.
+ *
+ * updated_course_description / updated_career_description have used both
+ * "course_name"/"course" and "career_name"/"career" as their name column over time.
+ * Instead of asking information_schema on every lookup, the layout is introspected
+ * once and the lookup SQL is prepared up front. Call {@link #refresh()} after a migration.
+ */
+@Service
+public class DescriptionSchemaRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(DescriptionSchemaRegistry.class);
+
+    public static final String COURSE_TABLE = "updated_course_description";
+    public static final String CAREER_TABLE = "updated_career_description";
+
+    private static final String INTROSPECT_SQL =
+        "SELECT table_name, column_name FROM information_schema.columns " +
+        "WHERE table_schema = 'public' AND table_name IN (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${description.schema.retry.interval:30000}")
+    private long retryIntervalMs;
+
+    private volatile Registry registry;
+    private final OnDemandRetry introspectRetry = new OnDemandRetry();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    /**
+     * Re-read the table layouts and swap in freshly prepared lookup SQL.
+     */
+    public synchronized Map<String, Object> refresh() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        try {
+            Map<String, Set<String>> columns = new HashMap<>();
+            jdbcTemplate.query(INTROSPECT_SQL, rs -> {
+                columns.computeIfAbsent(rs.getString("table_name"), k -> new HashSet<>())
+                       .add(rs.getString("column_name").toLowerCase());
+            }, COURSE_TABLE, CAREER_TABLE);
+
+            Registry built = new Registry(
+                DescriptionLookup.of(COURSE_TABLE, columns.get(COURSE_TABLE), "course_name", "course"),
+                DescriptionLookup.of(CAREER_TABLE, columns.get(CAREER_TABLE), "career_name", "career")
+            );
+            this.registry = built;
+
+            logger.info("✅ Description schema registry loaded: {}.{}, {}.{}",
+                COURSE_TABLE, built.course.getNameColumn(), CAREER_TABLE, built.career.getNameColumn());
+            summary.put("loaded", true);
+            summary.put(COURSE_TABLE, built.course.getNameColumn());
+            summary.put(CAREER_TABLE, built.career.getNameColumn());
+        } catch (Exception e) {
+            logger.error("❌ Failed to introspect description tables: {}", e.getMessage());
+            summary.put("loaded", false);
+            summary.put("error", e.getMessage());
+        }
+        return summary;
+    }
+
+    /**
+     * Prepared lookup for updated_course_description.
+     */
+    public DescriptionLookup getCourseLookup() {
+        Registry current = current();
+        return current != null ? current.course : DescriptionLookup.MISSING;
+    }
+
+    /**
+     * Prepared lookup for updated_career_description.
+     */
+    public DescriptionLookup getCareerLookup() {
+        Registry current = current();
+        return current != null ? current.career : DescriptionLookup.MISSING;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        Registry current = this.registry;
+        status.put("loaded", current != null);
+        if (current != null) {
+            status.put(COURSE_TABLE, current.course.getNameColumn());
+            status.put(CAREER_TABLE, current.career.getNameColumn());
+            status.put("loadedAt", current.loadedAt.toString());
+        }
+        return status;
+    }
+
+    private Registry current() {
+        Registry current = this.registry;
+        if (current == null && introspectRetry.tryAcquire(System.currentTimeMillis(), retryIntervalMs)) {
+            // Startup introspection failed (e.g. DB not ready yet) - one lookup per interval tries again
+            refresh();
+            current = this.registry;
+        }
+        return current;
+    }
+
+    private static final class Registry {
+        private final DescriptionLookup course;
+        private final DescriptionLookup career;
+        private final java.time.LocalDateTime loadedAt = java.time.LocalDateTime.now();
+
+        private Registry(DescriptionLookup course, DescriptionLookup career) {
+            this.course = course;
+            this.career = career;
+        }
+    }
+
+    /**
+     * Resolved name column and prepared SQL for one description table.
+     */
+    public static final class DescriptionLookup {
+        static final DescriptionLookup MISSING = new DescriptionLookup(null, null);
+
+        private final String table;
+        private final String nameColumn;
+        private final String exactSql;
+        private final String partialSql;
+
+        private DescriptionLookup(String table, String nameColumn) {
+            this.table = table;
+            this.nameColumn = nameColumn;
+            if (nameColumn != null) {
+                this.exactSql = "SELECT description FROM " + table + " WHERE lower(" + nameColumn + ") = lower(?) LIMIT 1";
+                this.partialSql = "SELECT description FROM " + table + " WHERE lower(" + nameColumn + ") LIKE lower(?) LIMIT 1";
+            } else {
+                this.exactSql = null;
+                this.partialSql = null;
+            }
+        }
+
+        static DescriptionLookup of(String table, Set<String> columns, String preferred, String alternate) {
+            if (columns == null || !columns.contains("description")) {
+                return MISSING;
+            }
+            if (columns.contains(preferred)) return new DescriptionLookup(table, preferred);
+            if (columns.contains(alternate)) return new DescriptionLookup(table, alternate);
+            return MISSING;
+        }
+
+        public boolean isAvailable() { return nameColumn != null; }
+        public String getTable() { return table; }
+        public String getNameColumn() { return nameColumn; }
+        public String getExactSql() { return exactSql; }
+        public String getPartialSql() { return partialSql; }
+    }
+}
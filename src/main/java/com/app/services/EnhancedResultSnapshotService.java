@@ -0,0 +1,242 @@
+package com.app.services;
+
+import com.app.dto.EnhancedTestResultDTO;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persisted, fully assembled enhanced results.
+ *
+ * A result never changes after submission, so the assembled EnhancedTestResultDTO is
+ * stored once as JSONB (enhanced_result_snapshot) and served from there. Snapshots are
+ * tagged with the catalog version they were built against; a catalog change or an
+ * explicit regenerate makes them stale and they are rebuilt on the next read.
+ */
+@Service
+public class EnhancedResultSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnhancedResultSnapshotService.class);
+
+    // Bump when the EnhancedTestResultDTO shape (or what may be stored) changes so old payloads are rebuilt
+    private static final int PAYLOAD_FORMAT = 2;
+
+    private static final String SELECT_SQL =
+        "SELECT payload::text FROM enhanced_result_snapshot WHERE session_id = ? AND catalog_version = ?";
+
+    private static final String SELECT_VERSION_SQL =
+        "SELECT created_at FROM enhanced_result_snapshot WHERE session_id = ? AND catalog_version = ?";
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO enhanced_result_snapshot (session_id, test_result_id, catalog_version, payload, created_at) " +
+        "VALUES (?, ?, ?, ?::jsonb, CURRENT_TIMESTAMP) " +
+        "ON CONFLICT (session_id) DO UPDATE SET test_result_id = EXCLUDED.test_result_id, " +
+        "catalog_version = EXCLUDED.catalog_version, payload = EXCLUDED.payload, created_at = EXCLUDED.created_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private RecommendationMatrixService recommendationMatrixService;
+
+    @Lazy
+    @Autowired
+    private TestResultService testResultService;
+
+    @Value("${result.snapshot.enabled:true}")
+    private boolean enabled;
+
+    private final ExecutorService prefetchExecutor = new ThreadPoolExecutor(
+        2, 2, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(500),
+        new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "result-snapshot-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        },
+        (r, executor) -> logger.warn("⚠️ Snapshot prefetch queue full, snapshot will be built on first read")
+    );
+
+    /**
+     * Version tag for snapshots built right now, or null when the catalog isn't loaded
+     * (results built from the DB fallback path are not persisted).
+     */
+    public String currentCatalogVersion() {
+        String catalog = catalogSnapshotService.getFingerprint();
+        String matrix = recommendationMatrixService.getSignature();
+        if (catalog == null || matrix == null) {
+            return null;
+        }
+        return PAYLOAD_FORMAT + ":" + catalog + ":" + matrix;
+    }
+
+    /**
+     * Version of the current snapshot for a session (catalog version and when it was written),
+     * or null when there is none. Every rewrite of the snapshot yields a new version.
+     */
+    public String findSnapshotVersion(UUID sessionId) {
+        String version = currentCatalogVersion();
+        if (!enabled || version == null || sessionId == null) {
+            return null;
+        }
+        try {
+            List<java.sql.Timestamp> rows = jdbcTemplate.queryForList(SELECT_VERSION_SQL, java.sql.Timestamp.class, sessionId, version);
+            if (rows.isEmpty() || rows.get(0) == null) {
+                return null;
+            }
+            return version + "@" + rows.get(0).getTime();
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not read result snapshot version for session {}: {}", sessionId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Raw JSON bytes of a current snapshot, ready to be written to a response.
+     */
+    public Optional<byte[]> findSnapshotBytes(UUID sessionId) {
+        String version = currentCatalogVersion();
+        if (!enabled || version == null) {
+            return Optional.empty();
+        }
+        try {
+            List<String> rows = jdbcTemplate.queryForList(SELECT_SQL, String.class, sessionId, version);
+            if (rows.isEmpty() || rows.get(0) == null) {
+                return Optional.empty();
+            }
+            return Optional.of(rows.get(0).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not read result snapshot for session {}: {}", sessionId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Current snapshot deserialized back into a DTO (PDF, email and user/guest lookups).
+     */
+    public Optional<EnhancedTestResultDTO> findSnapshot(UUID sessionId) {
+        Optional<byte[]> bytes = findSnapshotBytes(sessionId);
+        if (bytes.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readerFor(EnhancedTestResultDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(bytes.get()));
+        } catch (Exception e) {
+            logger.warn("⚠️ Stored snapshot for session {} could not be read, rebuilding: {}", sessionId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Independent copy of an assembled result, so it can be completed and stored while the
+     * original is still being written to a response.
+     */
+    public EnhancedTestResultDTO copyOf(EnhancedTestResultDTO dto) throws java.io.IOException {
+        return objectMapper.readerFor(EnhancedTestResultDTO.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readValue(objectMapper.writeValueAsBytes(dto));
+    }
+
+    /**
+     * Persist an assembled result for its session.
+     */
+    public void save(UUID sessionId, Long testResultId, EnhancedTestResultDTO dto) {
+        String version = currentCatalogVersion();
+        if (!enabled || version == null || sessionId == null || dto == null) {
+            return;
+        }
+        try {
+            String payload = objectMapper.writeValueAsString(dto);
+            jdbcTemplate.update(UPSERT_SQL, sessionId, testResultId, version, payload);
+            logger.debug("Stored enhanced result snapshot for session {} ({} bytes)", sessionId, payload.length());
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not store result snapshot for session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the snapshot for a session (after regenerating its content).
+     */
+    public void invalidate(UUID sessionId) {
+        try {
+            jdbcTemplate.update("DELETE FROM enhanced_result_snapshot WHERE session_id = ?", sessionId);
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not invalidate result snapshot for session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    /**
+     * Build and store the snapshot in the background once the surrounding transaction
+     * commits. A result that was already assembled (e.g. for the email report) is stored
+     * instead when it completes; it completes with null when it is not fit to be stored,
+     * and the snapshot is then built on the first read.
+     */
+    public void prefetchAfterCommit(UUID sessionId, Long testResultId, CompletableFuture<EnhancedTestResultDTO> prebuilt) {
+        if (!enabled || sessionId == null) {
+            return;
+        }
+        Runnable task = () -> {
+            if (prebuilt != null) {
+                // Stored from the executor: afterCommit still runs inside the finished transaction
+                prebuilt.thenAcceptAsync(dto -> {
+                    if (dto != null) {
+                        save(sessionId, testResultId, dto);
+                    }
+                }, prefetchExecutor);
+                return;
+            }
+            prefetchExecutor.execute(() -> {
+                try {
+                    // Builds through the normal read path, which stores the snapshot on a miss
+                    testResultService.getEnhancedResultBySessionId(sessionId);
+                } catch (Exception e) {
+                    logger.warn("⚠️ Snapshot prefetch failed for session {}: {}", sessionId, e.getMessage());
+                }
+            });
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdown();
+    }
+}
@@ -3,14 +3,29 @@ package com.app.services;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class HuggingFaceApiService {
@@ -32,8 +47,90 @@ public class HuggingFaceApiService {
     @Value("${huggingface.timeout}")
     private int timeout;
     
+    @Value("${huggingface.bulkhead.max-concurrent:4}")
+    private int maxConcurrentPerModel;
+    
+    @Value("${huggingface.bulkhead.max-queued:16}")
+    private int maxQueuedPerModel;
+    
+    @Value("${huggingface.bulkhead.queue-timeout:30000}")
+    private long queueTimeoutMs;
+    
+    @Value("${huggingface.quota.enabled:true}")
+    private boolean quotaEnabled;
+    
+    @Value("${huggingface.quota.requests-per-minute:300}")
+    private int quotaRequestsPerMinute;
+    
+    @Value("${huggingface.quota.burst:20}")
+    private int quotaBurst;
+    
+    @Value("${huggingface.quota.background-reserve:0.25}")
+    private double quotaBackgroundReserve;
+    
+    @Value("${huggingface.quota.max-queued:64}")
+    private int quotaMaxQueued;
+    
+    @Value("${huggingface.max.retries:3}")
+    private int maxRetries;
+    
+    @Value("${huggingface.retry.delay:2000}")
+    private long retryDelayMs;
+    
+    @Value("${huggingface.retry.max-delay:30000}")
+    private long maxRetryDelayMs;
+    
+    @Value("${huggingface.circuit.failure-threshold:5}")
+    private int circuitFailureThreshold;
+    
+    @Value("${huggingface.circuit.open-duration:30000}")
+    private long circuitOpenDurationMs;
+    
+    @Value("${huggingface.adaptive-timeout.enabled:true}")
+    private boolean adaptiveTimeoutEnabled;
+    
+    @Value("${huggingface.adaptive-timeout.multiplier:3.0}")
+    private double adaptiveTimeoutMultiplier;
+    
+    @Value("${huggingface.adaptive-timeout.min:5000}")
+    private long adaptiveTimeoutMinMs;
+    
+    @Value("${huggingface.latency.window:200}")
+    private int latencyWindow;
+    
+    @Value("${huggingface.latency.min-samples:20}")
+    private int latencyMinSamples;
+    
+    @Value("${huggingface.hedge.enabled:true}")
+    private boolean hedgingEnabled;
+    
+    @Value("${huggingface.hedge.budget-ratio:0.05}")
+    private double hedgeBudgetRatio;
+    
+    @Value("${huggingface.hedge.max-burst:5}")
+    private double hedgeMaxBurst;
+    
+    @Autowired
+    private AiResponseCacheService responseCache;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private AiCallMetrics metrics;
+    private AiQuotaGovernor quotaGovernor;
     private final OkHttpClient client;
     private final ObjectMapper objectMapper;
+    private final Map<String, ModelBulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, ModelCircuitBreaker> circuits = new ConcurrentHashMap<>();
+    private final Map<String, ModelLatencyTracker> latencies = new ConcurrentHashMap<>();
+    private final Map<String, UpstreamCall> inFlightCalls = new ConcurrentHashMap<>();
+    private final AtomicLong upstreamCalls = new AtomicLong();
+    private final AtomicLong coalescedCalls = new AtomicLong();
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "huggingface-retry");
+        t.setDaemon(true);
+        return t;
+    });
     
     public HuggingFaceApiService() {
         this.client = new OkHttpClient.Builder()
@@ -44,37 +141,91 @@ public class HuggingFaceApiService {
         this.objectMapper = new ObjectMapper();
     }
     
+    /**
+     * Every model lives on the same host, so the dispatcher's per-host limit (default 5)
+     * must leave room for all bulkheads; the bulkheads are what actually bound concurrency.
+     */
+    @PostConstruct
+    public void configureDispatcher() {
+        Dispatcher dispatcher = client.dispatcher();
+        dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), maxConcurrentPerModel * 8));
+        dispatcher.setMaxRequestsPerHost(Math.max(dispatcher.getMaxRequestsPerHost(), maxConcurrentPerModel * 8));
+    }
+    
+    @PostConstruct
+    public void registerMetrics() {
+        metrics = new AiCallMetrics(meterRegistry);
+        quotaGovernor = new AiQuotaGovernor(quotaRequestsPerMinute, quotaBurst, quotaBackgroundReserve,
+            quotaMaxQueued, retryScheduler);
+        metrics.bindQuota(quotaGovernor);
+    }
+    
+    @PreDestroy
+    public void shutdownRetryScheduler() {
+        retryScheduler.shutdownNow();
+    }
+    
     /**
      * Validate course description using AI
      */
     public ValidationResponse validateCourseDescription(String courseName, String description) {
+        return validateCourseDescriptionAsync(courseName, description).join();
+    }
+    
+    /**
+     * Non-blocking course description validation
+     */
+    public CompletableFuture<ValidationResponse> validateCourseDescriptionAsync(String courseName, String description) {
         String prompt = buildCourseValidationPrompt(courseName, description);
-        return callHuggingFaceApi(educationModel, prompt, "course_validation");
+        return callHuggingFaceApiAsync(educationModel, prompt, "course_validation");
     }
     
     /**
      * Validate career information using AI
      */
     public ValidationResponse validateCareerInfo(String careerName, String description, String salaryRange) {
+        return validateCareerInfoAsync(careerName, description, salaryRange).join();
+    }
+    
+    /**
+     * Non-blocking career information validation
+     */
+    public CompletableFuture<ValidationResponse> validateCareerInfoAsync(String careerName, String description, String salaryRange) {
         String prompt = buildCareerValidationPrompt(careerName, description, salaryRange);
-        return callHuggingFaceApi(validationModel, prompt, "career_validation");
+        return callHuggingFaceApiAsync(validationModel, prompt, "career_validation");
+    }
+    
+    /**
+     * Validate a career development plan using AI
+     */
+    public ValidationResponse validateDevelopmentPlan(String careerName, String plan) {
+        String prompt = buildDevelopmentPlanValidationPrompt(careerName, plan);
+        return callHuggingFaceApi(validationModel, prompt, "development_plan_validation");
     }
     
     /**
      * Validate MBTI/RIASEC mapping using AI
      */
     public ValidationResponse validatePersonalityMapping(String mbtiType, String riasecCode, String courseSuggestions) {
+        return validatePersonalityMappingAsync(mbtiType, riasecCode, courseSuggestions).join();
+    }
+    
+    /**
+     * Non-blocking MBTI/RIASEC mapping validation
+     */
+    public CompletableFuture<ValidationResponse> validatePersonalityMappingAsync(String mbtiType, String riasecCode,
+                                                                               String courseSuggestions) {
         String prompt = buildPersonalityValidationPrompt(mbtiType, riasecCode, courseSuggestions);
-        return callHuggingFaceApi(educationModel, prompt, "personality_validation");
+        return callHuggingFaceApiAsync(educationModel, prompt, "personality_validation");
     }
     
     /**
-     * General text generation using Hugging Face API
+     * General text generation using Hugging Face API. Blocks until the call is done; request
+     * threads use generateTextAsync
      */
     public String generateText(String model, String prompt) {
         try {
-            ValidationResponse response = callHuggingFaceApi(model, prompt, "text_generation");
-            return response.getMessage();
+            return generateTextAsync(model, prompt).join();
         } catch (Exception e) {
             log.error("Failed to generate text with model {}: {}", model, e.getMessage());
             return null;
@@ -82,20 +233,91 @@ public class HuggingFaceApiService {
     }
     
     /**
-     * Call a specific model (for testing purposes)
+     * Non-blocking text generation; completes with null when the call fails or is rejected
+     */
+    public CompletableFuture<String> generateTextAsync(String model, String prompt) {
+        return callHuggingFaceApiAsync(model, prompt, "text_generation")
+            .thenApply(HuggingFaceApiService::generatedTextOrNull);
+    }
+    
+    /**
+     * Non-blocking text generation with a larger output budget, for prompts that ask for several answers at once
+     */
+    public CompletableFuture<String> generateTextAsync(String model, String prompt, int maxNewTokens) {
+        return callHuggingFaceApiAsync(model, prompt, "text_generation", maxNewTokens)
+            .thenApply(HuggingFaceApiService::generatedTextOrNull);
+    }
+
+    // Failed, timed-out and rejected calls come back invalid with zero confidence and an error
+    // text as the message; a generated answer always has some confidence, even when judged invalid
+    private static String generatedTextOrNull(ValidationResponse response) {
+        if (response == null || (!response.isValid() && response.getConfidence() == 0.0)) {
+            return null;
+        }
+        return response.getMessage();
+    }
+    
+    /**
+     * Call a specific model without holding the caller's thread (for testing purposes)
+     */
+    public CompletableFuture<ValidationResponse> callModelAsync(String model, String prompt) {
+        return callHuggingFaceApiAsync(model, prompt, "model_testing");
+    }
+    
+    /**
+     * Concurrency and queue state of every model that has been called
+     */
+    public Map<String, Object> getBulkheadStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        bulkheads.forEach((model, bulkhead) -> {
+            Map<String, Object> modelStats = bulkhead.getStats();
+            modelStats.put("circuit", circuitFor(model).getStats());
+            Map<String, Object> latencyStats = latencyFor(model).getStats();
+            latencyStats.put("attemptDeadlineMs", attemptDeadlineMs(latencyFor(model)));
+            modelStats.put("latency", latencyStats);
+            stats.put(model, modelStats);
+        });
+        return stats;
+    }
+    
+    /**
+     * How many calls shared an identical in-flight prompt instead of going upstream
      */
-    public ValidationResponse callModel(String model, String prompt) {
-        return callHuggingFaceApi(model, prompt, "model_testing");
+    public Map<String, Object> getCoalescingStats() {
+        long upstream = upstreamCalls.get();
+        long coalesced = coalescedCalls.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("upstreamCalls", upstream);
+        stats.put("coalescedCalls", coalesced);
+        stats.put("inFlight", inFlightCalls.size());
+        stats.put("coalescingRatio", upstream + coalesced > 0 ? (double) coalesced / (upstream + coalesced) : 0.0);
+        return stats;
     }
     
     /**
-     * Call Hugging Face Inference API
+     * Call Hugging Face Inference API and wait for the result
      */
     private ValidationResponse callHuggingFaceApi(String model, String input, String taskType) {
+        return callHuggingFaceApiAsync(model, input, taskType).join();
+    }
+    
+    /**
+     * Call Hugging Face Inference API without holding the caller's thread.
+     * The HTTP call runs on OkHttp's dispatcher behind the model's bulkhead; the returned
+     * future never completes exceptionally.
+     */
+    public CompletableFuture<ValidationResponse> callHuggingFaceApiAsync(String model, String input, String taskType) {
+        return callHuggingFaceApiAsync(model, input, taskType, null);
+    }
+    
+    private CompletableFuture<ValidationResponse> callHuggingFaceApiAsync(String model, String input, String taskType,
+                                                                         Integer maxNewTokens) {
         // Check if API key is configured
         if (apiKey == null || apiKey.trim().isEmpty()) {
             log.warn("⚠️ HuggingFace API key not configured. Skipping AI validation.");
-            return new ValidationResponse(false, "AI validation disabled - API key not configured", 0.0);
+            metrics.recordSkipped(model, taskType, "no_api_key");
+            return CompletableFuture.completedFuture(
+                new ValidationResponse(false, "AI validation disabled - API key not configured", 0.0));
         }
         
         try {
@@ -113,9 +335,24 @@ public class HuggingFaceApiService {
             
             // Build request body with enhanced parameters for paid plan
             ApiRequest apiRequest = new ApiRequest(input);
-            apiRequest.setParameters(new ApiParameters());
+            ApiParameters parameters = new ApiParameters();
+            if (maxNewTokens != null) {
+                parameters.setMaxNewTokens(maxNewTokens);
+            }
+            apiRequest.setParameters(parameters);
             String requestBody = objectMapper.writeValueAsString(apiRequest);
             
+            // Identical prompts are answered from the cache; model testing always hits the API
+            String cacheKey = "model_testing".equals(taskType) ? null : responseCache.keyFor(model, requestBody);
+            if (cacheKey != null) {
+                Optional<String> cached = responseCache.get(cacheKey);
+                if (cached.isPresent()) {
+                    log.debug("♻️ Serving cached Hugging Face response for {} ({})", model, taskType);
+                    metrics.recordSkipped(model, taskType, "cached");
+                    return CompletableFuture.completedFuture(parseValidationResponse(cached.get(), taskType));
+                }
+            }
+            
             RequestBody body = RequestBody.create(
                 requestBody,
                 MediaType.get("application/json; charset=utf-8")
@@ -128,59 +365,496 @@ public class HuggingFaceApiService {
                 .post(body)
                 .build();
             
-            log.info("🤖 Calling Hugging Face API: {} for task: {}", model, taskType);
-            log.debug("📤 Request URL: {}", url);
-            log.debug("📤 Request Body: {}", requestBody);
+            // An open circuit answers at once so callers drop straight to their fallbacks
+            if (!circuitFor(model).isCallPermitted()) {
+                log.warn("⚡ Circuit open for Hugging Face model {} - skipping {}", model, taskType);
+                metrics.recordSkipped(model, taskType, AiCallMetrics.CIRCUIT_OPEN);
+                return CompletableFuture.completedFuture(circuitOpenResponse(model));
+            }
             
-            try (Response response = client.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body() != null ? response.body().string() : "";
-                    log.error("❌ Hugging Face API call failed: {} {} - URL: {} - Body: {}", 
-                        response.code(), response.message(), url, errorBody);
-                    
-                    // Check if model is loading
-                    if (response.code() == 503 || errorBody.contains("loading")) {
-                        return new ValidationResponse(false, 
-                            "Model is loading. This may take 30-60 seconds on first use. Please try again in a moment.", 0.0);
+            CompletableFuture<ValidationResponse> result = new CompletableFuture<>();
+            UpstreamCall upstream = new UpstreamCall(request, url, model, taskType, cacheKey, result,
+                AiQuotaGovernor.currentLane());
+            // Identical prompts already in flight share that call instead of starting another
+            String flightKey = cacheKey != null ? cacheKey + "|" + taskType : null;
+            if (flightKey != null) {
+                UpstreamCall inFlight = inFlightCalls.putIfAbsent(flightKey, upstream);
+                if (inFlight != null) {
+                    coalescedCalls.incrementAndGet();
+                    metrics.recordSkipped(model, taskType, "coalesced");
+                    log.debug("🔗 Joining in-flight Hugging Face call for {} ({})", model, taskType);
+                    // A result view waiting on a queued background call lifts it to the interactive lane
+                    if (quotaEnabled && upstream.lane == AiQuotaGovernor.Lane.INTERACTIVE && inFlight.lane != upstream.lane) {
+                        inFlight.lane = upstream.lane;
+                        quotaGovernor.promote(inFlight.ticket);
                     }
-                    
-                    // Check for rate limiting
-                    if (response.code() == 429) {
-                        return new ValidationResponse(false, 
-                            "API rate limit exceeded. Please try again later.", 0.0);
+                    return inFlight.result.copy();
+                }
+                result.whenComplete((response, error) -> inFlightCalls.remove(flightKey, upstream));
+            }
+            upstreamCalls.incrementAndGet();
+            metrics.recordRequestSize(model, taskType, requestBody.getBytes(java.nio.charset.StandardCharsets.UTF_8).length);
+            result.whenComplete((response, error) -> {
+                String outcome = upstream.outcome.get();
+                metrics.recordCall(model, taskType, outcome != null ? outcome : AiCallMetrics.TIMEOUT,
+                    System.nanoTime() - upstream.startedAt);
+                // Whatever is still running (a losing hedge, an attempt past the deadline) is no longer needed
+                upstream.cancelRemaining();
+            });
+            dispatch(upstream, 0);
+            // Bounded wait: queue time plus the HTTP timeout, after which callers get a failure response
+            result.completeOnTimeout(
+                new ValidationResponse(false, "Hugging Face call timed out for model " + model, 0.0),
+                queueTimeoutMs + timeout, TimeUnit.MILLISECONDS);
+            // Callers get their own view so none of them can complete the shared call for the others
+            return flightKey != null ? result.copy() : result;
+            
+        } catch (Exception e) {
+            log.error("❌ Unexpected error in Hugging Face API call: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(
+                new ValidationResponse(false, "Unexpected error: " + e.getMessage(), 0.0));
+        }
+    }
+    
+    /**
+     * One attempt: wait for a bulkhead slot and the circuit, then enqueue the HTTP call with a
+     * deadline derived from the model's recent p95. Retryable failures (network errors and
+     * deadline overruns, 429, 5xx) are retried with backoff until huggingface.max.retries is
+     * used up, the circuit opens or the caller's deadline passes. An attempt still running at
+     * the p95 may get a hedged duplicate (see hedge).
+     */
+    private void dispatch(UpstreamCall upstream, int attempt) {
+        String model = upstream.model;
+        String taskType = upstream.taskType;
+        ModelBulkhead bulkhead = bulkheadFor(model);
+        ModelCircuitBreaker circuit = circuitFor(model);
+        ModelLatencyTracker latency = latencyFor(model);
+        CompletableFuture<ValidationResponse> result = upstream.result;
+        Runnable start = () -> {
+            // Gave up while queued (queue timeout) - hand the slot straight on
+            if (result.isDone()) {
+                bulkhead.release();
+                return;
+            }
+            if (!circuit.tryAcquire()) {
+                bulkhead.release();
+                upstream.outcome.set(AiCallMetrics.CIRCUIT_OPEN);
+                result.complete(circuitOpenResponse(model));
+                return;
+            }
+            upstream.outcome.set(null);
+            long attemptStartedAt = System.nanoTime();
+            long deadlineMs = attemptDeadlineMs(latency);
+            log.info("🤖 Calling Hugging Face API: {} for task: {}{} (deadline {}ms)", model, taskType,
+                attempt > 0 ? " (retry " + attempt + ")" : "", deadlineMs);
+            log.debug("📤 Request URL: {}", upstream.url);
+            try {
+                Call primary = newCall(upstream, deadlineMs);
+                latency.onPrimaryAttempt();
+                primary.enqueue(new Callback() {
+                    @Override
+                    public void onFailure(Call call, IOException e) {
+                        upstream.inFlight.remove(call);
+                        bulkhead.release();
+                        if (upstream.isAbandoned(call)) {
+                            circuit.onAbandoned();
+                            return;
+                        }
+                        String outcome = e instanceof java.io.InterruptedIOException ? AiCallMetrics.TIMEOUT : AiCallMetrics.NETWORK_ERROR;
+                        log.error("❌ Error calling Hugging Face API ({}): {}", outcome, e.getMessage());
+                        upstream.outcome.set(outcome);
+                        metrics.recordAttempt(model, taskType, outcome, System.nanoTime() - attemptStartedAt);
+                        circuit.onFailure();
+                        retryOrComplete(upstream, attempt,
+                            new ValidationResponse(false, "Network error: " + e.getMessage(), 0.0), -1);
                     }
                     
-                    // Check for authentication errors
-                    if (response.code() == 401 || response.code() == 403) {
-                        return new ValidationResponse(false, 
-                            "Authentication failed. Please check your API key.", 0.0);
+                    @Override
+                    public void onResponse(Call call, Response response) {
+                        upstream.inFlight.remove(call);
+                        int code = response.code();
+                        long retryAfterMs = parseRetryAfter(response.header("Retry-After"), System.currentTimeMillis());
+                        ValidationResponse answer = readAnswer(upstream, response, upstream.outcome);
+                        long elapsed = System.nanoTime() - attemptStartedAt;
+                        metrics.recordAttempt(model, taskType, upstream.outcome.get(), elapsed);
+                        bulkhead.release();
+                        if (code == 429 && quotaEnabled) {
+                            // Our quota, not the model: the governor pauses every lane until Retry-After
+                            quotaGovernor.onThrottled(retryAfterMs);
+                            circuit.onAbandoned();
+                            retryOrComplete(upstream, attempt, answer, retryAfterMs);
+                        } else if (code == 429 || code >= 500) {
+                            circuit.onFailure();
+                            retryOrComplete(upstream, attempt, answer, retryAfterMs);
+                        } else {
+                            // Any other answer (including 4xx) means the model endpoint is up
+                            if (AiCallMetrics.SUCCESS.equals(upstream.outcome.get())) {
+                                latency.record(TimeUnit.NANOSECONDS.toMillis(elapsed));
+                            }
+                            circuit.onSuccess();
+                            result.complete(answer);
+                        }
                     }
-                    
-                    return new ValidationResponse(false, 
-                        "API call failed: " + response.message() + " (Status: " + response.code() + ")", 0.0);
+                });
+                long hedgeAfterMs = latency.p95();
+                if (hedgingEnabled && hedgeAfterMs >= 0 && hedgeAfterMs < deadlineMs) {
+                    retryScheduler.schedule(() -> hedge(upstream, primary, deadlineMs), hedgeAfterMs, TimeUnit.MILLISECONDS);
                 }
-                
-                String responseBody = response.body().string();
-                log.debug("📥 Received response from Hugging Face: {}", responseBody);
-                
-                // Check if response indicates model is loading
-                if (responseBody.contains("\"error\"") && responseBody.contains("loading")) {
-                    return new ValidationResponse(false, 
-                        "Model is currently loading. Please try again in 30-60 seconds.", 0.0);
-                }
-                
-                return parseValidationResponse(responseBody, taskType);
+            } catch (Exception e) {
+                bulkhead.release();
+                circuit.onFailure();
+                upstream.outcome.set(AiCallMetrics.NETWORK_ERROR);
+                result.complete(new ValidationResponse(false, "Unexpected error: " + e.getMessage(), 0.0));
             }
-            
-        } catch (IOException e) {
-            log.error("❌ Error calling Hugging Face API: {}", e.getMessage(), e);
-            return new ValidationResponse(false, "Network error: " + e.getMessage(), 0.0);
+        };
+        
+        Runnable admit = () -> {
+            if (!bulkhead.submit(start)) {
+                log.warn("🚫 Hugging Face model {} is saturated ({} active, {} queued) - rejecting {}",
+                    model, bulkhead.getActive(), bulkhead.getQueued(), taskType);
+                upstream.outcome.set(AiCallMetrics.REJECTED);
+                result.complete(new ValidationResponse(false, "Model " + model + " is busy. Please try again shortly.", 0.0));
+            }
+        };
+        if (!quotaEnabled) {
+            admit.run();
+            return;
+        }
+        // Every attempt spends a quota token first; result views are served before background work
+        upstream.ticket = quotaGovernor.submit(upstream.lane, admit, result::isDone);
+        if (upstream.ticket == null) {
+            log.warn("🚫 Hugging Face quota queue full ({} lane) - rejecting {} for {}", upstream.lane, taskType, model);
+            upstream.outcome.set(AiCallMetrics.REJECTED);
+            result.complete(new ValidationResponse(false, "Hugging Face quota exhausted. Please try again shortly.", 0.0));
+        }
+    }
+    
+    /**
+     * Send a duplicate of an attempt that has outlived the model's p95, if the hedge budget
+     * allows, the circuit is closed and a bulkhead slot is free right now. The first good answer
+     * completes the call and the other request is cancelled; a failing hedge never completes or
+     * retries the call - the primary attempt still owns that.
+     */
+    private void hedge(UpstreamCall upstream, Call primary, long deadlineMs) {
+        String model = upstream.model;
+        String taskType = upstream.taskType;
+        if (upstream.result.isDone() || !upstream.inFlight.contains(primary)) {
+            return;
+        }
+        ModelCircuitBreaker circuit = circuitFor(model);
+        ModelLatencyTracker latency = latencyFor(model);
+        ModelBulkhead bulkhead = bulkheadFor(model);
+        if (circuit.getState() != ModelCircuitBreaker.State.CLOSED || !latency.tryHedge()) {
+            return;
+        }
+        Runnable start = () -> {
+            // Hedges only use quota that is free right now
+            if (quotaEnabled && !quotaGovernor.tryAcquire(upstream.lane)) {
+                bulkhead.release();
+                latency.refundHedge();
+                return;
+            }
+            if (!circuit.tryAcquire()) {
+                bulkhead.release();
+                return;
+            }
+            long hedgeStartedAt = System.nanoTime();
+            log.info("🏁 Hedging slow Hugging Face call to {} for {}", model, taskType);
+            metrics.recordHedge(model, taskType, "sent");
+            try {
+                newCall(upstream, deadlineMs).enqueue(new Callback() {
+                    @Override
+                    public void onFailure(Call call, IOException e) {
+                        upstream.inFlight.remove(call);
+                        bulkhead.release();
+                        if (upstream.isAbandoned(call)) {
+                            circuit.onAbandoned();
+                            return;
+                        }
+                        String outcome = e instanceof java.io.InterruptedIOException ? AiCallMetrics.TIMEOUT : AiCallMetrics.NETWORK_ERROR;
+                        metrics.recordAttempt(model, taskType, outcome, System.nanoTime() - hedgeStartedAt);
+                        circuit.onFailure();
+                    }
+                    
+                    @Override
+                    public void onResponse(Call call, Response response) {
+                        upstream.inFlight.remove(call);
+                        int code = response.code();
+                        AtomicReference<String> outcome = new AtomicReference<>();
+                        ValidationResponse answer = readAnswer(upstream, response, outcome);
+                        long elapsed = System.nanoTime() - hedgeStartedAt;
+                        metrics.recordAttempt(model, taskType, outcome.get(), elapsed);
+                        bulkhead.release();
+                        if (code == 429 && quotaEnabled) {
+                            quotaGovernor.onThrottled(parseRetryAfter(response.header("Retry-After"), System.currentTimeMillis()));
+                            circuit.onAbandoned();
+                            return;
+                        }
+                        if (code == 429 || code >= 500) {
+                            circuit.onFailure();
+                            return;
+                        }
+                        if (AiCallMetrics.SUCCESS.equals(outcome.get())) {
+                            latency.record(TimeUnit.NANOSECONDS.toMillis(elapsed));
+                        }
+                        circuit.onSuccess();
+                        if (!upstream.result.isDone()) {
+                            upstream.outcome.set(outcome.get());
+                            if (upstream.result.complete(answer)) {
+                                latency.onHedgeWon();
+                                metrics.recordHedge(model, taskType, "won");
+                            }
+                        }
+                    }
+                });
+            } catch (Exception e) {
+                bulkhead.release();
+                circuit.onAbandoned();
+            }
+        };
+        if (!bulkhead.tryStart(start)) {
+            latency.refundHedge();
+        }
+    }
+    
+    private Call newCall(UpstreamCall upstream, long deadlineMs) {
+        Call call = client.newCall(upstream.request);
+        call.timeout().timeout(deadlineMs, TimeUnit.MILLISECONDS);
+        upstream.inFlight.add(call);
+        return call;
+    }
+    
+    private ValidationResponse readAnswer(UpstreamCall upstream, Response response, AtomicReference<String> outcome) {
+        try (response) {
+            return handleResponse(response, upstream.url, upstream.model, upstream.taskType, upstream.cacheKey, outcome);
         } catch (Exception e) {
             log.error("❌ Unexpected error in Hugging Face API call: {}", e.getMessage(), e);
+            outcome.set(AiCallMetrics.NETWORK_ERROR);
             return new ValidationResponse(false, "Unexpected error: " + e.getMessage(), 0.0);
         }
     }
     
+    /**
+     * Per-attempt deadline: a multiple of the model's rolling p95, kept between
+     * huggingface.adaptive-timeout.min and huggingface.timeout (the latter until there is a p95)
+     */
+    private long attemptDeadlineMs(ModelLatencyTracker latency) {
+        if (!adaptiveTimeoutEnabled) {
+            return timeout;
+        }
+        return latency.deadlineMs(adaptiveTimeoutMultiplier, Math.min(adaptiveTimeoutMinMs, timeout), timeout);
+    }
+    
+    private void retryOrComplete(UpstreamCall upstream, int attempt, ValidationResponse answer, long retryAfterMs) {
+        String model = upstream.model;
+        if (upstream.result.isDone() || attempt >= maxRetries || !circuitFor(model).isCallPermitted()) {
+            upstream.result.complete(answer);
+            return;
+        }
+        long delay = retryAfterMs >= 0
+            ? Math.min(retryAfterMs, maxRetryDelayMs)
+            : backoffDelay(attempt, retryDelayMs, maxRetryDelayMs, ThreadLocalRandom.current().nextDouble());
+        log.info("🔁 Retrying Hugging Face model {} for {} in {}ms (attempt {} of {})",
+            model, upstream.taskType, delay, attempt + 1, maxRetries);
+        metrics.recordRetry(model, upstream.taskType);
+        retryScheduler.schedule(() -> dispatch(upstream, attempt + 1), delay, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Exponential backoff with jitter: half of base * 2^attempt (capped) plus a random share
+     * of the other half, so retries from many callers spread out.
+     */
+    static long backoffDelay(int attempt, long baseMs, long maxMs, double random) {
+        long exponential = baseMs * (1L << Math.min(attempt, 20));
+        long capped = Math.min(Math.max(0, exponential), maxMs);
+        return capped / 2 + (long) (capped / 2.0 * random);
+    }
+    
+    /**
+     * Retry-After in ms (delta-seconds or an HTTP date), or -1 when absent or unreadable.
+     */
+    static long parseRetryAfter(String header, long nowMs) {
+        if (header == null || header.isBlank()) {
+            return -1;
+        }
+        String value = header.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000L);
+        } catch (NumberFormatException ignored) {
+            // fall through to the date form
+        }
+        try {
+            long at = java.time.ZonedDateTime.parse(value, java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME)
+                .toInstant().toEpochMilli();
+            return Math.max(0, at - nowMs);
+        } catch (Exception ignored) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Whether calls to the model would currently be attempted (its circuit is not open)
+     */
+    public boolean isModelAvailable(String model) {
+        return circuitFor(model).isCallPermitted();
+    }
+    
+    /**
+     * Whether background work (precompute, validation sweeps and jobs) should hold off starting
+     * new tasks: result views are waiting for quota, the API is throttling us, or the quota left
+     * is reserved for the current interactive demand
+     */
+    public boolean isBackgroundYielding() {
+        return quotaEnabled && quotaGovernor.isBackgroundYielding();
+    }
+    
+    /**
+     * Quota governor state: tokens left, background reserve, lane queues, 429 pauses
+     */
+    public Map<String, Object> getQuotaStats() {
+        Map<String, Object> stats = quotaGovernor.getStats();
+        stats.put("enabled", quotaEnabled);
+        return stats;
+    }
+    
+    /**
+     * True while every upstream slot for the model is taken and calls are queueing for one
+     */
+    public boolean isModelSaturated(String model) {
+        return bulkheadFor(model).getQueued() > 0;
+    }
+    
+    private static ValidationResponse circuitOpenResponse(String model) {
+        return new ValidationResponse(false, "Model " + model + " is temporarily unavailable (circuit open).", 0.0);
+    }
+    
+    /**
+     * Turn an HTTP response into a ValidationResponse, caching successful bodies and
+     * recording the attempt's outcome for the metrics
+     */
+    private ValidationResponse handleResponse(Response response, String url, String model, String taskType,
+                                              String cacheKey, AtomicReference<String> outcome) throws IOException {
+        if (!response.isSuccessful()) {
+            String errorBody = response.body() != null ? response.body().string() : "";
+            metrics.recordResponseSize(model, taskType, errorBody.getBytes(java.nio.charset.StandardCharsets.UTF_8).length);
+            outcome.set(errorBody.contains("loading") ? AiCallMetrics.LOADING : AiCallMetrics.outcomeForStatus(response.code()));
+            log.error("❌ Hugging Face API call failed: {} {} - URL: {} - Body: {}", 
+                response.code(), response.message(), url, errorBody);
+            
+            // Check if model is loading
+            if (response.code() == 503 || errorBody.contains("loading")) {
+                return new ValidationResponse(false, 
+                    "Model is loading. This may take 30-60 seconds on first use. Please try again in a moment.", 0.0);
+            }
+            
+            // Check for rate limiting
+            if (response.code() == 429) {
+                return new ValidationResponse(false, 
+                    "API rate limit exceeded. Please try again later.", 0.0);
+            }
+            
+            // Check for authentication errors
+            if (response.code() == 401 || response.code() == 403) {
+                return new ValidationResponse(false, 
+                    "Authentication failed. Please check your API key.", 0.0);
+            }
+            
+            return new ValidationResponse(false, 
+                "API call failed: " + response.message() + " (Status: " + response.code() + ")", 0.0);
+        }
+        
+        byte[] responseBytes = response.body().bytes();
+        String responseBody = new String(responseBytes, java.nio.charset.StandardCharsets.UTF_8);
+        log.debug("📥 Received response from Hugging Face: {}", responseBody);
+        metrics.recordResponseSize(model, taskType, responseBytes.length);
+        
+        // Check if response indicates model is loading
+        if (responseBody.contains("\"error\"") && responseBody.contains("loading")) {
+            outcome.set(AiCallMetrics.LOADING);
+            return new ValidationResponse(false, 
+                "Model is currently loading. Please try again in 30-60 seconds.", 0.0);
+        }
+        
+        boolean parsable = hasGeneratedText(responseBody);
+        outcome.set(parsable ? AiCallMetrics.SUCCESS : AiCallMetrics.PARSE_FAILURE);
+        if (cacheKey != null && parsable) {
+            responseCache.put(cacheKey, model, responseBody);
+        }
+        return parseValidationResponse(responseBody, taskType);
+    }
+    
+    private ModelLatencyTracker latencyFor(String model) {
+        return latencies.computeIfAbsent(model,
+            m -> new ModelLatencyTracker(latencyWindow, latencyMinSamples, hedgeBudgetRatio, hedgeMaxBurst));
+    }
+    
+    private ModelBulkhead bulkheadFor(String model) {
+        return bulkheads.computeIfAbsent(model, m -> {
+            ModelBulkhead bulkhead = new ModelBulkhead(m, maxConcurrentPerModel, maxQueuedPerModel);
+            metrics.bindBulkhead(m, bulkhead);
+            return bulkhead;
+        });
+    }
+    
+    private ModelCircuitBreaker circuitFor(String model) {
+        return circuits.computeIfAbsent(model, m -> new ModelCircuitBreaker(circuitFailureThreshold, circuitOpenDurationMs));
+    }
+    
+    /**
+     * Whether the body is well-formed JSON carrying generated text (truncated bodies are not)
+     */
+    private boolean hasGeneratedText(String responseBody) {
+        try {
+            JsonNode rootNode = objectMapper.readTree(responseBody);
+            JsonNode first = rootNode.isArray() ? rootNode.path(0) : rootNode;
+            return first.has("generated_text");
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
+    /**
+     * One logical upstream call: the request, the caller's future and quota lane, the latest
+     * attempt's outcome and the HTTP calls (primary and hedge) still running for it
+     */
+    private static final class UpstreamCall {
+        final Request request;
+        final String url;
+        final String model;
+        final String taskType;
+        final String cacheKey;
+        final CompletableFuture<ValidationResponse> result;
+        final AtomicReference<String> outcome = new AtomicReference<>();
+        final Set<Call> inFlight = ConcurrentHashMap.newKeySet();
+        final long startedAt = System.nanoTime();
+        // Raised to INTERACTIVE when a result view joins a background call
+        volatile AiQuotaGovernor.Lane lane;
+        // The latest attempt's place in the quota queue; promoting one already granted does nothing
+        volatile AiQuotaGovernor.Ticket ticket;
+        
+        UpstreamCall(Request request, String url, String model, String taskType, String cacheKey,
+                     CompletableFuture<ValidationResponse> result, AiQuotaGovernor.Lane lane) {
+            this.request = request;
+            this.url = url;
+            this.model = model;
+            this.taskType = taskType;
+            this.cacheKey = cacheKey;
+            this.result = result;
+            this.lane = lane;
+        }
+        
+        void cancelRemaining() {
+            inFlight.forEach(Call::cancel);
+        }
+        
+        /**
+         * Cancelled by us after the call was already answered (or gave up), not a model failure
+         */
+        boolean isAbandoned(Call call) {
+            return call.isCanceled() && result.isDone();
+        }
+    }
+    
     /**
      * Parse Hugging Face API response
      */
@@ -284,6 +958,20 @@ public class HuggingFaceApiService {
         );
     }
     
+    /**
+     * Build development plan validation prompt
+     */
+    private String buildDevelopmentPlanValidationPrompt(String careerName, String plan) {
+        return String.format(
+            "Please validate this career development plan for accuracy and usefulness:\n\n" +
+            "Career: %s\n" +
+            "Plan:\n%s\n\n" +
+            "Check if the skills, activities and growth opportunities are realistic for students preparing for this career " +
+            "in the Philippines. Respond with 'VALID' if accurate, 'INVALID' if inaccurate, followed by your reasoning.",
+            careerName, plan
+        );
+    }
+    
     /**
      * Request DTO for Hugging Face API
      */
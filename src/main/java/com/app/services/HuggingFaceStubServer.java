@@ -0,0 +1,323 @@
+package com.app.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the HuggingFace Inference API, for load and chaos testing offline.
+ *
+ * Enabled with huggingface.stub.enabled=true; it listens on its own port (not Tomcat's) and
+ * is selected by pointing huggingface.api.url at it (any non-empty API key works). Requests
+ * are answered in the [{"generated_text": ...}] shape parseValidationResponse reads, with
+ * deterministic, parseable rankings and analyses built from the numbered list in the prompt.
+ * Latency follows a configurable distribution, and a share of requests can be turned into
+ * 503 "loading", 429 (with Retry-After), malformed JSON or timeouts. Settings can be changed
+ * at runtime through the admin API.
+ */
+@Service
+@ConditionalOnProperty(name = "huggingface.stub.enabled", havingValue = "true")
+public class HuggingFaceStubServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HuggingFaceStubServer.class);
+
+    private static final Pattern SECTION_HEADER = Pattern.compile("^### [A-Z_]+$", Pattern.MULTILINE);
+    private static final Pattern LIST_ITEM = Pattern.compile("^\\s*\\d+\\.\\s+(.+?)\\s*$", Pattern.MULTILINE);
+
+    @Value("${huggingface.stub.port:8089}")
+    private int port;
+
+    @Value("${huggingface.stub.latency.distribution:uniform}")
+    private String latencyDistribution;
+
+    @Value("${huggingface.stub.latency.min:200}")
+    private long latencyMinMs;
+
+    @Value("${huggingface.stub.latency.max:1500}")
+    private long latencyMaxMs;
+
+    @Value("${huggingface.stub.latency.median:600}")
+    private long latencyMedianMs;
+
+    @Value("${huggingface.stub.latency.sigma:0.5}")
+    private double latencySigma;
+
+    @Value("${huggingface.stub.fault.loading-rate:0}")
+    private double loadingRate;
+
+    @Value("${huggingface.stub.fault.rate-limit-rate:0}")
+    private double rateLimitRate;
+
+    @Value("${huggingface.stub.fault.malformed-rate:0}")
+    private double malformedRate;
+
+    @Value("${huggingface.stub.fault.timeout-rate:0}")
+    private double timeoutRate;
+
+    @Value("${huggingface.stub.fault.timeout-delay:65000}")
+    private long timeoutDelayMs;
+
+    @Value("${huggingface.stub.fault.retry-after:1}")
+    private int retryAfterSeconds;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, AtomicLong> outcomes = new LinkedHashMap<>();
+    private volatile Settings settings;
+    private HttpServer server;
+
+    @PostConstruct
+    public void start() throws IOException {
+        settings = new Settings(latencyDistribution, latencyMinMs, latencyMaxMs, latencyMedianMs, latencySigma,
+            loadingRate, rateLimitRate, malformedRate, timeoutRate, timeoutDelayMs, retryAfterSeconds);
+        for (String outcome : List.of("ok", "loading", "rate_limited", "malformed", "timeout", "bad_request")) {
+            outcomes.put(outcome, new AtomicLong());
+        }
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("🧪 HuggingFace stand-in listening on http://localhost:{} (set huggingface.api.url to use it)", port);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Change latency and fault settings at runtime; unknown keys are ignored.
+     */
+    public Map<String, Object> update(Map<String, Object> changes) {
+        Settings current = settings;
+        settings = new Settings(
+            String.valueOf(changes.getOrDefault("latencyDistribution", current.latencyDistribution)),
+            longValue(changes.get("latencyMinMs"), current.latencyMinMs),
+            longValue(changes.get("latencyMaxMs"), current.latencyMaxMs),
+            longValue(changes.get("latencyMedianMs"), current.latencyMedianMs),
+            doubleValue(changes.get("latencySigma"), current.latencySigma),
+            doubleValue(changes.get("loadingRate"), current.loadingRate),
+            doubleValue(changes.get("rateLimitRate"), current.rateLimitRate),
+            doubleValue(changes.get("malformedRate"), current.malformedRate),
+            doubleValue(changes.get("timeoutRate"), current.timeoutRate),
+            longValue(changes.get("timeoutDelayMs"), current.timeoutDelayMs),
+            (int) longValue(changes.get("retryAfterSeconds"), current.retryAfterSeconds));
+        logger.info("🧪 HuggingFace stand-in settings updated: {}", settings.toMap());
+        return getStats();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("port", port);
+        stats.put("settings", settings.toMap());
+        Map<String, Object> counts = new LinkedHashMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.get()));
+        stats.put("responses", counts);
+        return stats;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                outcomes.get("bad_request").incrementAndGet();
+                send(exchange, 405, "{\"error\":\"Only POST is supported\"}");
+                return;
+            }
+            String model = exchange.getRequestURI().getPath().replaceFirst("^/+", "").replaceFirst("^models/", "");
+            String prompt;
+            try {
+                JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+                prompt = request.path("inputs").asText("");
+            } catch (Exception e) {
+                outcomes.get("bad_request").incrementAndGet();
+                send(exchange, 400, "{\"error\":\"Invalid JSON body\"}");
+                return;
+            }
+
+            Settings current = settings;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Thread.sleep(sampleLatency(current, random));
+
+            double roll = random.nextDouble();
+            if ((roll -= current.loadingRate) < 0) {
+                outcomes.get("loading").incrementAndGet();
+                send(exchange, 503, objectMapper.writeValueAsString(Map.of(
+                    "error", "Model " + model + " is currently loading", "estimated_time", 20.0)));
+            } else if ((roll -= current.rateLimitRate) < 0) {
+                outcomes.get("rate_limited").incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(current.retryAfterSeconds));
+                send(exchange, 429, "{\"error\":\"Rate limit reached. Please retry later.\"}");
+            } else if ((roll -= current.timeoutRate) < 0) {
+                outcomes.get("timeout").incrementAndGet();
+                Thread.sleep(current.timeoutDelayMs);
+                send(exchange, 504, "{\"error\":\"Gateway timeout\"}");
+            } else if ((roll -= current.malformedRate) < 0) {
+                outcomes.get("malformed").incrementAndGet();
+                send(exchange, 200, "[{\"generated_text\": \"" + model + " was cut off mid");
+            } else {
+                outcomes.get("ok").incrementAndGet();
+                send(exchange, 200, objectMapper.writeValueAsString(
+                    List.of(Map.of("generated_text", generateText(model, prompt)))));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Deterministic completion in the format the prompt asks for: RANK|NAME|SCORE|REASON for
+     * ranking prompts, NAME|SCORE|ASSESSMENT for model comparison prompts, and a short
+     * verdict for validation prompts. Combined prompts are answered section by section.
+     */
+    static String generateText(String model, String prompt) {
+        // Combined prompts get one answer per "### SECTION" task, under the same header
+        Matcher header = SECTION_HEADER.matcher(prompt);
+        List<int[]> bounds = new ArrayList<>();
+        while (header.find()) {
+            bounds.add(new int[] {header.start(), header.end()});
+        }
+        if (!bounds.isEmpty()) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < bounds.size(); i++) {
+                int end = i + 1 < bounds.size() ? bounds.get(i + 1)[0] : prompt.length();
+                text.append(prompt, bounds.get(i)[0], bounds.get(i)[1]).append('\n')
+                    .append(generateText(model, prompt.substring(bounds.get(i)[1], end))).append("\n\n");
+            }
+            return text.toString().trim();
+        }
+        List<String> items = new ArrayList<>();
+        Matcher matcher = LIST_ITEM.matcher(prompt);
+        while (matcher.find()) {
+            items.add(matcher.group(1));
+        }
+        StringBuilder text = new StringBuilder();
+        if (prompt.contains("RANK|") && !items.isEmpty()) {
+            List<String> ranked = new ArrayList<>(items);
+            ranked.sort(Comparator.comparingInt((String item) -> score(model, item)).reversed());
+            for (int i = 0; i < ranked.size(); i++) {
+                text.append(i + 1).append('|').append(ranked.get(i)).append('|').append(score(model, ranked.get(i)))
+                    .append('|').append("Good fit for this personality profile").append('\n');
+            }
+        } else if (prompt.contains("|Score|") && !items.isEmpty()) {
+            for (String item : items) {
+                text.append(item).append('|').append(score(model, item)).append('|')
+                    .append("Consistent with the interests and preferences in this profile").append('\n');
+            }
+        } else {
+            text.append("The information is accurate and valid for students.");
+        }
+        return text.toString().trim();
+    }
+
+    /**
+     * Request latency in ms: fixed (min), uniform (min..max) or lognormal (median, sigma; capped at max).
+     */
+    static long sampleLatency(Settings settings, Random random) {
+        switch (settings.latencyDistribution.toLowerCase()) {
+            case "fixed":
+                return Math.max(0, settings.latencyMinMs);
+            case "lognormal": {
+                double value = settings.latencyMedianMs * Math.exp(settings.latencySigma * random.nextGaussian());
+                long sampled = Math.max(0, Math.round(value));
+                return settings.latencyMaxMs > 0 ? Math.min(sampled, settings.latencyMaxMs) : sampled;
+            }
+            default: {
+                long span = Math.max(0, settings.latencyMaxMs - settings.latencyMinMs);
+                return Math.max(0, settings.latencyMinMs + (long) (random.nextDouble() * span));
+            }
+        }
+    }
+
+    private static int score(String model, String item) {
+        return 60 + Math.floorMod((model + "|" + item).hashCode(), 36);
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static long longValue(Object value, long fallback) {
+        return value == null ? fallback : Long.parseLong(String.valueOf(value));
+    }
+
+    private static double doubleValue(Object value, double fallback) {
+        return value == null ? fallback : Double.parseDouble(String.valueOf(value));
+    }
+
+    /**
+     * Immutable latency and fault settings, swapped as a whole on update.
+     */
+    static final class Settings {
+        final String latencyDistribution;
+        final long latencyMinMs;
+        final long latencyMaxMs;
+        final long latencyMedianMs;
+        final double latencySigma;
+        final double loadingRate;
+        final double rateLimitRate;
+        final double malformedRate;
+        final double timeoutRate;
+        final long timeoutDelayMs;
+        final int retryAfterSeconds;
+
+        Settings(String latencyDistribution, long latencyMinMs, long latencyMaxMs, long latencyMedianMs,
+                 double latencySigma, double loadingRate, double rateLimitRate, double malformedRate,
+                 double timeoutRate, long timeoutDelayMs, int retryAfterSeconds) {
+            this.latencyDistribution = latencyDistribution;
+            this.latencyMinMs = latencyMinMs;
+            this.latencyMaxMs = latencyMaxMs;
+            this.latencyMedianMs = latencyMedianMs;
+            this.latencySigma = latencySigma;
+            this.loadingRate = loadingRate;
+            this.rateLimitRate = rateLimitRate;
+            this.malformedRate = malformedRate;
+            this.timeoutRate = timeoutRate;
+            this.timeoutDelayMs = timeoutDelayMs;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("latencyDistribution", latencyDistribution);
+            map.put("latencyMinMs", latencyMinMs);
+            map.put("latencyMaxMs", latencyMaxMs);
+            map.put("latencyMedianMs", latencyMedianMs);
+            map.put("latencySigma", latencySigma);
+            map.put("loadingRate", loadingRate);
+            map.put("rateLimitRate", rateLimitRate);
+            map.put("malformedRate", malformedRate);
+            map.put("timeoutRate", timeoutRate);
+            map.put("timeoutDelayMs", timeoutDelayMs);
+            map.put("retryAfterSeconds", retryAfterSeconds);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * In-process course and career ranking that needs no network.
+ *
+ * Each catalog description is reduced to 14 trait features (the six RIASEC interests and the
+ * eight MBTI preferences): the TF-IDF weight of the description's words that carry that trait,
+ * scaled so the most characteristic description in the catalog scores 1. The features are built
+ * once per catalog snapshot, so ranking a result's handful of courses is a few dot products
+ * against the student's trait weights plus AdvancedAnalyticsService's human score - well under a
+ * millisecond. It answers when the AI is disabled or failing, and serves interactive results
+ * directly when configured as the primary ranker or while the validation model is saturated.
+ */
+@Service
+public class LocalRankingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalRankingService.class);
+
+    // Feature order: RIASEC interests, then MBTI preferences
+    private static final String RIASEC = "RIASEC";
+    private static final String MBTI = "EISNTFJP";
+    private static final int DIMENSIONS = RIASEC.length() + MBTI.length();
+
+    private static final String[] DIMENSION_NAMES = {
+        "Realistic", "Investigative", "Artistic", "Social", "Enterprising", "Conventional",
+        "Extraversion", "Introversion", "Sensing", "Intuition", "Thinking", "Feeling", "Judging", "Perceiving"
+    };
+
+    // Word stems (prefix match) that signal each trait in a description
+    private static final String[][] DIMENSION_STEMS = {
+        {"build", "construct", "repair", "machin", "mechanic", "equipment", "tool", "hands", "install", "operat", "agricult", "electric", "outdoor"},
+        {"research", "analy", "scien", "investigat", "experiment", "theor", "math", "data", "laborator", "problem"},
+        {"creat", "design", "art", "music", "writ", "media", "visual", "express", "perform", "film", "draw", "aesthetic"},
+        {"help", "teach", "caring", "caregiv", "nurs", "communit", "counsel", "patient", "social", "serv", "support", "educat", "health", "welfare"},
+        {"business", "manag", "lead", "sell", "sales", "market", "entrepreneur", "negotiat", "persua", "financ", "enterprise"},
+        {"organiz", "record", "account", "detail", "procedur", "administr", "clerical", "document", "audit", "regulat", "bookkeep"},
+        {"team", "public", "communicat", "interact", "present", "network", "collaborat", "client"},
+        {"independent", "focus", "reflect", "individual", "concentrat", "quiet", "research"},
+        {"practical", "hands", "concrete", "detail", "procedur", "routine", "applied", "factual"},
+        {"theor", "concept", "innovat", "future", "abstract", "strateg", "vision", "idea"},
+        {"logic", "analy", "system", "objective", "technical", "efficien", "engineer", "critical"},
+        {"people", "value", "empath", "caring", "help", "harmon", "compassion", "wellbeing", "human"},
+        {"plan", "organiz", "structur", "schedul", "deadline", "standard", "procedur", "manag"},
+        {"flexib", "adapt", "explor", "spontan", "variety", "improvis", "dynamic", "creat"}
+    };
+
+    @Autowired
+    @Lazy
+    private HuggingFaceApiService huggingFaceService;
+
+    @Value("${ai.ranking.local.primary:false}")
+    private boolean primary;
+
+    @Value("${ai.ranking.local.under-load:true}")
+    private boolean underLoad;
+
+    @Value("${huggingface.model.validation:}")
+    private String validationModel;
+
+    private volatile Index index = Index.build(Collections.emptyList(), Collections.emptyList());
+
+    /**
+     * Rebuild the trait features from catalog rows (name, description); called on every catalog snapshot load.
+     */
+    public void rebuild(List<Map.Entry<String, String>> courseDescriptions, List<Map.Entry<String, String>> careerDescriptions) {
+        long start = System.currentTimeMillis();
+        this.index = Index.build(courseDescriptions, careerDescriptions);
+        logger.info("✅ Local ranking index rebuilt in {}ms: {} courses, {} careers, {} terms",
+            System.currentTimeMillis() - start, index.courses.size(), index.careers.size(), index.idf.size());
+    }
+
+    /**
+     * Whether interactive results should be ranked here rather than by the AI: always when
+     * configured as primary, otherwise while calls to the validation model are queueing.
+     */
+    public boolean shouldRankLocally() {
+        if (primary) {
+            return true;
+        }
+        return underLoad && huggingFaceService != null && !validationModel.isEmpty()
+            && huggingFaceService.isModelSaturated(validationModel);
+    }
+
+    public List<AiComparisonService.CourseRanking> rankCourses(String mbtiType, String riasecCode, String coursePath) {
+        return rankCourses(mbtiType, riasecCode, coursePath, null, null);
+    }
+
+    /**
+     * Rank the coursePath entries; percentages (0-100 per letter) may be null, in which case
+     * they are derived from the type codes.
+     */
+    public List<AiComparisonService.CourseRanking> rankCourses(String mbtiType, String riasecCode, String coursePath,
+                                                               Map<String, Double> mbtiPercentages,
+                                                               Map<String, Double> riasecPercentages) {
+        Map<String, Double> mbti = mbtiPercentages != null ? mbtiPercentages : nominalMbtiPercentages(mbtiType);
+        Map<String, Double> riasec = riasecPercentages != null ? riasecPercentages : nominalRiasecPercentages(riasecCode);
+        double[] weights = traitWeights(mbti, riasec);
+        Index current = this.index;
+        List<Scored> scored = score(parseEntries(coursePath), current, current.courses, weights,
+            name -> AdvancedAnalyticsService.calculateHumanCourseScore(name, mbti, riasec));
+        List<AiComparisonService.CourseRanking> rankings = new ArrayList<>();
+        for (int i = 0; i < scored.size(); i++) {
+            Scored s = scored.get(i);
+            AiComparisonService.CourseRanking ranking = new AiComparisonService.CourseRanking(i + 1, s.name, s.score,
+                reason(s.features, weights, s.terms, mbtiType, riasecCode), mbtiType, riasecCode);
+            ranking.setFallback(true);
+            rankings.add(ranking);
+        }
+        return rankings;
+    }
+
+    public List<AiComparisonService.CareerRanking> rankCareers(String mbtiType, String riasecCode, String careerSuggestions) {
+        return rankCareers(mbtiType, riasecCode, careerSuggestions, null, null);
+    }
+
+    /**
+     * Rank the careerSuggestions entries; see rankCourses
+     */
+    public List<AiComparisonService.CareerRanking> rankCareers(String mbtiType, String riasecCode, String careerSuggestions,
+                                                               Map<String, Double> mbtiPercentages,
+                                                               Map<String, Double> riasecPercentages) {
+        Map<String, Double> mbti = mbtiPercentages != null ? mbtiPercentages : nominalMbtiPercentages(mbtiType);
+        Map<String, Double> riasec = riasecPercentages != null ? riasecPercentages : nominalRiasecPercentages(riasecCode);
+        double[] weights = traitWeights(mbti, riasec);
+        Index current = this.index;
+        List<Scored> scored = score(parseEntries(careerSuggestions), current, current.careers, weights,
+            name -> AdvancedAnalyticsService.calculateHumanCareerScore(name, mbti, riasec));
+        List<AiComparisonService.CareerRanking> rankings = new ArrayList<>();
+        for (int i = 0; i < scored.size(); i++) {
+            Scored s = scored.get(i);
+            AiComparisonService.CareerRanking ranking = new AiComparisonService.CareerRanking(i + 1, s.name, s.score,
+                reason(s.features, weights, s.terms, mbtiType, riasecCode), mbtiType, riasecCode);
+            ranking.setFallback(true);
+            rankings.add(ranking);
+        }
+        return rankings;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("primary", primary);
+        stats.put("underLoad", underLoad);
+        stats.put("courses", index.courses.size());
+        stats.put("careers", index.careers.size());
+        stats.put("terms", index.idf.size());
+        return stats;
+    }
+
+    private static List<Scored> score(List<String[]> entries, Index current, Map<String, Features> catalog, double[] weights,
+                                      java.util.function.ToDoubleFunction<String> humanScore) {
+        List<Scored> scored = new ArrayList<>(entries.size());
+        for (String[] entry : entries) {
+            Features features = catalog.get(entry[0].toLowerCase());
+            if (features == null) {
+                // Not in the catalog: fall back to the name and any inline description
+                features = current.featuresOf(entry[0] + " " + entry[1]);
+            }
+            double riasecAffinity = affinity(features.values, weights, 0, RIASEC.length());
+            double mbtiAffinity = affinity(features.values, weights, RIASEC.length(), DIMENSIONS);
+            double keywordScore = 60.0 + 38.0 * Math.sqrt(0.65 * riasecAffinity + 0.35 * mbtiAffinity);
+            double combined = 0.5 * humanScore.applyAsDouble(entry[0]) + 0.5 * keywordScore;
+            double score = Math.round(Math.max(50.0, Math.min(98.0, combined)) * 10.0) / 10.0;
+            scored.add(new Scored(entry[0], score, features.values, features.terms));
+        }
+        // Stable sort keeps the recommendation order among equal scores
+        scored.sort((a, b) -> Double.compare(b.score, a.score));
+        return scored;
+    }
+
+    private static double affinity(double[] features, double[] weights, int from, int to) {
+        double sum = 0;
+        double weightSum = 0;
+        for (int d = from; d < to; d++) {
+            sum += features[d] * weights[d];
+            weightSum += weights[d];
+        }
+        return weightSum > 0 ? sum / weightSum : 0;
+    }
+
+    private static String reason(double[] features, double[] weights, String[] terms, String mbtiType, String riasecCode) {
+        int interest = strongest(features, weights, 0, RIASEC.length());
+        int preference = strongest(features, weights, RIASEC.length(), DIMENSIONS);
+        if (interest < 0) {
+            return String.format("Ranked on %s / %s trait alignment", mbtiType, riasecCode);
+        }
+        String text = String.format("%s themes such as %s fit your %s interests",
+            DIMENSION_NAMES[interest], terms[interest], riasecCode);
+        if (preference >= 0) {
+            text += String.format("; suits a %s preference (%s)", DIMENSION_NAMES[preference], terms[preference]);
+        }
+        return text;
+    }
+
+    private static int strongest(double[] features, double[] weights, int from, int to) {
+        int best = -1;
+        double bestValue = 0;
+        for (int d = from; d < to; d++) {
+            double value = features[d] * weights[d];
+            if (value > bestValue) {
+                bestValue = value;
+                best = d;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Student weight per feature in 0..1: how far the trait sits above the student's average for
+     * its group, so a description that touches every trait does not outrank one matching the top ones
+     */
+    private static double[] traitWeights(Map<String, Double> mbtiPercentages, Map<String, Double> riasecPercentages) {
+        double[] weights = new double[DIMENSIONS];
+        centered(riasecPercentages, RIASEC, weights, 0);
+        centered(mbtiPercentages, MBTI, weights, RIASEC.length());
+        return weights;
+    }
+
+    private static void centered(Map<String, Double> percentages, String letters, double[] weights, int offset) {
+        double mean = 0;
+        for (char letter : letters.toCharArray()) {
+            mean += percentages.getOrDefault(String.valueOf(letter), 0.0);
+        }
+        mean /= letters.length();
+        for (int d = 0; d < letters.length(); d++) {
+            double value = percentages.getOrDefault(String.valueOf(letters.charAt(d)), 0.0);
+            weights[offset + d] = Math.max(0.0, value - mean) / 100.0;
+        }
+    }
+
+    static Map<String, Double> nominalMbtiPercentages(String mbtiType) {
+        Map<String, Double> percentages = new HashMap<>();
+        String type = mbtiType != null ? mbtiType.toUpperCase() : "";
+        for (char letter : MBTI.toCharArray()) {
+            percentages.put(String.valueOf(letter), type.indexOf(letter) >= 0 ? 70.0 : 30.0);
+        }
+        return percentages;
+    }
+
+    static Map<String, Double> nominalRiasecPercentages(String riasecCode) {
+        Map<String, Double> percentages = new HashMap<>();
+        String code = riasecCode != null ? riasecCode.toUpperCase() : "";
+        for (char letter : RIASEC.toCharArray()) {
+            int position = code.indexOf(letter);
+            percentages.put(String.valueOf(letter), position == 0 ? 85.0 : position == 1 ? 70.0 : 40.0);
+        }
+        return percentages;
+    }
+
+    /**
+     * "Name: description" entries split like AiComparisonService.parseCourses; [name, inline description]
+     */
+    private static List<String[]> parseEntries(String text) {
+        List<String[]> entries = new ArrayList<>();
+        if (text == null || text.trim().isEmpty()) {
+            return entries;
+        }
+        for (String part : text.contains(";") ? text.split(";") : text.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) continue;
+            int colon = trimmed.indexOf(':');
+            String name = colon >= 0 ? trimmed.substring(0, colon).trim() : trimmed;
+            String description = colon >= 0 ? trimmed.substring(colon + 1).trim() : "";
+            entries.add(new String[] {name, description});
+        }
+        return entries;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase().split("[^a-z]+")) {
+            if (token.length() >= 3) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Scored {
+        private final String name;
+        private final double score;
+        private final double[] features;
+        private final String[] terms;
+
+        private Scored(String name, double score, double[] features, String[] terms) {
+            this.name = name;
+            this.score = score;
+            this.features = features;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * Trait features of one description and, per feature, the word that contributed most
+     */
+    private static final class Features {
+        private final double[] values;
+        private final String[] terms;
+
+        private Features(double[] values, String[] terms) {
+            this.values = values;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * Immutable per-snapshot index: IDF over all course and career descriptions, the per-feature
+     * maxima used for scaling, and the scaled features of every catalog name.
+     */
+    static final class Index {
+        private final Map<String, Double> idf;
+        private final double unseenIdf;
+        private final double[] maxima;
+        private final Map<String, Features> courses;
+        private final Map<String, Features> careers;
+
+        private Index(Map<String, Double> idf, double unseenIdf, double[] maxima,
+                      Map<String, Features> courses, Map<String, Features> careers) {
+            this.idf = idf;
+            this.unseenIdf = unseenIdf;
+            this.maxima = maxima;
+            this.courses = courses;
+            this.careers = careers;
+        }
+
+        static Index build(List<Map.Entry<String, String>> courseDescriptions, List<Map.Entry<String, String>> careerDescriptions) {
+            List<Map.Entry<String, String>> all = new ArrayList<>(courseDescriptions);
+            all.addAll(careerDescriptions);
+            Map<String, Integer> documentFrequency = new HashMap<>();
+            for (Map.Entry<String, String> row : all) {
+                for (String term : new HashSet<>(tokenize(row.getKey() + " " + row.getValue()))) {
+                    documentFrequency.merge(term, 1, Integer::sum);
+                }
+            }
+            int documents = all.size();
+            Map<String, Double> idf = new HashMap<>();
+            documentFrequency.forEach((term, df) -> idf.put(term, Math.log((documents + 1.0) / (df + 1.0)) + 1.0));
+            double unseenIdf = Math.log(documents + 1.0) + 1.0;
+
+            Map<String, double[]> courseRaw = raw(courseDescriptions, idf, unseenIdf);
+            Map<String, double[]> careerRaw = raw(careerDescriptions, idf, unseenIdf);
+            double[] maxima = new double[DIMENSIONS];
+            for (Map<String, double[]> raw : List.of(courseRaw, careerRaw)) {
+                for (double[] values : raw.values()) {
+                    for (int d = 0; d < DIMENSIONS; d++) {
+                        maxima[d] = Math.max(maxima[d], values[d]);
+                    }
+                }
+            }
+            Index index = new Index(idf, unseenIdf, maxima, new HashMap<>(), new HashMap<>());
+            for (Map.Entry<String, String> row : courseDescriptions) {
+                if (row.getKey() == null) continue;
+                index.courses.putIfAbsent(row.getKey().toLowerCase(), index.featuresOf(row.getKey() + " " + row.getValue()));
+            }
+            for (Map.Entry<String, String> row : careerDescriptions) {
+                if (row.getKey() == null) continue;
+                index.careers.putIfAbsent(row.getKey().toLowerCase(), index.featuresOf(row.getKey() + " " + row.getValue()));
+            }
+            return index;
+        }
+
+        private static Map<String, double[]> raw(List<Map.Entry<String, String>> rows, Map<String, Double> idf, double unseenIdf) {
+            Map<String, double[]> raw = new HashMap<>();
+            for (Map.Entry<String, String> row : rows) {
+                if (row.getKey() == null) continue;
+                raw.putIfAbsent(row.getKey().toLowerCase(), weigh(tokenize(row.getKey() + " " + row.getValue()), idf, unseenIdf, null));
+            }
+            return raw;
+        }
+
+        /**
+         * Scaled features of any text, using this snapshot's IDF (unknown words count as rare)
+         */
+        Features featuresOf(String text) {
+            String[] terms = new String[DIMENSIONS];
+            double[] values = weigh(tokenize(text), idf, unseenIdf, terms);
+            for (int d = 0; d < DIMENSIONS; d++) {
+                values[d] = maxima[d] > 0 ? Math.min(1.0, values[d] / maxima[d]) : Math.min(1.0, values[d]);
+            }
+            return new Features(values, terms);
+        }
+
+        private static double[] weigh(List<String> tokens, Map<String, Double> idf, double unseenIdf, String[] topTerms) {
+            double[] values = new double[DIMENSIONS];
+            if (tokens.isEmpty()) {
+                return values;
+            }
+            Map<String, Integer> counts = new HashMap<>();
+            for (String token : tokens) {
+                counts.merge(token, 1, Integer::sum);
+            }
+            double[] best = new double[DIMENSIONS];
+            for (Map.Entry<String, Integer> count : counts.entrySet()) {
+                String term = count.getKey();
+                double tfIdf = (double) count.getValue() / tokens.size() * idf.getOrDefault(term, unseenIdf);
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    for (String stem : DIMENSION_STEMS[d]) {
+                        if (term.startsWith(stem)) {
+                            values[d] += tfIdf;
+                            if (topTerms != null && tfIdf > best[d]) {
+                                best[d] = tfIdf;
+                                topTerms[d] = term;
+                            }
+                            break;
+                        }
+                    }
+                }
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.app.services;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Concurrency limit plus a bounded wait queue for one HuggingFace model.
+ *
+ * Work is handed in as a non-blocking start action (enqueueing an async HTTP call). It runs
+ * right away while a slot is free, waits in the queue while the queue has room, and is
+ * rejected otherwise. Every started action must call release() exactly once when it is done,
+ * which hands the slot to the next queued action.
+ */
+class ModelBulkhead {
+
+    private final String model;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Deque<Runnable> waiting = new ArrayDeque<>();
+    private int active;
+    private long started;
+    private long rejected;
+
+    ModelBulkhead(String model, int maxConcurrent, int maxQueued) {
+        this.model = model;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueued = Math.max(0, maxQueued);
+    }
+
+    /**
+     * Start or queue the action; false when both the slots and the queue are full.
+     */
+    boolean submit(Runnable start) {
+        synchronized (this) {
+            if (active >= maxConcurrent) {
+                if (waiting.size() >= maxQueued) {
+                    rejected++;
+                    return false;
+                }
+                waiting.addLast(start);
+                return true;
+            }
+            active++;
+            started++;
+        }
+        start.run();
+        return true;
+    }
+
+    /**
+     * Start the action only if a slot is free right now; never queues. Used for optional work
+     * (hedged duplicates) that is worthless once it has to wait.
+     */
+    boolean tryStart(Runnable start) {
+        synchronized (this) {
+            if (active >= maxConcurrent) {
+                return false;
+            }
+            active++;
+            started++;
+        }
+        start.run();
+        return true;
+    }
+    
+    /**
+     * Give the slot back, starting the next queued action on it if there is one.
+     */
+    void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.pollFirst();
+            if (next == null) {
+                active = Math.max(0, active - 1);
+                return;
+            }
+            started++;
+        }
+        next.run();
+    }
+
+    synchronized int getActive() {
+        return active;
+    }
+
+    synchronized int getQueued() {
+        return waiting.size();
+    }
+
+    synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("model", model);
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("maxQueued", maxQueued);
+        stats.put("active", active);
+        stats.put("queued", waiting.size());
+        stats.put("started", started);
+        stats.put("rejected", rejected);
+        return stats;
+    }
+}
@@ -0,0 +1,120 @@
+package com.app.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for one HuggingFace model.
+ *
+ * CLOSED lets every call through and opens after a run of consecutive failures. OPEN rejects
+ * calls until the open period has passed, then lets exactly one probe through (HALF_OPEN);
+ * the probe's outcome closes the circuit again or re-opens it for another period.
+ */
+class ModelCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long opened;
+    private long shortCircuited;
+
+    ModelCircuitBreaker(int failureThreshold, long openDurationMs) {
+        this(failureThreshold, openDurationMs, System::currentTimeMillis);
+    }
+
+    ModelCircuitBreaker(int failureThreshold, long openDurationMs, LongSupplier clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMs = openDurationMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Claim permission for one call. In HALF_OPEN only the single probe is let through.
+     */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() - openedAt >= openDurationMs) {
+                    state = State.HALF_OPEN;
+                    probeInFlight = true;
+                    return true;
+                }
+                shortCircuited++;
+                return false;
+            default:
+                if (!probeInFlight) {
+                    probeInFlight = true;
+                    return true;
+                }
+                shortCircuited++;
+                return false;
+        }
+    }
+
+    /**
+     * Whether a call could go through right now, without claiming the probe.
+     */
+    synchronized boolean isCallPermitted() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return clock.getAsLong() - openedAt >= openDurationMs;
+            default:
+                return !probeInFlight;
+        }
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+
+    synchronized void onFailure() {
+        probeInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            opened++;
+        } else if (state == State.OPEN) {
+            // A call admitted before the circuit opened failed late; restart the open period
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    /**
+     * The call was cancelled by us (its sibling already answered) and says nothing about the
+     * model; only frees the probe if it was the probe.
+     */
+    synchronized void onAbandoned() {
+        probeInFlight = false;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.name());
+        stats.put("consecutiveFailures", consecutiveFailures);
+        stats.put("timesOpened", opened);
+        stats.put("shortCircuited", shortCircuited);
+        if (state == State.OPEN) {
+            stats.put("retryInMs", Math.max(0, openDurationMs - (clock.getAsLong() - openedAt)));
+        }
+        return stats;
+    }
+}
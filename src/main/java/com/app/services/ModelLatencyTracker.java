@@ -0,0 +1,107 @@
+package com.app.services;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rolling latency window and hedge budget for one HuggingFace model.
+ *
+ * The last windowSize successful attempt latencies give the p95 that per-attempt deadlines
+ * and hedge delays are derived from; until minSamples have been seen there is no p95 and
+ * callers keep the configured timeout. Every primary attempt earns budgetRatio of a hedge
+ * (capped at maxTokens), and each hedge spends one, so hedges stay a bounded share of traffic.
+ */
+class ModelLatencyTracker {
+
+    private final long[] samples;
+    private final int minSamples;
+    private final double budgetRatio;
+    private final double maxTokens;
+
+    private int next;
+    private int count;
+    private double tokens;
+    private long hedgesSent;
+    private long hedgesWon;
+    private long hedgesDenied;
+
+    ModelLatencyTracker(int windowSize, int minSamples, double budgetRatio, double maxTokens) {
+        this.samples = new long[Math.max(1, windowSize)];
+        this.minSamples = Math.max(1, Math.min(minSamples, samples.length));
+        this.budgetRatio = Math.max(0, budgetRatio);
+        this.maxTokens = Math.max(1, maxTokens);
+    }
+
+    synchronized void record(long latencyMs) {
+        samples[next] = Math.max(0, latencyMs);
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * p95 of the window in ms, or -1 while there are fewer than minSamples.
+     */
+    synchronized long p95() {
+        if (count < minSamples) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return sorted[Math.min(count - 1, (int) Math.ceil(count * 0.95) - 1)];
+    }
+
+    /**
+     * Attempt deadline: p95 times multiplier within [minMs, maxMs], or maxMs without a p95.
+     */
+    long deadlineMs(double multiplier, long minMs, long maxMs) {
+        long p95 = p95();
+        if (p95 < 0) {
+            return maxMs;
+        }
+        return Math.max(minMs, Math.min(maxMs, (long) Math.ceil(p95 * multiplier)));
+    }
+
+    /**
+     * A primary attempt went out; it earns its share of the hedge budget.
+     */
+    synchronized void onPrimaryAttempt() {
+        tokens = Math.min(maxTokens, tokens + budgetRatio);
+    }
+
+    /**
+     * Spend one hedge from the budget; false (and counted as denied) when it is used up.
+     */
+    synchronized boolean tryHedge() {
+        if (tokens < 1) {
+            hedgesDenied++;
+            return false;
+        }
+        tokens -= 1;
+        hedgesSent++;
+        return true;
+    }
+
+    /**
+     * Give back a hedge that could not be started after all.
+     */
+    synchronized void refundHedge() {
+        tokens = Math.min(maxTokens, tokens + 1);
+        hedgesSent--;
+    }
+
+    synchronized void onHedgeWon() {
+        hedgesWon++;
+    }
+
+    synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("samples", count);
+        stats.put("p95Ms", p95());
+        stats.put("hedgesSent", hedgesSent);
+        stats.put("hedgesWon", hedgesWon);
+        stats.put("hedgesDenied", hedgesDenied);
+        stats.put("hedgeBudget", Math.floor(tokens * 100) / 100);
+        return stats;
+    }
+}
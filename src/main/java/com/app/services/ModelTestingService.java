@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ModelTestingService {
@@ -23,9 +24,10 @@ public class ModelTestingService {
     private String currentEducationModel;
     
     /**
-     * Test different models with sample validation tasks
+     * Test different models with sample validation tasks. Models are tested side by side, each
+     * one's test cases one after another so their response times are not skewed by each other.
      */
-    public ModelComparisonResult compareModels() {
+    public CompletableFuture<ModelComparisonResult> compareModelsAsync() {
         log.info("🧪 Starting model comparison test");
         
         ModelComparisonResult result = new ModelComparisonResult();
@@ -43,67 +45,74 @@ public class ModelTestingService {
             "facebook/blenderbot-400M-distill" // Fastest option
         );
         
-        Map<String, ModelTestResult> results = new HashMap<>();
+        Map<String, CompletableFuture<ModelTestResult>> pending = new LinkedHashMap<>();
         
         for (String model : modelsToTest) {
             log.info("🧪 Testing model: {}", model);
-            ModelTestResult modelResult = testModel(model, testCases);
-            results.put(model, modelResult);
+            pending.put(model, testModel(model, testCases));
         }
         
-        result.setModelResults(results);
-        result.setRecommendations(generateRecommendations(results));
-        
-        log.info("✅ Model comparison completed");
-        return result;
+        return CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> {
+                Map<String, ModelTestResult> results = new HashMap<>();
+                pending.forEach((model, modelResult) -> results.put(model, modelResult.join()));
+                
+                result.setModelResults(results);
+                result.setRecommendations(generateRecommendations(results));
+                
+                log.info("✅ Model comparison completed");
+                return result;
+            });
     }
     
     /**
      * Test a specific model with all test cases
      */
-    private ModelTestResult testModel(String model, List<TestCase> testCases) {
+    private CompletableFuture<ModelTestResult> testModel(String model, List<TestCase> testCases) {
         ModelTestResult result = new ModelTestResult();
         result.setModelName(model);
         result.setTestStartTime(System.currentTimeMillis());
         
-        int passedTests = 0;
         int totalTests = testCases.size();
-        double totalConfidence = 0.0;
-        long totalResponseTime = 0;
+        int[] passedTests = {0};
+        double[] totalConfidence = {0.0};
+        long[] totalResponseTime = {0};
         
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
         for (TestCase testCase : testCases) {
-            try {
+            chain = chain.thenCompose(ignored -> {
                 long startTime = System.currentTimeMillis();
-                
-                HuggingFaceApiService.ValidationResponse response = 
-                    huggingFaceService.callModel(model, testCase.getPrompt());
-                
-                long responseTime = System.currentTimeMillis() - startTime;
-                totalResponseTime += responseTime;
-                
-                if (response.isValid()) {
-                    passedTests++;
-                }
-                
-                totalConfidence += response.getConfidence();
-                
-                log.debug("✅ Test case '{}' for model {}: {}", 
-                    testCase.getName(), model, response.isValid() ? "PASSED" : "FAILED");
-                
-            } catch (Exception e) {
-                log.warn("❌ Test case '{}' failed for model {}: {}", 
-                    testCase.getName(), model, e.getMessage());
-            }
+                return huggingFaceService.callModelAsync(model, testCase.getPrompt())
+                    .thenAccept(response -> {
+                        long responseTime = System.currentTimeMillis() - startTime;
+                        totalResponseTime[0] += responseTime;
+                        
+                        if (response.isValid()) {
+                            passedTests[0]++;
+                        }
+                        
+                        totalConfidence[0] += response.getConfidence();
+                        
+                        log.debug("✅ Test case '{}' for model {}: {}", 
+                            testCase.getName(), model, response.isValid() ? "PASSED" : "FAILED");
+                    })
+                    .exceptionally(e -> {
+                        log.warn("❌ Test case '{}' failed for model {}: {}", 
+                            testCase.getName(), model, e.getMessage());
+                        return null;
+                    });
+            });
         }
         
-        result.setTestEndTime(System.currentTimeMillis());
-        result.setPassedTests(passedTests);
-        result.setTotalTests(totalTests);
-        result.setSuccessRate((double) passedTests / totalTests);
-        result.setAverageConfidence(totalConfidence / totalTests);
-        result.setAverageResponseTime(totalResponseTime / totalTests);
-        
-        return result;
+        return chain.thenApply(ignored -> {
+            result.setTestEndTime(System.currentTimeMillis());
+            result.setPassedTests(passedTests[0]);
+            result.setTotalTests(totalTests);
+            result.setSuccessRate((double) passedTests[0] / totalTests);
+            result.setAverageConfidence(totalConfidence[0] / totalTests);
+            result.setAverageResponseTime(totalResponseTime[0] / totalTests);
+            return result;
+        });
     }
     
     /**
@@ -185,9 +194,9 @@ public class ModelTestingService {
     }
     
     /**
-     * Test current configuration
+     * Test current configuration; both models are called side by side
      */
-    public ConfigurationTestResult testCurrentConfiguration() {
+    public CompletableFuture<ConfigurationTestResult> testCurrentConfigurationAsync() {
         log.info("🧪 Testing current model configuration");
         
         ConfigurationTestResult result = new ConfigurationTestResult();
@@ -195,27 +204,24 @@ public class ModelTestingService {
         result.setEducationModel(currentEducationModel);
         result.setTimestamp(java.time.LocalDateTime.now().toString());
         
-        try {
-            // Test validation model
-            String testPrompt = "Validate this course: 'BS Computer Science: A comprehensive program in computing'";
-            String validationResponse = 
-                huggingFaceService.generateText(currentValidationModel, testPrompt);
-            result.setValidationModelWorking(validationResponse != null && !validationResponse.trim().isEmpty());
-            
-            // Test education model
-            String educationResponse = 
-                huggingFaceService.generateText(currentEducationModel, testPrompt);
-            result.setEducationModelWorking(educationResponse != null && !educationResponse.trim().isEmpty());
-            
+        // Test validation model and education model
+        String testPrompt = "Validate this course: 'BS Computer Science: A comprehensive program in computing'";
+        CompletableFuture<String> validationResponse = 
+            huggingFaceService.generateTextAsync(currentValidationModel, testPrompt);
+        CompletableFuture<String> educationResponse = 
+            huggingFaceService.generateTextAsync(currentEducationModel, testPrompt);
+        
+        return validationResponse.thenCombine(educationResponse, (validationText, educationText) -> {
+            result.setValidationModelWorking(validationText != null && !validationText.trim().isEmpty());
+            result.setEducationModelWorking(educationText != null && !educationText.trim().isEmpty());
             result.setOverallWorking(result.isValidationModelWorking() && result.isEducationModelWorking());
-            
-        } catch (Exception e) {
+            return result;
+        }).exceptionally(e -> {
             log.error("❌ Configuration test failed: {}", e.getMessage(), e);
             result.setOverallWorking(false);
             result.setErrorMessage(e.getMessage());
-        }
-        
-        return result;
+            return result;
+        });
     }
     
     /**
@@ -0,0 +1,23 @@
+package com.app.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limit for retrying a failed startup load from the request path.
+ *
+ * While the load keeps failing (e.g. the database is down), letting every request retry it
+ * would queue them all on the loader's lock and hammer the database. One caller per interval
+ * wins the retry; the others go without until it succeeds or a scheduled refresh does.
+ */
+class OnDemandRetry {
+
+    private final AtomicLong nextAttemptAt = new AtomicLong();
+
+    /**
+     * True for the one caller that may retry now; the next retry is allowed intervalMs later.
+     */
+    boolean tryAcquire(long now, long intervalMs) {
+        long next = nextAttemptAt.get();
+        return now >= next && nextAttemptAt.compareAndSet(next, now + intervalMs);
+    }
+}
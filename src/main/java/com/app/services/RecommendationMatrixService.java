@@ -0,0 +1,333 @@
+package com.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory MBTI x RIASEC recommendation matrix.
+ *
+ * Holds a pre-resolved view of mbti_riasec_matching so the submission hot path
+ * never has to walk the exact -> MBTI -> RIASEC query chain. The whole matrix is
+ * rebuilt and swapped in one step whenever the underlying table changes.
+ */
+@Service
+public class RecommendationMatrixService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationMatrixService.class);
+
+    private static final String[] MBTI_TYPES = {
+        "ISTJ", "ISFJ", "INFJ", "INTJ", "ISTP", "ISFP", "INFP", "INTP",
+        "ESTP", "ESFP", "ENFP", "ENTP", "ESTJ", "ESFJ", "ENFJ", "ENTJ"
+    };
+
+    private static final char[] RIASEC_LETTERS = {'R', 'I', 'A', 'S', 'E', 'C'};
+
+    private static final String LOAD_SQL =
+        "SELECT mbti_type, riasec_code, courses, careers, explanation FROM mbti_riasec_matching ORDER BY id";
+
+    // Cheap fingerprint of the table contents, used to detect edits without reloading every row
+    private static final String SIGNATURE_SQL =
+        "SELECT count(*) || ':' || coalesce(md5(string_agg(id || '|' || mbti_type || '|' || riasec_code || '|' || " +
+        "coalesce(array_to_string(courses, ','), '') || '|' || coalesce(array_to_string(careers, ','), '') || '|' || " +
+        "coalesce(explanation, ''), ';' ORDER BY id)), '') FROM mbti_riasec_matching";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${recommendation.matrix.retry.interval:30000}")
+    private long retryIntervalMs;
+
+    private volatile Matrix matrix;
+    private final OnDemandRetry loadRetry = new OnDemandRetry();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Rebuild the matrix from the database and swap it in atomically.
+     */
+    public synchronized Map<String, Object> reload() {
+        long start = System.currentTimeMillis();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        try {
+            String signature = jdbcTemplate.queryForObject(SIGNATURE_SQL, String.class);
+            List<MappingRow> rows = jdbcTemplate.query(LOAD_SQL, (rs, i) -> new MappingRow(
+                normalizeMbti(rs.getString("mbti_type")),
+                normalizeRiasec(rs.getString("riasec_code")),
+                toStringList(rs.getArray("courses")),
+                toStringList(rs.getArray("careers")),
+                rs.getString("explanation")
+            ));
+
+            Matrix built = Matrix.build(rows, signature);
+            this.matrix = built;
+
+            long elapsed = System.currentTimeMillis() - start;
+            logger.info("✅ Recommendation matrix loaded: {} rows, {} cells in {}ms", rows.size(), built.cells.size(), elapsed);
+            summary.put("loaded", true);
+            summary.put("rows", rows.size());
+            summary.put("cells", built.cells.size());
+            summary.put("loadTimeMs", elapsed);
+        } catch (Exception e) {
+            logger.error("❌ Failed to load recommendation matrix: {}", e.getMessage());
+            summary.put("loaded", false);
+            summary.put("error", e.getMessage());
+        }
+        return summary;
+    }
+
+    /**
+     * Reload when the mapping table has been edited since the last build.
+     */
+    @Scheduled(fixedDelayString = "${recommendation.matrix.refresh.interval:300000}",
+               initialDelayString = "${recommendation.matrix.refresh.interval:300000}")
+    public void refreshIfChanged() {
+        Matrix current = this.matrix;
+        try {
+            String signature = jdbcTemplate.queryForObject(SIGNATURE_SQL, String.class);
+            if (current == null || !Objects.equals(signature, current.signature)) {
+                logger.info("🔄 mbti_riasec_matching changed, rebuilding recommendation matrix");
+                reload();
+            }
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not check recommendation matrix freshness: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drop memoized coursePath/careerSuggestions strings (e.g. after description data changes).
+     */
+    public void clearRenderedPaths() {
+        Matrix current = this.matrix;
+        if (current != null) {
+            current.cells.values().forEach(Cell::clearRendered);
+        }
+    }
+
+    /**
+     * Resolve the cell for a combination, or null when the matrix could not be loaded.
+     * While it is missing, one request per retry interval tries to load it again.
+     */
+    public Cell resolve(String mbtiType, String riasecCode) {
+        Matrix current = this.matrix;
+        if (current == null) {
+            if (!loadRetry.tryAcquire(System.currentTimeMillis(), retryIntervalMs)) {
+                return null;
+            }
+            reload();
+            current = this.matrix;
+            if (current == null) {
+                return null;
+            }
+        }
+        return current.cell(normalizeMbti(mbtiType), normalizeRiasec(riasecCode));
+    }
+
+    public boolean isLoaded() {
+        return matrix != null;
+    }
+
+    /** The 16 MBTI types, in a stable order. */
+    public static List<String> getMbtiTypes() {
+        return Collections.unmodifiableList(Arrays.asList(MBTI_TYPES));
+    }
+
+    /** The 30 ordered two-letter RIASEC codes, in a stable order. */
+    public static List<String> getRiasecPairs() {
+        List<String> pairs = new ArrayList<>();
+        for (char first : RIASEC_LETTERS) {
+            for (char second : RIASEC_LETTERS) {
+                if (first != second) pairs.add("" + first + second);
+            }
+        }
+        return Collections.unmodifiableList(pairs);
+    }
+
+    /**
+     * Content signature of the loaded matrix, or null when nothing is loaded.
+     */
+    public String getSignature() {
+        Matrix current = this.matrix;
+        return current != null ? current.signature : null;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Matrix current = this.matrix;
+        stats.put("loaded", current != null);
+        if (current != null) {
+            stats.put("rows", current.rowCount);
+            stats.put("cells", current.cells.size());
+            stats.put("loadedAt", current.loadedAt.toString());
+        }
+        return stats;
+    }
+
+    private static String normalizeMbti(String mbtiType) {
+        return mbtiType == null ? "" : mbtiType.trim().toUpperCase();
+    }
+
+    private static String normalizeRiasec(String riasecCode) {
+        return riasecCode == null ? "" : riasecCode.trim().toUpperCase();
+    }
+
+    private static List<String> toStringList(java.sql.Array array) throws java.sql.SQLException {
+        if (array == null) return Collections.emptyList();
+        Object raw = array.getArray();
+        if (!(raw instanceof Object[])) return Collections.emptyList();
+        List<String> out = new ArrayList<>();
+        for (Object o : (Object[]) raw) {
+            if (o != null) out.add(String.valueOf(o));
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * One row of mbti_riasec_matching, already parsed.
+     */
+    public static final class MappingRow {
+        private final String mbtiType;
+        private final String riasecCode;
+        private final List<String> courses;
+        private final List<String> careers;
+        private final String explanation;
+
+        MappingRow(String mbtiType, String riasecCode, List<String> courses, List<String> careers, String explanation) {
+            this.mbtiType = mbtiType;
+            this.riasecCode = riasecCode;
+            this.courses = courses;
+            this.careers = careers;
+            this.explanation = explanation;
+        }
+
+        public String getMbtiType() { return mbtiType; }
+        public String getRiasecCode() { return riasecCode; }
+        public List<String> getCourses() { return courses; }
+        public List<String> getCareers() { return careers; }
+        public String getExplanation() { return explanation; }
+    }
+
+    /**
+     * Pre-resolved candidates for one MBTI+RIASEC combination, in fallback order.
+     */
+    public static final class Cell {
+        private final MappingRow exact;
+        private final MappingRow byMbti;
+        private final MappingRow byRiasec;
+        private volatile String coursePath;
+        private volatile String careerSuggestions;
+
+        Cell(MappingRow exact, MappingRow byMbti, MappingRow byRiasec) {
+            this.exact = exact;
+            this.byMbti = byMbti;
+            this.byRiasec = byRiasec;
+        }
+
+        /** First matching row (exact, then MBTI-only, then RIASEC-only), or null. */
+        public MappingRow getPrimaryRow() {
+            if (exact != null) return exact;
+            if (byMbti != null) return byMbti;
+            return byRiasec;
+        }
+
+        /** Courses from the first row in the fallback chain that has any. */
+        public List<String> getCourses() {
+            for (MappingRow row : Arrays.asList(exact, byMbti, byRiasec)) {
+                if (row != null && !row.courses.isEmpty()) return row.courses;
+            }
+            return Collections.emptyList();
+        }
+
+        /** Careers from the first row in the fallback chain that has any. */
+        public List<String> getCareers() {
+            for (MappingRow row : Arrays.asList(exact, byMbti, byRiasec)) {
+                if (row != null && !row.careers.isEmpty()) return row.careers;
+            }
+            return Collections.emptyList();
+        }
+
+        public String getCoursePath(Supplier<String> builder) {
+            String value = coursePath;
+            if (value == null) {
+                value = builder.get();
+                coursePath = value;
+            }
+            return value;
+        }
+
+        public String getCareerSuggestions(Supplier<String> builder) {
+            String value = careerSuggestions;
+            if (value == null) {
+                value = builder.get();
+                careerSuggestions = value;
+            }
+            return value;
+        }
+
+        void clearRendered() {
+            coursePath = null;
+            careerSuggestions = null;
+        }
+    }
+
+    /**
+     * Immutable lookup indexes plus the per-combination cells built from them.
+     */
+    static final class Matrix {
+        private final Map<String, MappingRow> exact = new HashMap<>();
+        private final Map<String, MappingRow> firstByMbti = new HashMap<>();
+        private final Map<String, MappingRow> firstByRiasec = new HashMap<>();
+        private final Map<String, Cell> cells = new ConcurrentHashMap<>();
+        private final String signature;
+        private final int rowCount;
+        private final java.time.LocalDateTime loadedAt = java.time.LocalDateTime.now();
+
+        private Matrix(String signature, int rowCount) {
+            this.signature = signature;
+            this.rowCount = rowCount;
+        }
+
+        static Matrix build(List<MappingRow> rows, String signature) {
+            Matrix m = new Matrix(signature, rows.size());
+            // Rows arrive ordered by id, so putIfAbsent keeps the lowest id like the LIMIT 1 queries did
+            for (MappingRow row : rows) {
+                m.exact.putIfAbsent(row.mbtiType + "|" + row.riasecCode, row);
+                m.firstByMbti.putIfAbsent(row.mbtiType, row);
+                m.firstByRiasec.putIfAbsent(row.riasecCode, row);
+            }
+
+            Set<String> riasecCodes = new LinkedHashSet<>(m.firstByRiasec.keySet());
+            riasecCodes.addAll(getRiasecPairs());
+            Set<String> mbtiTypes = new LinkedHashSet<>(Arrays.asList(MBTI_TYPES));
+            mbtiTypes.addAll(m.firstByMbti.keySet());
+
+            for (String mbti : mbtiTypes) {
+                for (String riasec : riasecCodes) {
+                    m.cell(mbti, riasec);
+                }
+            }
+            return m;
+        }
+
+        Cell cell(String mbtiType, String riasecCode) {
+            return cells.computeIfAbsent(mbtiType + "|" + riasecCode, key -> new Cell(
+                exact.get(key),
+                firstByMbti.get(mbtiType),
+                firstByRiasec.get(riasecCode)
+            ));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.app.services;
+
+import com.app.models.TestResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validators for HTTP conditional requests on stored test results.
+ *
+ * A result does not change after submission, so its representation is fully determined
+ * by the stored row, the representation variant and - for anything built from the
+ * description catalog - the current catalog version. Enhanced results are only validated
+ * while served from their stored snapshot, whose version is then part of the tag.
+ * Controllers compare the ETag with If-None-Match right after the (indexed) result
+ * lookup and answer 304 before any DTO assembly happens.
+ */
+@Service
+public class ResultETagService {
+
+    @Autowired
+    private EnhancedResultSnapshotService resultSnapshotService;
+
+    @Value("${result.http.cache.max-age:0}")
+    private long maxAgeSeconds;
+
+    /**
+     * Strong ETag for a representation that only depends on the stored row.
+     */
+    public String etagFor(TestResult result, String representation) {
+        return computeEtag(result, representation, null);
+    }
+
+    /**
+     * Strong ETag for a representation assembled from the catalog, or null when the
+     * catalog isn't loaded (the content is then not stable enough to validate against).
+     */
+    public String catalogEtagFor(TestResult result, String representation, Object... extra) {
+        String catalogVersion = resultSnapshotService.currentCatalogVersion();
+        if (catalogVersion == null) {
+            return null;
+        }
+        StringBuilder tag = new StringBuilder(catalogVersion);
+        for (Object part : extra) {
+            tag.append('|').append(part);
+        }
+        return computeEtag(result, representation, tag.toString());
+    }
+
+    /**
+     * Strong ETag for an enhanced result served from its stored snapshot (see
+     * EnhancedResultSnapshotService.findSnapshotVersion), or null without one. A result built
+     * live may lack sections that timed out or fell back, so it is never given a validator
+     * that the complete snapshot would later match.
+     */
+    public String snapshotEtagFor(TestResult result, String snapshotVersion, String representation, Object... extra) {
+        if (snapshotVersion == null) {
+            return null;
+        }
+        StringBuilder tag = new StringBuilder(snapshotVersion);
+        for (Object part : extra) {
+            tag.append('|').append(part);
+        }
+        return computeEtag(result, representation, tag.toString());
+    }
+
+    /**
+     * Last-Modified value (epoch millis) for a result, or -1 when unknown.
+     */
+    public long lastModified(TestResult result) {
+        if (result.getGeneratedAt() == null) {
+            return -1L;
+        }
+        return result.getGeneratedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Results are personal data: only the browser may keep them, and it revalidates with the ETag.
+     */
+    public CacheControl cacheControl() {
+        if (maxAgeSeconds > 0) {
+            return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePrivate().mustRevalidate();
+        }
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    /**
+     * True when an If-None-Match header value matches the given ETag.
+     */
+    public boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            // If-None-Match uses weak comparison, so a W/ prefix added by a proxy still matches
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String computeEtag(TestResult result, String representation, String catalogTag) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            // Everything a regenerate endpoint can rewrite is part of the hash
+            for (Object part : new Object[] {
+                    representation, result.getId(), result.getSessionId(), result.getGeneratedAt(),
+                    result.getMbtiType(), result.getRiasecCode(), result.getCoursePath(),
+                    result.getCareerSuggestions(), result.getStudentGoals(), catalogTag }) {
+                md.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                md.update((byte) 0);
+            }
+            return "\"" + result.getId() + "-" + HexFormat.of().formatHex(md.digest()).substring(0, 20) + "\"";
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
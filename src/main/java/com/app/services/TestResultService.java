@@ -3,6 +3,7 @@ package com.app.services;
 import com.app.dto.PersonalityTestSubmissionDTO;
 import com.app.dto.EnhancedTestResultDTO;
 import com.app.dto.AdvancedAnalyticsDTO;
+import com.app.dto.EnhancedResultSection;
 import com.app.models.TestResult;
 import com.app.models.MbtiRiasecMapping;
 import com.app.models.MbtiDetails;
@@ -38,6 +39,9 @@ public class TestResultService {
     @Autowired
     private MbtiDetailsRepository mbtiDetailsRepository;
 
+    @Autowired
+    private RecommendationMatrixService recommendationMatrixService;
+
     @Autowired
     private com.app.repositories.RiasecDetailsRepository riasecDetailsRepository;
 
@@ -62,6 +66,18 @@ public class TestResultService {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private DescriptionSchemaRegistry schemaRegistry;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private CourseAliasService courseAliasService;
+
+    @Autowired
+    private EnhancedResultSnapshotService resultSnapshotService;
+
     @Autowired
     private EmailReportService emailReportService;
 
@@ -77,12 +93,31 @@ public class TestResultService {
     @Autowired
     private AiModelComparisonService aiModelComparisonService;
     
+    @Autowired
+    private AiPrecomputeService aiPrecomputeService;
+    
+    @Autowired
+    private AiBatchPromptService aiBatchPromptService;
+    
     @Autowired
     private AdvancedAnalyticsService advancedAnalyticsService;
     
+    @Autowired
+    private LocalRankingService localRankingService;
+    
     @org.springframework.beans.factory.annotation.Value("${huggingface.validation.enabled:false}")
     private boolean aiValidationEnabled;
 
+    @org.springframework.beans.factory.annotation.Value("${enhanced.section.data.timeout:10000}")
+    private long dataSectionTimeoutMs;
+
+    @org.springframework.beans.factory.annotation.Value("${enhanced.section.ai.timeout:${huggingface.timeout:60000}}")
+    private long aiSectionTimeoutMs;
+
+    // Sections of an enhanced result are assembled concurrently on virtual threads
+    private final java.util.concurrent.ExecutorService sectionExecutor =
+        java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor();
+
 
     private final ObjectMapper objectMapper = new ObjectMapper();
     
@@ -137,42 +172,14 @@ public class TestResultService {
             String careerSuggestions;
             
             try {
-                // Try exact MBTI+RIASEC from matching; fallback to MBTI-only, then RIASEC-only
+                // Resolve from the in-memory matrix (exact, then MBTI-only, then RIASEC-only) - no mapping queries
                 try {
-                    List<Object[]> exact = mappingRepository.fetchArraysForExact(mbtiType, riasecTopTwo);
-                    if (!exact.isEmpty()) {
-                        Object[] row = exact.get(0);
-                        List<String> courseList = extractTextArray(row[0]);
-                        List<String> careerList = extractTextArray(row[1]);
-                        String explanation = row.length > 2 && row[2] != null ? String.valueOf(row[2]) : null;
-                        coursePath = buildNameDescriptionPairs(courseList, mbtiType, riasecTopTwo, true);
-                        careerSuggestions = buildNameDescriptionPairs(careerList, mbtiType, riasecTopTwo, false);
-                        // Attach explanation to student goals blob for frontend overview insights
-                        if (explanation != null && !explanation.isEmpty()) {
-                            submission.getGoalSettings();
-                        }
-                    } else {
-                        List<Object[]> byMbti = mappingRepository.fetchAllByMbti(mbtiType);
-                        if (!byMbti.isEmpty()) {
-                            Object[] row = byMbti.get(0);
-                            List<String> courseList = extractTextArray(row[0]);
-                            List<String> careerList = extractTextArray(row[1]);
-                            coursePath = buildNameDescriptionPairs(courseList, mbtiType, riasecTopTwo, true);
-                            careerSuggestions = buildNameDescriptionPairs(careerList, mbtiType, riasecTopTwo, false);
-                        } else {
-                            List<Object[]> byRiasec = mappingRepository.fetchAllByRiasec(riasecTopTwo);
-                            if (!byRiasec.isEmpty()) {
-                                Object[] row = byRiasec.get(0);
-                                List<String> courseList = extractTextArray(row[0]);
-                                List<String> careerList = extractTextArray(row[1]);
-                                coursePath = buildNameDescriptionPairs(courseList, mbtiType, riasecTopTwo, true);
-                                careerSuggestions = buildNameDescriptionPairs(careerList, mbtiType, riasecTopTwo, false);
-                            } else {
-                                coursePath = generateDefaultCoursePath(mbtiType, riasecTopTwo);
-                                careerSuggestions = generateDefaultCareerSuggestions(mbtiType, riasecTopTwo);
-                            }
-                        }
+                    String[] rendered = renderRecommendationText(mbtiType, riasecTopTwo);
+                    if (rendered == null) {
+                        throw new IllegalStateException("Recommendation matrix unavailable");
                     }
+                    coursePath = rendered[0];
+                    careerSuggestions = rendered[1];
                 } catch (Exception arrayErr) {
                     // Fallback to entity hydration if array casting fails
                     courseRecommendations = getCourseRecommendations(mbtiType, riasecTopTwo);
@@ -239,6 +246,7 @@ public class TestResultService {
                 }
                 
                 // ✨ NEW: Send automated email report for registered users
+                AssembledResult prebuiltEnhancedResult = null;
                 if (userId != null) {
                     try {
                         logger.info("🚀 Triggering automated email report for user ID: {}", userId);
@@ -248,7 +256,8 @@ public class TestResultService {
                         if (user != null && user.getEmail() != null && !user.getEmail().isEmpty()) {
                             // Build enhanced result DTO (same data shown on results page)
                             Optional<MbtiDetails> mbtiDetails = getDetailedMbtiInformation(savedResult.getMbtiType());
-                            EnhancedTestResultDTO enhancedResult = convertToEnhancedDTO(savedResult, mbtiDetails.orElse(null));
+                            prebuiltEnhancedResult = convertToEnhancedDTO(savedResult, mbtiDetails.orElse(null));
+                            EnhancedTestResultDTO enhancedResult = prebuiltEnhancedResult.dto;
                             
                             // Get detailed scoring data (with percentages)
                             com.app.dto.DetailedScoringDTO scoringData = 
@@ -266,6 +275,10 @@ public class TestResultService {
                     }
                 }
                 
+                // Persist the assembled enhanced result once this submission commits
+                resultSnapshotService.prefetchAfterCommit(savedResult.getSessionId(), savedResult.getId(),
+                    prebuiltEnhancedResult != null ? completeSnapshot(savedResult, prebuiltEnhancedResult) : null);
+                
                 // Convert to DTO and return (using legacy format for compatibility)
                 Map<String, Integer> legacyRiasecScores = new HashMap<>();
                 Map<String, Integer> legacyMbtiScores = new HashMap<>();
@@ -395,12 +408,18 @@ public class TestResultService {
      * Get enhanced test result with detailed MBTI information
      */
     public Optional<EnhancedTestResultDTO> getEnhancedResultForUser(Long userId) {
+        return getEnhancedResultForUser(userId, EnhancedResultSection.ALL);
+    }
+
+    /**
+     * Get enhanced test result for user with only the selected sections
+     */
+    public Optional<EnhancedTestResultDTO> getEnhancedResultForUser(Long userId, Set<EnhancedResultSection> include) {
         try {
         Optional<TestResult> result = testResultRepository.findTopByUserIdOrderByGeneratedAtDesc(userId);
         if (result.isPresent()) {
             TestResult testResult = result.get();
-            Optional<MbtiDetails> mbtiDetails = getDetailedMbtiInformation(testResult.getMbtiType());
-            EnhancedTestResultDTO dto = convertToEnhancedDTO(testResult, mbtiDetails.orElse(null));
+            EnhancedTestResultDTO dto = loadOrBuildEnhancedResult(testResult, include);
             // Attach detailed explanation from matching table (do not persist)
             try {
                 List<Object[]> exp = mappingRepository.fetchExplanationExact(testResult.getMbtiType(), testResult.getRiasecCode());
@@ -431,12 +450,18 @@ public class TestResultService {
      * Get enhanced test result for guest with detailed MBTI information
      */
     public Optional<EnhancedTestResultDTO> getEnhancedResultForGuest(UUID guestToken) {
+        return getEnhancedResultForGuest(guestToken, EnhancedResultSection.ALL);
+    }
+
+    /**
+     * Get enhanced test result for guest with only the selected sections
+     */
+    public Optional<EnhancedTestResultDTO> getEnhancedResultForGuest(UUID guestToken, Set<EnhancedResultSection> include) {
         try {
         Optional<TestResult> result = testResultRepository.findTopByGuestTokenOrderByGeneratedAtDesc(guestToken);
         if (result.isPresent()) {
             TestResult testResult = result.get();
-            Optional<MbtiDetails> mbtiDetails = getDetailedMbtiInformation(testResult.getMbtiType());
-            EnhancedTestResultDTO dto = convertToEnhancedDTO(testResult, mbtiDetails.orElse(null));
+            EnhancedTestResultDTO dto = loadOrBuildEnhancedResult(testResult, include);
             try {
                 List<Object[]> exp = mappingRepository.fetchExplanationExact(testResult.getMbtiType(), testResult.getRiasecCode());
                 if (!exp.isEmpty() && exp.get(0)[0] != null) {
@@ -483,19 +508,148 @@ public class TestResultService {
         return testResultRepository.findBySessionId(sessionId);
     }
     
+    /**
+     * Get the latest test result entity for a user (cheap lookup for conditional requests)
+     */
+    public Optional<TestResult> getLatestTestResultForUser(Long userId) {
+        return testResultRepository.findTopByUserIdOrderByGeneratedAtDesc(userId);
+    }
+    
+    /**
+     * Get the latest test result entity for a guest (cheap lookup for conditional requests)
+     */
+    public Optional<TestResult> getLatestTestResultForGuest(UUID guestToken) {
+        return testResultRepository.findTopByGuestTokenOrderByGeneratedAtDesc(guestToken);
+    }
+    
     /**
      * Get enhanced test result by session ID
      */
     public Optional<EnhancedTestResultDTO> getEnhancedResultBySessionId(UUID sessionId) {
+        return getEnhancedResultBySessionId(sessionId, EnhancedResultSection.ALL);
+    }
+
+    /**
+     * Get enhanced test result by session ID with only the selected sections
+     */
+    public Optional<EnhancedTestResultDTO> getEnhancedResultBySessionId(UUID sessionId, Set<EnhancedResultSection> include) {
         Optional<TestResult> result = testResultRepository.findBySessionId(sessionId);
         if (result.isPresent()) {
-            TestResult testResult = result.get();
-            Optional<MbtiDetails> mbtiDetails = getDetailedMbtiInformation(testResult.getMbtiType());
-            return Optional.of(convertToEnhancedDTO(testResult, mbtiDetails.orElse(null)));
+            return Optional.of(loadOrBuildEnhancedResult(result.get(), include));
         }
         return Optional.empty();
     }
 
+    /**
+     * Serve the persisted snapshot when it is current; otherwise assemble the result and store it.
+     * A partial selection is projected from the snapshot, or built on its own and not stored.
+     */
+    private EnhancedTestResultDTO loadOrBuildEnhancedResult(TestResult testResult, Set<EnhancedResultSection> include) {
+        Optional<EnhancedTestResultDTO> snapshot = resultSnapshotService.findSnapshot(testResult.getSessionId());
+        if (snapshot.isPresent()) {
+            return EnhancedResultSection.project(snapshot.get(), include);
+        }
+        MbtiDetails mbtiDetails = include.contains(EnhancedResultSection.MBTI)
+            ? getDetailedMbtiInformation(testResult.getMbtiType()).orElse(null)
+            : null;
+        AssembledResult assembled = convertToEnhancedDTO(testResult, mbtiDetails, include);
+        if (include.containsAll(EnhancedResultSection.ALL)) {
+            storeWhenComplete(testResult, assembled);
+        }
+        return assembled.dto;
+    }
+
+    /**
+     * An assembled result together with the requested sections that timed out, failed or came
+     * from a fallback, and the background validation (null when none was started).
+     */
+    private static final class AssembledResult {
+        final EnhancedTestResultDTO dto;
+        final Set<EnhancedResultSection> degraded = java.util.EnumSet.noneOf(EnhancedResultSection.class);
+        java.util.concurrent.CompletableFuture<EnhancedTestResultDTO.AiValidationStatusDTO> validation;
+
+        AssembledResult(EnhancedTestResultDTO dto) {
+            this.dto = dto;
+        }
+    }
+
+    /**
+     * The result as it may be stored for good: a copy carrying the finished validation, once
+     * that is done. Completes with null when any requested section is missing or degraded, or
+     * the validation did not finish - such a result is rebuilt on a later read instead.
+     */
+    private java.util.concurrent.CompletableFuture<EnhancedTestResultDTO> completeSnapshot(TestResult testResult,
+                                                                                          AssembledResult assembled) {
+        if (!assembled.degraded.isEmpty()) {
+            logger.info("Result for session {} not stored, incomplete sections: {}",
+                testResult.getSessionId(), assembled.degraded);
+            return java.util.concurrent.CompletableFuture.completedFuture(null);
+        }
+        if (assembled.validation == null) {
+            return java.util.concurrent.CompletableFuture.completedFuture(assembled.dto);
+        }
+        return assembled.validation.handle((status, error) -> {
+            if (status == null) {
+                logger.info("Result for session {} not stored, AI validation did not finish", testResult.getSessionId());
+                return null;
+            }
+            try {
+                // The assembled instance may still be serialized for the response; complete a copy
+                EnhancedTestResultDTO copy = resultSnapshotService.copyOf(assembled.dto);
+                copy.setAiValidationStatus(status);
+                return copy;
+            } catch (Exception e) {
+                logger.warn("⚠️ Could not copy result for session {}: {}", testResult.getSessionId(), e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    private void storeWhenComplete(TestResult testResult, AssembledResult assembled) {
+        completeSnapshot(testResult, assembled).thenAccept(complete -> {
+            if (complete != null) {
+                resultSnapshotService.save(testResult.getSessionId(), testResult.getId(), complete);
+            }
+        });
+    }
+
+    /**
+     * Receives enhanced result sections as they become available (progressive delivery).
+     * May be called from several threads.
+     */
+    public interface SectionListener {
+        void onSection(String name, Object payload);
+    }
+
+    /**
+     * Progressive variant of the enhanced lookup: "scores" and "result" (deterministic sections)
+     * are reported first, then aiCourseRankings, aiCareerRankings, aiModelComparison and
+     * advancedAnalytics one by one as they complete. A current snapshot is reported as a single
+     * "result". Returns the assembled result once everything is in.
+     */
+    public EnhancedTestResultDTO streamEnhancedResult(TestResult testResult, Set<EnhancedResultSection> include,
+                                                      SectionListener listener) {
+        com.app.dto.DetailedScoringDTO scoringData = enhancedScoringService.getDetailedScoringData(testResult.getSessionId());
+        if (scoringData != null) {
+            listener.onSection("scores", scoringData);
+        }
+        
+        Optional<EnhancedTestResultDTO> snapshot = resultSnapshotService.findSnapshot(testResult.getSessionId());
+        if (snapshot.isPresent()) {
+            EnhancedTestResultDTO dto = EnhancedResultSection.project(snapshot.get(), include);
+            listener.onSection("result", dto);
+            return dto;
+        }
+        MbtiDetails mbtiDetails = include.contains(EnhancedResultSection.MBTI)
+            ? getDetailedMbtiInformation(testResult.getMbtiType()).orElse(null)
+            : null;
+        AssembledResult assembled = convertToEnhancedDTO(testResult, mbtiDetails, include, listener);
+        if (include.containsAll(EnhancedResultSection.ALL)) {
+            storeWhenComplete(testResult, assembled);
+        }
+        return assembled.dto;
+    }
+
     /**
      * Count total test results
      */
@@ -683,6 +837,8 @@ public class TestResultService {
             );
             
             logger.info("Successfully regenerated detailed scoring data for session: {}", sessionId);
+            // Advanced analytics in the stored snapshot were computed without these scores
+            resultSnapshotService.invalidate(sessionUUID);
             return true;
             
         } catch (Exception e) {
@@ -803,6 +959,10 @@ public class TestResultService {
             testResult.setCareerSuggestions(newCareerSuggestions);
             testResultRepository.save(testResult);
             
+            // Stored snapshot embeds the old descriptions
+            resultSnapshotService.invalidate(sessionId);
+            resultSnapshotService.prefetchAfterCommit(sessionId, testResult.getId(), null);
+            
             return true;
         }
         return false;
@@ -968,6 +1128,28 @@ public class TestResultService {
                firstRecommendation.getRiasecCode() + " interests.";
     }
 
+    /**
+     * coursePath and careerSuggestions exactly as a new submission for this combination stores
+     * them, or null when the recommendation matrix is unavailable.
+     */
+    public String[] renderRecommendationText(String mbtiType, String riasecCode) {
+        RecommendationMatrixService.Cell cell = recommendationMatrixService.resolve(mbtiType, riasecCode);
+        if (cell == null) {
+            return null;
+        }
+        RecommendationMatrixService.MappingRow row = cell.getPrimaryRow();
+        if (row == null) {
+            return new String[] {
+                generateDefaultCoursePath(mbtiType, riasecCode),
+                generateDefaultCareerSuggestions(mbtiType, riasecCode)
+            };
+        }
+        return new String[] {
+            cell.getCoursePath(() -> buildNameDescriptionPairs(row.getCourses(), mbtiType, riasecCode, true)),
+            cell.getCareerSuggestions(() -> buildNameDescriptionPairs(row.getCareers(), mbtiType, riasecCode, false))
+        };
+    }
+    
     /**
      * Generate course descriptions with detailed information for each course
      */
@@ -1024,6 +1206,12 @@ public class TestResultService {
      */
     private String generateCourseDescription(String courseName, String mbtiType, String riasecCode) {
         // Prefer DB-backed description via flexible native queries; fall back to dynamic generator
+        if (catalogSnapshotService.isLoaded()) {
+            // Snapshot already answered exact and partial for this name (and remembers the miss)
+            return catalogSnapshotService.findCourseDescription(courseName)
+                    .or(() -> courseAliasService.resolve(courseName))
+                    .orElseGet(() -> generateDynamicCourseDescription(courseName, mbtiType, riasecCode));
+        }
         try {
             logger.debug("Looking up course description (flexible) for: '{}'", courseName);
             Optional<String> exact = courseDescriptionRepository.findDescriptionByCourseNameExact(courseName)
@@ -1043,128 +1231,11 @@ public class TestResultService {
         } catch (Exception e) {
             logger.warn("Flexible course description lookup failed for '{}': {}", courseName, e.getMessage());
         }
-        logger.debug("No DB description for '{}', using dynamic description", courseName);
-        return generateDynamicCourseDescription(courseName, mbtiType, riasecCode);
-    }
-
-    /**
-     * Legacy static descriptions (to be removed once DB descriptions are fully in use)
-     */
-    @Deprecated
-    @SuppressWarnings("unused")
-    private String generateCourseDescriptionLegacy(String courseName, String mbtiType, String riasecCode) {
-        String course = courseName.toLowerCase().trim();
-        Map<String, String> courseDescriptions = new HashMap<>();
-        
-        // Technology & Computer Science
-        courseDescriptions.put("computer science", "Master programming languages, algorithms, and software development to build innovative digital solutions.");
-        courseDescriptions.put("data science", "Learn to extract meaningful insights from large datasets using statistical analysis and machine learning techniques.");
-        courseDescriptions.put("software engineering", "Design, develop, and maintain large-scale software systems using engineering principles and methodologies.");
-        courseDescriptions.put("web development", "Create interactive websites and web applications using modern frontend and backend technologies.");
-        courseDescriptions.put("cybersecurity", "Protect digital systems and networks from threats while developing expertise in information security.");
-        courseDescriptions.put("artificial intelligence", "Develop intelligent systems and machine learning algorithms that can perform human-like tasks.");
-        courseDescriptions.put("database management", "Design and optimize database systems for efficient data storage, retrieval, and management.");
-        courseDescriptions.put("mobile app development", "Build native and cross-platform applications for smartphones and tablets using modern frameworks.");
-        courseDescriptions.put("cloud computing", "Deploy, manage, and scale applications using distributed computing resources over the internet.");
-        courseDescriptions.put("information technology", "Support and maintain computer systems, networks, and technology infrastructure for organizations.");
-        
-        // Business & Management
-        courseDescriptions.put("business administration", "Develop leadership skills and strategic thinking for managing organizations and driving business success.");
-        courseDescriptions.put("marketing", "Learn to promote products and services effectively through digital channels and consumer psychology.");
-        courseDescriptions.put("finance", "Analyze financial markets, manage investments, and make strategic financial decisions for organizations.");
-        courseDescriptions.put("accounting", "Record, analyze, and report financial transactions while preparing comprehensive financial statements.");
-        courseDescriptions.put("economics", "Study how societies allocate scarce resources and understand market dynamics and policy impacts.");
-        courseDescriptions.put("project management", "Lead teams and deliver projects successfully within scope, time, and budget constraints.");
-        courseDescriptions.put("human resources", "Manage talent acquisition, employee development, and organizational culture to drive business success.");
-        courseDescriptions.put("entrepreneurship", "Develop skills to start and grow businesses while identifying market opportunities and managing risks.");
-        
-        // Hospitality & Tourism Management
-        courseDescriptions.put("bs hospitality management", "Master hotel operations, guest services, and hospitality leadership to excel in the global hospitality industry.");
-        courseDescriptions.put("hospitality management", "Master hotel operations, guest services, and hospitality leadership to excel in the global hospitality industry.");
-        courseDescriptions.put("bs event management", "Learn to plan, organize, and execute successful events while managing budgets, vendors, and client relationships.");
-        courseDescriptions.put("event management", "Learn to plan, organize, and execute successful events while managing budgets, vendors, and client relationships.");
-        courseDescriptions.put("bs tourism", "Explore destination marketing, sustainable tourism practices, and cultural heritage management for global travel industry.");
-        courseDescriptions.put("tourism", "Explore destination marketing, sustainable tourism practices, and cultural heritage management for global travel industry.");
-        courseDescriptions.put("bs entrepreneurship", "Develop innovative thinking and business skills to create and scale successful startups and ventures.");
-        courseDescriptions.put("bs marketing", "Master digital marketing strategies, consumer behavior analysis, and brand management for competitive markets.");
-        courseDescriptions.put("bs international business", "Navigate global markets, cross-cultural management, and international trade regulations for worldwide business success.");
-        courseDescriptions.put("international business", "Navigate global markets, cross-cultural management, and international trade regulations for worldwide business success.");
-        
-        // Healthcare & Medicine
-        courseDescriptions.put("medicine", "Train to diagnose, treat, and prevent diseases while maintaining patient health and well-being.");
-        courseDescriptions.put("nursing", "Provide direct patient care, health education, and coordinate treatment plans in healthcare settings.");
-        courseDescriptions.put("healthcare administration", "Manage healthcare organizations, policies, and operations to improve patient care delivery.");
-        courseDescriptions.put("pharmacy", "Study drug interactions, medication management, and pharmaceutical care for patient health outcomes.");
-        courseDescriptions.put("public health", "Address population health issues and develop strategies to prevent disease and promote wellness.");
-        courseDescriptions.put("physical therapy", "Help patients recover from injuries and improve mobility through therapeutic exercise and treatment.");
-        
-        // Science & Engineering
-        courseDescriptions.put("engineering", "Apply scientific and mathematical principles to design, build, and maintain technological solutions.");
-        courseDescriptions.put("mathematics", "Develop advanced problem-solving skills and explore abstract concepts across various disciplines.");
-        courseDescriptions.put("physics", "Investigate the fundamental forces, matter, energy, and the laws governing the physical universe.");
-        courseDescriptions.put("chemistry", "Study the composition, structure, properties, and reactions of matter at the molecular level.");
-        courseDescriptions.put("biology", "Examine living organisms, their life processes, evolution, and interactions with their environment.");
-        courseDescriptions.put("environmental science", "Address environmental challenges and develop sustainable solutions for ecological conservation.");
-        courseDescriptions.put("biotechnology", "Apply biological processes to develop products and technologies that improve human life.");
-        
-        // Social Sciences & Humanities
-        courseDescriptions.put("psychology", "Investigate human mental processes, behavior patterns, and the factors that influence individual development.");
-        courseDescriptions.put("education", "Learn teaching methodologies, curriculum development, and educational psychology for classroom instruction.");
-        courseDescriptions.put("social work", "Help individuals and communities overcome challenges while promoting social justice and well-being.");
-        courseDescriptions.put("counseling", "Provide therapeutic support and guidance to help people navigate personal and professional challenges.");
-        courseDescriptions.put("criminal justice", "Study law enforcement, legal systems, and rehabilitation to maintain social order and justice.");
-        courseDescriptions.put("political science", "Analyze government systems, political behavior, and policy development in democratic societies.");
-        courseDescriptions.put("sociology", "Examine social relationships, institutions, and cultural patterns that shape human behavior.");
-        
-        // Arts & Creative Fields
-        courseDescriptions.put("graphic design", "Create visual concepts using typography, imagery, and layout to communicate ideas effectively.");
-        courseDescriptions.put("digital marketing", "Promote brands and products through online channels, social media, and digital advertising platforms.");
-        courseDescriptions.put("creative writing", "Develop storytelling skills and literary techniques to express ideas through written word.");
-        courseDescriptions.put("journalism", "Research, write, and report news stories while maintaining ethical standards and accuracy.");
-        courseDescriptions.put("communications", "Master effective communication strategies across various media platforms and audiences.");
-        courseDescriptions.put("film studies", "Analyze cinematic techniques and storytelling methods while understanding film's cultural impact.");
-        courseDescriptions.put("music", "Develop musical skills and understanding of composition, performance, and music theory.");
-        
-        // Architecture & Design
-        courseDescriptions.put("architecture", "Design functional and aesthetic buildings while considering environmental and social factors.");
-        courseDescriptions.put("interior design", "Create beautiful and functional interior spaces that enhance human experience and well-being.");
-        courseDescriptions.put("urban planning", "Design sustainable cities and communities that promote quality of life and environmental health.");
-        courseDescriptions.put("landscape architecture", "Design outdoor spaces that balance natural beauty with functional requirements.");
-        
-        // Try to find exact match first
-        String description = courseDescriptions.get(course);
-        if (description != null) {
-            return description;
-        }
-        
-        // Try partial matching for variations (case-insensitive)
-        for (Map.Entry<String, String> entry : courseDescriptions.entrySet()) {
-            String key = entry.getKey().toLowerCase();
-            String courseLower = course.toLowerCase();
-            if (courseLower.contains(key) || key.contains(courseLower)) {
-                return entry.getValue();
-            }
-        }
-        
-        // Try matching without "BS" prefix
-        if (course.startsWith("bs ")) {
-            String courseWithoutBS = course.substring(3).trim();
-            description = courseDescriptions.get(courseWithoutBS);
-            if (description != null) {
-                return description;
-            }
-        }
-        
-        // Try matching with "BS" prefix
-        if (!course.startsWith("bs ")) {
-            String courseWithBS = "bs " + course;
-            description = courseDescriptions.get(courseWithBS);
-            if (description != null) {
-                return description;
-            }
+        Optional<String> alias = courseAliasService.resolve(courseName);
+        if (alias.isPresent()) {
+            return alias.get();
         }
-        
-        // Generate dynamic description based on personality type and field
+        logger.debug("No DB description for '{}', using dynamic description", courseName);
         return generateDynamicCourseDescription(courseName, mbtiType, riasecCode);
     }
 
@@ -1319,57 +1390,35 @@ public class TestResultService {
         }
     }
 
-    private boolean columnExists(String tableName, String columnName) {
-        try {
-            String sql = "SELECT EXISTS (SELECT 1 FROM information_schema.columns WHERE table_schema = 'public' AND table_name = ? AND column_name = ?)";
-            Boolean exists = jdbcTemplate.queryForObject(sql, Boolean.class, tableName.toLowerCase(), columnName.toLowerCase());
-            return Boolean.TRUE.equals(exists);
-        } catch (Exception e) {
-            logger.warn("Failed to check column existence for {}.{}: {}", tableName, columnName, e.getMessage());
-            return false;
+    private Optional<String> safeFindCourseDescription(String name) {
+        if (catalogSnapshotService.isLoaded()) {
+            return catalogSnapshotService.findCourseDescription(name);
         }
+        return findDescription(schemaRegistry.getCourseLookup(), name, "safeFindCourseDescription");
     }
 
-    private Optional<String> safeFindCourseDescription(String name) {
-        String table = "updated_course_description";
-        boolean hasCourseName = columnExists(table, "course_name");
-        boolean hasCourse = columnExists(table, "course");
-        if (!hasCourseName && !hasCourse) {
-            return Optional.empty();
-        }
-        try {
-            String column = hasCourseName ? "course_name" : "course";
-            String sql = "SELECT description FROM " + table + " WHERE lower(" + column + ") = lower(?) LIMIT 1";
-            String desc = jdbcTemplate.query(sql, ps -> ps.setString(1, name), rs -> rs.next() ? rs.getString(1) : null);
-            if (desc != null && !desc.isEmpty()) return Optional.of(desc);
-            // Partial fallback
-            String likeSql = "SELECT description FROM " + table + " WHERE lower(" + column + ") LIKE lower(?) LIMIT 1";
-            String descLike = jdbcTemplate.query(likeSql, ps -> ps.setString(1, "%" + name + "%"), rs -> rs.next() ? rs.getString(1) : null);
-            return Optional.ofNullable(descLike);
-        } catch (Exception e) {
-            logger.warn("safeFindCourseDescription failed for '{}': {}", name, e.getMessage());
-            return Optional.empty();
+    private Optional<String> safeFindCareerDescription(String name) {
+        if (catalogSnapshotService.isLoaded()) {
+            return catalogSnapshotService.findCareerDescription(name);
         }
+        return findDescription(schemaRegistry.getCareerLookup(), name, "safeFindCareerDescription");
     }
 
-    private Optional<String> safeFindCareerDescription(String name) {
-        String table = "updated_career_description";
-        boolean hasCareerName = columnExists(table, "career_name");
-        boolean hasCareer = columnExists(table, "career");
-        if (!hasCareerName && !hasCareer) {
+    /**
+     * Exact then partial description lookup using the SQL prepared by the schema registry.
+     */
+    private Optional<String> findDescription(DescriptionSchemaRegistry.DescriptionLookup lookup, String name, String caller) {
+        if (!lookup.isAvailable()) {
             return Optional.empty();
         }
         try {
-            String column = hasCareerName ? "career_name" : "career";
-            String sql = "SELECT description FROM " + table + " WHERE lower(" + column + ") = lower(?) LIMIT 1";
-            String desc = jdbcTemplate.query(sql, ps -> ps.setString(1, name), rs -> rs.next() ? rs.getString(1) : null);
+            String desc = jdbcTemplate.query(lookup.getExactSql(), ps -> ps.setString(1, name), rs -> rs.next() ? rs.getString(1) : null);
             if (desc != null && !desc.isEmpty()) return Optional.of(desc);
             // Partial fallback
-            String likeSql = "SELECT description FROM " + table + " WHERE lower(" + column + ") LIKE lower(?) LIMIT 1";
-            String descLike = jdbcTemplate.query(likeSql, ps -> ps.setString(1, "%" + name + "%"), rs -> rs.next() ? rs.getString(1) : null);
+            String descLike = jdbcTemplate.query(lookup.getPartialSql(), ps -> ps.setString(1, "%" + name + "%"), rs -> rs.next() ? rs.getString(1) : null);
             return Optional.ofNullable(descLike);
         } catch (Exception e) {
-            logger.warn("safeFindCareerDescription failed for '{}': {}", name, e.getMessage());
+            logger.warn("{} failed for '{}': {}", caller, name, e.getMessage());
             return Optional.empty();
         }
     }
@@ -1525,8 +1574,26 @@ public class TestResultService {
     /**
      * Convert TestResult entity to EnhancedTestResultDTO with detailed MBTI information
      */
-    private EnhancedTestResultDTO convertToEnhancedDTO(TestResult entity, MbtiDetails mbtiDetails) {
+    private AssembledResult convertToEnhancedDTO(TestResult entity, MbtiDetails mbtiDetails) {
+        return convertToEnhancedDTO(entity, mbtiDetails, EnhancedResultSection.ALL);
+    }
+
+    /**
+     * Same as above, but only the selected sections are computed - the others are never started
+     */
+    private AssembledResult convertToEnhancedDTO(TestResult entity, MbtiDetails mbtiDetails,
+                                                 Set<EnhancedResultSection> include) {
+        return convertToEnhancedDTO(entity, mbtiDetails, include, null);
+    }
+
+    /**
+     * Assemble the selected sections, reporting them to the listener (when given) as they land:
+     * "result" once the deterministic sections are in, then each AI section as it completes.
+     */
+    private AssembledResult convertToEnhancedDTO(TestResult entity, MbtiDetails mbtiDetails,
+                                                 Set<EnhancedResultSection> include, SectionListener listener) {
         EnhancedTestResultDTO dto = new EnhancedTestResultDTO();
+        AssembledResult assembled = new AssembledResult(dto);
         dto.setId(entity.getId());
         dto.setUserId(entity.getUserId());
         dto.setGuestToken(entity.getGuestToken() != null ? entity.getGuestToken().toString() : null);
@@ -1543,303 +1610,261 @@ public class TestResultService {
         dto.setTakenAt(entity.getTakenAt());
         
         // Add detailed MBTI information if available
-        if (mbtiDetails != null) {
+        if (mbtiDetails != null && include.contains(EnhancedResultSection.MBTI)) {
             dto.setDetailedMbtiInfo(new EnhancedTestResultDTO.DetailedMbtiInfoDTO(mbtiDetails));
         }
         
-        // Add detailed RIASEC information for TOP 1 RIASEC code
-        try {
-            String riasecCode = entity.getRiasecCode();
-            if (riasecCode != null && !riasecCode.isEmpty()) {
-                // Extract first character (TOP 1 RIASEC code)
-                String topRiasecLetter = riasecCode.substring(0, 1);
-                
-                // Map letter to full name
-                String topRiasecType = mapRiasecLetterToFullName(topRiasecLetter);
-                logger.debug("Fetching RIASEC details for top code: {} ({})", topRiasecLetter, topRiasecType);
-                
-                Optional<RiasecDetails> riasecDetails = riasecDetailsRepository.findByRiasecType(topRiasecType);
-                if (riasecDetails.isPresent()) {
-                    dto.setDetailedRiasecInfo(new EnhancedTestResultDTO.DetailedRiasecInfoDTO(riasecDetails.get()));
-                    logger.debug("Added RIASEC details for type: {} ({})", topRiasecLetter, topRiasecType);
-                } else {
-                    logger.warn("No RIASEC details found for type: {} ({})", topRiasecLetter, topRiasecType);
-                }
+        // Independent sections run concurrently on virtual threads; each has its own deadline
+        // and whatever is still running when assembly finishes is cancelled
+        List<java.util.concurrent.Future<?>> sections = new ArrayList<>();
+        // AI sections may finish before the deterministic ones; hold their events until "result" went out
+        java.util.concurrent.CountDownLatch resultSent = new java.util.concurrent.CountDownLatch(1);
+        SectionListener aiListener = listener == null ? null : (name, payload) -> {
+            try {
+                resultSent.await();
+                listener.onSection(name, payload);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        } catch (Exception e) {
-            logger.warn("Error fetching RIASEC details: {}", e.getMessage());
-        }
-        
-        // Generate and add career development plan
+        };
+        long dataDeadline = System.nanoTime() + java.util.concurrent.TimeUnit.MILLISECONDS.toNanos(dataSectionTimeoutMs);
+        long aiDeadline = System.nanoTime() + java.util.concurrent.TimeUnit.MILLISECONDS.toNanos(aiSectionTimeoutMs);
         try {
-            com.app.dto.CareerDevelopmentPlanDTO careerDevelopmentPlan = 
-                generateCareerDevelopmentPlan(entity.getMbtiType(), entity.getRiasecCode());
-            dto.setCareerDevelopmentPlan(careerDevelopmentPlan);
-            logger.debug("Added career development plan to enhanced result for MBTI: {}, RIASEC: {}", 
-                entity.getMbtiType(), entity.getRiasecCode());
-        } catch (Exception e) {
-            logger.warn("Error generating career development plan for enhanced result: {}", e.getMessage());
-            // Set empty plan on error
-            dto.setCareerDevelopmentPlan(new com.app.dto.CareerDevelopmentPlanDTO(
-                entity.getMbtiType(), entity.getRiasecCode(), new ArrayList<>()));
-        }
-        
-        // Generate and add course development plan
-        try {
-            com.app.dto.CourseDevelopmentPlanDTO courseDevelopmentPlan = 
-                generateCourseDevelopmentPlan(entity.getMbtiType(), entity.getRiasecCode());
-            dto.setCourseDevelopmentPlan(courseDevelopmentPlan);
-            logger.debug("Added course development plan to enhanced result for MBTI: {}, RIASEC: {}", 
-                entity.getMbtiType(), entity.getRiasecCode());
-        } catch (Exception e) {
-            logger.warn("Error generating course development plan for enhanced result: {}", e.getMessage());
-            // Set empty plan on error
-            dto.setCourseDevelopmentPlan(new com.app.dto.CourseDevelopmentPlanDTO(
-                entity.getMbtiType(), entity.getRiasecCode(), new ArrayList<>()));
-        }
-        
-        // 🤖 AI-POWERED COURSE AND CAREER RANKING
-        if (aiValidationEnabled) {
-            try {
-                logger.info("🤖 AI: Running intelligent course and career comparison");
-                
-                // Get AI-powered course rankings
-                List<AiComparisonService.CourseRanking> courseRankings = 
-                    aiComparisonService.rankCoursesByPersonality(
-                        entity.getMbtiType(), 
-                        entity.getRiasecCode(), 
-                        entity.getCoursePath()
-                    );
-                
-                // Convert to DTO
-                List<EnhancedTestResultDTO.AiCourseRanking> aiCourseRankings = courseRankings.stream()
-                    .map(ranking -> {
-                        EnhancedTestResultDTO.AiCourseRanking courseDto = new EnhancedTestResultDTO.AiCourseRanking();
-                        courseDto.setRank(ranking.getRank());
-                        courseDto.setCourseName(ranking.getCourseName());
-                        courseDto.setMatchScore(ranking.getMatchScore());
-                        courseDto.setMatchReason(ranking.getMatchReason());
-                        courseDto.setAiRecommended(ranking.isAiRecommended());
-                        return courseDto;
-                    })
-                    .collect(java.util.stream.Collectors.toList());
-                dto.setAiCourseRankings(aiCourseRankings);
-                
-                // Get AI-powered career rankings
-                List<AiComparisonService.CareerRanking> careerRankings = 
-                    aiComparisonService.rankCareersByPersonality(
-                        entity.getMbtiType(), 
-                        entity.getRiasecCode(), 
-                        entity.getCareerSuggestions()
-                    );
-                
-                // Convert to DTO
-                List<EnhancedTestResultDTO.AiCareerRanking> aiCareerRankings = careerRankings.stream()
-                    .map(ranking -> {
-                        EnhancedTestResultDTO.AiCareerRanking careerDto = new EnhancedTestResultDTO.AiCareerRanking();
-                        careerDto.setRank(ranking.getRank());
-                        careerDto.setCareerName(ranking.getCareerName());
-                        careerDto.setMatchScore(ranking.getMatchScore());
-                        careerDto.setMatchReason(ranking.getMatchReason());
-                        careerDto.setAiRecommended(ranking.isAiRecommended());
-                        return careerDto;
-                    })
-                    .collect(java.util.stream.Collectors.toList());
-                dto.setAiCareerRankings(aiCareerRankings);
+            java.util.concurrent.Future<EnhancedTestResultDTO.DetailedRiasecInfoDTO> riasecSection = null;
+            java.util.concurrent.Future<com.app.dto.CareerDevelopmentPlanDTO> careerPlanSection = null;
+            java.util.concurrent.Future<com.app.dto.CourseDevelopmentPlanDTO> coursePlanSection = null;
+            if (include.contains(EnhancedResultSection.RIASEC)) {
+                riasecSection = startSection(sections, () -> loadDetailedRiasecInfo(entity.getRiasecCode()));
+            }
+            if (include.contains(EnhancedResultSection.CAREER_PLAN)) {
+                careerPlanSection = startSection(sections, () -> generateCareerDevelopmentPlan(entity.getMbtiType(), entity.getRiasecCode()));
+            }
+            if (include.contains(EnhancedResultSection.COURSE_PLAN)) {
+                coursePlanSection = startSection(sections, () -> generateCourseDevelopmentPlan(entity.getMbtiType(), entity.getRiasecCode()));
+            }
+            
+            // Analytics is computed from the rankings, so asking for it pulls the rankings in too
+            boolean wantAnalytics = aiValidationEnabled && include.contains(EnhancedResultSection.ANALYTICS);
+            boolean wantRankings = aiValidationEnabled && (wantAnalytics || include.contains(EnhancedResultSection.AI_RANKINGS));
+            boolean wantComparison = aiValidationEnabled && include.contains(EnhancedResultSection.MODEL_COMPARISON);
+            
+            java.util.concurrent.Future<List<AiComparisonService.CourseRanking>> courseRankingSection = null;
+            java.util.concurrent.Future<List<AiComparisonService.CareerRanking>> careerRankingSection = null;
+            java.util.concurrent.Future<AiModelComparisonService.ModelComparisonResult> courseComparisonSection = null;
+            java.util.concurrent.Future<AiModelComparisonService.ModelComparisonResult> careerComparisonSection = null;
+            java.util.concurrent.Future<com.app.dto.DetailedScoringDTO> scoringSection = null;
+            boolean emitRankings = aiListener != null && include.contains(EnhancedResultSection.AI_RANKINGS);
+            
+            // Precomputed results first; whatever is left goes out as combined prompts per model
+            final List<AiComparisonService.CourseRanking> storedCourseRankings = wantRankings ? aiPrecomputeService.findCourseRankings(
+                entity.getMbtiType(), entity.getRiasecCode(), entity.getCoursePath()) : null;
+            final List<AiComparisonService.CareerRanking> storedCareerRankings = wantRankings ? aiPrecomputeService.findCareerRankings(
+                entity.getMbtiType(), entity.getRiasecCode(), entity.getCareerSuggestions()) : null;
+            final AiModelComparisonService.ModelComparisonResult storedCourseComparison = wantComparison ? aiPrecomputeService.findCourseComparison(
+                entity.getMbtiType(), entity.getRiasecCode(), entity.getCoursePath()) : null;
+            final AiModelComparisonService.ModelComparisonResult storedCareerComparison = wantComparison ? aiPrecomputeService.findCareerComparison(
+                entity.getMbtiType(), entity.getRiasecCode(), entity.getCareerSuggestions()) : null;
+            // Rankings, comparison and analytics share one analysis context, so the validation model's
+            // assessment of each list is made once and read by all three
+            final AiAnalysisContext analysisContext = new AiAnalysisContext(entity.getMbtiType(), entity.getRiasecCode(),
+                entity.getCoursePath(), entity.getCareerSuggestions());
+            analysisContext.offerCourseRankings(storedCourseRankings);
+            analysisContext.offerCareerRankings(storedCareerRankings);
+            // Under load (or when configured as primary) the local engine ranks what was not precomputed,
+            // weighting the student's own trait percentages (nominal ones from the type codes when missing)
+            com.app.dto.DetailedScoringDTO localScoringData = null;
+            if (wantRankings && localRankingService.shouldRankLocally()
+                    && (!analysisContext.hasCourseRankings() || !analysisContext.hasCareerRankings())) {
+                logger.info("⚡ AI: Ranking locally for session {}", entity.getSessionId());
+                localScoringData = enhancedScoringService.getDetailedScoringData(entity.getSessionId());
+                Map<String, Double> mbtiPercentages = localScoringData != null
+                    ? scorePercentages(localScoringData.getMbtiScores()) : Collections.emptyMap();
+                Map<String, Double> riasecPercentages = localScoringData != null
+                    ? scorePercentages(localScoringData.getRiasecScores()) : Collections.emptyMap();
+                analysisContext.offerCourseRankings(localRankingService.rankCourses(
+                    entity.getMbtiType(), entity.getRiasecCode(), entity.getCoursePath(),
+                    mbtiPercentages.isEmpty() ? null : mbtiPercentages, riasecPercentages.isEmpty() ? null : riasecPercentages));
+                analysisContext.offerCareerRankings(localRankingService.rankCareers(
+                    entity.getMbtiType(), entity.getRiasecCode(), entity.getCareerSuggestions(),
+                    mbtiPercentages.isEmpty() ? null : mbtiPercentages, riasecPercentages.isEmpty() ? null : riasecPercentages));
+            }
+            boolean batchRankings = wantRankings && (!analysisContext.hasCourseRankings() || !analysisContext.hasCareerRankings());
+            boolean batchComparison = wantComparison && (storedCourseComparison == null || storedCareerComparison == null);
+            final java.util.concurrent.Future<AiBatchPromptService.BatchResult> batchSection =
+                aiBatchPromptService.isEnabled() && (batchRankings || batchComparison)
+                    ? startSection(sections, () -> aiBatchPromptService.run(analysisContext, batchRankings, batchComparison))
+                    : null;
+            
+            if (wantRankings) {
+                logger.info("🤖 AI: Running intelligent course and career comparison (precomputed when available)");
+                courseRankingSection = startSection(sections, () -> {
+                    if (!analysisContext.hasCourseRankings() && batchSection != null) {
+                        batchSection.get();
+                    }
+                    List<AiComparisonService.CourseRanking> rankings = aiComparisonService.rankCoursesByPersonality(analysisContext);
+                    if (emitRankings && rankings != null) aiListener.onSection("aiCourseRankings", toAiCourseRankings(rankings));
+                    return rankings;
+                });
+                careerRankingSection = startSection(sections, () -> {
+                    if (!analysisContext.hasCareerRankings() && batchSection != null) {
+                        batchSection.get();
+                    }
+                    List<AiComparisonService.CareerRanking> rankings = aiComparisonService.rankCareersByPersonality(analysisContext);
+                    if (emitRankings && rankings != null) aiListener.onSection("aiCareerRankings", toAiCareerRankings(rankings));
+                    return rankings;
+                });
+            }
+            if (wantComparison) {
+                logger.info("🤖 AI: Running model comparison analysis");
+                // Whichever half finishes second reports the combined comparison
+                java.util.concurrent.atomic.AtomicReference<AiModelComparisonService.ModelComparisonResult> courseHalf =
+                    new java.util.concurrent.atomic.AtomicReference<>();
+                java.util.concurrent.atomic.AtomicReference<AiModelComparisonService.ModelComparisonResult> careerHalf =
+                    new java.util.concurrent.atomic.AtomicReference<>();
+                Runnable emitComparison = () -> {
+                    if (aiListener == null) return;
+                    synchronized (courseHalf) {
+                        if (courseHalf.get() != null && careerHalf.get() != null) {
+                            aiListener.onSection("aiModelComparison", toAiModelComparison(entity, courseHalf.get(), careerHalf.get()));
+                        }
+                    }
+                };
+                courseComparisonSection = startSection(sections, () -> {
+                    AiModelComparisonService.ModelComparisonResult half = storedCourseComparison;
+                    if (half == null && batchSection != null) {
+                        half = batchSection.get().getCourseComparison();
+                    }
+                    if (half == null) {
+                        half = aiModelComparisonService.compareCourseAnalysis(analysisContext);
+                    }
+                    synchronized (courseHalf) { courseHalf.set(half); }
+                    emitComparison.run();
+                    return half;
+                });
+                careerComparisonSection = startSection(sections, () -> {
+                    AiModelComparisonService.ModelComparisonResult half = storedCareerComparison;
+                    if (half == null && batchSection != null) {
+                        half = batchSection.get().getCareerComparison();
+                    }
+                    if (half == null) {
+                        half = aiModelComparisonService.compareCareerAnalysis(analysisContext);
+                    }
+                    synchronized (courseHalf) { careerHalf.set(half); }
+                    emitComparison.run();
+                    return half;
+                });
+            }
+            if (wantAnalytics) {
+                scoringSection = localScoringData != null
+                    ? java.util.concurrent.CompletableFuture.completedFuture(localScoringData)
+                    : startSection(sections, () -> enhancedScoringService.getDetailedScoringData(entity.getSessionId()));
+            }
+            
+            // Add detailed RIASEC information for TOP 1 RIASEC code
+            EnhancedTestResultDTO.DetailedRiasecInfoDTO riasecInfo = awaitSection(riasecSection, dataDeadline, "RIASEC details");
+            if (riasecInfo != null) {
+                dto.setDetailedRiasecInfo(riasecInfo);
+            }
+            markIfMissed(assembled, riasecSection, EnhancedResultSection.RIASEC);
+            
+            // Career and course development plans (empty plan on error or timeout)
+            if (careerPlanSection != null) {
+                com.app.dto.CareerDevelopmentPlanDTO careerDevelopmentPlan = awaitSection(careerPlanSection, dataDeadline, "career development plan");
+                dto.setCareerDevelopmentPlan(careerDevelopmentPlan != null ? careerDevelopmentPlan :
+                    new com.app.dto.CareerDevelopmentPlanDTO(entity.getMbtiType(), entity.getRiasecCode(), new ArrayList<>()));
+                markIfMissed(assembled, careerPlanSection, EnhancedResultSection.CAREER_PLAN);
+            }
+            if (coursePlanSection != null) {
+                com.app.dto.CourseDevelopmentPlanDTO courseDevelopmentPlan = awaitSection(coursePlanSection, dataDeadline, "course development plan");
+                dto.setCourseDevelopmentPlan(courseDevelopmentPlan != null ? courseDevelopmentPlan :
+                    new com.app.dto.CourseDevelopmentPlanDTO(entity.getMbtiType(), entity.getRiasecCode(), new ArrayList<>()));
+                markIfMissed(assembled, coursePlanSection, EnhancedResultSection.COURSE_PLAN);
+            }
+            
+            if (listener != null) {
+                listener.onSection("result", dto);
+                resultSent.countDown();
+            }
+            
+            // 🤖 AI-POWERED COURSE AND CAREER RANKING
+            if (aiValidationEnabled) {
+                List<AiComparisonService.CourseRanking> courseRankings = awaitSection(courseRankingSection, aiDeadline, "AI course ranking");
+                List<AiComparisonService.CareerRanking> careerRankings = awaitSection(careerRankingSection, aiDeadline, "AI career ranking");
                 
-                logger.info("✅ AI ranked {} courses and {} careers", 
-                    aiCourseRankings.size(), aiCareerRankings.size());
+                List<EnhancedTestResultDTO.AiCourseRanking> aiCourseRankings = null;
+                List<EnhancedTestResultDTO.AiCareerRanking> aiCareerRankings = null;
+                if (courseRankings != null && careerRankings != null) {
+                    aiCourseRankings = toAiCourseRankings(courseRankings);
+                    aiCareerRankings = toAiCareerRankings(careerRankings);
+                    if (include.contains(EnhancedResultSection.AI_RANKINGS)) {
+                        dto.setAiCourseRankings(aiCourseRankings);
+                        dto.setAiCareerRankings(aiCareerRankings);
+                    }
+                    logger.info("✅ AI ranked {} courses and {} careers", 
+                        aiCourseRankings.size(), aiCareerRankings.size());
+                }
+                // Local rankings stand in for the validation model; analytics built on them is local too
+                boolean rankingsDegraded = wantRankings && (AiComparisonService.isFallbackCourseRanking(courseRankings)
+                    || AiComparisonService.isFallbackCareerRanking(careerRankings));
+                if (rankingsDegraded && include.contains(EnhancedResultSection.AI_RANKINGS)) {
+                    assembled.degraded.add(EnhancedResultSection.AI_RANKINGS);
+                }
                 
                 // 🤖 AI MODEL COMPARISON
-                try {
-                    logger.info("🤖 AI: Running model comparison analysis");
-                    
-                    // Get course comparison
-                    AiModelComparisonService.ModelComparisonResult courseComparison = 
-                        aiModelComparisonService.compareCourseAnalysis(
-                            entity.getMbtiType(), 
-                            entity.getRiasecCode(), 
-                            entity.getCoursePath()
-                        );
-                    
-                    // Get career comparison
-                    AiModelComparisonService.ModelComparisonResult careerComparison = 
-                        aiModelComparisonService.compareCareerAnalysis(
-                            entity.getMbtiType(), 
-                            entity.getRiasecCode(), 
-                            entity.getCareerSuggestions()
-                        );
-                    
-                    // Combine results into single comparison object
-                    EnhancedTestResultDTO.AiModelComparison modelComparison = 
-                        new EnhancedTestResultDTO.AiModelComparison();
-                    modelComparison.setMbtiType(entity.getMbtiType());
-                    modelComparison.setRiasecCode(entity.getRiasecCode());
-                    modelComparison.setModel1Name("DialoGPT-Large (Analytical)");
-                    modelComparison.setModel2Name("GPT-Neo-2.7B (Creative)");
-                    
-                    // Convert course comparisons
-                    if (courseComparison.getCourseComparisons() != null) {
-                        List<EnhancedTestResultDTO.CourseComparison> courseComparisons = 
-                            courseComparison.getCourseComparisons().stream()
-                                .map(comp -> {
-                                    EnhancedTestResultDTO.CourseComparison courseCompDto = 
-                                        new EnhancedTestResultDTO.CourseComparison();
-                                    courseCompDto.setCourseName(comp.getCourseName());
-                                    courseCompDto.setModel1Score(comp.getModel1Score());
-                                    courseCompDto.setModel2Score(comp.getModel2Score());
-                                    courseCompDto.setModel1Analysis(comp.getModel1Analysis());
-                                    courseCompDto.setModel2Analysis(comp.getModel2Analysis());
-                                    courseCompDto.setAgreement(comp.getAgreement());
-                                    return courseCompDto;
-                                })
-                                .collect(java.util.stream.Collectors.toList());
-                        modelComparison.setCourseComparisons(courseComparisons);
-                    }
-                    
-                    // Convert career comparisons
-                    if (careerComparison.getCareerComparisons() != null) {
-                        List<EnhancedTestResultDTO.CareerComparison> careerComparisons = 
-                            careerComparison.getCareerComparisons().stream()
-                                .map(comp -> {
-                                    EnhancedTestResultDTO.CareerComparison careerCompDto = 
-                                        new EnhancedTestResultDTO.CareerComparison();
-                                    careerCompDto.setCareerName(comp.getCareerName());
-                                    careerCompDto.setModel1Score(comp.getModel1Score());
-                                    careerCompDto.setModel2Score(comp.getModel2Score());
-                                    careerCompDto.setModel1Analysis(comp.getModel1Analysis());
-                                    careerCompDto.setModel2Analysis(comp.getModel2Analysis());
-                                    careerCompDto.setAgreement(comp.getAgreement());
-                                    return careerCompDto;
-                                })
-                                .collect(java.util.stream.Collectors.toList());
-                        modelComparison.setCareerComparisons(careerComparisons);
-                    }
-                    
-                    dto.setAiModelComparison(modelComparison);
-                    
+                AiModelComparisonService.ModelComparisonResult courseComparison = awaitSection(courseComparisonSection, aiDeadline, "AI course model comparison");
+                AiModelComparisonService.ModelComparisonResult careerComparison = awaitSection(careerComparisonSection, aiDeadline, "AI career model comparison");
+                if (courseComparison != null && careerComparison != null) {
+                    dto.setAiModelComparison(toAiModelComparison(entity, courseComparison, careerComparison));
                     logger.info("✅ AI model comparison completed");
-                    
-                } catch (Exception e) {
-                    logger.warn("⚠️ AI model comparison failed (non-critical): {}", e.getMessage());
+                }
+                if (wantComparison && (isDegraded(courseComparison) || isDegraded(careerComparison))) {
+                    assembled.degraded.add(EnhancedResultSection.MODEL_COMPARISON);
                 }
                 
-                // 🔬 ADVANCED ANALYTICS (Human + AI Combined Metrics)
-                try {
+                // 🔬 ADVANCED ANALYTICS (Human + AI Combined Metrics) - needs the rankings above
+                if (wantAnalytics && aiCourseRankings != null) {
                     logger.info("🔬 Generating advanced analytics (Human + AI metrics)");
-                    
-                    // Get detailed scoring data for percentages
-                    com.app.dto.DetailedScoringDTO scoringData = 
-                        enhancedScoringService.getDetailedScoringData(entity.getSessionId());
-                    
-                    // Prepare MBTI percentages map
-                    Map<String, Double> mbtiPercentages = new HashMap<>();
-                    if (scoringData != null && scoringData.getMbtiScores() != null) {
-                        for (Map.Entry<String, com.app.dto.DetailedScoringDTO.ScoreData> entry : scoringData.getMbtiScores().entrySet()) {
-                            mbtiPercentages.put(entry.getKey(), entry.getValue().getPercentage());
+                    com.app.dto.DetailedScoringDTO scoringData = awaitSection(scoringSection, dataDeadline, "detailed scoring data");
+                    java.util.concurrent.Future<AdvancedAnalyticsService.AdvancedAnalyticsResult> analyticsSection =
+                        startSection(sections, () -> buildAdvancedAnalytics(scoringData, analysisContext));
+                    AdvancedAnalyticsService.AdvancedAnalyticsResult analyticsResult = awaitSection(analyticsSection, aiDeadline, "advanced analytics");
+                    if (analyticsResult != null) {
+                        AdvancedAnalyticsDTO analyticsDTO = convertToAnalyticsDTO(analyticsResult);
+                        dto.setAdvancedAnalytics(analyticsDTO);
+                        if (listener != null) {
+                            listener.onSection("advancedAnalytics", analyticsDTO);
                         }
+                        logger.info("✅ Advanced analytics generated successfully");
                     }
-                    
-                    // Prepare RIASEC percentages map
-                    Map<String, Double> riasecPercentages = new HashMap<>();
-                    if (scoringData != null && scoringData.getRiasecScores() != null) {
-                        for (Map.Entry<String, com.app.dto.DetailedScoringDTO.ScoreData> entry : scoringData.getRiasecScores().entrySet()) {
-                            riasecPercentages.put(entry.getKey(), entry.getValue().getPercentage());
-                        }
-                    }
-                    
-                    // Prepare courses with AI scores
-                    List<AdvancedAnalyticsService.CourseWithAiScore> coursesWithAiScores = new ArrayList<>();
-                    if (aiCourseRankings != null && !aiCourseRankings.isEmpty()) {
-                        for (EnhancedTestResultDTO.AiCourseRanking ranking : aiCourseRankings) {
-                            coursesWithAiScores.add(new AdvancedAnalyticsService.CourseWithAiScore(
-                                ranking.getCourseName(),
-                                "", // Description will be extracted from coursePath if needed
-                                ranking.getMatchScore()
-                            ));
-                        }
-                    }
-                    
-                    // Prepare careers with AI scores
-                    List<AdvancedAnalyticsService.CareerWithAiScore> careersWithAiScores = new ArrayList<>();
-                    if (aiCareerRankings != null && !aiCareerRankings.isEmpty()) {
-                        for (EnhancedTestResultDTO.AiCareerRanking ranking : aiCareerRankings) {
-                            careersWithAiScores.add(new AdvancedAnalyticsService.CareerWithAiScore(
-                                ranking.getCareerName(),
-                                "", // Description will be extracted from careerSuggestions if needed
-                                ranking.getMatchScore()
-                            ));
-                        }
+                    if (scoringData == null || analyticsResult == null || analyticsResult.isFallback()) {
+                        assembled.degraded.add(EnhancedResultSection.ANALYTICS);
                     }
-                    
-                    // Generate advanced analytics
-                    AdvancedAnalyticsService.AdvancedAnalyticsResult analyticsResult = 
-                        advancedAnalyticsService.generateAdvancedAnalytics(
-                            entity.getMbtiType(),
-                            entity.getRiasecCode(),
-                            mbtiPercentages,
-                            riasecPercentages,
-                            coursesWithAiScores,
-                            careersWithAiScores
-                        );
-                    
-                    // Convert to DTO
-                    AdvancedAnalyticsDTO analyticsDTO = convertToAnalyticsDTO(analyticsResult);
-                    dto.setAdvancedAnalytics(analyticsDTO);
-                    
-                    logger.info("✅ Advanced analytics generated successfully");
-                    
-                } catch (Exception e) {
-                    logger.warn("⚠️ Advanced analytics generation failed (non-critical): {}", e.getMessage(), e);
                 }
-                    
-            } catch (Exception e) {
-                logger.warn("⚠️ AI ranking failed (non-critical): {}", e.getMessage());
+                if (wantAnalytics && (aiCourseRankings == null || rankingsDegraded)) {
+                    assembled.degraded.add(EnhancedResultSection.ANALYTICS);
+                }
+            }
+        } finally {
+            for (java.util.concurrent.Future<?> section : sections) {
+                if (!section.isDone()) {
+                    section.cancel(true);
+                }
             }
         }
         
         // Run AI validation (OPTIONAL - won't block if it fails)
         if (!aiValidationEnabled) {
             logger.info("ℹ️ AI validation is disabled in configuration");
-            return dto;
+            return assembled;
+        }
+        if (!include.contains(EnhancedResultSection.VALIDATION)) {
+            return assembled;
         }
         
         try {
             logger.info("🤖 Starting AI validation for test result: {}", entity.getId());
             
-            // Run validation asynchronously to avoid blocking
-            java.util.concurrent.CompletableFuture.runAsync(() -> {
-                try {
-                    AiContentValidationService.ValidationReport validationReport = 
-                        aiValidationService.validateTestResult(dto);
-                    
-                    // Convert validation report to status DTO
-                    EnhancedTestResultDTO.AiValidationStatusDTO validationStatus = 
-                        new EnhancedTestResultDTO.AiValidationStatusDTO();
-                    validationStatus.setValidated(true);
-                    validationStatus.setValidationStatus(validationReport.isOverallValid() ? "VALIDATED" : "ISSUES_FOUND");
-                    validationStatus.setValidationScore(validationReport.getValidationScore());
-                    validationStatus.setValidationMessage(validationReport.isOverallValid() ? 
-                        "All content has been validated by AI" : 
-                        String.format("AI found %d potential issues", validationReport.getIssues().size()));
-                    validationStatus.setValidatedAt(java.time.LocalDateTime.now().toString());
-                    
-                    // Add validation issues
-                    List<String> issues = validationReport.getIssues().stream()
-                        .map(issue -> issue.getTitle() + ": " + issue.getDescription())
-                        .collect(java.util.stream.Collectors.toList());
-                    validationStatus.setValidationIssues(issues);
-                    
-                    dto.setAiValidationStatus(validationStatus);
-                    
-                    logger.info("✅ AI validation completed. Score: {}, Issues: {}", 
-                        validationReport.getValidationScore(), validationReport.getIssues().size());
-                } catch (Exception e) {
-                    logger.warn("⚠️ AI validation failed (non-critical): {}", e.getMessage());
-                }
-            });
-            
-            // Set temporary "in progress" status while validation runs
+            // Temporary "in progress" status while validation runs; the response keeps it
             EnhancedTestResultDTO.AiValidationStatusDTO tempStatus = 
                 new EnhancedTestResultDTO.AiValidationStatusDTO();
             tempStatus.setValidated(false);
@@ -1849,13 +1874,241 @@ public class TestResultService {
             tempStatus.setValidatedAt(java.time.LocalDateTime.now().toString());
             tempStatus.setValidationIssues(new ArrayList<>());
             dto.setAiValidationStatus(tempStatus);
+            
+            // Run validation asynchronously to avoid blocking (in the caller's quota lane). The
+            // finished status goes to the stored copy only: the returned DTO may be mid-serialization.
+            AiQuotaGovernor.Lane lane = AiQuotaGovernor.currentLane();
+            assembled.validation = java.util.concurrent.CompletableFuture.supplyAsync(() -> {
+                try {
+                    return AiQuotaGovernor.callIn(lane, () -> {
+                        AiContentValidationService.ValidationReport validationReport = 
+                            aiValidationService.validateTestResult(dto);
+                        
+                        // Convert validation report to status DTO
+                        EnhancedTestResultDTO.AiValidationStatusDTO validationStatus = 
+                            new EnhancedTestResultDTO.AiValidationStatusDTO();
+                        validationStatus.setValidated(true);
+                        validationStatus.setValidationStatus(validationReport.isOverallValid() ? "VALIDATED" : "ISSUES_FOUND");
+                        validationStatus.setValidationScore(validationReport.getValidationScore());
+                        validationStatus.setValidationMessage(validationReport.isOverallValid() ? 
+                            "All content has been validated by AI" : 
+                            String.format("AI found %d potential issues", validationReport.getIssues().size()));
+                        validationStatus.setValidatedAt(java.time.LocalDateTime.now().toString());
+                        
+                        // Add validation issues
+                        List<String> issues = validationReport.getIssues().stream()
+                            .map(issue -> issue.getTitle() + ": " + issue.getDescription())
+                            .collect(java.util.stream.Collectors.toList());
+                        validationStatus.setValidationIssues(issues);
+                        
+                        logger.info("✅ AI validation completed. Score: {}, Issues: {}", 
+                            validationReport.getValidationScore(), validationReport.getIssues().size());
+                        return validationStatus;
+                    });
+                } catch (Exception e) {
+                    logger.warn("⚠️ AI validation failed (non-critical): {}", e.getMessage());
+                    return null;
+                }
+            });
                 
         } catch (Exception e) {
             logger.warn("⚠️ Could not start AI validation (non-critical): {}", e.getMessage());
-            // Don't set any validation status - results will work without AI validation
+            assembled.degraded.add(EnhancedResultSection.VALIDATION);
         }
         
-        return dto;
+        return assembled;
+    }
+
+    /**
+     * A requested section that missed its deadline or failed leaves the result incomplete
+     */
+    private static void markIfMissed(AssembledResult assembled, java.util.concurrent.Future<?> section,
+                                     EnhancedResultSection name) {
+        if (section != null && section.state() != java.util.concurrent.Future.State.SUCCESS) {
+            assembled.degraded.add(name);
+        }
+    }
+
+    /**
+     * A comparison half that is missing, lacks a model's answer or stands in for one
+     */
+    private static boolean isDegraded(AiModelComparisonService.ModelComparisonResult comparison) {
+        return comparison == null || comparison.isPartial() || comparison.isFallback();
+    }
+
+    private <T> java.util.concurrent.Future<T> startSection(List<java.util.concurrent.Future<?>> sections,
+                                                            java.util.concurrent.Callable<T> work) {
+        // Sections make their HuggingFace calls in the quota lane of whoever asked for the result
+        AiQuotaGovernor.Lane lane = AiQuotaGovernor.currentLane();
+        java.util.concurrent.Future<T> future = sectionExecutor.submit(() -> AiQuotaGovernor.callIn(lane, work));
+        sections.add(future);
+        return future;
+    }
+
+    /**
+     * Wait for a section until its deadline; null (and the section cancelled) on timeout or failure.
+     */
+    private <T> T awaitSection(java.util.concurrent.Future<T> section, long deadlineNanos, String name) {
+        if (section == null) {
+            return null;
+        }
+        try {
+            long remaining = Math.max(0L, deadlineNanos - System.nanoTime());
+            return section.get(remaining, java.util.concurrent.TimeUnit.NANOSECONDS);
+        } catch (java.util.concurrent.TimeoutException e) {
+            section.cancel(true);
+            logger.warn("⏱️ Section '{}' missed its deadline, continuing without it", name);
+        } catch (java.util.concurrent.ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.warn("⚠️ Section '{}' failed (non-critical): {}", name, cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            section.cancel(true);
+        }
+        return null;
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdownSectionExecutor() {
+        sectionExecutor.shutdownNow();
+    }
+
+    private EnhancedTestResultDTO.DetailedRiasecInfoDTO loadDetailedRiasecInfo(String riasecCode) {
+        if (riasecCode == null || riasecCode.isEmpty()) {
+            return null;
+        }
+        // Extract first character (TOP 1 RIASEC code) and map letter to full name
+        String topRiasecLetter = riasecCode.substring(0, 1);
+        String topRiasecType = mapRiasecLetterToFullName(topRiasecLetter);
+        logger.debug("Fetching RIASEC details for top code: {} ({})", topRiasecLetter, topRiasecType);
+        
+        Optional<RiasecDetails> riasecDetails = riasecDetailsRepository.findByRiasecType(topRiasecType);
+        if (riasecDetails.isPresent()) {
+            logger.debug("Added RIASEC details for type: {} ({})", topRiasecLetter, topRiasecType);
+            return new EnhancedTestResultDTO.DetailedRiasecInfoDTO(riasecDetails.get());
+        }
+        logger.warn("No RIASEC details found for type: {} ({})", topRiasecLetter, topRiasecType);
+        return null;
+    }
+
+    private List<EnhancedTestResultDTO.AiCourseRanking> toAiCourseRankings(List<AiComparisonService.CourseRanking> courseRankings) {
+        return courseRankings.stream()
+            .map(ranking -> {
+                EnhancedTestResultDTO.AiCourseRanking courseDto = new EnhancedTestResultDTO.AiCourseRanking();
+                courseDto.setRank(ranking.getRank());
+                courseDto.setCourseName(ranking.getCourseName());
+                courseDto.setMatchScore(ranking.getMatchScore());
+                courseDto.setMatchReason(ranking.getMatchReason());
+                courseDto.setAiRecommended(ranking.isAiRecommended());
+                return courseDto;
+            })
+            .collect(java.util.stream.Collectors.toList());
+    }
+
+    private List<EnhancedTestResultDTO.AiCareerRanking> toAiCareerRankings(List<AiComparisonService.CareerRanking> careerRankings) {
+        return careerRankings.stream()
+            .map(ranking -> {
+                EnhancedTestResultDTO.AiCareerRanking careerDto = new EnhancedTestResultDTO.AiCareerRanking();
+                careerDto.setRank(ranking.getRank());
+                careerDto.setCareerName(ranking.getCareerName());
+                careerDto.setMatchScore(ranking.getMatchScore());
+                careerDto.setMatchReason(ranking.getMatchReason());
+                careerDto.setAiRecommended(ranking.isAiRecommended());
+                return careerDto;
+            })
+            .collect(java.util.stream.Collectors.toList());
+    }
+
+    /**
+     * Combine course and career comparison results into a single comparison object
+     */
+    private EnhancedTestResultDTO.AiModelComparison toAiModelComparison(TestResult entity,
+            AiModelComparisonService.ModelComparisonResult courseComparison,
+            AiModelComparisonService.ModelComparisonResult careerComparison) {
+        EnhancedTestResultDTO.AiModelComparison modelComparison = 
+            new EnhancedTestResultDTO.AiModelComparison();
+        modelComparison.setMbtiType(entity.getMbtiType());
+        modelComparison.setRiasecCode(entity.getRiasecCode());
+        modelComparison.setModel1Name("DialoGPT-Large (Analytical)");
+        modelComparison.setModel2Name("GPT-Neo-2.7B (Creative)");
+        
+        // Convert course comparisons
+        if (courseComparison.getCourseComparisons() != null) {
+            List<EnhancedTestResultDTO.CourseComparison> courseComparisons = 
+                courseComparison.getCourseComparisons().stream()
+                    .map(comp -> {
+                        EnhancedTestResultDTO.CourseComparison courseCompDto = 
+                            new EnhancedTestResultDTO.CourseComparison();
+                        courseCompDto.setCourseName(comp.getCourseName());
+                        courseCompDto.setModel1Score(comp.getModel1Score());
+                        courseCompDto.setModel2Score(comp.getModel2Score());
+                        courseCompDto.setModel1Analysis(comp.getModel1Analysis());
+                        courseCompDto.setModel2Analysis(comp.getModel2Analysis());
+                        courseCompDto.setAgreement(comp.getAgreement());
+                        return courseCompDto;
+                    })
+                    .collect(java.util.stream.Collectors.toList());
+            modelComparison.setCourseComparisons(courseComparisons);
+        }
+        
+        // Convert career comparisons
+        if (careerComparison.getCareerComparisons() != null) {
+            List<EnhancedTestResultDTO.CareerComparison> careerComparisons = 
+                careerComparison.getCareerComparisons().stream()
+                    .map(comp -> {
+                        EnhancedTestResultDTO.CareerComparison careerCompDto = 
+                            new EnhancedTestResultDTO.CareerComparison();
+                        careerCompDto.setCareerName(comp.getCareerName());
+                        careerCompDto.setModel1Score(comp.getModel1Score());
+                        careerCompDto.setModel2Score(comp.getModel2Score());
+                        careerCompDto.setModel1Analysis(comp.getModel1Analysis());
+                        careerCompDto.setModel2Analysis(comp.getModel2Analysis());
+                        careerCompDto.setAgreement(comp.getAgreement());
+                        return careerCompDto;
+                    })
+                    .collect(java.util.stream.Collectors.toList());
+            modelComparison.setCareerComparisons(careerComparisons);
+        }
+        
+        if (courseComparison.isPartial() || careerComparison.isPartial()) {
+            Set<String> missingModels = new LinkedHashSet<>();
+            if (courseComparison.getMissingModels() != null) missingModels.addAll(courseComparison.getMissingModels());
+            if (careerComparison.getMissingModels() != null) missingModels.addAll(careerComparison.getMissingModels());
+            modelComparison.setPartial(true);
+            modelComparison.setMissingModels(new ArrayList<>(missingModels));
+        }
+        
+        return modelComparison;
+    }
+
+    /**
+     * Advanced analytics from scoring percentages and the context's AI rankings
+     */
+    private AdvancedAnalyticsService.AdvancedAnalyticsResult buildAdvancedAnalytics(com.app.dto.DetailedScoringDTO scoringData,
+            AiAnalysisContext analysisContext) {
+        // Prepare MBTI and RIASEC percentages maps
+        Map<String, Double> mbtiPercentages = scoringData != null
+            ? scorePercentages(scoringData.getMbtiScores()) : new HashMap<>();
+        Map<String, Double> riasecPercentages = scoringData != null
+            ? scorePercentages(scoringData.getRiasecScores()) : new HashMap<>();
+        
+        // Generate advanced analytics; the AI scores are the rankings held by the analysis context
+        return advancedAnalyticsService.generateAdvancedAnalytics(analysisContext, mbtiPercentages, riasecPercentages);
+    }
+
+    /**
+     * Percentage per letter from detailed scores (empty when there are none)
+     */
+    private static Map<String, Double> scorePercentages(Map<String, com.app.dto.DetailedScoringDTO.ScoreData> scores) {
+        Map<String, Double> percentages = new HashMap<>();
+        if (scores != null) {
+            for (Map.Entry<String, com.app.dto.DetailedScoringDTO.ScoreData> entry : scores.entrySet()) {
+                if (entry.getValue() != null && entry.getValue().getPercentage() != null) {
+                    percentages.put(entry.getKey(), entry.getValue().getPercentage());
+                }
+            }
+        }
+        return percentages;
     }
 
     /**
@@ -2022,47 +2275,11 @@ public class TestResultService {
             // First, get careers from mbti_riasec_matching
             List<String> careerNames = new ArrayList<>();
             
-            // Try exact MBTI + RIASEC match first
-            try {
-                List<Object[]> exactMatches = mappingRepository.fetchArraysForExact(mbtiType, riasecCode);
-                if (!exactMatches.isEmpty()) {
-                    Object[] row = exactMatches.get(0);
-                    List<String> careerList = extractTextArray(row[1]); // careers column
-                    careerNames.addAll(careerList);
-                    logger.debug("Found {} careers from exact match", careerList.size());
-                }
-            } catch (Exception e) {
-                logger.warn("Error getting exact match careers: {}", e.getMessage());
-            }
-            
-            // If no exact match, try MBTI only
-            if (careerNames.isEmpty()) {
-                try {
-                    List<Object[]> mbtiMatches = mappingRepository.fetchAllByMbti(mbtiType);
-                    if (!mbtiMatches.isEmpty()) {
-                        Object[] row = mbtiMatches.get(0);
-                        List<String> careerList = extractTextArray(row[1]); // careers column
-                        careerNames.addAll(careerList);
-                        logger.debug("Found {} careers from MBTI match", careerList.size());
-                    }
-                } catch (Exception e) {
-                    logger.warn("Error getting MBTI match careers: {}", e.getMessage());
-                }
-            }
-            
-            // If still no match, try RIASEC only
-            if (careerNames.isEmpty()) {
-                try {
-                    List<Object[]> riasecMatches = mappingRepository.fetchAllByRiasec(riasecCode);
-                    if (!riasecMatches.isEmpty()) {
-                        Object[] row = riasecMatches.get(0);
-                        List<String> careerList = extractTextArray(row[1]); // careers column
-                        careerNames.addAll(careerList);
-                        logger.debug("Found {} careers from RIASEC match", careerList.size());
-                    }
-                } catch (Exception e) {
-                    logger.warn("Error getting RIASEC match careers: {}", e.getMessage());
-                }
+            // Exact MBTI + RIASEC, then MBTI only, then RIASEC only - resolved from the in-memory matrix
+            RecommendationMatrixService.Cell cell = recommendationMatrixService.resolve(mbtiType, riasecCode);
+            if (cell != null) {
+                careerNames.addAll(cell.getCareers());
+                logger.debug("Found {} careers from recommendation matrix", careerNames.size());
             }
             
             // Limit to top 6 careers for development plan
@@ -2073,6 +2290,18 @@ public class TestResultService {
             
             logger.debug("Processing {} top careers for development plan", topCareers.size());
             
+            // Resolve every plan and career info row up front (catalog snapshot, or two batch queries each)
+            Map<String, com.app.models.DevelopmentPlan> developmentPlans = catalogSnapshotService.isLoaded()
+                ? resolveFromCatalog(topCareers, catalogSnapshotService::findDevelopmentPlan)
+                : resolveByNameBatch(topCareers, developmentPlanRepository::findByCareerNamesExact,
+                    developmentPlanRepository::findByCareerNamesPartial, com.app.models.DevelopmentPlan::getCareer,
+                    com.app.models.DevelopmentPlan::getId);
+            Map<String, com.app.models.CareerInfo> careerInfos = catalogSnapshotService.isLoaded()
+                ? resolveFromCatalog(topCareers, catalogSnapshotService::findCareerInfo)
+                : resolveByNameBatch(topCareers, careerInfoRepository::findByCareerNamesExact,
+                    careerInfoRepository::findByCareerNamesPartial, com.app.models.CareerInfo::getCareer,
+                    com.app.models.CareerInfo::getId);
+            
             // Build career details list
             List<com.app.dto.CareerDevelopmentPlanDTO.CareerDetails> careerDetailsList = new ArrayList<>();
             
@@ -2088,12 +2317,7 @@ public class TestResultService {
                     careerDetails.setDescription(description.orElse("No description available"));
                     
                     // Get development plan data
-                    Optional<com.app.models.DevelopmentPlan> developmentPlan = 
-                        developmentPlanRepository.findByCareerNameExact(careerName);
-                    
-                    if (!developmentPlan.isPresent()) {
-                        developmentPlan = developmentPlanRepository.findByCareerNamePartial(careerName);
-                    }
+                    Optional<com.app.models.DevelopmentPlan> developmentPlan = Optional.ofNullable(developmentPlans.get(careerName));
                     
                     if (developmentPlan.isPresent()) {
                         com.app.models.DevelopmentPlan dp = developmentPlan.get();
@@ -2112,12 +2336,7 @@ public class TestResultService {
                     }
                     
                     // Get career info data
-                    Optional<com.app.models.CareerInfo> careerInfo = 
-                        careerInfoRepository.findByCareerNameExact(careerName);
-                    
-                    if (!careerInfo.isPresent()) {
-                        careerInfo = careerInfoRepository.findByCareerNamePartial(careerName);
-                    }
+                    Optional<com.app.models.CareerInfo> careerInfo = Optional.ofNullable(careerInfos.get(careerName));
                     
                     if (careerInfo.isPresent()) {
                         com.app.models.CareerInfo ci = careerInfo.get();
@@ -2150,8 +2369,8 @@ public class TestResultService {
             
         } catch (Exception e) {
             logger.error("Error generating career development plan for MBTI: {}, RIASEC: {}", mbtiType, riasecCode, e);
-            // Return empty development plan on error
-            return new com.app.dto.CareerDevelopmentPlanDTO(mbtiType, riasecCode, new ArrayList<>());
+            // The section shows an empty plan; failing here keeps the result out of the snapshot
+            throw new IllegalStateException("Career development plan unavailable", e);
         }
     }
 
@@ -2165,47 +2384,11 @@ public class TestResultService {
             // First, get courses from mbti_riasec_matching
             List<String> courseNames = new ArrayList<>();
             
-            // Try exact MBTI + RIASEC match first
-            try {
-                List<Object[]> exactMatches = mappingRepository.fetchArraysForExact(mbtiType, riasecCode);
-                if (!exactMatches.isEmpty()) {
-                    Object[] row = exactMatches.get(0);
-                    List<String> courseList = extractTextArray(row[0]); // courses column (index 0)
-                    courseNames.addAll(courseList);
-                    logger.debug("Found {} courses from exact match", courseList.size());
-                }
-            } catch (Exception e) {
-                logger.warn("Error getting exact match courses: {}", e.getMessage());
-            }
-            
-            // If no exact match, try MBTI only
-            if (courseNames.isEmpty()) {
-                try {
-                    List<Object[]> mbtiMatches = mappingRepository.fetchAllByMbti(mbtiType);
-                    if (!mbtiMatches.isEmpty()) {
-                        Object[] row = mbtiMatches.get(0);
-                        List<String> courseList = extractTextArray(row[0]); // courses column
-                        courseNames.addAll(courseList);
-                        logger.debug("Found {} courses from MBTI match", courseList.size());
-                    }
-                } catch (Exception e) {
-                    logger.warn("Error getting MBTI match courses: {}", e.getMessage());
-                }
-            }
-            
-            // If still no match, try RIASEC only
-            if (courseNames.isEmpty()) {
-                try {
-                    List<Object[]> riasecMatches = mappingRepository.fetchAllByRiasec(riasecCode);
-                    if (!riasecMatches.isEmpty()) {
-                        Object[] row = riasecMatches.get(0);
-                        List<String> courseList = extractTextArray(row[0]); // courses column
-                        courseNames.addAll(courseList);
-                        logger.debug("Found {} courses from RIASEC match", courseList.size());
-                    }
-                } catch (Exception e) {
-                    logger.warn("Error getting RIASEC match courses: {}", e.getMessage());
-                }
+            // Exact MBTI + RIASEC, then MBTI only, then RIASEC only - resolved from the in-memory matrix
+            RecommendationMatrixService.Cell cell = recommendationMatrixService.resolve(mbtiType, riasecCode);
+            if (cell != null) {
+                courseNames.addAll(cell.getCourses());
+                logger.debug("Found {} courses from recommendation matrix", courseNames.size());
             }
             
             // Limit to top 6 courses for development plan
@@ -2216,6 +2399,13 @@ public class TestResultService {
             
             logger.debug("Processing {} top courses for development plan", topCourses.size());
             
+            // Resolve every course plan up front (catalog snapshot, or two batch queries)
+            Map<String, com.app.models.CourseDevelopmentPlan> coursePlans = catalogSnapshotService.isLoaded()
+                ? resolveFromCatalog(topCourses, catalogSnapshotService::findCourseDevelopmentPlan)
+                : resolveByNameBatch(topCourses, courseDevelopmentPlanRepository::findByCourseNamesExact,
+                    courseDevelopmentPlanRepository::findByCourseNamesPartial, com.app.models.CourseDevelopmentPlan::getCourse,
+                    com.app.models.CourseDevelopmentPlan::getId);
+            
             // Build course details list
             List<com.app.dto.CourseDevelopmentPlanDTO.CourseDetails> courseDetailsList = new ArrayList<>();
             
@@ -2231,12 +2421,7 @@ public class TestResultService {
                     courseDetails.setDescription(description.orElse("No description available"));
                     
                     // Get development plan data from course_development_plan table
-                    Optional<com.app.models.CourseDevelopmentPlan> developmentPlan = 
-                        courseDevelopmentPlanRepository.findByCourseNameExact(courseName);
-                    
-                    if (!developmentPlan.isPresent()) {
-                        developmentPlan = courseDevelopmentPlanRepository.findByCourseNamePartial(courseName);
-                    }
+                    Optional<com.app.models.CourseDevelopmentPlan> developmentPlan = Optional.ofNullable(coursePlans.get(courseName));
                     
                     if (developmentPlan.isPresent()) {
                         com.app.models.CourseDevelopmentPlan cdp = developmentPlan.get();
@@ -2275,12 +2460,78 @@ public class TestResultService {
             
         } catch (Exception e) {
             logger.error("Error generating course development plan for MBTI: {}, RIASEC: {}", mbtiType, riasecCode, e);
-            // Return empty development plan on error
-            return new com.app.dto.CourseDevelopmentPlanDTO(mbtiType, riasecCode, new ArrayList<>());
+            // The section shows an empty plan; failing here keeps the result out of the snapshot
+            throw new IllegalStateException("Course development plan unavailable", e);
         }
     }
 
 
+    private <T> Map<String, T> resolveFromCatalog(List<String> names, java.util.function.Function<String, Optional<T>> finder) {
+        Map<String, T> resolved = new HashMap<>();
+        for (String name : names) {
+            finder.apply(name).ifPresent(row -> resolved.put(name, row));
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolve rows for several names with one exact IN query and, for whatever is left,
+     * one partial unnest query. Keeps the single-name precedence: an exact (case-insensitive)
+     * match wins, otherwise the lowest-id row whose name contains the requested one.
+     */
+    private <T> Map<String, T> resolveByNameBatch(List<String> names,
+                                                  java.util.function.Function<List<String>, List<T>> exactQuery,
+                                                  java.util.function.Function<List<String>, List<T>> partialQuery,
+                                                  java.util.function.Function<T, String> nameOf,
+                                                  java.util.function.Function<T, Long> idOf) {
+        Map<String, T> resolved = new HashMap<>();
+        if (names == null || names.isEmpty()) {
+            return resolved;
+        }
+        Comparator<T> byId = Comparator.comparing(idOf, Comparator.nullsLast(Comparator.naturalOrder()));
+        
+        // The IN query compares against lower(column), so the parameters must be lower-cased too
+        List<String> lowered = names.stream().map(String::toLowerCase).distinct().collect(Collectors.toList());
+        List<T> exactRows = new ArrayList<>(exactQuery.apply(lowered));
+        exactRows.sort(byId);
+        Map<String, T> exactByName = new HashMap<>();
+        for (T row : exactRows) {
+            String rowName = nameOf.apply(row);
+            if (rowName != null) {
+                exactByName.putIfAbsent(rowName.toLowerCase(), row);
+            }
+        }
+        
+        List<String> unresolved = new ArrayList<>();
+        for (String name : names) {
+            T hit = exactByName.get(name.toLowerCase());
+            if (hit != null) {
+                resolved.put(name, hit);
+            } else {
+                unresolved.add(name);
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return resolved;
+        }
+        
+        List<T> partialRows = new ArrayList<>(partialQuery.apply(unresolved));
+        partialRows.sort(byId);
+        for (String name : unresolved) {
+            String key = name.toLowerCase();
+            for (T row : partialRows) {
+                String rowName = nameOf.apply(row);
+                if (rowName != null && rowName.toLowerCase().contains(key)) {
+                    resolved.put(name, row);
+                    break;
+                }
+            }
+        }
+        logger.debug("Batch-resolved {}/{} names ({} via partial match)", resolved.size(), names.size(),
+            resolved.size() - (names.size() - unresolved.size()));
+        return resolved;
+    }
+
     /**
      * Get all personality test scores for debugging
      */
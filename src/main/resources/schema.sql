@@ -194,4 +194,84 @@ CREATE TABLE IF NOT EXISTS admins (
 );
 
 CREATE INDEX IF NOT EXISTS idx_admins_email ON admins(email);
-CREATE INDEX IF NOT EXISTS idx_admins_username ON admins(username);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_admins_username ON admins(username);
+-- Fully assembled enhanced results, stored once per session and served as-is
+CREATE TABLE IF NOT EXISTS enhanced_result_snapshot (
+    session_id UUID PRIMARY KEY,
+    test_result_id BIGINT NOT NULL,
+    catalog_version VARCHAR(128) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_enhanced_result_snapshot_test_result
+        FOREIGN KEY (test_result_id) REFERENCES test_results(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_enhanced_result_snapshot_test_result_id ON enhanced_result_snapshot(test_result_id);
+
+-- Raw HuggingFace responses keyed by model + prompt hash (second tier behind the in-memory LRU)
+CREATE TABLE IF NOT EXISTS ai_response_cache (
+    cache_key VARCHAR(320) PRIMARY KEY,
+    model VARCHAR(200) NOT NULL,
+    prompt_hash CHAR(64) NOT NULL,
+    version_tag VARCHAR(32) NOT NULL,
+    response_body TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ai_response_cache_expires_at ON ai_response_cache(expires_at);
+
+-- AI rankings and model comparisons computed offline per MBTI x RIASEC combination
+CREATE TABLE IF NOT EXISTS ai_precomputed_result (
+    mbti_type VARCHAR(4) NOT NULL,
+    riasec_code VARCHAR(2) NOT NULL,
+    kind VARCHAR(32) NOT NULL,
+    input_hash CHAR(64) NOT NULL,
+    version_tag VARCHAR(450) NOT NULL,
+    payload JSONB NOT NULL,
+    computed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (mbti_type, riasec_code, kind)
+);
+
+-- AI content validation jobs; at most one queued/running job per session, claimed by workers with SKIP LOCKED
+CREATE TABLE IF NOT EXISTS ai_validation_job (
+    id BIGSERIAL PRIMARY KEY,
+    session_id UUID NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    report JSONB,
+    error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    lease_until TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_ai_validation_job_active_session
+    ON ai_validation_job(session_id) WHERE status IN ('QUEUED', 'RUNNING');
+CREATE INDEX IF NOT EXISTS idx_ai_validation_job_status_created ON ai_validation_job(status, created_at);
+CREATE INDEX IF NOT EXISTS idx_ai_validation_job_session_id ON ai_validation_job(session_id);
+
+-- AI validation verdicts per catalog row (course, career, development_plan), written by the nightly sweep
+CREATE TABLE IF NOT EXISTS ai_catalog_validation (
+    source VARCHAR(32) NOT NULL,
+    row_id BIGINT NOT NULL,
+    item_name TEXT NOT NULL,
+    content_hash CHAR(64) NOT NULL,
+    version_tag VARCHAR(450) NOT NULL,
+    valid BOOLEAN NOT NULL,
+    confidence DOUBLE PRECISION NOT NULL,
+    message TEXT,
+    validated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (source, row_id)
+);
+
+-- Last row id the catalog validation sweep finished per source, so an interrupted sweep resumes there
+CREATE TABLE IF NOT EXISTS ai_catalog_validation_checkpoint (
+    source VARCHAR(32) PRIMARY KEY,
+    last_row_id BIGINT NOT NULL DEFAULT 0,
+    forced BOOLEAN NOT NULL DEFAULT FALSE,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
@@ -0,0 +1,52 @@
+package com.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AiAnalysisContextTest {
+
+    @Test
+    public void testRankingComputedOnceForAllReaders() throws Exception {
+        AiAnalysisContext context = new AiAnalysisContext("ENFJ", "SA", "BS Nursing: Care; BS Psychology: Mind", "Nurse");
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        var first = context.courseRankings(() -> {
+            calls.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(new AiComparisonService.CourseRanking(1, "BS Nursing", 90, "Caring", "ENFJ", "SA"));
+        });
+        var second = context.courseRankings(() -> {
+            calls.incrementAndGet();
+            return List.of();
+        });
+        assertTrue(context.getCompletedCourseRankings().isEmpty());
+        release.countDown();
+
+        assertSame(first.get(), second.get());
+        assertEquals(1, calls.get());
+        assertEquals("BS Nursing", context.getCompletedCourseRankings().get(0).getCourseName());
+        assertEquals(List.of("BS Nursing", "BS Psychology"), context.getCourses());
+    }
+
+    @Test
+    public void testOfferedRankingsAreNotRecomputed() throws Exception {
+        AiAnalysisContext context = new AiAnalysisContext("INTJ", "IR", "BS Physics", "Physicist");
+        List<AiComparisonService.CareerRanking> stored =
+            List.of(new AiComparisonService.CareerRanking(1, "Physicist", 88, "Analytical", "INTJ", "IR"));
+        context.offerCareerRankings(stored);
+
+        assertSame(stored, context.careerRankings(() -> { throw new AssertionError("recomputed"); }).get());
+        context.offerCareerRankings(List.of());
+        assertSame(stored, context.getCompletedCareerRankings());
+    }
+}
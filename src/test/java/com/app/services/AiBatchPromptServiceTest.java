@@ -0,0 +1,62 @@
+package com.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AiBatchPromptServiceTest {
+
+    @Test
+    public void testSplitSectionsByHeader() {
+        String answer = "Sure, here you go.\n"
+            + "### COURSE_RANKING\n1|BS Nursing|90|Caring\n\n"
+            + "## CAREER_ANALYSIS:\nNurse|88|Caring fit\nTeacher|80|Patient explainer\n";
+
+        Map<String, String> sections = AiBatchPromptService.splitSections(answer);
+
+        assertEquals(2, sections.size());
+        assertEquals("1|BS Nursing|90|Caring", sections.get("COURSE_RANKING"));
+        assertEquals("Nurse|88|Caring fit\nTeacher|80|Patient explainer", sections.get("CAREER_ANALYSIS"));
+        assertTrue(AiBatchPromptService.splitSections("1|BS Nursing|90|Caring").isEmpty());
+        assertTrue(AiBatchPromptService.splitSections(null).isEmpty());
+    }
+
+    @Test
+    public void testCombinedPromptRoundTripsThroughStub() {
+        Map<String, String> tasks = new LinkedHashMap<>();
+        tasks.put(AiBatchPromptService.COURSE_RANKING, "Format: RANK|COURSE_NAME|SCORE|REASON\n1. BS Nursing\n2. BS Psychology\n");
+        tasks.put(AiBatchPromptService.COURSE_ANALYSIS, "CourseName|Score|Brief assessment\n1. BS Nursing\n2. BS Psychology\n");
+        String prompt = AiBatchPromptService.buildCombinedPrompt("ENFJ", "SAE", tasks);
+
+        Map<String, String> sections = AiBatchPromptService.splitSections(
+            HuggingFaceStubServer.generateText("model", prompt));
+
+        assertEquals(tasks.keySet(), sections.keySet());
+        assertTrue(sections.get(AiBatchPromptService.COURSE_RANKING).startsWith("1|"));
+        assertEquals(2, sections.get(AiBatchPromptService.COURSE_ANALYSIS).lines().count());
+    }
+
+    @Test
+    public void testTasksSplitToFitContextWindow() {
+        Map<String, String> tasks = new LinkedHashMap<>();
+        tasks.put(AiBatchPromptService.COURSE_RANKING, "Rank these courses.\n" + "x".repeat(900));
+        tasks.put(AiBatchPromptService.CAREER_RANKING, "Rank these careers.\n" + "y".repeat(900));
+
+        // Both fit a 2048-token window with room to answer; a 1024-token window takes one per prompt
+        assertEquals(1, AiBatchPromptService.packTasks("ENFJ", "SAE", tasks, 2048, 256).size());
+        List<Map<String, String>> prompts = AiBatchPromptService.packTasks("ENFJ", "SAE", tasks, 1024, 256);
+        assertEquals(2, prompts.size());
+        assertEquals(List.of(AiBatchPromptService.COURSE_RANKING), List.copyOf(prompts.get(0).keySet()));
+
+        // The output budget is what the prompt leaves of the window, capped at max-new-tokens
+        String prompt = AiBatchPromptService.buildCombinedPrompt("ENFJ", "SAE", prompts.get(0));
+        int budget = AiBatchPromptService.outputBudget(prompt, 1024, 1024);
+        assertEquals(1024 - AiBatchPromptService.estimateTokens(prompt), budget);
+        assertTrue(budget >= 256);
+        assertEquals(200, AiBatchPromptService.outputBudget(prompt, 4096, 200));
+    }
+}
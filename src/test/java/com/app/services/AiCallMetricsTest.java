@@ -0,0 +1,37 @@
+package com.app.services;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AiCallMetricsTest {
+
+    @Test
+    public void testOutcomeForStatus() {
+        assertEquals(AiCallMetrics.SUCCESS, AiCallMetrics.outcomeForStatus(200));
+        assertEquals(AiCallMetrics.LOADING, AiCallMetrics.outcomeForStatus(503));
+        assertEquals(AiCallMetrics.RATE_LIMITED, AiCallMetrics.outcomeForStatus(429));
+        assertEquals(AiCallMetrics.AUTH, AiCallMetrics.outcomeForStatus(401));
+        assertEquals(AiCallMetrics.SERVER_ERROR, AiCallMetrics.outcomeForStatus(502));
+        assertEquals(AiCallMetrics.CLIENT_ERROR, AiCallMetrics.outcomeForStatus(404));
+    }
+
+    @Test
+    public void testCallsAreTaggedByModelTaskAndOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiCallMetrics metrics = new AiCallMetrics(registry);
+
+        metrics.recordCall("gpt", "text_generation", AiCallMetrics.SUCCESS, 2_000_000);
+        metrics.recordCall("gpt", "text_generation", AiCallMetrics.SUCCESS, 4_000_000);
+        metrics.recordCall("gpt", "text_generation", AiCallMetrics.TIMEOUT, 9_000_000);
+        metrics.recordRequestSize("gpt", "text_generation", 512);
+
+        Timer success = registry.get("huggingface.api.calls")
+            .tags("model", "gpt", "task", "text_generation", "outcome", "success").timer();
+        assertEquals(2, success.count());
+        assertEquals(1, registry.get("huggingface.api.calls").tag("outcome", "timeout").timer().count());
+        assertEquals(512.0, registry.get("huggingface.api.request.size").summary().totalAmount());
+    }
+}
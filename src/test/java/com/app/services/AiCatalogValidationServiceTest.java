@@ -0,0 +1,55 @@
+package com.app.services;
+
+import com.app.services.AiCatalogValidationService.RowOutcome;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AiCatalogValidationServiceTest {
+
+    private static final List<Long> PAGE = List.of(11L, 12L, 13L, 14L);
+
+    @Test
+    public void testCompletePageMovesCheckpointToItsLastRow() {
+        Long checkpoint = AiCatalogValidationService.checkpointAfterPage(10L, PAGE,
+            List.of(RowOutcome.STORED, RowOutcome.SKIPPED, RowOutcome.STORED, RowOutcome.SKIPPED), false);
+
+        assertEquals(14L, checkpoint);
+    }
+
+    @Test
+    public void testStopThenResumeValidatesTheRestOfThePage() {
+        // Stopped after two rows: the checkpoint stays before the page
+        assertNull(AiCatalogValidationService.checkpointAfterPage(10L, PAGE,
+            List.of(RowOutcome.STORED, RowOutcome.STORED, RowOutcome.STOPPED, RowOutcome.STOPPED), true));
+
+        // Resume walks the page again: the first two are unchanged since their verdict, the rest get one
+        Long resumed = AiCatalogValidationService.checkpointAfterPage(10L, PAGE,
+            List.of(RowOutcome.SKIPPED, RowOutcome.SKIPPED, RowOutcome.STORED, RowOutcome.STORED), false);
+        assertEquals(14L, resumed);
+    }
+
+    @Test
+    public void testStopRequestedAfterLastRowStillHoldsCheckpoint() {
+        assertNull(AiCatalogValidationService.checkpointAfterPage(10L, PAGE,
+            List.of(RowOutcome.STORED, RowOutcome.STORED, RowOutcome.STORED, RowOutcome.STORED), true));
+    }
+
+    @Test
+    public void testCircuitOpeningMidPageHoldsCheckpoint() {
+        assertNull(AiCatalogValidationService.checkpointAfterPage(10L, PAGE,
+            List.of(RowOutcome.STORED, RowOutcome.UNAVAILABLE, RowOutcome.UNAVAILABLE, RowOutcome.STORED), false));
+    }
+
+    @Test
+    public void testFailedRowIsNeverPagedPast() {
+        Long checkpoint = AiCatalogValidationService.checkpointAfterPage(10L, PAGE,
+            List.of(RowOutcome.STORED, RowOutcome.FAILED, RowOutcome.STORED, RowOutcome.STORED), false);
+
+        assertEquals(11L, checkpoint);
+        assertEquals(10L, AiCatalogValidationService.checkpointAfterPage(10L, PAGE,
+            List.of(RowOutcome.FAILED, RowOutcome.STORED, RowOutcome.STORED, RowOutcome.STORED), false));
+    }
+}
@@ -0,0 +1,82 @@
+package com.app.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AiQuotaGovernorTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testInteractiveServedBeforeQueuedBackground() {
+        AtomicLong now = new AtomicLong(0);
+        // One token per second, bucket of two
+        AiQuotaGovernor governor = new AiQuotaGovernor(60, 2, 0.0, 10, scheduler, now::get);
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        governor.submit(AiQuotaGovernor.Lane.INTERACTIVE, () -> started.add("i1"), () -> false);
+        governor.submit(AiQuotaGovernor.Lane.INTERACTIVE, () -> started.add("i2"), () -> false);
+        governor.submit(AiQuotaGovernor.Lane.BACKGROUND, () -> started.add("b1"), () -> false);
+        governor.submit(AiQuotaGovernor.Lane.INTERACTIVE, () -> started.add("i3"), () -> false);
+        assertEquals(List.of("i1", "i2"), started);
+        assertEquals(1, governor.getQueued(AiQuotaGovernor.Lane.BACKGROUND));
+
+        now.set(1000);
+        governor.drain();
+        assertEquals(List.of("i1", "i2", "i3"), started);
+        assertEquals(1, governor.getQueued(AiQuotaGovernor.Lane.BACKGROUND));
+    }
+
+    @Test
+    public void testBackgroundYieldsToInteractiveDemand() {
+        AtomicLong now = new AtomicLong(0);
+        AiQuotaGovernor governor = new AiQuotaGovernor(60, 10, 0.0, 10, scheduler, now::get);
+        assertFalse(governor.isBackgroundYielding());
+        assertTrue(governor.tryAcquire(AiQuotaGovernor.Lane.BACKGROUND));
+
+        for (int i = 0; i < 7; i++) {
+            governor.submit(AiQuotaGovernor.Lane.INTERACTIVE, () -> { }, () -> false);
+        }
+        // Two tokens left, but recent interactive demand reserves more than one of them
+        assertTrue(governor.isBackgroundYielding());
+        assertFalse(governor.tryAcquire(AiQuotaGovernor.Lane.BACKGROUND));
+        assertTrue(governor.tryAcquire(AiQuotaGovernor.Lane.INTERACTIVE));
+
+        // Demand fades and the bucket refills
+        now.set(600000);
+        assertFalse(governor.isBackgroundYielding());
+        assertTrue(governor.tryAcquire(AiQuotaGovernor.Lane.BACKGROUND));
+    }
+
+    @Test
+    public void testThrottledPausesUntilRetryAfterAndSkipsAbandoned() {
+        AtomicLong now = new AtomicLong(0);
+        AiQuotaGovernor governor = new AiQuotaGovernor(60, 5, 0.0, 10, scheduler, now::get);
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        governor.onThrottled(5000);
+        governor.submit(AiQuotaGovernor.Lane.INTERACTIVE, () -> started.add("gone"), () -> true);
+        governor.submit(AiQuotaGovernor.Lane.INTERACTIVE, () -> started.add("kept"), () -> false);
+        now.set(4000);
+        governor.drain();
+        assertTrue(started.isEmpty());
+
+        now.set(6000);
+        governor.drain();
+        assertEquals(List.of("kept"), started);
+        assertEquals(1L, governor.getStats().get("throttled"));
+    }
+}
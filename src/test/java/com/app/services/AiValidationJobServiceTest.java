@@ -0,0 +1,311 @@
+package com.app.services;
+
+import com.app.models.TestResult;
+import com.app.repositories.TestResultRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AiValidationJobServiceTest {
+
+    private static final long LEASE_MS = 1000;
+
+    private final JobTable table = new JobTable();
+    private final Set<UUID> sessions = new HashSet<>();
+
+    @Test
+    public void testEnqueueReturnsTheActiveJobForASession() {
+        UUID session = session();
+        AiValidationJobService service = instance(1, 3, new HeldWorkers());
+
+        long jobId = (Long) service.enqueue(session, false).orElseThrow().get("jobId");
+
+        assertEquals(jobId, service.enqueue(session, false).orElseThrow().get("jobId"));
+        // Forcing while a job is queued or running still never adds a second one
+        assertEquals(jobId, service.enqueue(session, true).orElseThrow().get("jobId"));
+        assertEquals(1, table.rows.size());
+    }
+
+    @Test
+    public void testFinishedReportIsReusedUnlessForced() {
+        UUID session = session();
+        AiValidationJobService service = instance(1, 3, new HeldWorkers());
+        long jobId = (Long) service.enqueue(session, false).orElseThrow().get("jobId");
+        table.row(jobId).status = AiValidationJobService.DONE;
+
+        assertEquals(jobId, service.enqueue(session, false).orElseThrow().get("jobId"));
+        assertNotEquals(jobId, service.enqueue(session, true).orElseThrow().get("jobId"));
+        assertEquals(2, table.rows.size());
+    }
+
+    @Test
+    public void testUnknownSessionIsNotQueued() {
+        AiValidationJobService service = instance(1, 3, new HeldWorkers());
+
+        assertTrue(service.enqueue(UUID.randomUUID(), false).isEmpty());
+        assertTrue(table.rows.isEmpty());
+    }
+
+    @Test
+    public void testClaimsNoMoreJobsThanIdleWorkers() {
+        HeldWorkers workers = new HeldWorkers();
+        AiValidationJobService service = instance(2, 3, workers);
+
+        service.enqueue(session(), false);
+        service.enqueue(session(), false);
+        service.enqueue(session(), false);
+        service.poll();
+
+        assertEquals(2, workers.tasks.size());
+        assertEquals(List.of("RUNNING", "RUNNING", "QUEUED"), table.statuses());
+        assertEquals(List.of(1, 1, 0), table.attempts());
+    }
+
+    @Test
+    public void testExpiredLeaseIsClaimedAgain() {
+        UUID session = session();
+        instance(1, 3, new HeldWorkers()).enqueue(session, false);
+        // The first instance dies with the job RUNNING; another one picks it up once the lease is over
+        AiValidationJobService other = instance(1, 3, new HeldWorkers());
+
+        other.poll();
+        assertEquals(List.of(1), table.attempts());
+
+        table.now += LEASE_MS + 1;
+        other.poll();
+        assertEquals(List.of("RUNNING"), table.statuses());
+        assertEquals(List.of(2), table.attempts());
+    }
+
+    @Test
+    public void testExpiredLeaseGivesUpAfterMaxAttempts() {
+        UUID session = session();
+        instance(1, 2, new HeldWorkers()).enqueue(session, false);
+        table.now += LEASE_MS + 1;
+        instance(1, 2, new HeldWorkers()).poll();
+        table.now += LEASE_MS + 1;
+
+        AiValidationJobService last = instance(1, 2, new HeldWorkers());
+        last.poll();
+
+        Map<String, Object> job = last.findLatestForSession(session).orElseThrow();
+        assertEquals(AiValidationJobService.FAILED, job.get("status"));
+        assertEquals(2, job.get("attempts"));
+        assertEquals("Gave up after 2 attempts", job.get("error"));
+    }
+
+    private UUID session() {
+        UUID session = UUID.randomUUID();
+        sessions.add(session);
+        return session;
+    }
+
+    private AiValidationJobService instance(int workers, int maxAttempts, HeldWorkers pool) {
+        return new AiValidationJobService(table, repository(), pool, workers, maxAttempts, LEASE_MS);
+    }
+
+    private TestResultRepository repository() {
+        return (TestResultRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {TestResultRepository.class}, (proxy, method, args) -> {
+                if (method.getName().equals("findBySessionId")) {
+                    if (!sessions.contains(args[0])) {
+                        return Optional.empty();
+                    }
+                    TestResult result = new TestResult();
+                    result.setSessionId((UUID) args[0]);
+                    return Optional.of(result);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    /**
+     * Workers that never finish: claimed jobs stay RUNNING with their lease, like on an instance that died.
+     */
+    private static class HeldWorkers extends AbstractExecutorService {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return tasks;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+
+    /**
+     * In-memory ai_validation_job with the semantics of the service's statements: the partial unique
+     * index on active sessions, claiming queued or lease-expired jobs oldest first, and giving up on
+     * expired jobs out of attempts. CURRENT_TIMESTAMP is the table's own clock.
+     */
+    private static class JobTable extends JdbcTemplate {
+        final List<Job> rows = new ArrayList<>();
+        long now = 1_000_000;
+        private long nextId = 1;
+
+        Job row(long id) {
+            return rows.stream().filter(job -> job.id == id).findFirst().orElseThrow();
+        }
+
+        List<String> statuses() {
+            return rows.stream().map(job -> job.status).toList();
+        }
+
+        List<Integer> attempts() {
+            return rows.stream().map(job -> job.attempts).toList();
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            if (sql.equals(AiValidationJobService.ENQUEUE_SQL)) {
+                if (rows.stream().anyMatch(job -> job.sessionId.equals(args[0]) && job.active())) {
+                    return 0;
+                }
+                rows.add(new Job(nextId++, (UUID) args[0], now));
+                return 1;
+            }
+            if (sql.equals(AiValidationJobService.EXPIRE_SQL)) {
+                int expired = 0;
+                for (Job job : rows) {
+                    if (job.leaseExpired(now) && job.attempts >= (Integer) args[0]) {
+                        job.status = AiValidationJobService.FAILED;
+                        job.finishedAt = now;
+                        job.leaseUntil = null;
+                        job.error = "Gave up after " + job.attempts + " attempts";
+                        expired++;
+                    }
+                }
+                return expired;
+            }
+            if (sql.equals(AiValidationJobService.FINISH_SQL)) {
+                Job job = row((Long) args[4]);
+                job.status = (String) args[0];
+                job.report = (String) args[1];
+                job.error = (String) args[2];
+                job.leaseUntil = null;
+                job.finishedAt = AiValidationJobService.QUEUED.equals(args[3]) ? null : now;
+                return 1;
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            List<Job> selected;
+            if (sql.equals(AiValidationJobService.CLAIM_SQL)) {
+                selected = rows.stream()
+                    .filter(job -> (AiValidationJobService.QUEUED.equals(job.status) || job.leaseExpired(now))
+                        && job.attempts < (Integer) args[1])
+                    .sorted(Comparator.comparingLong(job -> job.createdAt))
+                    .limit((Integer) args[2])
+                    .toList();
+                for (Job job : selected) {
+                    job.status = AiValidationJobService.RUNNING;
+                    job.attempts++;
+                    job.startedAt = now;
+                    job.leaseUntil = now + (Long) args[0];
+                }
+            } else if (sql.contains("WHERE session_id = ? ORDER BY id DESC LIMIT 1")) {
+                selected = rows.stream()
+                    .filter(job -> job.sessionId.equals(args[0]))
+                    .max(Comparator.comparingLong(job -> job.id))
+                    .stream().toList();
+            } else if (sql.contains("WHERE id = ?")) {
+                selected = rows.stream().filter(job -> job.id == (Long) args[0]).toList();
+            } else {
+                throw new UnsupportedOperationException(sql);
+            }
+            List<T> mapped = new ArrayList<>();
+            try {
+                for (int i = 0; i < selected.size(); i++) {
+                    mapped.add(rowMapper.mapRow(selected.get(i).resultSet(), i));
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return mapped;
+        }
+    }
+
+    private static class Job {
+        final long id;
+        final UUID sessionId;
+        final long createdAt;
+        String status = AiValidationJobService.QUEUED;
+        int attempts;
+        String report;
+        String error;
+        Long startedAt;
+        Long finishedAt;
+        Long leaseUntil;
+
+        Job(long id, UUID sessionId, long createdAt) {
+            this.id = id;
+            this.sessionId = sessionId;
+            this.createdAt = createdAt;
+        }
+
+        boolean active() {
+            return AiValidationJobService.QUEUED.equals(status) || AiValidationJobService.RUNNING.equals(status);
+        }
+
+        boolean leaseExpired(long now) {
+            return AiValidationJobService.RUNNING.equals(status) && leaseUntil != null && leaseUntil < now;
+        }
+
+        ResultSet resultSet() {
+            Map<String, Object> columns = new HashMap<>();
+            columns.put("id", id);
+            columns.put("session_id", sessionId);
+            columns.put("status", status);
+            columns.put("attempts", attempts);
+            columns.put("report", report);
+            columns.put("error", error);
+            columns.put("created_at", new Timestamp(createdAt));
+            columns.put("started_at", startedAt != null ? new Timestamp(startedAt) : null);
+            columns.put("finished_at", finishedAt != null ? new Timestamp(finishedAt) : null);
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> {
+                    Object value = columns.get((String) args[0]);
+                    return switch (method.getName()) {
+                        case "getLong" -> value != null ? (Long) value : 0L;
+                        case "getInt" -> value != null ? (Integer) value : 0;
+                        case "getString", "getTimestamp", "getObject" -> value;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CourseAliasServiceTest {
+
+    private static Map.Entry<String, String> row(String name, String description) {
+        return new AbstractMap.SimpleImmutableEntry<>(name, description);
+    }
+
+    @Test
+    public void testDegreePrefixVariantsResolveToSameDescription() {
+        CourseAliasService.Resolver resolver = CourseAliasService.Resolver.build(List.of(
+            row("BS Computer Science", "catalog-cs")
+        ));
+
+        assertEquals("catalog-cs", resolver.resolve("BS Computer Science").description);
+        assertEquals("catalog-cs", resolver.resolve("Bachelor of Science in Computer Science").description);
+        assertEquals("catalog-cs", resolver.resolve("B.S. Computer Science").description);
+        assertEquals("catalog-cs", resolver.resolve("computer science").description);
+    }
+
+    @Test
+    public void testPrefixAndTokenMatchesAreDeterministic() {
+        CourseAliasService.Resolver resolver = CourseAliasService.Resolver.build(List.of(
+            row("BS Hospitality Management", "catalog-hm")
+        ));
+
+        assertEquals(CourseAliasService.Resolver.Tier.PREFIX, resolver.resolve("Hospitality Management").tier);
+        assertEquals("catalog-hm", resolver.resolve("Hospitality Management").description);
+
+        // Word-order and extra-word variants fall through to the token index
+        CourseAliasService.Resolver.Match token = resolver.resolve("BS Management, Hospitality");
+        assertEquals(CourseAliasService.Resolver.Tier.TOKEN, token.tier);
+        assertEquals("catalog-hm", token.description);
+
+        assertEquals(CourseAliasService.Resolver.Tier.MISS, resolver.resolve("Underwater Basket Weaving").tier);
+    }
+
+    @Test
+    public void testOnlyCatalogRowsAreResolved() {
+        CourseAliasService.Resolver resolver = CourseAliasService.Resolver.build(List.of(
+            row("BS Nursing", "catalog-nursing")
+        ));
+
+        // Names the catalog doesn't cover miss, so the caller's personality-aware description is used
+        assertEquals(CourseAliasService.Resolver.Tier.MISS, resolver.resolve("Civil Engineering").tier);
+        assertEquals(CourseAliasService.Resolver.Tier.MISS, resolver.resolve("Computer Science").tier);
+        assertEquals(1, resolver.size());
+    }
+}
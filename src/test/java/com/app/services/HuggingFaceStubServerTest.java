@@ -0,0 +1,57 @@
+package com.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HuggingFaceStubServerTest {
+
+    private static HuggingFaceStubServer.Settings latency(String distribution, long min, long max, long median, double sigma) {
+        return new HuggingFaceStubServer.Settings(distribution, min, max, median, sigma, 0, 0, 0, 0, 0, 1);
+    }
+
+    @Test
+    public void testRankingPromptGetsOneParseableLinePerItem() {
+        String prompt = "Task: Analyze and rank these courses from BEST to WORST fit for this personality:\n\n"
+            + "1. BS Computer Science\n2. BS Psychology\n3. BS Accountancy\n\n"
+            + "Format: RANK|COURSE_NAME|SCORE|REASON\n";
+
+        String[] lines = HuggingFaceStubServer.generateText("model-a", prompt).split("\n");
+
+        assertEquals(3, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            String[] parts = lines[i].split("\\|");
+            assertEquals(4, parts.length);
+            assertEquals(i + 1, Integer.parseInt(parts[0]));
+            double score = Double.parseDouble(parts[2]);
+            assertTrue(score >= 60 && score <= 95);
+        }
+        assertEquals(HuggingFaceStubServer.generateText("model-a", prompt), HuggingFaceStubServer.generateText("model-a", prompt));
+    }
+
+    @Test
+    public void testComparisonPromptUsesNameScoreAssessmentFormat() {
+        String prompt = "IMPORTANT: Use EXACT format below:\nCareerName|Score|Brief market analysis\n\n"
+            + "Careers to analyze:\n1. Software Engineer\n2. Teacher\n";
+
+        String[] lines = HuggingFaceStubServer.generateText("model-b", prompt).split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("Software Engineer|"));
+        assertTrue(lines[1].startsWith("Teacher|"));
+    }
+
+    @Test
+    public void testLatencyDistributions() {
+        Random random = new Random(42);
+        assertEquals(250, HuggingFaceStubServer.sampleLatency(latency("fixed", 250, 0, 0, 0), random));
+        for (int i = 0; i < 100; i++) {
+            long uniform = HuggingFaceStubServer.sampleLatency(latency("uniform", 100, 200, 0, 0), random);
+            assertTrue(uniform >= 100 && uniform <= 200);
+            long lognormal = HuggingFaceStubServer.sampleLatency(latency("lognormal", 0, 900, 500, 2.0), random);
+            assertTrue(lognormal >= 0 && lognormal <= 900);
+        }
+    }
+}
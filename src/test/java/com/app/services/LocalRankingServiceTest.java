@@ -0,0 +1,64 @@
+package com.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalRankingServiceTest {
+
+    private LocalRankingService service() {
+        LocalRankingService service = new LocalRankingService();
+        service.rebuild(
+            List.of(
+                Map.entry("BS Nursing", "Caring for patients and supporting community health and welfare"),
+                Map.entry("BS Accountancy", "Recording, auditing and organizing financial documents by procedure"),
+                Map.entry("BS Physics", "Research and experiments in theoretical science and mathematics")),
+            List.of(Map.entry("Nurse", "Helping patients and caring for people in health services")));
+        return service;
+    }
+
+    @Test
+    public void testCoursesRankedByTraitFit() {
+        List<AiComparisonService.CourseRanking> rankings =
+            service().rankCourses("ENFJ", "SA", "BS Accountancy; BS Physics; BS Nursing");
+
+        assertEquals(3, rankings.size());
+        assertEquals("BS Nursing", rankings.get(0).getCourseName());
+        assertEquals(1, rankings.get(0).getRank());
+        assertTrue(rankings.get(0).getMatchReason().startsWith("Social themes"));
+        for (int i = 1; i < rankings.size(); i++) {
+            assertTrue(rankings.get(i - 1).getMatchScore() >= rankings.get(i).getMatchScore());
+        }
+        // Local output is never mistaken for the model's answer
+        assertTrue(rankings.stream().allMatch(AiComparisonService.CourseRanking::isFallback));
+    }
+
+    @Test
+    public void testMeasuredPercentagesOverrideTypeCodes() {
+        // Same codes as above, but the scores say the student leans investigative and thinking
+        Map<String, Double> mbti = Map.of("E", 45.0, "I", 55.0, "S", 20.0, "N", 80.0,
+            "T", 90.0, "F", 10.0, "J", 50.0, "P", 50.0);
+        Map<String, Double> riasec = Map.of("R", 30.0, "I", 95.0, "A", 40.0,
+            "S", 15.0, "E", 20.0, "C", 25.0);
+        List<AiComparisonService.CourseRanking> rankings =
+            service().rankCourses("ENFJ", "SA", "BS Accountancy; BS Physics; BS Nursing", mbti, riasec);
+
+        assertEquals("BS Physics", rankings.get(0).getCourseName());
+    }
+
+    @Test
+    public void testUnknownNamesStillRanked() {
+        List<AiComparisonService.CareerRanking> rankings =
+            service().rankCareers("INTP", "IR", "Nurse; Quantum Widget Maker: builds machines");
+
+        assertEquals(2, rankings.size());
+        for (AiComparisonService.CareerRanking ranking : rankings) {
+            assertTrue(ranking.getMatchScore() >= 50 && ranking.getMatchScore() <= 98);
+            assertNotNull(ranking.getMatchReason());
+        }
+        assertTrue(service().rankCareers("INTP", "IR", "").isEmpty());
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelBulkheadTest {
+
+    @Test
+    public void testQueuesBeyondLimitAndRejectsWhenQueueIsFull() {
+        ModelBulkhead bulkhead = new ModelBulkhead("model", 2, 1);
+        List<String> started = new ArrayList<>();
+
+        assertTrue(bulkhead.submit(() -> started.add("a")));
+        assertTrue(bulkhead.submit(() -> started.add("b")));
+        assertTrue(bulkhead.submit(() -> started.add("c")));
+        assertFalse(bulkhead.submit(() -> started.add("d")));
+
+        assertEquals(List.of("a", "b"), started);
+        assertEquals(2, bulkhead.getActive());
+        assertEquals(1, bulkhead.getQueued());
+        assertEquals(1L, bulkhead.getStats().get("rejected"));
+    }
+
+    @Test
+    public void testReleaseHandsSlotToNextQueuedAction() {
+        ModelBulkhead bulkhead = new ModelBulkhead("model", 1, 5);
+        List<String> started = new ArrayList<>();
+
+        bulkhead.submit(() -> started.add("a"));
+        bulkhead.submit(() -> started.add("b"));
+        assertEquals(List.of("a"), started);
+
+        bulkhead.release();
+        assertEquals(List.of("a", "b"), started);
+        assertEquals(1, bulkhead.getActive());
+        assertEquals(0, bulkhead.getQueued());
+
+        bulkhead.release();
+        assertEquals(0, bulkhead.getActive());
+    }
+}
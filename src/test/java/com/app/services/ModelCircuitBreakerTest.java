@@ -0,0 +1,67 @@
+package com.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelCircuitBreakerTest {
+
+    @Test
+    public void testOpensAfterThresholdAndLetsOneProbeThroughAfterOpenPeriod() {
+        AtomicLong now = new AtomicLong(0);
+        ModelCircuitBreaker breaker = new ModelCircuitBreaker(3, 1000, now::get);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(ModelCircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onFailure();
+        assertEquals(ModelCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        now.set(1000);
+        assertTrue(breaker.isCallPermitted());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(ModelCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(ModelCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testFailedProbeReopensCircuit() {
+        AtomicLong now = new AtomicLong(0);
+        ModelCircuitBreaker breaker = new ModelCircuitBreaker(1, 500, now::get);
+
+        breaker.onFailure();
+        now.set(600);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(ModelCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isCallPermitted());
+        now.set(1100);
+        assertTrue(breaker.isCallPermitted());
+    }
+
+    @Test
+    public void testBackoffIsJitteredAndCapped() {
+        assertEquals(1000, HuggingFaceApiService.backoffDelay(0, 2000, 30000, 0.0));
+        assertEquals(2000, HuggingFaceApiService.backoffDelay(0, 2000, 30000, 1.0));
+        assertEquals(4000, HuggingFaceApiService.backoffDelay(2, 2000, 30000, 0.0));
+        assertEquals(30000, HuggingFaceApiService.backoffDelay(10, 2000, 30000, 1.0));
+    }
+
+    @Test
+    public void testRetryAfterAcceptsSecondsAndHttpDates() {
+        assertEquals(5000, HuggingFaceApiService.parseRetryAfter("5", 0));
+        assertEquals(-1, HuggingFaceApiService.parseRetryAfter(null, 0));
+        assertEquals(-1, HuggingFaceApiService.parseRetryAfter("soon", 0));
+        long now = java.time.ZonedDateTime.parse("Wed, 21 Oct 2015 07:28:00 GMT",
+            java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        assertEquals(3000, HuggingFaceApiService.parseRetryAfter("Wed, 21 Oct 2015 07:28:03 GMT", now));
+    }
+}
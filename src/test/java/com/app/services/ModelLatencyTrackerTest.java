@@ -0,0 +1,50 @@
+package com.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelLatencyTrackerTest {
+
+    @Test
+    public void testP95AndDeadlineFromRollingWindow() {
+        ModelLatencyTracker tracker = new ModelLatencyTracker(100, 10, 0.05, 5);
+        assertEquals(-1, tracker.p95());
+        assertEquals(60000, tracker.deadlineMs(3.0, 5000, 60000));
+
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i * 10);
+        }
+        assertEquals(950, tracker.p95());
+        assertEquals(5000, tracker.deadlineMs(3.0, 5000, 60000));
+        assertEquals(2850, tracker.deadlineMs(3.0, 1000, 60000));
+
+        // Older samples roll out of the window
+        for (int i = 0; i < 100; i++) {
+            tracker.record(4000);
+        }
+        assertEquals(4000, tracker.p95());
+        assertEquals(10000, tracker.deadlineMs(3.0, 1000, 10000));
+    }
+
+    @Test
+    public void testHedgeBudgetIsEarnedByPrimaryAttempts() {
+        ModelLatencyTracker tracker = new ModelLatencyTracker(10, 1, 0.25, 2);
+        assertFalse(tracker.tryHedge());
+
+        for (int i = 0; i < 4; i++) {
+            tracker.onPrimaryAttempt();
+        }
+        assertTrue(tracker.tryHedge());
+        assertFalse(tracker.tryHedge());
+
+        for (int i = 0; i < 100; i++) {
+            tracker.onPrimaryAttempt();
+        }
+        assertTrue(tracker.tryHedge());
+        assertTrue(tracker.tryHedge());
+        assertFalse(tracker.tryHedge());
+        assertEquals(3L, tracker.getStats().get("hedgesSent"));
+        assertEquals(3L, tracker.getStats().get("hedgesDenied"));
+    }
+}
@@ -0,0 +1,21 @@
+package com.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OnDemandRetryTest {
+
+    @Test
+    public void testOneRetryPerInterval() {
+        OnDemandRetry retry = new OnDemandRetry();
+
+        assertTrue(retry.tryAcquire(1_000, 30_000));
+        // Everyone else within the interval goes without
+        assertFalse(retry.tryAcquire(1_001, 30_000));
+        assertFalse(retry.tryAcquire(30_999, 30_000));
+
+        assertTrue(retry.tryAcquire(31_000, 30_000));
+        assertFalse(retry.tryAcquire(31_000, 30_000));
+    }
+}
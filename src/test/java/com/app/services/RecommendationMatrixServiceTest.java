@@ -0,0 +1,59 @@
+package com.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecommendationMatrixServiceTest {
+
+    private static RecommendationMatrixService.MappingRow row(String mbti, String riasec, String course, String career) {
+        return new RecommendationMatrixService.MappingRow(mbti, riasec,
+            course == null ? Collections.emptyList() : List.of(course),
+            career == null ? Collections.emptyList() : List.of(career),
+            null);
+    }
+
+    @Test
+    public void testFallbackOrderMatchesQueryChain() {
+        RecommendationMatrixService.Matrix matrix = RecommendationMatrixService.Matrix.build(Arrays.asList(
+            row("INTJ", "IA", "BS Computer Science", null),
+            row("INTJ", "IR", "BS Physics", "Physicist"),
+            row("ENFP", "AS", "BA Communication", "Writer")
+        ), "sig");
+
+        // Exact row wins even when one of its arrays is empty
+        RecommendationMatrixService.Cell exact = matrix.cell("INTJ", "IA");
+        assertEquals("BS Computer Science", exact.getPrimaryRow().getCourses().get(0));
+
+        // Development plans skip empty arrays and keep walking the chain (MBTI row has no careers)
+        assertEquals(List.of("Writer"), matrix.cell("INTJ", "AS").getCareers());
+
+        // MBTI-only fallback uses the lowest id for that type
+        assertEquals(List.of("BS Computer Science"), matrix.cell("INTJ", "EC").getCourses());
+
+        // RIASEC-only fallback
+        assertEquals(List.of("BA Communication"), matrix.cell("ISFJ", "AS").getCourses());
+
+        // No match at all
+        assertNull(matrix.cell("ISFJ", "RC").getPrimaryRow());
+    }
+
+    @Test
+    public void testRenderedPathsAreMemoized() {
+        RecommendationMatrixService.Matrix matrix = RecommendationMatrixService.Matrix.build(
+            List.of(row("INTJ", "IA", "BS Computer Science", "Developer")), "sig");
+        RecommendationMatrixService.Cell cell = matrix.cell("INTJ", "IA");
+
+        int[] calls = {0};
+        String first = cell.getCoursePath(() -> { calls[0]++; return "rendered"; });
+        String second = cell.getCoursePath(() -> { calls[0]++; return "other"; });
+
+        assertEquals("rendered", first);
+        assertEquals("rendered", second);
+        assertEquals(1, calls[0]);
+    }
+}